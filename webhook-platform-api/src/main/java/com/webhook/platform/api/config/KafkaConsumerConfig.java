@@ -0,0 +1,65 @@
+package com.webhook.platform.api.config;
+
+import com.webhook.platform.api.service.alerting.AlertRuleEngine;
+import com.webhook.platform.common.dto.DeliveryOutcomeMessage;
+import com.webhook.platform.common.kafka.DualFormatDeserializer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Consumer for {@code deliveries.outcomes}, the only topic the API reads. One listener
+ * thread per instance: alert rule state is per project and must be touched by one thread.
+ */
+@Configuration
+@EnableKafka
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${app.alerts.engine.group-id:alert-engine}")
+    private String groupId;
+
+    @Value("${app.alerts.engine.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Bean
+    public ConsumerFactory<String, DeliveryOutcomeMessage> alertOutcomeConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, DualFormatDeserializer.class);
+        // A new group starts at the present: past outcomes are covered by the checkpoints
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.webhook.platform.common.dto");
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, DeliveryOutcomeMessage.class.getName());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DeliveryOutcomeMessage> alertOutcomeListenerContainerFactory(
+            AlertRuleEngine alertRuleEngine) {
+        ConcurrentKafkaListenerContainerFactory<String, DeliveryOutcomeMessage> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(alertOutcomeConsumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(1);
+        // Checkpoints and drops rule states of partitions moving to another instance
+        factory.getContainerProperties().setConsumerRebalanceListener(alertRuleEngine);
+        return factory;
+    }
+}
@@ -26,12 +26,15 @@ public class RequestSizeLimitFilter extends OncePerRequestFilter {
 
     private final long maxPayloadSizeBytes;
     private final long ingressMaxPayloadSizeBytes;
+    private final long batchMaxPayloadSizeBytes;
 
     public RequestSizeLimitFilter(
             @Value("${webhook.max-payload-size-bytes:262144}") long maxPayloadSizeBytes,
-            @Value("${webhook.incoming.max-payload-size-bytes:524288}") long ingressMaxPayloadSizeBytes) {
+            @Value("${webhook.incoming.max-payload-size-bytes:524288}") long ingressMaxPayloadSizeBytes,
+            @Value("${webhook.ingest.batch-max-payload-size-bytes:5242880}") long batchMaxPayloadSizeBytes) {
         this.maxPayloadSizeBytes = maxPayloadSizeBytes;
         this.ingressMaxPayloadSizeBytes = ingressMaxPayloadSizeBytes;
+        this.batchMaxPayloadSizeBytes = batchMaxPayloadSizeBytes;
     }
 
     @Override
@@ -77,6 +80,10 @@ public class RequestSizeLimitFilter extends OncePerRequestFilter {
         if (uri != null && uri.startsWith("/ingress/")) {
             return ingressMaxPayloadSizeBytes;
         }
+        if ("/api/v1/events/batch".equals(uri)) {
+            // Each event in the batch is still checked against max-payload-size-bytes
+            return batchMaxPayloadSizeBytes;
+        }
         return maxPayloadSizeBytes;
     }
 
@@ -1,6 +1,8 @@
 package com.webhook.platform.api.controller;
 
 import com.webhook.platform.api.domain.enums.ApiKeyScope;
+import com.webhook.platform.api.dto.EventBatchIngestRequest;
+import com.webhook.platform.api.dto.EventBatchIngestResponse;
 import com.webhook.platform.api.dto.EventIngestRequest;
 import com.webhook.platform.api.dto.EventIngestResponse;
 import com.webhook.platform.api.dto.RateLimitInfo;
@@ -104,4 +106,72 @@ public class EventController {
                 .header("X-RateLimit-Reset", String.valueOf(info.getResetTimestamp()))
                 .body(response);
     }
+
+    @Operation(
+            summary = "Ingest events in batch",
+            description = "Sends up to webhook.ingest.max-batch-size events in one request and one transaction. "
+                    + "Each event counts against the rate limit and quota; items fail individually and are "
+                    + "reported by index. Requires API Key authentication."
+    )
+    @SecurityRequirement(name = "apiKey")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Batch processed; see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Empty batch, or batch larger than allowed"),
+            @ApiResponse(responseCode = "401", description = "Invalid or missing API key"),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+    })
+    @RequireScope(ApiKeyScope.READ_WRITE)
+    @RequireQuota(QuotaType.EVENTS_PER_MONTH)
+    @PostMapping("/batch")
+    public ResponseEntity<?> ingestBatch(
+            @Valid @RequestBody EventBatchIngestRequest request,
+            Authentication authentication) {
+
+        if (!(authentication instanceof ApiKeyAuthenticationToken)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        ApiKeyAuthenticationToken apiKeyAuth = (ApiKeyAuthenticationToken) authentication;
+        int batchSize = request.getEvents().size();
+
+        int rateLimit = entitlementService.getRateLimitForProject(apiKeyAuth.getProjectId());
+        if (batchSize > rateLimit) {
+            // Could never be admitted: the bucket holds at most one second of permits
+            return ResponseEntity.badRequest().body(new ErrorResponse(
+                    "batch_exceeds_rate_limit",
+                    "Batch of " + batchSize + " events exceeds the project rate limit of " + rateLimit
+                            + " events/sec. Split the batch.",
+                    HttpStatus.BAD_REQUEST.value()));
+        }
+
+        RateLimitResult rateLimitResult = rateLimiterService.tryAcquireWithInfo(
+                apiKeyAuth.getProjectId(), rateLimit, batchSize);
+        RateLimitInfo info = rateLimitResult.getInfo();
+
+        if (!rateLimitResult.isAcquired()) {
+            log.warn("Rate limit exceeded for project: {} (batch of {})", apiKeyAuth.getProjectId(), batchSize);
+            ErrorResponse errorBody = new ErrorResponse(
+                    "rate_limit_exceeded",
+                    "Too many requests. Please retry after " + rateLimitResult.getRetryAfterSeconds() + " seconds.",
+                    HttpStatus.TOO_MANY_REQUESTS.value()
+            );
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("X-RateLimit-Limit", String.valueOf(info.getLimit()))
+                    .header("X-RateLimit-Remaining", "0")
+                    .header("X-RateLimit-Reset", String.valueOf(info.getResetTimestamp()))
+                    .header("Retry-After", String.valueOf(rateLimitResult.getRetryAfterSeconds()))
+                    .body(errorBody);
+        }
+
+        log.info("Ingesting batch of {} events for project: {}", batchSize, apiKeyAuth.getProjectId());
+
+        EventBatchIngestResponse response = eventIngestService.ingestBatch(
+                apiKeyAuth.getProjectId(), request.getEvents());
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("X-RateLimit-Limit", String.valueOf(info.getLimit()))
+                .header("X-RateLimit-Remaining", String.valueOf(info.getRemaining()))
+                .header("X-RateLimit-Reset", String.valueOf(info.getResetTimestamp()))
+                .body(response);
+    }
 }
@@ -86,6 +86,10 @@ public class Delivery {
     @Column(name = "failed_at")
     private Instant failedAt;
 
+    /** Kafka ack time of the direct-dispatch record; written only by DeliveryRepository.markDispatched. */
+    @Column(name = "dispatched_at", insertable = false, updatable = false)
+    private Instant dispatchedAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
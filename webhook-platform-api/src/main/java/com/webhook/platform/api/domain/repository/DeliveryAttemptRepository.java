@@ -1,5 +1,6 @@
 package com.webhook.platform.api.domain.repository;
 
+import com.webhook.platform.api.domain.entity.Delivery;
 import com.webhook.platform.api.domain.entity.DeliveryAttempt;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -7,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -14,20 +16,49 @@ import java.util.UUID;
 
 @Repository
 public interface DeliveryAttemptRepository extends JpaRepository<DeliveryAttempt, UUID> {
+
+    /**
+     * delivery_attempts is partitioned by day on created_at. An attempt is never written before
+     * its delivery, so the delivery's created_at, less this allowance for clock skew between
+     * API and worker hosts, is a safe lower bound that lets Postgres skip older partitions.
+     */
+    Duration DELIVERY_CLOCK_SKEW = Duration.ofHours(1);
+
     List<DeliveryAttempt> findByDeliveryIdOrderByAttemptNumberAsc(UUID deliveryId);
-    
-    Optional<DeliveryAttempt> findTopByDeliveryIdOrderByAttemptNumberDesc(UUID deliveryId);
 
+    List<DeliveryAttempt> findByDeliveryIdAndCreatedAtGreaterThanEqualOrderByAttemptNumberAsc(UUID deliveryId, Instant since);
+
+    Optional<DeliveryAttempt> findTopByDeliveryIdAndCreatedAtGreaterThanEqualOrderByAttemptNumberDesc(UUID deliveryId, Instant since);
+
+    default List<DeliveryAttempt> findAttempts(Delivery delivery) {
+        return findByDeliveryIdAndCreatedAtGreaterThanEqualOrderByAttemptNumberAsc(
+                delivery.getId(), attemptsSince(delivery.getCreatedAt()));
+    }
+
+    default Optional<DeliveryAttempt> findLatestAttempt(Delivery delivery) {
+        return findTopByDeliveryIdAndCreatedAtGreaterThanEqualOrderByAttemptNumberDesc(
+                delivery.getId(), attemptsSince(delivery.getCreatedAt()));
+    }
+
+    static Instant attemptsSince(Instant deliveryCreatedAt) {
+        return deliveryCreatedAt == null ? Instant.EPOCH : deliveryCreatedAt.minus(DELIVERY_CLOCK_SKEW);
+    }
+
+    /**
+     * @param since lower bound on the attempts' created_at, see {@link #attemptsSince}
+     */
     @Query(value = """
         SELECT da.* FROM delivery_attempts da
         INNER JOIN (
             SELECT delivery_id, MAX(attempt_number) as max_attempt
             FROM delivery_attempts
-            WHERE delivery_id IN :deliveryIds
+            WHERE delivery_id IN :deliveryIds AND created_at >= :since
             GROUP BY delivery_id
         ) latest ON da.delivery_id = latest.delivery_id AND da.attempt_number = latest.max_attempt
+        WHERE da.created_at >= :since
         """, nativeQuery = true)
-    List<DeliveryAttempt> findLatestAttemptsByDeliveryIds(@Param("deliveryIds") List<UUID> deliveryIds);
+    List<DeliveryAttempt> findLatestAttemptsByDeliveryIds(@Param("deliveryIds") List<UUID> deliveryIds,
+                                                          @Param("since") Instant since);
 
     @Modifying(clearAutomatically = true)
     @Query(value = """
@@ -76,62 +107,4 @@ public interface DeliveryAttemptRepository extends JpaRepository<DeliveryAttempt
     
     @Query(value = "SELECT COUNT(*) FROM delivery_attempts", nativeQuery = true)
     long countAllAttempts();
-
-    @Query(value = """
-        SELECT AVG(da.duration_ms) FROM delivery_attempts da
-        JOIN deliveries d ON da.delivery_id = d.id
-        JOIN events e ON d.event_id = e.id
-        WHERE e.project_id = :projectId AND da.created_at BETWEEN :from AND :to
-        """, nativeQuery = true)
-    Double findAverageLatencyByProjectIdAndAttemptedAtBetween(
-            @Param("projectId") UUID projectId,
-            @Param("from") Instant from,
-            @Param("to") Instant to);
-
-    @Query(value = """
-        SELECT PERCENTILE_CONT(:percentile) WITHIN GROUP (ORDER BY da.duration_ms)
-        FROM delivery_attempts da
-        JOIN deliveries d ON da.delivery_id = d.id
-        JOIN events e ON d.event_id = e.id
-        WHERE e.project_id = :projectId AND da.created_at BETWEEN :from AND :to
-        """, nativeQuery = true)
-    Long findLatencyPercentileByProjectId(
-            @Param("projectId") UUID projectId,
-            @Param("from") Instant from,
-            @Param("to") Instant to,
-            @Param("percentile") double percentile);
-
-    @Query(value = """
-        SELECT 
-            TO_CHAR(DATE_TRUNC('hour', da.created_at), 'YYYY-MM-DD"T"HH24:MI:SS"Z"') as ts,
-            COUNT(*) as total,
-            AVG(da.duration_ms) as avg_latency
-        FROM delivery_attempts da
-        JOIN deliveries d ON da.delivery_id = d.id
-        JOIN events e ON d.event_id = e.id
-        WHERE e.project_id = :projectId AND da.created_at BETWEEN :from AND :to
-        GROUP BY DATE_TRUNC('hour', da.created_at)
-        ORDER BY ts
-        """, nativeQuery = true)
-    List<Object[]> findLatencyTimeSeriesByHour(
-            @Param("projectId") UUID projectId,
-            @Param("from") Instant from,
-            @Param("to") Instant to);
-
-    @Query(value = """
-        SELECT 
-            TO_CHAR(DATE_TRUNC('day', da.created_at), 'YYYY-MM-DD"T"HH24:MI:SS"Z"') as ts,
-            COUNT(*) as total,
-            AVG(da.duration_ms) as avg_latency
-        FROM delivery_attempts da
-        JOIN deliveries d ON da.delivery_id = d.id
-        JOIN events e ON d.event_id = e.id
-        WHERE e.project_id = :projectId AND da.created_at BETWEEN :from AND :to
-        GROUP BY DATE_TRUNC('day', da.created_at)
-        ORDER BY ts
-        """, nativeQuery = true)
-    List<Object[]> findLatencyTimeSeriesByDay(
-            @Param("projectId") UUID projectId,
-            @Param("from") Instant from,
-            @Param("to") Instant to);
 }
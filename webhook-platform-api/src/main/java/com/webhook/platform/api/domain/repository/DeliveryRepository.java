@@ -30,65 +30,6 @@ public interface DeliveryRepository extends JpaRepository<Delivery, UUID>, JpaSp
     @Query("SELECT COUNT(d) FROM Delivery d WHERE d.event.projectId = :projectId AND d.status = :status AND d.createdAt BETWEEN :from AND :to")
     long countByProjectIdAndStatusAndCreatedAtBetween(@Param("projectId") UUID projectId, @Param("status") DeliveryStatus status, @Param("from") Instant from, @Param("to") Instant to);
 
-    @Query(value = """
-        SELECT 
-            TO_CHAR(DATE_TRUNC('hour', d.created_at), 'YYYY-MM-DD"T"HH24:MI:SS"Z"') as ts,
-            COUNT(*) as total,
-            COUNT(*) FILTER (WHERE d.status = 'SUCCESS') as success,
-            COUNT(*) FILTER (WHERE d.status IN ('FAILED', 'DLQ')) as failed
-        FROM deliveries d
-        JOIN events e ON d.event_id = e.id
-        WHERE e.project_id = :projectId AND d.created_at BETWEEN :from AND :to
-        GROUP BY DATE_TRUNC('hour', d.created_at)
-        ORDER BY ts
-        """, nativeQuery = true)
-    List<Object[]> findDeliveryTimeSeriesByHour(
-            @Param("projectId") UUID projectId,
-            @Param("from") Instant from,
-            @Param("to") Instant to);
-
-    @Query(value = """
-        SELECT 
-            TO_CHAR(DATE_TRUNC('day', d.created_at), 'YYYY-MM-DD"T"HH24:MI:SS"Z"') as ts,
-            COUNT(*) as total,
-            COUNT(*) FILTER (WHERE d.status = 'SUCCESS') as success,
-            COUNT(*) FILTER (WHERE d.status IN ('FAILED', 'DLQ')) as failed
-        FROM deliveries d
-        JOIN events e ON d.event_id = e.id
-        WHERE e.project_id = :projectId AND d.created_at BETWEEN :from AND :to
-        GROUP BY DATE_TRUNC('day', d.created_at)
-        ORDER BY ts
-        """, nativeQuery = true)
-    List<Object[]> findDeliveryTimeSeriesByDay(
-            @Param("projectId") UUID projectId,
-            @Param("from") Instant from,
-            @Param("to") Instant to);
-
-    @Query(value = """
-        SELECT 
-            CAST(e.id AS text) as endpoint_id,
-            e.url,
-            e.enabled,
-            COUNT(d.*) as total_deliveries,
-            COUNT(*) FILTER (WHERE d.status = 'SUCCESS') as successful,
-            COUNT(*) FILTER (WHERE d.status IN ('FAILED', 'DLQ')) as failed,
-            AVG(da.duration_ms) as avg_latency,
-            PERCENTILE_CONT(0.95) WITHIN GROUP (ORDER BY da.duration_ms) as p95_latency,
-            MAX(d.created_at) as last_delivery
-        FROM endpoints e
-        LEFT JOIN subscriptions s ON s.endpoint_id = e.id
-        LEFT JOIN deliveries d ON d.endpoint_id = e.id AND d.created_at BETWEEN :from AND :to
-        LEFT JOIN delivery_attempts da ON da.delivery_id = d.id
-        WHERE e.project_id = :projectId
-        GROUP BY e.id, e.url, e.enabled
-        ORDER BY total_deliveries DESC
-        LIMIT 10
-        """, nativeQuery = true)
-    List<Object[]> findEndpointPerformanceByProjectId(
-            @Param("projectId") UUID projectId,
-            @Param("from") Instant from,
-            @Param("to") Instant to);
-
     @Query(value = "SELECT d FROM Delivery d JOIN FETCH d.event JOIN FETCH d.endpoint WHERE d.status = 'DLQ' AND d.event.projectId = :projectId ORDER BY d.failedAt DESC",
             countQuery = "SELECT COUNT(d) FROM Delivery d WHERE d.status = 'DLQ' AND d.event.projectId = :projectId")
     Page<Delivery> findDlqByProjectId(@Param("projectId") UUID projectId, Pageable pageable);
@@ -125,6 +66,33 @@ public interface DeliveryRepository extends JpaRepository<Delivery, UUID>, JpaSp
         """, nativeQuery = true)
     List<Object[]> countByEndpointIdsGroupByEndpointAndStatus(@Param("endpointIds") List<UUID> endpointIds, @Param("since") Instant since);
 
+    @Modifying
+    @Query(value = "UPDATE deliveries SET dispatched_at = now() WHERE id = ANY(CAST(:ids AS uuid[])) AND dispatched_at IS NULL",
+            nativeQuery = true)
+    int markDispatched(@Param("ids") String[] ids);
+
+    /**
+     * Never-attempted PENDING deliveries created between {@code notBefore} and {@code cutoff}
+     * that have neither a dispatch marker nor an outbox row, oldest first.
+     *
+     * @param outboxSince lower bound on the outbox row's {@code created_at}; the row is written
+     *                    in the delivery's transaction, so {@code notBefore} less some slack is
+     *                    safe and lets Postgres skip the older daily partitions
+     */
+    @Query(value = """
+            SELECT d.* FROM deliveries d
+            WHERE d.status = 'PENDING' AND d.dispatched_at IS NULL
+              AND d.attempt_count = 0 AND d.next_retry_at IS NULL
+              AND d.created_at >= :notBefore AND d.created_at < :cutoff
+              AND NOT EXISTS (SELECT 1 FROM outbox_messages o
+                              WHERE o.aggregate_type = 'Delivery' AND o.aggregate_id = d.id
+                                AND o.created_at >= :outboxSince)
+            ORDER BY d.created_at ASC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Delivery> findUndispatched(@Param("notBefore") Instant notBefore, @Param("cutoff") Instant cutoff,
+                                    @Param("outboxSince") Instant outboxSince, @Param("limit") int limit);
+
     @Modifying
     @Query("DELETE FROM Delivery d WHERE d.status = 'DLQ' AND d.event.projectId = :projectId")
     void deleteDlqByProjectId(@Param("projectId") UUID projectId);
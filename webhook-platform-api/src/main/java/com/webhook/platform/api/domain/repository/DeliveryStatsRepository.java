@@ -0,0 +1,159 @@
+package com.webhook.platform.api.domain.repository;
+
+import com.webhook.platform.common.util.LatencyHistogram;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads the {@code delivery_stats_hour} / {@code delivery_stats_minute} rollups (V043).
+ * Compacted minutes are moved, not copied, into the hour table, so the two never overlap
+ * and every query is a plain {@code UNION ALL}. The window is widened to whole buckets:
+ * hours for compacted data, minutes for the rest.
+ *
+ * <p>Latency histograms (V044) follow the same layout in {@code delivery_latency_hour} /
+ * {@code delivery_latency_minute} and are merged here, per endpoint, while streaming rows.</p>
+ */
+@Repository
+public class DeliveryStatsRepository {
+
+    private static final String STATS = """
+            WITH s AS (
+                SELECT * FROM delivery_stats_hour
+                WHERE project_id = ? AND bucket_start >= ? AND bucket_start <= ?
+                UNION ALL
+                SELECT * FROM delivery_stats_minute
+                WHERE project_id = ? AND bucket_start >= ? AND bucket_start <= ?
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeliveryStatsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record Totals(long deliveries, long succeeded, long failed, long attempts, long latencySumMs) {}
+
+    public record Bucket(String timestamp, long deliveries, long succeeded, long failed,
+                         long attempts, long latencySumMs) {}
+
+    public record EventTypeTotals(String eventType, long deliveries, long succeeded) {}
+
+    public record EndpointTotals(String endpointId, String url, Boolean enabled, long deliveries,
+                                 long succeeded, long failed, long attempts, long latencySumMs,
+                                 Instant lastDeliveryBucket) {}
+
+    public Totals getTotals(UUID projectId, Instant from, Instant to) {
+        return jdbcTemplate.queryForObject(STATS + """
+                SELECT COALESCE(SUM(deliveries), 0), COALESCE(SUM(succeeded), 0), COALESCE(SUM(failed), 0),
+                       COALESCE(SUM(attempts), 0), COALESCE(SUM(latency_sum_ms), 0)
+                FROM s
+                """,
+                (rs, i) -> new Totals(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)),
+                window(projectId, from, to));
+    }
+
+    /**
+     * @param granularity {@code hour} or {@code day}; buckets are UTC
+     */
+    public List<Bucket> getTimeSeries(UUID projectId, Instant from, Instant to, String granularity) {
+        return jdbcTemplate.query(STATS + """
+                SELECT TO_CHAR(DATE_TRUNC(?, bucket_start, 'UTC') AT TIME ZONE 'UTC', 'YYYY-MM-DD"T"HH24:MI:SS"Z"') AS ts,
+                       SUM(deliveries), SUM(succeeded), SUM(failed), SUM(attempts), SUM(latency_sum_ms)
+                FROM s
+                GROUP BY ts
+                ORDER BY ts
+                """,
+                (rs, i) -> new Bucket(rs.getString(1), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                        rs.getLong(5), rs.getLong(6)),
+                append(window(projectId, from, to), granularity));
+    }
+
+    public List<EventTypeTotals> getEventTypeTotals(UUID projectId, Instant from, Instant to, int limit) {
+        return jdbcTemplate.query(STATS + """
+                SELECT event_type, SUM(deliveries) AS total, SUM(succeeded)
+                FROM s
+                GROUP BY event_type
+                HAVING SUM(deliveries) > 0
+                ORDER BY total DESC
+                LIMIT ?
+                """,
+                (rs, i) -> new EventTypeTotals(rs.getString(1), rs.getLong(2), rs.getLong(3)),
+                append(window(projectId, from, to), limit));
+    }
+
+    /**
+     * Every endpoint of the project (also those without traffic), busiest first.
+     */
+    public List<EndpointTotals> getEndpointTotals(UUID projectId, Instant from, Instant to, int limit) {
+        return jdbcTemplate.query(STATS + """
+                , per_endpoint AS (
+                    SELECT endpoint_id, SUM(deliveries) AS deliveries, SUM(succeeded) AS succeeded,
+                           SUM(failed) AS failed, SUM(attempts) AS attempts, SUM(latency_sum_ms) AS latency_sum_ms,
+                           MAX(bucket_start) FILTER (WHERE deliveries > 0) AS last_bucket
+                    FROM s
+                    GROUP BY endpoint_id
+                )
+                SELECT CAST(e.id AS text), e.url, e.enabled,
+                       COALESCE(p.deliveries, 0) AS total, COALESCE(p.succeeded, 0), COALESCE(p.failed, 0),
+                       COALESCE(p.attempts, 0), COALESCE(p.latency_sum_ms, 0), p.last_bucket
+                FROM endpoints e
+                LEFT JOIN per_endpoint p ON p.endpoint_id = e.id
+                WHERE e.project_id = ?
+                ORDER BY total DESC
+                LIMIT ?
+                """,
+                (rs, i) -> new EndpointTotals(rs.getString(1), rs.getString(2), (Boolean) rs.getObject(3),
+                        rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getLong(7), rs.getLong(8),
+                        toInstant(rs.getObject(9, OffsetDateTime.class))),
+                append(window(projectId, from, to), projectId, limit));
+    }
+
+    /**
+     * Latency histograms of the window merged per endpoint id; endpoints without attempts are absent.
+     */
+    public Map<String, LatencyHistogram> getLatencyHistograms(UUID projectId, Instant from, Instant to) {
+        Map<String, LatencyHistogram> byEndpoint = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT CAST(endpoint_id AS text), histogram FROM delivery_latency_hour
+                WHERE project_id = ? AND bucket_start >= ? AND bucket_start <= ?
+                UNION ALL
+                SELECT CAST(endpoint_id AS text), histogram FROM delivery_latency_minute
+                WHERE project_id = ? AND bucket_start >= ? AND bucket_start <= ?
+                """,
+                rs -> {
+                    byEndpoint.computeIfAbsent(rs.getString(1), id -> new LatencyHistogram())
+                            .merge(LatencyHistogram.fromBytes(rs.getBytes(2)));
+                },
+                window(projectId, from, to));
+        return byEndpoint;
+    }
+
+    private static Instant toInstant(OffsetDateTime value) {
+        return value != null ? value.toInstant() : null;
+    }
+
+    private static Object[] window(UUID projectId, Instant from, Instant to) {
+        OffsetDateTime end = to.atOffset(ZoneOffset.UTC);
+        return new Object[] {
+                projectId, from.truncatedTo(ChronoUnit.HOURS).atOffset(ZoneOffset.UTC), end,
+                projectId, from.truncatedTo(ChronoUnit.MINUTES).atOffset(ZoneOffset.UTC), end
+        };
+    }
+
+    private static Object[] append(Object[] args, Object... more) {
+        Object[] all = new Object[args.length + more.length];
+        System.arraycopy(args, 0, all, 0, args.length);
+        System.arraycopy(more, 0, all, args.length, more.length);
+        return all;
+    }
+}
@@ -16,6 +16,13 @@ import java.util.UUID;
 @Repository
 public interface EventRepository extends JpaRepository<Event, UUID> {
     Optional<Event> findByProjectIdAndIdempotencyKey(UUID projectId, String idempotencyKey);
+
+    /**
+     * Batch idempotency lookup: one array parameter regardless of how many keys are passed.
+     */
+    @Query(value = "SELECT * FROM events WHERE project_id = :projectId AND idempotency_key = ANY(:keys)",
+            nativeQuery = true)
+    List<Event> findByProjectIdAndIdempotencyKeyAny(@Param("projectId") UUID projectId, @Param("keys") String[] keys);
     List<Event> findByProjectId(UUID projectId);
     List<Event> findByProjectIdAndEventTypeContainingIgnoreCase(UUID projectId, String eventType);
     Page<Event> findByProjectId(UUID projectId, Pageable pageable);
@@ -47,23 +54,6 @@ public interface EventRepository extends JpaRepository<Event, UUID> {
         """, nativeQuery = true)
     List<Object[]> findRecentEventsWithDeliveryCount(@Param("projectId") UUID projectId);
 
-    @Query(value = """
-        SELECT 
-            e.event_type as event_type,
-            COUNT(*) as event_count,
-            COUNT(*) FILTER (WHERE d.status = 'SUCCESS') as success_count
-        FROM events e
-        LEFT JOIN deliveries d ON d.event_id = e.id
-        WHERE e.project_id = :projectId AND e.created_at BETWEEN :from AND :to
-        GROUP BY e.event_type
-        ORDER BY event_count DESC
-        LIMIT 10
-        """, nativeQuery = true)
-    List<Object[]> findEventTypeBreakdownByProjectId(
-            @Param("projectId") UUID projectId,
-            @Param("from") Instant from,
-            @Param("to") Instant to);
-
     // --- Event Time Machine: cursor-based scanning (no OFFSET, highload-safe) ---
 
     @Query(value = """
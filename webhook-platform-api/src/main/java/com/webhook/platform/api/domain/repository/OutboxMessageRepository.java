@@ -14,25 +14,69 @@ import java.util.UUID;
 
 @Repository
 public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, UUID> {
+    /**
+     * {@code since} bounds {@code created_at} so each poll only visits recent daily partitions
+     * instead of all of them; see {@code OutboxPublisherService#claimSince}.
+     */
     @Query(value = """
-            SELECT * FROM outbox_messages WHERE id IN (
+            SELECT * FROM outbox_messages WHERE created_at >= :since AND id IN (
                 SELECT id FROM (
                     SELECT id, ROW_NUMBER() OVER (PARTITION BY kafka_key ORDER BY created_at ASC) AS rn
-                    FROM outbox_messages WHERE status = :status
+                    FROM outbox_messages WHERE status = :status AND created_at >= :since
                 ) sub WHERE rn <= :maxPerKey ORDER BY rn ASC LIMIT :limit
             ) FOR UPDATE SKIP LOCKED
             """, nativeQuery = true)
-    List<OutboxMessage> findPendingBatchForUpdate(@Param("status") String status, @Param("limit") int limit, @Param("maxPerKey") int maxPerKey);
+    List<OutboxMessage> findPendingBatchForUpdate(@Param("status") String status, @Param("limit") int limit,
+                                                  @Param("maxPerKey") int maxPerKey, @Param("since") Instant since);
 
+    /**
+     * Same as {@link #findPendingBatchForUpdate}, restricted to one {@code kafka_key} hash shard
+     * so that each key is only ever claimed by the publisher holding that shard.
+     */
     @Query(value = """
-            SELECT * FROM outbox_messages WHERE id IN (
+            SELECT * FROM outbox_messages WHERE created_at >= :since AND id IN (
                 SELECT id FROM (
                     SELECT id, ROW_NUMBER() OVER (PARTITION BY kafka_key ORDER BY created_at ASC) AS rn
-                    FROM outbox_messages WHERE status = :status AND retry_count < :maxRetries
+                    FROM outbox_messages
+                    WHERE status = :status AND created_at >= :since
+                      AND mod(hashtext(kafka_key) & 2147483647, :shardCount) = :shard
                 ) sub WHERE rn <= :maxPerKey ORDER BY rn ASC LIMIT :limit
             ) FOR UPDATE SKIP LOCKED
             """, nativeQuery = true)
-    List<OutboxMessage> findFailedMessagesForRetry(@Param("status") String status, @Param("maxRetries") int maxRetries, @Param("limit") int limit, @Param("maxPerKey") int maxPerKey);
+    List<OutboxMessage> findPendingShardBatchForUpdate(@Param("status") String status, @Param("shard") int shard,
+                                                       @Param("shardCount") int shardCount, @Param("limit") int limit,
+                                                       @Param("maxPerKey") int maxPerKey, @Param("since") Instant since);
+
+    @Query(value = """
+            SELECT * FROM outbox_messages WHERE created_at >= :since AND id IN (
+                SELECT id FROM (
+                    SELECT id, ROW_NUMBER() OVER (PARTITION BY kafka_key ORDER BY created_at ASC) AS rn
+                    FROM outbox_messages
+                    WHERE status = :status AND retry_count < :maxRetries AND created_at >= :since
+                ) sub WHERE rn <= :maxPerKey ORDER BY rn ASC LIMIT :limit
+            ) FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxMessage> findFailedMessagesForRetry(@Param("status") String status, @Param("maxRetries") int maxRetries,
+                                                   @Param("limit") int limit, @Param("maxPerKey") int maxPerKey,
+                                                   @Param("since") Instant since);
+
+    /**
+     * Oldest row the publisher may still have to claim: PENDING, SENDING (recovered to PENDING
+     * by cleanup) or retryable FAILED. Visits every partition, so it is only run occasionally.
+     */
+    @Query(value = """
+            SELECT MIN(created_at) FROM outbox_messages
+            WHERE status IN ('PENDING', 'SENDING') OR (status = 'FAILED' AND retry_count < :maxRetries)
+            """, nativeQuery = true)
+    Instant findOldestClaimableCreatedAt(@Param("maxRetries") int maxRetries);
+
+    /**
+     * Claims rows for publishing. Carries the partition key so only the rows' own partitions
+     * are visited; {@code saveAll} would update by id alone and probe every partition.
+     */
+    @Modifying
+    @Query(value = "UPDATE outbox_messages SET status = 'SENDING', updated_at = now() WHERE id = ANY(CAST(:ids AS uuid[])) AND created_at >= :since", nativeQuery = true)
+    int markSending(@Param("ids") String[] ids, @Param("since") Instant since);
     
     @Modifying
     @Query(value = "DELETE FROM outbox_messages WHERE id IN (SELECT id FROM outbox_messages WHERE status = :status AND created_at < :cutoffTime ORDER BY created_at ASC LIMIT :limit)", nativeQuery = true)
@@ -43,7 +87,42 @@ public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, UU
     @Query(value = "SELECT MIN(created_at) FROM outbox_messages WHERE status = 'PENDING'", nativeQuery = true)
     Instant findOldestPendingCreatedAt();
 
+    /**
+     * {@code since} is a lower bound on the rows' {@code created_at}; it lets Postgres skip the
+     * older daily partitions. The same applies to the other bulk status updates.
+     */
+    @Modifying
+    @Query(value = "UPDATE outbox_messages SET status = 'PUBLISHED', published_at = now() WHERE id = ANY(CAST(:ids AS uuid[])) AND created_at >= :since", nativeQuery = true)
+    int markPublished(@Param("ids") String[] ids, @Param("since") Instant since);
+
+    /**
+     * First publish attempt failed: FAILED, retry_count + 1. {@code errors[i]} belongs to {@code ids[i]}.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE outbox_messages o
+            SET status = 'FAILED', retry_count = o.retry_count + 1, error_message = u.error, last_attempt_at = now()
+            FROM unnest(CAST(:ids AS uuid[]), CAST(:errors AS text[])) AS u(id, error)
+            WHERE o.id = u.id AND o.created_at >= :since
+            """, nativeQuery = true)
+    int markFailed(@Param("ids") String[] ids, @Param("errors") String[] errors, @Param("since") Instant since);
+
+    /**
+     * Retry failed: retry_count + 1, and DEAD once it reaches {@code maxRetries}; otherwise the
+     * status is left as is. {@code errors[i]} belongs to {@code ids[i]}.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE outbox_messages o
+            SET retry_count = o.retry_count + 1, error_message = u.error, last_attempt_at = now(),
+                status = CASE WHEN o.retry_count + 1 >= :maxRetries THEN 'DEAD' ELSE o.status END
+            FROM unnest(CAST(:ids AS uuid[]), CAST(:errors AS text[])) AS u(id, error)
+            WHERE o.id = u.id AND o.created_at >= :since
+            """, nativeQuery = true)
+    int markRetryFailed(@Param("ids") String[] ids, @Param("errors") String[] errors, @Param("maxRetries") int maxRetries,
+                        @Param("since") Instant since);
+
     @Modifying
-    @Query(value = "UPDATE outbox_messages SET status = 'PENDING' WHERE status = 'SENDING' AND updated_at < :cutoff", nativeQuery = true)
+    @Query(value = "UPDATE outbox_messages SET status = 'PENDING' WHERE status = 'SENDING' AND updated_at < :cutoff AND created_at < :cutoff", nativeQuery = true)
     int recoverStuckSendingMessages(@Param("cutoff") Instant cutoff);
 }
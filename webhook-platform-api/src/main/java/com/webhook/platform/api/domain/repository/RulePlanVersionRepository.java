@@ -0,0 +1,84 @@
+package com.webhook.platform.api.domain.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-project rule set versions ({@code rule_plan_versions}, V046). A project without a row
+ * is at version 0.
+ */
+@Repository
+public class RulePlanVersionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RulePlanVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Increment the project's version; takes part in the caller's transaction.
+     *
+     * @return the new version
+     */
+    public long bump(UUID projectId) {
+        Long version = jdbcTemplate.queryForObject("""
+                INSERT INTO rule_plan_versions (project_id, rules_version, updated_at)
+                VALUES (?, 1, now())
+                ON CONFLICT (project_id) DO UPDATE
+                    SET rules_version = rule_plan_versions.rules_version + 1, updated_at = now()
+                RETURNING rules_version
+                """, Long.class, projectId);
+        return version != null ? version : 0;
+    }
+
+    public long find(UUID projectId) {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT rules_version FROM rule_plan_versions WHERE project_id = ?", Long.class, projectId);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    /**
+     * Versions of the given projects in one query; projects without a row are absent.
+     */
+    public Map<UUID, Long> findAll(Collection<UUID> projectIds) {
+        Map<UUID, Long> versions = new HashMap<>();
+        if (projectIds.isEmpty()) {
+            return versions;
+        }
+        jdbcTemplate.query(
+                "SELECT project_id, rules_version FROM rule_plan_versions WHERE project_id = ANY(CAST(? AS uuid[]))",
+                rs -> {
+                    versions.put(rs.getObject(1, UUID.class), rs.getLong(2));
+                },
+                (Object) projectIds.stream().map(UUID::toString).toArray(String[]::new));
+        return versions;
+    }
+
+    /**
+     * Projects with enabled rules, busiest first by deliveries since {@code since} in the
+     * hourly rollup; projects without recent deliveries come last.
+     */
+    public List<UUID> findMostActiveProjectsWithRules(Instant since, int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT r.project_id
+                FROM (SELECT DISTINCT project_id FROM rules WHERE enabled) r
+                LEFT JOIN (
+                    SELECT project_id, SUM(deliveries) AS deliveries
+                    FROM delivery_stats_hour
+                    WHERE bucket_start >= ?
+                    GROUP BY project_id
+                ) a ON a.project_id = r.project_id
+                ORDER BY a.deliveries DESC NULLS LAST
+                LIMIT ?
+                """, UUID.class, since.atOffset(ZoneOffset.UTC), limit);
+    }
+}
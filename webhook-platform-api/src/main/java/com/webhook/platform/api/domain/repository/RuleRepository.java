@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +18,9 @@ public interface RuleRepository extends JpaRepository<Rule, UUID> {
     @Query("SELECT r FROM Rule r LEFT JOIN FETCH r.actions WHERE r.projectId = :projectId AND r.enabled = true ORDER BY r.priority DESC")
     List<Rule> findEnabledWithActions(@Param("projectId") UUID projectId);
 
+    @Query("SELECT r FROM Rule r LEFT JOIN FETCH r.actions WHERE r.projectId IN :projectIds AND r.enabled = true")
+    List<Rule> findEnabledWithActionsByProjectIds(@Param("projectIds") Collection<UUID> projectIds);
+
     boolean existsByProjectIdAndName(UUID projectId, String name);
 
     long countByProjectId(UUID projectId);
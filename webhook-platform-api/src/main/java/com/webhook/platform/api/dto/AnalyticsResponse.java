@@ -86,6 +86,7 @@ public class AnalyticsResponse {
         private double successRate;
         private double avgLatencyMs;
         private long p95LatencyMs;
+        private long p99LatencyMs;
         private String lastDeliveryAt;
         private String status; // HEALTHY, DEGRADED, FAILING
     }
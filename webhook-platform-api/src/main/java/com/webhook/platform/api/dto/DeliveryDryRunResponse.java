@@ -5,6 +5,7 @@ import lombok.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Data
 @NoArgsConstructor
@@ -36,4 +37,7 @@ public class DeliveryDryRunResponse {
 
     @Schema(description = "Version of the transformation applied (if any)")
     private Integer transformationVersion;
+
+    @Schema(description = "Enabled subscriptions on the endpoint whose pattern matches the event type (if endpoint and event type provided)")
+    private List<UUID> matchingSubscriptionIds;
 }
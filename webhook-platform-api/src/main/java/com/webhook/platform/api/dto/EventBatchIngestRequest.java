@@ -0,0 +1,49 @@
+package com.webhook.platform.api.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /api/v1/events/batch}. Items are validated one by one so that
+ * an invalid item fails on its own instead of rejecting the whole batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventBatchIngestRequest {
+
+    @NotEmpty(message = "At least one event is required")
+    private List<Item> events;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        @NotBlank(message = "Event type is required")
+        @Pattern(regexp = "^[a-z][a-z0-9_.]*$", message = "Event type must be lowercase with dots/underscores (e.g. order.created)")
+        private String type;
+
+        @NotNull(message = "Event data is required")
+        private JsonNode data;
+
+        /** Per-event counterpart of the {@code Idempotency-Key} header. */
+        @Size(max = 255, message = "Idempotency key must be at most 255 characters")
+        private String idempotencyKey;
+
+        public EventIngestRequest toIngestRequest() {
+            return EventIngestRequest.builder().type(type).data(data).build();
+        }
+    }
+}
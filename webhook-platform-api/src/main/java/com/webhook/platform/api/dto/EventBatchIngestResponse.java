@@ -0,0 +1,40 @@
+package com.webhook.platform.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventBatchIngestResponse {
+    private int accepted;
+    private int duplicates;
+    private int failed;
+    /** One entry per request item, in request order. */
+    private List<ItemResult> results;
+
+    public enum ItemStatus {
+        CREATED, DUPLICATE, FAILED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ItemResult {
+        private int index;
+        private ItemStatus status;
+        private UUID eventId;
+        private String type;
+        private Instant createdAt;
+        private Integer deliveriesCreated;
+        private String error;
+    }
+}
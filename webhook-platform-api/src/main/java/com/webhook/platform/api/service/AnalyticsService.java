@@ -2,38 +2,39 @@ package com.webhook.platform.api.service;
 
 import com.webhook.platform.api.dto.AnalyticsResponse;
 import com.webhook.platform.api.dto.AnalyticsResponse.*;
-import com.webhook.platform.api.domain.repository.DeliveryAttemptRepository;
-import com.webhook.platform.api.domain.repository.DeliveryRepository;
-import com.webhook.platform.api.domain.repository.EndpointRepository;
+import com.webhook.platform.api.domain.repository.DeliveryStatsRepository;
 import com.webhook.platform.api.domain.repository.EventRepository;
+import com.webhook.platform.common.util.LatencyHistogram;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import com.webhook.platform.api.domain.enums.DeliveryStatus;
-
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Dashboard analytics. Delivery counts, averages and breakdowns come from the
+ * {@code delivery_stats_*} rollups ({@link DeliveryStatsRepository}), so a request costs
+ * O(buckets) regardless of delivery volume. Totals count deliveries from their first
+ * attempt on; {@code failed} includes DLQ. Latency percentiles come from the merged
+ * per-endpoint latency histograms of the window and are within 1% of the exact value
+ * (see {@link LatencyHistogram}).
+ */
 @Slf4j
 @Service
 public class AnalyticsService {
 
-    private final DeliveryRepository deliveryRepository;
-    private final DeliveryAttemptRepository attemptRepository;
+    private static final int TOP_N = 10;
+
+    private final DeliveryStatsRepository deliveryStatsRepository;
     private final EventRepository eventRepository;
-    private final EndpointRepository endpointRepository;
 
     public AnalyticsService(
-            DeliveryRepository deliveryRepository,
-            DeliveryAttemptRepository attemptRepository,
-            EventRepository eventRepository,
-            EndpointRepository endpointRepository) {
-        this.deliveryRepository = deliveryRepository;
-        this.attemptRepository = attemptRepository;
+            DeliveryStatsRepository deliveryStatsRepository,
+            EventRepository eventRepository) {
+        this.deliveryStatsRepository = deliveryStatsRepository;
         this.eventRepository = eventRepository;
-        this.endpointRepository = endpointRepository;
     }
 
     public AnalyticsResponse getAnalytics(UUID projectId, UUID organizationId, String period) {
@@ -65,12 +66,17 @@ public class AnalyticsService {
                 .granularity(granularity)
                 .build();
 
-        OverviewMetrics overview = calculateOverviewMetrics(projectId, from, now);
-        List<TimeSeriesPoint> deliveryTimeSeries = calculateDeliveryTimeSeries(projectId, from, now, granularity);
-        List<TimeSeriesPoint> latencyTimeSeries = calculateLatencyTimeSeries(projectId, from, now, granularity);
+        Map<String, LatencyHistogram> latencyByEndpoint =
+                deliveryStatsRepository.getLatencyHistograms(projectId, from, now);
+        LatencyPercentiles latencyPercentiles = calculateLatencyPercentiles(latencyByEndpoint);
+        OverviewMetrics overview = calculateOverviewMetrics(projectId, from, now, latencyPercentiles);
+        List<DeliveryStatsRepository.Bucket> buckets = deliveryStatsRepository.getTimeSeries(
+                projectId, from, now, granularity.toLowerCase());
+        List<TimeSeriesPoint> deliveryTimeSeries = calculateDeliveryTimeSeries(buckets);
+        List<TimeSeriesPoint> latencyTimeSeries = calculateLatencyTimeSeries(buckets);
         List<EventTypeBreakdown> eventTypeBreakdown = calculateEventTypeBreakdown(projectId, from, now);
-        List<EndpointPerformance> endpointPerformance = calculateEndpointPerformance(projectId, from, now);
-        LatencyPercentiles latencyPercentiles = calculateLatencyPercentiles(projectId, from, now);
+        List<EndpointPerformance> endpointPerformance = calculateEndpointPerformance(projectId, from, now,
+                latencyByEndpoint);
 
         return AnalyticsResponse.builder()
                 .timeRange(timeRange)
@@ -83,23 +89,19 @@ public class AnalyticsService {
                 .build();
     }
 
-    private OverviewMetrics calculateOverviewMetrics(UUID projectId, Instant from, Instant to) {
+    private OverviewMetrics calculateOverviewMetrics(UUID projectId, Instant from, Instant to,
+                                                     LatencyPercentiles percentiles) {
         long totalEvents = eventRepository.countByProjectIdAndCreatedAtBetween(projectId, from, to);
-        long totalDeliveries = deliveryRepository.countByProjectIdAndCreatedAtBetween(projectId, from, to);
-        long successfulDeliveries = deliveryRepository.countByProjectIdAndStatusAndCreatedAtBetween(
-                projectId, DeliveryStatus.SUCCESS, from, to);
-        long failedDeliveries = deliveryRepository.countByProjectIdAndStatusAndCreatedAtBetween(
-                projectId, DeliveryStatus.FAILED, from, to);
+        DeliveryStatsRepository.Totals totals = deliveryStatsRepository.getTotals(projectId, from, to);
+        long totalDeliveries = totals.deliveries();
+        long successfulDeliveries = totals.succeeded();
+        long failedDeliveries = totals.failed();
 
         double successRate = totalDeliveries > 0 
                 ? (double) successfulDeliveries / totalDeliveries * 100 
                 : 0;
 
-        Double avgLatency = attemptRepository.findAverageLatencyByProjectIdAndAttemptedAtBetween(
-                projectId, from, to);
-        Long p50Latency = attemptRepository.findLatencyPercentileByProjectId(projectId, from, to, 0.50);
-        Long p95Latency = attemptRepository.findLatencyPercentileByProjectId(projectId, from, to, 0.95);
-        Long p99Latency = attemptRepository.findLatencyPercentileByProjectId(projectId, from, to, 0.99);
+        double avgLatency = totals.attempts() > 0 ? (double) totals.latencySumMs() / totals.attempts() : 0;
 
         long durationSeconds = ChronoUnit.SECONDS.between(from, to);
         double eventsPerSecond = durationSeconds > 0 ? (double) totalEvents / durationSeconds : 0;
@@ -111,56 +113,49 @@ public class AnalyticsService {
                 .successfulDeliveries(successfulDeliveries)
                 .failedDeliveries(failedDeliveries)
                 .successRate(Math.round(successRate * 100.0) / 100.0)
-                .avgLatencyMs(avgLatency != null ? Math.round(avgLatency * 100.0) / 100.0 : 0)
-                .p50LatencyMs(p50Latency != null ? p50Latency : 0)
-                .p95LatencyMs(p95Latency != null ? p95Latency : 0)
-                .p99LatencyMs(p99Latency != null ? p99Latency : 0)
+                .avgLatencyMs(Math.round(avgLatency * 100.0) / 100.0)
+                .p50LatencyMs(percentiles.getP50())
+                .p95LatencyMs(percentiles.getP95())
+                .p99LatencyMs(percentiles.getP99())
                 .eventsPerSecond(Math.round(eventsPerSecond * 1000.0) / 1000.0)
                 .deliveriesPerSecond(Math.round(deliveriesPerSecond * 1000.0) / 1000.0)
                 .build();
     }
 
-    private List<TimeSeriesPoint> calculateDeliveryTimeSeries(
-            UUID projectId, Instant from, Instant to, String granularity) {
-        List<Object[]> rawData = "HOUR".equals(granularity)
-                ? deliveryRepository.findDeliveryTimeSeriesByHour(projectId, from, to)
-                : deliveryRepository.findDeliveryTimeSeriesByDay(projectId, from, to);
-
-        return rawData.stream()
-                .map(row -> TimeSeriesPoint.builder()
-                        .timestamp((String) row[0])
-                        .total(((Number) row[1]).longValue())
-                        .success(((Number) row[2]).longValue())
-                        .failed(((Number) row[3]).longValue())
+    private List<TimeSeriesPoint> calculateDeliveryTimeSeries(List<DeliveryStatsRepository.Bucket> buckets) {
+        return buckets.stream()
+                .filter(bucket -> bucket.deliveries() > 0 || bucket.succeeded() > 0 || bucket.failed() > 0)
+                .map(bucket -> TimeSeriesPoint.builder()
+                        .timestamp(bucket.timestamp())
+                        .total(bucket.deliveries())
+                        .success(bucket.succeeded())
+                        .failed(bucket.failed())
                         .build())
                 .collect(Collectors.toList());
     }
 
-    private List<TimeSeriesPoint> calculateLatencyTimeSeries(
-            UUID projectId, Instant from, Instant to, String granularity) {
-        List<Object[]> rawData = "HOUR".equals(granularity)
-                ? attemptRepository.findLatencyTimeSeriesByHour(projectId, from, to)
-                : attemptRepository.findLatencyTimeSeriesByDay(projectId, from, to);
-
-        return rawData.stream()
-                .map(row -> TimeSeriesPoint.builder()
-                        .timestamp((String) row[0])
-                        .total(((Number) row[1]).longValue())
-                        .avgLatencyMs(row[2] != null ? ((Number) row[2]).doubleValue() : null)
+    private List<TimeSeriesPoint> calculateLatencyTimeSeries(List<DeliveryStatsRepository.Bucket> buckets) {
+        return buckets.stream()
+                .filter(bucket -> bucket.attempts() > 0)
+                .map(bucket -> TimeSeriesPoint.builder()
+                        .timestamp(bucket.timestamp())
+                        .total(bucket.attempts())
+                        .avgLatencyMs((double) bucket.latencySumMs() / bucket.attempts())
                         .build())
                 .collect(Collectors.toList());
     }
 
     private List<EventTypeBreakdown> calculateEventTypeBreakdown(UUID projectId, Instant from, Instant to) {
-        List<Object[]> rawData = eventRepository.findEventTypeBreakdownByProjectId(projectId, from, to);
-        long total = rawData.stream().mapToLong(row -> ((Number) row[1]).longValue()).sum();
+        List<DeliveryStatsRepository.EventTypeTotals> rawData =
+                deliveryStatsRepository.getEventTypeTotals(projectId, from, to, TOP_N);
+        long total = rawData.stream().mapToLong(DeliveryStatsRepository.EventTypeTotals::deliveries).sum();
 
         return rawData.stream()
                 .map(row -> {
-                    long count = ((Number) row[1]).longValue();
-                    long successCount = row[2] != null ? ((Number) row[2]).longValue() : 0;
+                    long count = row.deliveries();
+                    long successCount = row.succeeded();
                     return EventTypeBreakdown.builder()
-                            .eventType((String) row[0])
+                            .eventType(row.eventType())
                             .count(count)
                             .percentage(total > 0 ? Math.round((double) count / total * 10000.0) / 100.0 : 0)
                             .successCount(successCount)
@@ -170,14 +165,17 @@ public class AnalyticsService {
                 .collect(Collectors.toList());
     }
 
-    private List<EndpointPerformance> calculateEndpointPerformance(UUID projectId, Instant from, Instant to) {
-        List<Object[]> rawData = deliveryRepository.findEndpointPerformanceByProjectId(projectId, from, to);
+    private List<EndpointPerformance> calculateEndpointPerformance(UUID projectId, Instant from, Instant to,
+                                                                   Map<String, LatencyHistogram> latencyByEndpoint) {
+        List<DeliveryStatsRepository.EndpointTotals> rawData =
+                deliveryStatsRepository.getEndpointTotals(projectId, from, to, TOP_N);
+        LatencyHistogram noLatency = new LatencyHistogram();
 
         return rawData.stream()
                 .map(row -> {
-                    long totalDeliveries = ((Number) row[3]).longValue();
-                    long successfulDeliveries = ((Number) row[4]).longValue();
-                    long failedDeliveries = ((Number) row[5]).longValue();
+                    long totalDeliveries = row.deliveries();
+                    long successfulDeliveries = row.succeeded();
+                    long failedDeliveries = row.failed();
                     double successRate = totalDeliveries > 0 
                             ? (double) successfulDeliveries / totalDeliveries * 100 
                             : 0;
@@ -193,36 +191,35 @@ public class AnalyticsService {
                         status = "FAILING";
                     }
 
+                    LatencyHistogram latency = latencyByEndpoint.getOrDefault(row.endpointId(), noLatency);
                     return EndpointPerformance.builder()
-                            .endpointId((String) row[0])
-                            .url((String) row[1])
-                            .enabled((Boolean) row[2])
+                            .endpointId(row.endpointId())
+                            .url(row.url())
+                            .enabled(row.enabled())
                             .totalDeliveries(totalDeliveries)
                             .successfulDeliveries(successfulDeliveries)
                             .failedDeliveries(failedDeliveries)
                             .successRate(Math.round(successRate * 100.0) / 100.0)
-                            .avgLatencyMs(row[6] != null ? ((Number) row[6]).doubleValue() : 0)
-                            .p95LatencyMs(row[7] != null ? ((Number) row[7]).longValue() : 0)
-                            .lastDeliveryAt(row[8] != null ? row[8].toString() : null)
+                            .avgLatencyMs(row.attempts() > 0 ? (double) row.latencySumMs() / row.attempts() : 0)
+                            .p95LatencyMs(latency.valueAt(0.95))
+                            .p99LatencyMs(latency.valueAt(0.99))
+                            .lastDeliveryAt(row.lastDeliveryBucket() != null ? row.lastDeliveryBucket().toString() : null)
                             .status(status)
                             .build();
                 })
                 .collect(Collectors.toList());
     }
 
-    private LatencyPercentiles calculateLatencyPercentiles(UUID projectId, Instant from, Instant to) {
+    private LatencyPercentiles calculateLatencyPercentiles(Map<String, LatencyHistogram> latencyByEndpoint) {
+        LatencyHistogram all = new LatencyHistogram();
+        latencyByEndpoint.values().forEach(all::merge);
         return LatencyPercentiles.builder()
-                .p50(getPercentile(projectId, from, to, 0.50))
-                .p75(getPercentile(projectId, from, to, 0.75))
-                .p90(getPercentile(projectId, from, to, 0.90))
-                .p95(getPercentile(projectId, from, to, 0.95))
-                .p99(getPercentile(projectId, from, to, 0.99))
-                .max(getPercentile(projectId, from, to, 1.0))
+                .p50(all.valueAt(0.50))
+                .p75(all.valueAt(0.75))
+                .p90(all.valueAt(0.90))
+                .p95(all.valueAt(0.95))
+                .p99(all.valueAt(0.99))
+                .max(all.valueAt(1.0))
                 .build();
     }
-
-    private long getPercentile(UUID projectId, Instant from, Instant to, double percentile) {
-        Long value = attemptRepository.findLatencyPercentileByProjectId(projectId, from, to, percentile);
-        return value != null ? value : 0;
-    }
 }
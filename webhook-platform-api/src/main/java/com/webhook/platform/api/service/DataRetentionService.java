@@ -23,6 +23,7 @@ public class DataRetentionService {
     private final OutboxMessageRepository outboxMessageRepository;
     private final DeliveryAttemptRepository deliveryAttemptRepository;
     private final IncomingEventRepository incomingEventRepository;
+    private final PartitionMaintenanceService partitionMaintenanceService;
     private final MeterRegistry meterRegistry;
     private final int outboxRetentionDays;
     private final int deliveryAttemptsRetentionDays;
@@ -36,6 +37,7 @@ public class DataRetentionService {
             OutboxMessageRepository outboxMessageRepository,
             DeliveryAttemptRepository deliveryAttemptRepository,
             IncomingEventRepository incomingEventRepository,
+            PartitionMaintenanceService partitionMaintenanceService,
             MeterRegistry meterRegistry,
             @Value("${data-retention.outbox-retention-days:7}") int outboxRetentionDays,
             @Value("${data-retention.delivery-attempts-retention-days:90}") int deliveryAttemptsRetentionDays,
@@ -46,6 +48,7 @@ public class DataRetentionService {
         this.outboxMessageRepository = outboxMessageRepository;
         this.deliveryAttemptRepository = deliveryAttemptRepository;
         this.incomingEventRepository = incomingEventRepository;
+        this.partitionMaintenanceService = partitionMaintenanceService;
         this.meterRegistry = meterRegistry;
         this.outboxRetentionDays = outboxRetentionDays;
         this.deliveryAttemptsRetentionDays = deliveryAttemptsRetentionDays;
@@ -69,6 +72,10 @@ public class DataRetentionService {
         Instant cutoffTime = Instant.now().minusSeconds(outboxRetentionDays * 86400L);
         
         log.info("Starting outbox cleanup for messages older than {}", cutoffTime);
+
+        // Whole days first; a day that still holds unpublished rows is left to the DELETEs below
+        partitionMaintenanceService.dropPartitionsBefore(PartitionMaintenanceService.OUTBOX_MESSAGES,
+                cutoffTime, "status NOT IN ('PUBLISHED', 'FAILED')");
         
         int totalDeleted = 0;
         int deletedInBatch;
@@ -142,6 +149,10 @@ public class DataRetentionService {
         Instant cutoffTime = Instant.now().minusSeconds(deliveryAttemptsRetentionDays * 86400L);
         
         log.info("Starting ALL delivery attempts cleanup (errors + edge cases) for attempts older than {}", cutoffTime);
+
+        // Whole days first; the DELETEs below only see the default partition and the cutoff day
+        partitionMaintenanceService.dropPartitionsBefore(
+                PartitionMaintenanceService.DELIVERY_ATTEMPTS, cutoffTime, null);
         
         int totalDeleted = 0;
         int deletedInBatch;
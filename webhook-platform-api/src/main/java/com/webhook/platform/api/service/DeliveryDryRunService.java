@@ -10,11 +10,13 @@ import com.jayway.jsonpath.Option;
 import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
 import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
 import com.webhook.platform.api.domain.entity.Endpoint;
+import com.webhook.platform.api.domain.entity.Subscription;
 import com.webhook.platform.api.domain.entity.Transformation;
 import com.webhook.platform.api.domain.repository.EndpointRepository;
 import com.webhook.platform.api.domain.repository.TransformationRepository;
 import com.webhook.platform.api.dto.DeliveryDryRunRequest;
 import com.webhook.platform.api.dto.DeliveryDryRunResponse;
+import com.webhook.platform.api.service.routing.SubscriptionRoutingService;
 import com.webhook.platform.common.util.CryptoUtils;
 import com.webhook.platform.common.util.WebhookSignatureUtils;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +33,7 @@ public class DeliveryDryRunService {
 
     private final TransformationRepository transformationRepository;
     private final EndpointRepository endpointRepository;
+    private final SubscriptionRoutingService subscriptionRoutingService;
     private final ObjectMapper objectMapper;
     private final String encryptionKey;
     private final String encryptionSalt;
@@ -46,11 +49,13 @@ public class DeliveryDryRunService {
     public DeliveryDryRunService(
             TransformationRepository transformationRepository,
             EndpointRepository endpointRepository,
+            SubscriptionRoutingService subscriptionRoutingService,
             ObjectMapper objectMapper,
             @Value("${webhook.encryption-key:development_master_key_32_chars}") String encryptionKey,
             @Value("${webhook.encryption-salt}") String encryptionSalt) {
         this.transformationRepository = transformationRepository;
         this.endpointRepository = endpointRepository;
+        this.subscriptionRoutingService = subscriptionRoutingService;
         this.objectMapper = objectMapper;
         this.encryptionKey = encryptionKey;
         this.encryptionSalt = encryptionSalt;
@@ -63,6 +68,7 @@ public class DeliveryDryRunService {
         Integer transformationVersion = null;
         String signature = null;
         String endpointUrl = null;
+        List<UUID> matchingSubscriptionIds = null;
         Map<String, String> requestHeaders = new LinkedHashMap<>();
 
         // 1. Parse input payload
@@ -151,6 +157,19 @@ public class DeliveryDryRunService {
                 if (!endpoint.getEnabled()) {
                     errors.add("Warning: Endpoint is currently disabled");
                 }
+
+                // Would an event of this type be routed to the endpoint at all?
+                if (request.getEventType() != null) {
+                    matchingSubscriptionIds = subscriptionRoutingService
+                            .match(endpoint.getProjectId(), request.getEventType()).stream()
+                            .filter(s -> s.getEndpointId().equals(endpoint.getId()))
+                            .map(Subscription::getId)
+                            .toList();
+                    if (matchingSubscriptionIds.isEmpty()) {
+                        errors.add("Warning: No enabled subscription on this endpoint matches event type '"
+                                + request.getEventType() + "'");
+                    }
+                }
             }
         }
 
@@ -182,6 +201,7 @@ public class DeliveryDryRunService {
                 .errors(errors)
                 .transformationName(transformationName)
                 .transformationVersion(transformationVersion)
+                .matchingSubscriptionIds(matchingSubscriptionIds)
                 .build();
     }
 
@@ -193,8 +193,7 @@ public class DeliveryService {
                 .orElseThrow(() -> new NotFoundException("Delivery not found"));
         validateDeliveryAccess(delivery, auth);
         
-        List<DeliveryAttempt> attempts = deliveryAttemptRepository
-                .findByDeliveryIdOrderByAttemptNumberAsc(deliveryId);
+        List<DeliveryAttempt> attempts = deliveryAttemptRepository.findAttempts(delivery);
         
         return attempts.stream()
                 .map(this::mapAttemptToResponse)
@@ -371,8 +370,7 @@ public class DeliveryService {
         Endpoint endpoint = endpointRepository.findById(delivery.getEndpointId())
                 .orElseThrow(() -> new NotFoundException("Endpoint not found"));
 
-        List<DeliveryAttempt> attempts = deliveryAttemptRepository
-                .findByDeliveryIdOrderByAttemptNumberAsc(deliveryId);
+        List<DeliveryAttempt> attempts = deliveryAttemptRepository.findAttempts(delivery);
 
         String idempotencyKey = delivery.getIdempotencyKey() != null
                 ? delivery.getIdempotencyKey()
@@ -0,0 +1,182 @@
+package com.webhook.platform.api.service;
+
+import com.webhook.platform.common.util.LatencyHistogram;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compacts the worker-written {@code delivery_stats_minute} rollup into
+ * {@code delivery_stats_hour} (V043).
+ *
+ * <p>Minute rows older than {@code keep-minutes} (rounded down to the hour) are deleted and
+ * added into their hour in a single statement, so readers never see them twice. Outcomes of
+ * old deliveries that arrive later simply recreate the minute row, and the next run adds it
+ * to the same hour. Hourly rows are kept for {@code hour-retention-days}.</p>
+ *
+ * <p>Latency histograms (V044) are compacted the same way, except that bytea histograms
+ * cannot be merged in SQL: settled minute rows are deleted in batches of
+ * {@code latency-batch-size}, merged in memory per (project, endpoint, hour) together with
+ * the existing hourly histogram, and written back in the same transaction. The
+ * {@link SchedulerLock} makes this instance the only writer of {@code delivery_latency_hour}.</p>
+ */
+@Service
+@Slf4j
+public class DeliveryStatsCompactionService {
+
+    static final String COMPACT_SQL = """
+            WITH moved AS (
+                DELETE FROM delivery_stats_minute WHERE bucket_start < ?
+                RETURNING *
+            )
+            INSERT INTO delivery_stats_hour (project_id, endpoint_id, event_type, bucket_start, deliveries,
+                                             succeeded, failed, attempts, latency_sum_ms, latency_max_ms)
+            SELECT project_id, endpoint_id, event_type, DATE_TRUNC('hour', bucket_start, 'UTC'),
+                   SUM(deliveries), SUM(succeeded), SUM(failed), SUM(attempts), SUM(latency_sum_ms),
+                   MAX(latency_max_ms)
+            FROM moved
+            GROUP BY project_id, endpoint_id, event_type, DATE_TRUNC('hour', bucket_start, 'UTC')
+            ON CONFLICT (project_id, bucket_start, endpoint_id, event_type) DO UPDATE SET
+                deliveries = delivery_stats_hour.deliveries + EXCLUDED.deliveries,
+                succeeded = delivery_stats_hour.succeeded + EXCLUDED.succeeded,
+                failed = delivery_stats_hour.failed + EXCLUDED.failed,
+                attempts = delivery_stats_hour.attempts + EXCLUDED.attempts,
+                latency_sum_ms = delivery_stats_hour.latency_sum_ms + EXCLUDED.latency_sum_ms,
+                latency_max_ms = GREATEST(delivery_stats_hour.latency_max_ms, EXCLUDED.latency_max_ms)
+            """;
+
+    static final String PRUNE_HOURS_SQL = "DELETE FROM delivery_stats_hour WHERE bucket_start < ?";
+
+    static final String TAKE_LATENCY_MINUTES_SQL = """
+            DELETE FROM delivery_latency_minute
+            WHERE id IN (
+                SELECT id FROM delivery_latency_minute WHERE bucket_start < ? ORDER BY id LIMIT ?
+            )
+            RETURNING project_id, endpoint_id, DATE_TRUNC('hour', bucket_start, 'UTC') AS hour, histogram
+            """;
+
+    static final String SELECT_LATENCY_HOUR_SQL = "SELECT histogram FROM delivery_latency_hour " +
+            "WHERE project_id = ? AND bucket_start = ? AND endpoint_id = ? FOR UPDATE";
+
+    static final String UPSERT_LATENCY_HOUR_SQL = "INSERT INTO delivery_latency_hour " +
+            "(project_id, endpoint_id, bucket_start, histogram) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (project_id, bucket_start, endpoint_id) DO UPDATE SET histogram = EXCLUDED.histogram";
+
+    static final String PRUNE_LATENCY_HOURS_SQL = "DELETE FROM delivery_latency_hour WHERE bucket_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration keepMinutes;
+    private final Duration hourRetention;
+    private final int latencyBatchSize;
+    private final Counter compactedRows;
+    private final Counter compactedHistograms;
+
+    public DeliveryStatsCompactionService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager txManager,
+            MeterRegistry meterRegistry,
+            @Value("${analytics.rollups.keep-minutes:120}") long keepMinutes,
+            @Value("${analytics.rollups.hour-retention-days:90}") long hourRetentionDays,
+            @Value("${analytics.rollups.latency-batch-size:1000}") int latencyBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(txManager);
+        this.keepMinutes = Duration.ofMinutes(keepMinutes);
+        this.hourRetention = Duration.ofDays(hourRetentionDays);
+        this.latencyBatchSize = latencyBatchSize;
+        this.compactedRows = Counter.builder("delivery_stats_compacted_rows_total").register(meterRegistry);
+        this.compactedHistograms = Counter.builder("delivery_latency_compacted_histograms_total")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.rollups.compaction-interval-ms:300000}",
+            initialDelayString = "${analytics.rollups.compaction-initial-delay-ms:60000}")
+    @SchedulerLock(name = "delivery-stats-compaction", lockAtLeastFor = "PT1M", lockAtMostFor = "PT10M")
+    public void compact() {
+        try {
+            compact(Instant.now());
+        } catch (Exception e) {
+            log.error("Failed to compact delivery stats: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return number of hourly rows inserted or updated
+     */
+    int compact(Instant now) {
+        Instant cutoff = compactionCutoff(now, keepMinutes);
+        int compacted = jdbcTemplate.update(COMPACT_SQL, cutoff.atOffset(ZoneOffset.UTC));
+        OffsetDateTime retentionCutoff = now.minus(hourRetention).atOffset(ZoneOffset.UTC);
+        int pruned = jdbcTemplate.update(PRUNE_HOURS_SQL, retentionCutoff);
+        compactedRows.increment(compacted);
+
+        int histograms = 0;
+        int batch;
+        do {
+            batch = compactLatencyBatch(cutoff);
+            histograms += batch;
+        } while (batch == latencyBatchSize);
+        pruned += jdbcTemplate.update(PRUNE_LATENCY_HOURS_SQL, retentionCutoff);
+        compactedHistograms.increment(histograms);
+
+        if (compacted > 0 || histograms > 0 || pruned > 0) {
+            log.info("Compacted delivery stats before {} into {} hourly rows and {} minute histograms, " +
+                            "pruned {} hourly rows", cutoff, compacted, histograms, pruned);
+        }
+        return compacted;
+    }
+
+    /**
+     * @return number of minute histograms moved into their hour
+     */
+    int compactLatencyBatch(Instant cutoff) {
+        Integer moved = transactionTemplate.execute(tx -> {
+            Map<HourKey, LatencyHistogram> hours = new LinkedHashMap<>();
+            int[] rows = { 0 };
+            jdbcTemplate.query(TAKE_LATENCY_MINUTES_SQL, rs -> {
+                HourKey key = new HourKey(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class),
+                        rs.getObject(3, OffsetDateTime.class).toInstant());
+                hours.computeIfAbsent(key, k -> new LatencyHistogram())
+                        .merge(LatencyHistogram.fromBytes(rs.getBytes(4)));
+                rows[0]++;
+            }, cutoff.atOffset(ZoneOffset.UTC), latencyBatchSize);
+
+            hours.forEach((key, histogram) -> {
+                OffsetDateTime hour = key.hour().atOffset(ZoneOffset.UTC);
+                List<byte[]> existing = jdbcTemplate.query(SELECT_LATENCY_HOUR_SQL,
+                        (rs, i) -> rs.getBytes(1), key.projectId(), hour, key.endpointId());
+                existing.forEach(bytes -> histogram.merge(LatencyHistogram.fromBytes(bytes)));
+                jdbcTemplate.update(UPSERT_LATENCY_HOUR_SQL, key.projectId(), key.endpointId(), hour,
+                        histogram.toBytes());
+            });
+            return rows[0];
+        });
+        return moved != null ? moved : 0;
+    }
+
+    /**
+     * Rounded down to the hour so that an hour is compacted in one run.
+     */
+    static Instant compactionCutoff(Instant now, Duration keepMinutes) {
+        return now.minus(keepMinutes).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    record HourKey(UUID projectId, UUID endpointId, Instant hour) {}
+}
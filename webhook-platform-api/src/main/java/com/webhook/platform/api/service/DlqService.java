@@ -30,6 +30,7 @@ import com.webhook.platform.api.exception.NotFoundException;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -70,7 +71,12 @@ public class DlqService {
                 .map(Delivery::getId).collect(Collectors.toList());
         Map<UUID, DeliveryAttempt> lastAttempts = Map.of();
         if (!deliveryIds.isEmpty()) {
-            lastAttempts = deliveryAttemptRepository.findLatestAttemptsByDeliveryIds(deliveryIds)
+            Instant oldest = deliveries.getContent().stream()
+                    .map(Delivery::getCreatedAt)
+                    .min(Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .orElse(null);
+            lastAttempts = deliveryAttemptRepository.findLatestAttemptsByDeliveryIds(deliveryIds,
+                            DeliveryAttemptRepository.attemptsSince(oldest))
                     .stream()
                     .collect(Collectors.toMap(DeliveryAttempt::getDeliveryId, a -> a));
         }
@@ -89,8 +95,7 @@ public class DlqService {
             throw new IllegalArgumentException("Delivery is not in DLQ");
         }
         
-        Optional<DeliveryAttempt> lastAttempt = deliveryAttemptRepository
-                .findTopByDeliveryIdOrderByAttemptNumberDesc(delivery.getId());
+        Optional<DeliveryAttempt> lastAttempt = deliveryAttemptRepository.findLatestAttempt(delivery);
         return mapToResponse(delivery, lastAttempt.orElse(null));
     }
 
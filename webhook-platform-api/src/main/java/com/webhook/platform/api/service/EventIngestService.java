@@ -4,25 +4,31 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webhook.platform.api.domain.entity.*;
 import com.webhook.platform.api.domain.enums.DeliveryStatus;
-import com.webhook.platform.api.domain.enums.OutboxStatus;
 import com.webhook.platform.api.domain.enums.IdempotencyPolicy;
 import com.webhook.platform.api.domain.enums.SchemaValidationPolicy;
 import com.webhook.platform.api.domain.repository.*;
+import com.webhook.platform.api.dto.EventBatchIngestRequest;
+import com.webhook.platform.api.dto.EventBatchIngestResponse;
 import com.webhook.platform.api.dto.EventIngestRequest;
 import com.webhook.platform.api.dto.EventIngestResponse;
 import com.webhook.platform.api.service.billing.QuotaCounterService;
+import com.webhook.platform.api.service.dispatch.DeliveryDispatcher;
 import com.webhook.platform.api.service.rules.CompiledRule;
+import com.webhook.platform.api.service.routing.SubscriptionRoutingService;
+import com.webhook.platform.api.service.routing.SubscriptionRoutingTable;
 import com.webhook.platform.api.service.rules.RuleEngineService;
 import com.webhook.platform.api.service.workflow.WorkflowTriggerService;
-import com.webhook.platform.common.constants.KafkaTopics;
-import com.webhook.platform.common.util.EventTypeMatcher;
 import com.webhook.platform.common.util.PayloadCompressionUtil;
-import com.webhook.platform.common.dto.DeliveryMessage;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -39,9 +45,9 @@ import java.util.UUID;
 public class EventIngestService {
 
     private final EventRepository eventRepository;
-    private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionRoutingService subscriptionRoutingService;
     private final DeliveryRepository deliveryRepository;
-    private final OutboxMessageRepository outboxMessageRepository;
+    private final DeliveryDispatcher deliveryDispatcher;
     private final ObjectMapper objectMapper;
     private final MeterRegistry meterRegistry;
     private final SequenceGeneratorService sequenceGeneratorService;
@@ -50,16 +56,18 @@ public class EventIngestService {
     private final RuleEngineService ruleEngineService;
     private final WorkflowTriggerService workflowTriggerService;
     private final QuotaCounterService quotaCounterService;
+    private final Validator validator;
     private final TransactionTemplate transactionTemplate;
     private final long maxPayloadSizeBytes;
     private final int compressionThresholdBytes;
     private final int maxFanoutPerEvent;
+    private final int maxBatchSize;
 
     public EventIngestService(
             EventRepository eventRepository,
-            SubscriptionRepository subscriptionRepository,
+            SubscriptionRoutingService subscriptionRoutingService,
             DeliveryRepository deliveryRepository,
-            OutboxMessageRepository outboxMessageRepository,
+            DeliveryDispatcher deliveryDispatcher,
             ObjectMapper objectMapper,
             MeterRegistry meterRegistry,
             SequenceGeneratorService sequenceGeneratorService,
@@ -68,14 +76,16 @@ public class EventIngestService {
             RuleEngineService ruleEngineService,
             WorkflowTriggerService workflowTriggerService,
             QuotaCounterService quotaCounterService,
+            Validator validator,
             PlatformTransactionManager transactionManager,
             @Value("${webhook.max-payload-size-bytes:262144}") long maxPayloadSizeBytes,
             @Value("${webhook.payload-compression-threshold-bytes:1024}") int compressionThresholdBytes,
-            @Value("${webhook.max-fanout-per-event:100}") int maxFanoutPerEvent) {
+            @Value("${webhook.max-fanout-per-event:100}") int maxFanoutPerEvent,
+            @Value("${webhook.ingest.max-batch-size:500}") int maxBatchSize) {
         this.eventRepository = eventRepository;
-        this.subscriptionRepository = subscriptionRepository;
+        this.subscriptionRoutingService = subscriptionRoutingService;
         this.deliveryRepository = deliveryRepository;
-        this.outboxMessageRepository = outboxMessageRepository;
+        this.deliveryDispatcher = deliveryDispatcher;
         this.objectMapper = objectMapper;
         this.meterRegistry = meterRegistry;
         this.sequenceGeneratorService = sequenceGeneratorService;
@@ -84,10 +94,12 @@ public class EventIngestService {
         this.ruleEngineService = ruleEngineService;
         this.workflowTriggerService = workflowTriggerService;
         this.quotaCounterService = quotaCounterService;
+        this.validator = validator;
         this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.maxPayloadSizeBytes = maxPayloadSizeBytes;
         this.compressionThresholdBytes = compressionThresholdBytes;
         this.maxFanoutPerEvent = maxFanoutPerEvent;
+        this.maxBatchSize = maxBatchSize;
     }
 
     /** Carries event data out of the transaction for post-commit workflow triggering. */
@@ -129,14 +141,7 @@ public class EventIngestService {
     private IngestResult doIngestEvent(UUID projectId, EventIngestRequest request, String idempotencyKey) {
         // Enforce idempotency policy
         Project project = projectRepository.findById(projectId).orElse(null);
-        if (project != null && project.getIdempotencyPolicy() == IdempotencyPolicy.REQUIRED && idempotencyKey == null) {
-            throw new IllegalArgumentException(
-                    "Idempotency-Key header is required for this project (policy: REQUIRED)");
-        }
-        if (project != null && project.getIdempotencyPolicy() == IdempotencyPolicy.AUTO && idempotencyKey == null) {
-            idempotencyKey = UUID.randomUUID().toString();
-            log.debug("Auto-generated idempotency key: {} for project: {}", idempotencyKey, projectId);
-        }
+        idempotencyKey = applyIdempotencyPolicy(project, projectId, idempotencyKey);
 
         if (idempotencyKey != null) {
             var existingEvent = eventRepository.findByProjectIdAndIdempotencyKey(projectId, idempotencyKey);
@@ -149,55 +154,333 @@ public class EventIngestService {
         }
 
         // Schema validation BEFORE saving event
-        if (project != null && Boolean.TRUE.equals(project.getSchemaValidationEnabled())) {
-            String payloadJson;
+        validateSchema(project, projectId, request);
+
+        Event event = createEvent(projectId, request, idempotencyKey);
+        event = eventRepository.saveAndFlush(event);
+        Counter.builder("events_ingested_total").tag("event_type", request.getType()).register(meterRegistry).increment();
+        // Increment Redis quota counter (fire-and-forget, approximate is OK)
+        if (project != null) {
+            quotaCounterService.increment(project.getOrganizationId());
+        }
+        log.info("Created event: {} for project: {}", event.getId(), projectId);
+
+        // ── Rules Engine evaluation ────────────────────────────────────
+        RuleOutcome rules = applyRules(ruleEngineService.planFor(projectId), projectId, event);
+        if (rules.drop()) {
+            return new IngestResult(buildResponse(event, 0), null, null, null);
+        }
+
+        // ── Subscription-based deliveries ──────────────────────────────
+        List<Subscription> subscriptions = subscriptionRoutingService.match(projectId, request.getType());
+        log.info("Found {} matching subscriptions for event type: {}", subscriptions.size(), request.getType());
+
+        checkFanout(projectId, request.getType(), subscriptions.size() + rules.routeEndpoints().size());
+
+        List<Delivery> savedDeliveries = deliveryRepository.saveAll(buildDeliveries(event, subscriptions, rules));
+        deliveryDispatcher.dispatch(savedDeliveries);
+
+        int deliveriesCreated = savedDeliveries.size();
+        Counter.builder("deliveries_created_total").tag("project_id", projectId.toString()).register(meterRegistry).increment(deliveriesCreated);
+
+        log.info("Created {} deliveries for event: {} (rules matched: {})",
+                deliveriesCreated, event.getId(), rules.matched());
+
+        return new IngestResult(
+                buildResponse(event, deliveriesCreated),
+                event.getId(), request.getType(), event.getDecompressedPayload());
+    }
+
+    // ─── Batch ingestion ────────────────────────────────────────────────
+
+    /**
+     * Ingests up to {@code webhook.ingest.max-batch-size} events in one transaction.
+     * <p>
+     * Idempotency keys are resolved with a single {@code = ANY(?)} query, the project, its
+     * subscription routing table and its rule plan are resolved once, and events, deliveries
+     * and outbox rows go out as JDBC batches in a single flush. Items fail individually
+     * (validation, idempotency policy, schema, payload size, fanout) without affecting the
+     * rest; a database error fails the whole batch.
+     */
+    public EventBatchIngestResponse ingestBatch(UUID projectId, List<EventBatchIngestRequest.Item> items) {
+        if (items.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    "Batch of " + items.size() + " events exceeds maximum batch size of " + maxBatchSize);
+        }
+        BatchOutcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> doIngestBatch(projectId, items));
+        } catch (DataIntegrityViolationException e) {
+            // Most likely a concurrent request committed one of our idempotency keys first;
+            // the second pass sees it in the lookup and reports that item as a duplicate.
+            log.info("Batch ingest for project {} hit a constraint violation, retrying once: {}",
+                    projectId, e.getMostSpecificCause().getMessage());
+            outcome = transactionTemplate.execute(status -> doIngestBatch(projectId, items));
+        }
+
+        // Workflow automation — AFTER transaction commit, as for single events
+        int depth = WorkflowTriggerService.getCurrentDepth() + 1;
+        for (IngestResult created : outcome.created()) {
             try {
-                payloadJson = objectMapper.writeValueAsString(request.getData());
+                workflowTriggerService.triggerWorkflows(
+                        projectId, created.eventId(), created.eventType(), created.eventPayload(), depth);
             } catch (Exception e) {
-                throw new RuntimeException("Failed to serialize event payload", e);
+                log.warn("Failed to trigger workflows for event {} (event is committed, workflows skipped): {}",
+                        created.eventId(), e.getMessage());
+            }
+        }
+        return outcome.response();
+    }
+
+    private record BatchOutcome(EventBatchIngestResponse response, List<IngestResult> created) {}
+
+    /** Per-item state while a batch is being built. */
+    private static final class BatchItem {
+        final int index;
+        final EventBatchIngestRequest.Item item;
+        String idempotencyKey;
+        Event event;
+        RuleOutcome rules = RuleOutcome.NONE;
+        int deliveriesCreated;
+        /** Earlier item in the same batch carrying the same idempotency key. */
+        BatchItem duplicateOf;
+        EventBatchIngestResponse.ItemResult result;
+
+        BatchItem(int index, EventBatchIngestRequest.Item item) {
+            this.index = index;
+            this.item = item;
+        }
+
+        void fail(String error) {
+            result = EventBatchIngestResponse.ItemResult.builder()
+                    .index(index)
+                    .status(EventBatchIngestResponse.ItemStatus.FAILED)
+                    .type(item != null ? item.getType() : null)
+                    .error(error)
+                    .build();
+        }
+    }
+
+    private BatchOutcome doIngestBatch(UUID projectId, List<EventBatchIngestRequest.Item> items) {
+        Project project = projectRepository.findById(projectId).orElse(null);
+
+        List<BatchItem> batch = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BatchItem b = new BatchItem(i, items.get(i));
+            batch.add(b);
+            if (b.item == null) {
+                b.fail("Event is required");
+                continue;
             }
+            Set<ConstraintViolation<EventBatchIngestRequest.Item>> violations = validator.validate(b.item);
+            if (!violations.isEmpty()) {
+                b.fail(violations.stream().map(ConstraintViolation::getMessage).sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            try {
+                b.idempotencyKey = applyIdempotencyPolicy(project, projectId, b.item.getIdempotencyKey());
+            } catch (IllegalArgumentException e) {
+                b.fail(e.getMessage());
+            }
+        }
 
-            schemaRegistryService.autoDiscover(projectId, request.getType(), payloadJson);
+        // ── One idempotency lookup for the whole batch ─────────────────
+        String[] keys = batch.stream()
+                .filter(b -> b.result == null && b.idempotencyKey != null)
+                .map(b -> b.idempotencyKey)
+                .distinct()
+                .toArray(String[]::new);
+        Map<String, Event> existing = new HashMap<>();
+        if (keys.length > 0) {
+            for (Event event : eventRepository.findByProjectIdAndIdempotencyKeyAny(projectId, keys)) {
+                existing.put(event.getIdempotencyKey(), event);
+            }
+        }
 
-            List<String> validationErrors = schemaRegistryService.validatePayload(
-                    projectId, request.getType(), payloadJson);
-            if (!validationErrors.isEmpty()) {
-                log.warn("Schema validation failed for event type '{}': {}",
-                        request.getType(), validationErrors);
-                if (project.getSchemaValidationPolicy() == SchemaValidationPolicy.BLOCK) {
-                    throw new IllegalArgumentException(
-                            "Schema validation failed: " + String.join("; ", validationErrors));
+        // ── Build events ───────────────────────────────────────────────
+        Map<String, BatchItem> firstByKey = new HashMap<>();
+        List<BatchItem> pending = new ArrayList<>(batch.size());
+        for (BatchItem b : batch) {
+            if (b.result != null) {
+                continue;
+            }
+            if (b.idempotencyKey != null) {
+                Event existingEvent = existing.get(b.idempotencyKey);
+                if (existingEvent != null) {
+                    b.result = itemResult(b.index, EventBatchIngestResponse.ItemStatus.DUPLICATE, existingEvent, 0);
+                    Counter.builder("events_duplicate_total").tag("event_type", b.item.getType()).register(meterRegistry).increment();
+                    continue;
+                }
+                BatchItem first = firstByKey.putIfAbsent(b.idempotencyKey, b);
+                if (first != null) {
+                    b.duplicateOf = first;
+                    continue;
                 }
             }
+            try {
+                EventIngestRequest request = b.item.toIngestRequest();
+                validateSchema(project, projectId, request);
+                b.event = createEvent(projectId, request, b.idempotencyKey);
+                pending.add(b);
+            } catch (IllegalArgumentException e) {
+                firstByKey.remove(b.idempotencyKey, b);
+                b.fail(e.getMessage());
+            }
+        }
+
+        // Ids are assigned on persist; rows go out with the single flush below
+        eventRepository.saveAll(pending.stream().map(b -> b.event).toList());
+
+        // ── Rules and subscriptions: loaded once, evaluated per event ──
+        RuleEngineService.ProjectRulePlan plan = ruleEngineService.planFor(projectId);
+        SubscriptionRoutingTable routing = subscriptionRoutingService.tableFor(projectId);
+
+        List<Delivery> deliveriesToSave = new ArrayList<>();
+        List<Event> rejectedEvents = new ArrayList<>();
+        for (BatchItem b : pending) {
+            b.rules = applyRules(plan, projectId, b.event);
+            if (b.rules.drop()) {
+                continue;
+            }
+            List<Subscription> subscriptions = routing.match(b.event.getEventType());
+            try {
+                checkFanout(projectId, b.event.getEventType(), subscriptions.size() + b.rules.routeEndpoints().size());
+            } catch (IllegalArgumentException e) {
+                rejectedEvents.add(b.event);
+                b.event = null;
+                b.fail(e.getMessage());
+                continue;
+            }
+            List<Delivery> deliveries = buildDeliveries(b.event, subscriptions, b.rules);
+            b.deliveriesCreated = deliveries.size();
+            deliveriesToSave.addAll(deliveries);
+        }
+        if (!rejectedEvents.isEmpty()) {
+            eventRepository.deleteAll(rejectedEvents);
+        }
+
+        List<Delivery> savedDeliveries = deliveryRepository.saveAll(deliveriesToSave);
+        deliveryDispatcher.dispatch(savedDeliveries);
+        // One flush: events, deliveries and outbox rows as ordered JDBC batches
+        eventRepository.flush();
+
+        // ── Results ────────────────────────────────────────────────────
+        List<IngestResult> created = new ArrayList<>();
+        int accepted = 0;
+        int duplicates = 0;
+        int failed = 0;
+        List<EventBatchIngestResponse.ItemResult> results = new ArrayList<>(batch.size());
+        for (BatchItem b : batch) {
+            if (b.result == null && b.event != null) {
+                b.result = itemResult(b.index, EventBatchIngestResponse.ItemStatus.CREATED, b.event, b.deliveriesCreated);
+                Counter.builder("events_ingested_total").tag("event_type", b.event.getEventType()).register(meterRegistry).increment();
+                if (!b.rules.drop()) {
+                    created.add(new IngestResult(null, b.event.getId(), b.event.getEventType(), b.event.getDecompressedPayload()));
+                }
+            } else if (b.result == null && b.duplicateOf != null) {
+                Event original = b.duplicateOf.event;
+                if (original != null) {
+                    b.result = itemResult(b.index, EventBatchIngestResponse.ItemStatus.DUPLICATE, original, 0);
+                } else {
+                    b.fail("Duplicate of item " + b.duplicateOf.index + ", which failed");
+                }
+            }
+            switch (b.result.getStatus()) {
+                case CREATED -> accepted++;
+                case DUPLICATE -> duplicates++;
+                case FAILED -> failed++;
+            }
+            results.add(b.result);
         }
 
-        Event event = createEvent(projectId, request, idempotencyKey);
-        event = eventRepository.saveAndFlush(event);
-        Counter.builder("events_ingested_total").tag("event_type", request.getType()).register(meterRegistry).increment();
-        // Increment Redis quota counter (fire-and-forget, approximate is OK)
         if (project != null) {
-            quotaCounterService.increment(project.getOrganizationId());
+            quotaCounterService.increment(project.getOrganizationId(), accepted);
         }
-        log.info("Created event: {} for project: {}", event.getId(), projectId);
+        Counter.builder("deliveries_created_total").tag("project_id", projectId.toString())
+                .register(meterRegistry).increment(savedDeliveries.size());
+        log.info("Batch ingest for project {}: {} created, {} duplicates, {} failed, {} deliveries",
+                projectId, accepted, duplicates, failed, savedDeliveries.size());
+
+        EventBatchIngestResponse response = EventBatchIngestResponse.builder()
+                .accepted(accepted)
+                .duplicates(duplicates)
+                .failed(failed)
+                .results(results)
+                .build();
+        return new BatchOutcome(response, created);
+    }
 
-        // ── Rules Engine evaluation ────────────────────────────────────
-        JsonNode eventJson = null;
-        List<RuleEngineService.RuleMatch> ruleMatches = List.of();
-        boolean dropEvent = false;
-        Set<UUID> ruleRouteEndpoints = new HashSet<>();
-        UUID ruleTransformationId = null;
+    private static EventBatchIngestResponse.ItemResult itemResult(int index, EventBatchIngestResponse.ItemStatus status,
+                                                                  Event event, int deliveriesCreated) {
+        return EventBatchIngestResponse.ItemResult.builder()
+                .index(index)
+                .status(status)
+                .eventId(event.getId())
+                .type(event.getEventType())
+                .createdAt(event.getCreatedAt())
+                .deliveriesCreated(deliveriesCreated)
+                .build();
+    }
+
+    // ─── Shared by single and batch ingestion ───────────────────────────
 
+    private String applyIdempotencyPolicy(Project project, UUID projectId, String idempotencyKey) {
+        if (project != null && project.getIdempotencyPolicy() == IdempotencyPolicy.REQUIRED && idempotencyKey == null) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key header is required for this project (policy: REQUIRED)");
+        }
+        if (project != null && project.getIdempotencyPolicy() == IdempotencyPolicy.AUTO && idempotencyKey == null) {
+            idempotencyKey = UUID.randomUUID().toString();
+            log.debug("Auto-generated idempotency key: {} for project: {}", idempotencyKey, projectId);
+        }
+        return idempotencyKey;
+    }
+
+    private void validateSchema(Project project, UUID projectId, EventIngestRequest request) {
+        if (project == null || !Boolean.TRUE.equals(project.getSchemaValidationEnabled())) {
+            return;
+        }
+        String payloadJson;
         try {
-            eventJson = objectMapper.readTree(event.getDecompressedPayload());
-            ruleMatches = ruleEngineService.evaluate(projectId, request.getType(), eventJson, event.getId());
+            payloadJson = objectMapper.writeValueAsString(request.getData());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize event payload", e);
+        }
 
+        schemaRegistryService.autoDiscover(projectId, request.getType(), payloadJson);
+
+        List<String> validationErrors = schemaRegistryService.validatePayload(
+                projectId, request.getType(), payloadJson);
+        if (!validationErrors.isEmpty()) {
+            log.warn("Schema validation failed for event type '{}': {}",
+                    request.getType(), validationErrors);
+            if (project.getSchemaValidationPolicy() == SchemaValidationPolicy.BLOCK) {
+                throw new IllegalArgumentException(
+                        "Schema validation failed: " + String.join("; ", validationErrors));
+            }
+        }
+    }
+
+    /** What the rules engine decided for one event. */
+    private record RuleOutcome(boolean drop, Set<UUID> routeEndpoints, UUID transformationId, int matched) {
+        static final RuleOutcome NONE = new RuleOutcome(false, Set.of(), null, 0);
+    }
+
+    private RuleOutcome applyRules(RuleEngineService.ProjectRulePlan plan, UUID projectId, Event event) {
+        try {
+            JsonNode eventJson = objectMapper.readTree(event.getDecompressedPayload());
+            List<RuleEngineService.RuleMatch> ruleMatches =
+                    ruleEngineService.evaluate(plan, projectId, event.getEventType(), eventJson, event.getId());
+
+            Set<UUID> ruleRouteEndpoints = new HashSet<>();
+            UUID ruleTransformationId = null;
             for (RuleEngineService.RuleMatch match : ruleMatches) {
                 if (match.hasDrop()) {
-                    dropEvent = true;
                     log.info("Rule '{}' DROP action — skipping deliveries for event {}",
                             match.rule().getName(), event.getId());
                     Counter.builder("rules_drop_total").tag("project_id", projectId.toString()).register(meterRegistry).increment();
-                    break;
+                    return new RuleOutcome(true, Set.of(), null, ruleMatches.size());
                 }
                 for (CompiledRule.CompiledAction action : match.getRouteActions()) {
                     ruleRouteEndpoints.add(action.getEndpointId());
@@ -213,36 +496,30 @@ public class EventIngestService {
                 Counter.builder("rules_matched_total").tag("project_id", projectId.toString())
                         .register(meterRegistry).increment(ruleMatches.size());
             }
+            return new RuleOutcome(false, ruleRouteEndpoints, ruleTransformationId, ruleMatches.size());
         } catch (Exception e) {
             log.warn("Rules engine evaluation failed for event {}: {} — proceeding without rules",
                     event.getId(), e.getMessage());
+            return RuleOutcome.NONE;
         }
+    }
 
-        if (dropEvent) {
-            return new IngestResult(buildResponse(event, 0), null, null, null);
-        }
-
-        // ── Subscription-based deliveries ──────────────────────────────
-        List<Subscription> subscriptions = subscriptionRepository
-                .findByProjectIdAndEnabledTrue(projectId).stream()
-                .filter(s -> EventTypeMatcher.matches(s.getEventType(), request.getType()))
-                .toList();
-        log.info("Found {} matching subscriptions for event type: {}", subscriptions.size(), request.getType());
-
-        // ── Fanout limit — prevent queue flood from 1 event → N deliveries ─
-        int totalFanout = subscriptions.size() + ruleRouteEndpoints.size();
+    /** Fanout limit — prevent queue flood from 1 event → N deliveries. */
+    private void checkFanout(UUID projectId, String eventType, int totalFanout) {
         if (totalFanout > maxFanoutPerEvent) {
             log.warn("Fanout limit exceeded for event type '{}' in project {}: {} targets > max {}",
-                    request.getType(), projectId, totalFanout, maxFanoutPerEvent);
+                    eventType, projectId, totalFanout, maxFanoutPerEvent);
             Counter.builder("events_fanout_limited_total").tag("project_id", projectId.toString())
                     .register(meterRegistry).increment();
             throw new IllegalArgumentException(
                     "Fanout limit exceeded: event would create " + totalFanout +
                     " deliveries (max " + maxFanoutPerEvent + "). Reduce subscriptions or contact support.");
         }
+    }
 
+    private List<Delivery> buildDeliveries(Event event, List<Subscription> subscriptions, RuleOutcome rules) {
         Set<UUID> deliveredEndpoints = new HashSet<>();
-        List<Delivery> deliveriesToSave = new ArrayList<>(subscriptions.size() + ruleRouteEndpoints.size());
+        List<Delivery> deliveries = new ArrayList<>(subscriptions.size() + rules.routeEndpoints().size());
 
         for (Subscription subscription : subscriptions) {
             Long sequenceNumber = null;
@@ -254,45 +531,28 @@ public class EventIngestService {
             }
 
             // Apply rule transformation override if present
-            UUID effectiveTransformId = ruleTransformationId != null
-                    ? ruleTransformationId
+            UUID effectiveTransformId = rules.transformationId() != null
+                    ? rules.transformationId()
                     : subscription.getTransformationId();
 
             Delivery delivery = createDelivery(event, subscription, sequenceNumber, orderingEnabled);
             if (effectiveTransformId != null) {
                 delivery.setTransformationId(effectiveTransformId);
             }
-            deliveriesToSave.add(delivery);
+            deliveries.add(delivery);
             deliveredEndpoints.add(subscription.getEndpointId());
         }
 
         // ── Rule ROUTE actions — additional endpoints ──────────────────
-        for (UUID routeEndpointId : ruleRouteEndpoints) {
+        for (UUID routeEndpointId : rules.routeEndpoints()) {
             if (deliveredEndpoints.contains(routeEndpointId)) {
                 continue; // already delivered via subscription
             }
-            deliveriesToSave.add(createRuleRouteDelivery(event, routeEndpointId, ruleTransformationId));
+            deliveries.add(createRuleRouteDelivery(event, routeEndpointId, rules.transformationId()));
             deliveredEndpoints.add(routeEndpointId);
             log.debug("Rule ROUTE: added delivery to endpoint {} for event {}", routeEndpointId, event.getId());
         }
-
-        List<Delivery> savedDeliveries = deliveryRepository.saveAll(deliveriesToSave);
-
-        List<OutboxMessage> outboxMessages = new ArrayList<>(savedDeliveries.size());
-        for (Delivery delivery : savedDeliveries) {
-            outboxMessages.add(createOutboxMessage(delivery));
-        }
-        outboxMessageRepository.saveAll(outboxMessages);
-
-        int deliveriesCreated = savedDeliveries.size();
-        Counter.builder("deliveries_created_total").tag("project_id", projectId.toString()).register(meterRegistry).increment(deliveriesCreated);
-
-        log.info("Created {} deliveries for event: {} (rules matched: {})",
-                deliveriesCreated, event.getId(), ruleMatches.size());
-
-        return new IngestResult(
-                buildResponse(event, deliveriesCreated),
-                event.getId(), request.getType(), event.getDecompressedPayload());
+        return deliveries;
     }
 
     private Event createEvent(UUID projectId, EventIngestRequest request, String idempotencyKey) {
@@ -366,35 +626,6 @@ public class EventIngestService {
                 .build();
     }
 
-    private OutboxMessage createOutboxMessage(Delivery delivery) {
-        try {
-            DeliveryMessage deliveryMessage = DeliveryMessage.builder()
-                    .deliveryId(delivery.getId())
-                    .eventId(delivery.getEventId())
-                    .endpointId(delivery.getEndpointId())
-                    .subscriptionId(delivery.getSubscriptionId())
-                    .status(delivery.getStatus().name())
-                    .attemptCount(delivery.getAttemptCount())
-                    .sequenceNumber(delivery.getSequenceNumber())
-                    .orderingEnabled(delivery.getOrderingEnabled())
-                    .build();
-            
-            String payload = objectMapper.writeValueAsString(deliveryMessage);
-            return OutboxMessage.builder()
-                    .aggregateType("Delivery")
-                    .aggregateId(delivery.getId())
-                    .eventType("DeliveryCreated")
-                    .payload(payload)
-                    .kafkaTopic(KafkaTopics.DELIVERIES_DISPATCH)
-                    .kafkaKey(delivery.getEndpointId().toString())
-                    .status(OutboxStatus.PENDING)
-                    .retryCount(0)
-                    .build();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create outbox message", e);
-        }
-    }
-
     private EventIngestResponse buildResponse(Event event, int deliveriesCreated) {
         return EventIngestResponse.builder()
                 .eventId(event.getId())
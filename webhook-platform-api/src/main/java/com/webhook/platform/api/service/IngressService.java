@@ -28,6 +28,7 @@ import com.webhook.platform.api.service.verification.WebhookVerificationStrategy
 import com.webhook.platform.api.service.verification.WebhookVerifierFactory;
 import com.webhook.platform.common.enums.VerificationMode;
 import com.webhook.platform.common.util.CryptoUtils;
+import com.webhook.platform.common.util.DecryptedSecretCache;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -39,6 +40,7 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HexFormat;
@@ -63,6 +65,7 @@ public class IngressService {
     private final String encryptionKey;
     private final String encryptionSalt;
     private final long maxPayloadSizeBytes;
+    private final DecryptedSecretCache hmacSecretCache;
 
     public IngressService(
             IncomingSourceRepository sourceRepository,
@@ -92,6 +95,8 @@ public class IngressService {
         this.encryptionKey = encryptionKey;
         this.encryptionSalt = encryptionSalt;
         this.maxPayloadSizeBytes = maxPayloadSizeBytes;
+        this.hmacSecretCache = new DecryptedSecretCache("source_hmac_secret", 10_000, Duration.ofMinutes(10));
+        this.hmacSecretCache.bindTo(meterRegistry);
 
         this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
@@ -286,12 +291,13 @@ public class IngressService {
         if (source.getHmacSecretEncrypted() == null || source.getHmacSecretIv() == null) {
             throw new IllegalStateException("HMAC secret not configured for source " + source.getId());
         }
-        return CryptoUtils.decryptSecret(
-                source.getHmacSecretEncrypted(),
-                source.getHmacSecretIv(),
-                encryptionKey,
-                encryptionSalt
-        );
+        return hmacSecretCache.get(source.getId(), source.getUpdatedAt(),
+                () -> CryptoUtils.decryptSecret(
+                        source.getHmacSecretEncrypted(),
+                        source.getHmacSecretIv(),
+                        encryptionKey,
+                        encryptionSalt
+                ));
     }
 
     private String computeSha256(String body) {
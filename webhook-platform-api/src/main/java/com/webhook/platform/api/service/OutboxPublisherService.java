@@ -10,6 +10,7 @@ import com.webhook.platform.common.dto.IncomingForwardMessage;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import java.time.Duration;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerRecord;
@@ -27,12 +28,17 @@ import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
 public class OutboxPublisherService {
 
+    public static final String MODE_POLLING = "polling";
+    public static final String MODE_NOTIFY = "notify";
+
     private final OutboxMessageRepository outboxMessageRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ObjectMapper objectMapper;
@@ -41,8 +47,21 @@ public class OutboxPublisherService {
     private final int deadRetentionDays;
     private final long sendingRecoverySeconds;
     private final long batchSendTimeoutSeconds;
+    private final boolean notifyMode;
+    private final Duration claimWindow;
     private final Timer publishLatency;
+    private final Timer commitToPublishLatency;
     private final TransactionTemplate txTemplate;
+    private final PartitionMaintenanceService partitionMaintenanceService;
+
+    /** Kafka outcomes waiting to be written; filled by producer callbacks, drained by flushOutcomes(). */
+    private final Queue<PublishOutcome> outcomes = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Oldest {@code created_at} still claimable, as of the last {@link #refreshClaimFloor()};
+     * EPOCH until the first refresh, so nothing is missed at startup.
+     */
+    private volatile Instant claimFloor = Instant.EPOCH;
 
     public OutboxPublisherService(
             OutboxMessageRepository outboxMessageRepository,
@@ -50,11 +69,14 @@ public class OutboxPublisherService {
             ObjectMapper objectMapper,
             MeterRegistry meterRegistry,
             PlatformTransactionManager txManager,
+            PartitionMaintenanceService partitionMaintenanceService,
             @Value("${outbox.publisher.batch-size:100}") int batchSize,
             @Value("${outbox.publisher.max-retries:5}") int maxRetries,
             @Value("${outbox.publisher.dead-retention-days:90}") int deadRetentionDays,
             @Value("${outbox.publisher.sending-recovery-seconds:300}") long sendingRecoverySeconds,
-            @Value("${outbox.publisher.batch-send-timeout-seconds:30}") long batchSendTimeoutSeconds) {
+            @Value("${outbox.publisher.batch-send-timeout-seconds:30}") long batchSendTimeoutSeconds,
+            @Value("${outbox.publisher.claim-window-hours:24}") long claimWindowHours,
+            @Value("${outbox.publisher.mode:polling}") String mode) {
         this.outboxMessageRepository = outboxMessageRepository;
         this.kafkaTemplate = kafkaTemplate;
         this.objectMapper = objectMapper;
@@ -63,12 +85,20 @@ public class OutboxPublisherService {
         this.deadRetentionDays = deadRetentionDays;
         this.sendingRecoverySeconds = sendingRecoverySeconds;
         this.batchSendTimeoutSeconds = batchSendTimeoutSeconds;
+        this.notifyMode = MODE_NOTIFY.equalsIgnoreCase(mode);
+        this.claimWindow = Duration.ofHours(claimWindowHours);
         this.txTemplate = new TransactionTemplate(txManager);
+        this.partitionMaintenanceService = partitionMaintenanceService;
 
         this.publishLatency = Timer.builder("outbox_publish_latency")
                 .description("Time to publish a batch of outbox messages to Kafka")
                 .register(meterRegistry);
 
+        this.commitToPublishLatency = Timer.builder("outbox_commit_to_publish_latency")
+                .description("Time from outbox row creation to Kafka acknowledgement")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
         Gauge.builder("outbox_queue_depth", outboxMessageRepository,
                         repo -> repo.countByStatus(OutboxStatus.PENDING))
                 .description("Number of outbox messages by status")
@@ -98,17 +128,16 @@ public class OutboxPublisherService {
     @Scheduled(fixedDelayString = "${outbox.publisher.poll-interval-ms:1000}")
     @SchedulerLock(name = "outbox-publisher", lockAtLeastFor = "PT1S", lockAtMostFor = "PT30S")
     public void publishPendingMessages() {
+        // In notify mode OutboxStreamingPublisher drains per kafka_key shard instead
+        if (notifyMode) {
+            return;
+        }
+
         // Phase 1: fast claim — SELECT FOR UPDATE + mark SENDING, commit immediately
-        List<OutboxMessage> claimed = txTemplate.execute(status -> {
-            List<OutboxMessage> batch = outboxMessageRepository
-                    .findPendingBatchForUpdate(OutboxStatus.PENDING.name(), batchSize, 10);
-            for (OutboxMessage msg : batch) {
-                msg.setStatus(OutboxStatus.SENDING);
-            }
-            return batch.isEmpty() ? batch : outboxMessageRepository.saveAll(batch);
-        });
+        List<OutboxMessage> claimed = claimPending(() -> outboxMessageRepository
+                .findPendingBatchForUpdate(OutboxStatus.PENDING.name(), batchSize, 10, claimSince()));
 
-        if (claimed == null || claimed.isEmpty()) {
+        if (claimed.isEmpty()) {
             return;
         }
 
@@ -117,13 +146,79 @@ public class OutboxPublisherService {
         publishBatchAsync(claimed, false);
     }
 
+    /**
+     * Claims and publishes one batch of PENDING messages whose {@code kafka_key} hashes to
+     * {@code shard}. Returns once every send has completed (or timed out), so a caller that
+     * drains a shard serially keeps per-key order.
+     *
+     * @return number of messages claimed; 0 when the shard has nothing pending
+     */
+    public int publishPendingShard(int shard, int shardCount) {
+        List<OutboxMessage> claimed = claimPending(() -> outboxMessageRepository
+                .findPendingShardBatchForUpdate(OutboxStatus.PENDING.name(), shard, shardCount, batchSize, 10,
+                        claimSince()));
+
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        log.debug("Publishing {} pending outbox messages from shard {}/{}", claimed.size(), shard, shardCount);
+        publishBatchAsync(claimed, false);
+        return claimed.size();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Lower bound on {@code created_at} for the claim queries: the last {@code claim-window-hours},
+     * widened to the oldest claimable row found by {@link #refreshClaimFloor()} so a backlog
+     * older than the window (e.g. after a long Kafka outage) is still drained.
+     */
+    Instant claimSince() {
+        Instant windowStart = Instant.now().minus(claimWindow);
+        Instant floor = claimFloor;
+        return floor.isBefore(windowStart) ? floor : windowStart;
+    }
+
+    /**
+     * Looks up the oldest claimable row. This is the one outbox query that visits every
+     * partition, so it runs on its own slow schedule rather than with every poll.
+     */
+    @Scheduled(fixedDelayString = "${outbox.publisher.claim-floor-refresh-ms:600000}")
+    public void refreshClaimFloor() {
+        try {
+            Instant oldest = outboxMessageRepository.findOldestClaimableCreatedAt(maxRetries);
+            claimFloor = oldest != null ? oldest.minusSeconds(1) : Instant.now();
+        } catch (Exception e) {
+            log.warn("Failed to refresh outbox claim floor, keeping {}: {}", claimFloor, e.getMessage());
+        }
+    }
+
+    private List<OutboxMessage> claimPending(Supplier<List<OutboxMessage>> finder) {
+        List<OutboxMessage> claimed = txTemplate.execute(status -> {
+            List<OutboxMessage> batch = finder.get();
+            if (!batch.isEmpty()) {
+                outboxMessageRepository.markSending(messageIds(batch), oldestCreatedAt(batch));
+            }
+            return batch;
+        });
+        if (claimed == null) {
+            return List.of();
+        }
+        // Detached by now: this only keeps the in-memory copies in step with the rows
+        claimed.forEach(msg -> msg.setStatus(OutboxStatus.SENDING));
+        return claimed;
+    }
+
     @Scheduled(fixedDelayString = "${outbox.publisher.retry-interval-ms:30000}")
     @SchedulerLock(name = "outbox-publisher-retry", lockAtLeastFor = "PT5S", lockAtMostFor = "PT2M")
     public void retryFailedMessages() {
         // Phase 1: claim inside short transaction — SELECT FOR UPDATE + mark SENDING, commit immediately
         List<OutboxMessage> messagesToRetry = txTemplate.execute(status -> {
             List<OutboxMessage> failedMessages = outboxMessageRepository
-                    .findFailedMessagesForRetry(OutboxStatus.FAILED.name(), maxRetries, batchSize, 10);
+                    .findFailedMessagesForRetry(OutboxStatus.FAILED.name(), maxRetries, batchSize, 10, claimSince());
 
             if (failedMessages.isEmpty()) {
                 return List.<OutboxMessage>of();
@@ -140,15 +235,18 @@ public class OutboxPublisherService {
                             message.getId(), nextRetryTime);
                     continue;
                 }
-                message.setStatus(OutboxStatus.SENDING);
                 eligible.add(message);
             }
-            return eligible.isEmpty() ? eligible : outboxMessageRepository.saveAll(eligible);
+            if (!eligible.isEmpty()) {
+                outboxMessageRepository.markSending(messageIds(eligible), oldestCreatedAt(eligible));
+            }
+            return eligible;
         });
 
         if (messagesToRetry == null || messagesToRetry.isEmpty()) {
             return;
         }
+        messagesToRetry.forEach(msg -> msg.setStatus(OutboxStatus.SENDING));
 
         // Phase 2: publish to Kafka outside transaction — no DB locks held
         log.info("Retrying {} failed outbox messages", messagesToRetry.size());
@@ -168,6 +266,9 @@ public class OutboxPublisherService {
         }
 
         Instant publishedCutoff = Instant.now().minus(Duration.ofDays(3));
+        // Days holding only PUBLISHED rows go as whole partitions; the DELETEs handle the rest
+        partitionMaintenanceService.dropPartitionsBefore(PartitionMaintenanceService.OUTBOX_MESSAGES,
+                publishedCutoff, "status <> 'PUBLISHED'");
         int deletedPublished = outboxMessageRepository.deleteOldPublishedMessages(
                 OutboxStatus.PUBLISHED.name(), publishedCutoff, 5000);
 
@@ -191,20 +292,6 @@ public class OutboxPublisherService {
         return base + jitter;
     }
 
-    private void incrementRetryCount(OutboxMessage message, String errorMessage) {
-        message.setRetryCount(message.getRetryCount() + 1);
-        message.setErrorMessage(errorMessage);
-        message.setLastAttemptAt(Instant.now());
-        
-        if (message.getRetryCount() >= maxRetries) {
-            message.setStatus(OutboxStatus.DEAD);
-            log.error("Outbox message {} exceeded max retries, moved to DEAD. Topic: {}, Key: {}, Error: {}",
-                    message.getId(), message.getKafkaTopic(), message.getKafkaKey(), errorMessage);
-        }
-        
-        outboxMessageRepository.save(message);
-    }
-
     private void publishBatchAsync(List<OutboxMessage> messages, boolean isRetry) {
         Timer.Sample sample = Timer.start();
         List<CompletableFuture<Void>> completionFutures = new ArrayList<>();
@@ -226,67 +313,179 @@ public class OutboxPublisherService {
                 );
                 record.headers().add(new RecordHeader("X-Correlation-ID", correlationId.getBytes(StandardCharsets.UTF_8)));
 
-                // Use handle() callback to mark status based on the ACTUAL Kafka outcome.
+                // Use handle() callback to record the ACTUAL Kafka outcome.
                 // This prevents the previous bug where get(0ms) after a batch timeout
                 // would mark in-flight (but eventually successful) sends as FAILED,
                 // causing duplicate dispatch on retry.
+                // The callback runs on the producer I/O thread, so it only queues the
+                // outcome; status rows are written in bulk by flushOutcomes().
                 CompletableFuture<Void> done = kafkaTemplate.send(record)
                         .<Void>handle((result, ex) -> {
-                            try {
-                                if (ex != null) {
-                                    log.error("Failed to publish outbox message {}: {}",
-                                            message.getId(), ex.getMessage());
-                                    if (isRetry) {
-                                        incrementRetryCount(message, ex.getMessage());
-                                    } else {
-                                        markAsFailed(message, ex.getMessage());
-                                    }
-                                } else {
-                                    markAsPublished(message);
-                                    if (isRetry) {
-                                        log.info("Successfully retried outbox message: {}",
-                                                message.getId());
-                                    }
-                                }
-                            } catch (Exception dbEx) {
-                                log.error("Failed to update outbox status for message {}: {}",
-                                        message.getId(), dbEx.getMessage());
+                            if (ex != null) {
+                                log.error("Failed to publish outbox message {}: {}",
+                                        message.getId(), ex.getMessage());
+                                recordFailure(message, ex.getMessage(), isRetry);
+                            } else {
+                                recordPublished(message);
                             }
                             return null;
                         });
                 completionFutures.add(done);
             } catch (Exception e) {
                 log.error("Failed to prepare outbox message {}: {}", message.getId(), e.getMessage());
-                if (isRetry) {
-                    incrementRetryCount(message, e.getMessage());
-                } else {
-                    markAsFailed(message, e.getMessage());
-                }
+                recordFailure(message, e.getMessage(), isRetry);
             }
         }
 
-        if (completionFutures.isEmpty()) return;
+        if (!completionFutures.isEmpty()) {
+            // Wait for all send callbacks to complete (bounded).
+            // Messages still in-flight after timeout stay SENDING; their outcome is queued
+            // whenever the callback fires and written by the next flush. If the process dies
+            // first, cleanupOldMessages() recovers them back to PENDING.
+            try {
+                CompletableFuture.allOf(completionFutures.toArray(new CompletableFuture[0]))
+                        .get(batchSendTimeoutSeconds, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                log.warn("Batch Kafka send did not fully complete within {}s: {} — " +
+                        "in-flight messages remain SENDING and will be recovered by cleanup",
+                        batchSendTimeoutSeconds, e.getMessage());
+            }
+        }
+
+        flushOutcomes();
+        sample.stop(publishLatency);
+    }
+
+    private void recordPublished(OutboxMessage message) {
+        if (message.getCreatedAt() != null) {
+            commitToPublishLatency.record(Duration.between(message.getCreatedAt(), Instant.now()));
+        }
+        outcomes.add(new PublishOutcome(message.getId(), message.getCreatedAt(), OutcomeKind.PUBLISHED, null));
+    }
+
+    private void recordFailure(OutboxMessage message, String errorMessage, boolean isRetry) {
+        if (!isRetry) {
+            outcomes.add(new PublishOutcome(message.getId(), message.getCreatedAt(), OutcomeKind.FAILED, errorMessage));
+            return;
+        }
+        if (message.getRetryCount() + 1 >= maxRetries) {
+            log.error("Outbox message {} exceeded max retries, moved to DEAD. Topic: {}, Key: {}, Error: {}",
+                    message.getId(), message.getKafkaTopic(), message.getKafkaKey(), errorMessage);
+        }
+        outcomes.add(new PublishOutcome(message.getId(), message.getCreatedAt(), OutcomeKind.RETRY_FAILED,
+                errorMessage));
+    }
+
+    /**
+     * Writes every queued outcome with one UPDATE per outcome kind, in one transaction.
+     * Outcomes whose write fails go back on the queue for the next flush. Safe to call from
+     * several publisher threads at once: each drains its own share of the queue.
+     */
+    void flushOutcomes() {
+        List<PublishOutcome> drained = new ArrayList<>();
+        for (PublishOutcome outcome; (outcome = outcomes.poll()) != null; ) {
+            drained.add(outcome);
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
 
-        // Wait for all send callbacks to complete (bounded).
-        // Messages still in-flight after timeout stay SENDING —
-        // cleanupOldMessages() recovers them back to PENDING after 120s.
+        Map<OutcomeKind, List<PublishOutcome>> byKind = new EnumMap<>(OutcomeKind.class);
+        for (PublishOutcome outcome : drained) {
+            byKind.computeIfAbsent(outcome.kind(), k -> new ArrayList<>()).add(outcome);
+        }
         try {
-            CompletableFuture.allOf(completionFutures.toArray(new CompletableFuture[0]))
-                    .get(batchSendTimeoutSeconds, TimeUnit.SECONDS);
+            txTemplate.executeWithoutResult(status -> {
+                List<PublishOutcome> published = byKind.get(OutcomeKind.PUBLISHED);
+                if (published != null) {
+                    outboxMessageRepository.markPublished(ids(published), oldest(published));
+                }
+                List<PublishOutcome> failed = byKind.get(OutcomeKind.FAILED);
+                if (failed != null) {
+                    outboxMessageRepository.markFailed(ids(failed), errors(failed), oldest(failed));
+                }
+                List<PublishOutcome> retryFailed = byKind.get(OutcomeKind.RETRY_FAILED);
+                if (retryFailed != null) {
+                    outboxMessageRepository.markRetryFailed(ids(retryFailed), errors(retryFailed), maxRetries,
+                            oldest(retryFailed));
+                }
+            });
+            log.debug("Flushed {} outbox outcomes", drained.size());
         } catch (Exception e) {
-            log.warn("Batch Kafka send did not fully complete within {}s: {} — " +
-                    "in-flight messages remain SENDING and will be recovered by cleanup",
-                    batchSendTimeoutSeconds, e.getMessage());
+            log.error("Failed to update outbox status for {} messages, will retry on next flush: {}",
+                    drained.size(), e.getMessage());
+            outcomes.addAll(drained);
         }
+    }
 
-        sample.stop(publishLatency);
+    /**
+     * Writes outcomes whose Kafka callbacks completed after their batch stopped waiting.
+     */
+    @Scheduled(fixedDelayString = "${outbox.publisher.poll-interval-ms:1000}")
+    public void flushLateOutcomes() {
+        flushOutcomes();
     }
 
-    private void markAsPublished(OutboxMessage message) {
-        message.setStatus(OutboxStatus.PUBLISHED);
-        message.setPublishedAt(Instant.now());
-        outboxMessageRepository.save(message);
-        log.debug("Marked outbox message {} as published", message.getId());
+    @PreDestroy
+    void flushOnShutdown() {
+        flushOutcomes();
+    }
+
+    private static String[] messageIds(List<OutboxMessage> messages) {
+        String[] ids = new String[messages.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = messages.get(i).getId().toString();
+        }
+        return ids;
+    }
+
+    /**
+     * Same bound as {@link #oldest} for a claimed batch.
+     */
+    private static Instant oldestCreatedAt(List<OutboxMessage> messages) {
+        Instant oldest = null;
+        for (OutboxMessage message : messages) {
+            if (message.getCreatedAt() == null) {
+                return Instant.EPOCH;
+            }
+            if (oldest == null || message.getCreatedAt().isBefore(oldest)) {
+                oldest = message.getCreatedAt();
+            }
+        }
+        return oldest.minusSeconds(1);
+    }
+
+    private static String[] ids(List<PublishOutcome> outcomes) {
+        String[] ids = new String[outcomes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = outcomes.get(i).messageId().toString();
+        }
+        return ids;
+    }
+
+    /**
+     * Lower bound on the outcomes' {@code created_at}, so the status UPDATE only visits the
+     * partitions they live in. One second of slack covers microsecond rounding in Postgres.
+     */
+    private static Instant oldest(List<PublishOutcome> outcomes) {
+        Instant oldest = null;
+        for (PublishOutcome outcome : outcomes) {
+            if (outcome.createdAt() == null) {
+                return Instant.EPOCH;
+            }
+            if (oldest == null || outcome.createdAt().isBefore(oldest)) {
+                oldest = outcome.createdAt();
+            }
+        }
+        return oldest.minusSeconds(1);
+    }
+
+    private static String[] errors(List<PublishOutcome> outcomes) {
+        String[] errors = new String[outcomes.size()];
+        for (int i = 0; i < errors.length; i++) {
+            errors[i] = outcomes.get(i).errorMessage();
+        }
+        return errors;
     }
 
     private Object deserializePayload(OutboxMessage message) throws Exception {
@@ -297,12 +496,14 @@ public class OutboxPublisherService {
         return objectMapper.readValue(message.getPayload(), DeliveryMessage.class);
     }
 
-    private void markAsFailed(OutboxMessage message, String errorMessage) {
-        message.setStatus(OutboxStatus.FAILED);
-        message.setRetryCount(message.getRetryCount() + 1);
-        message.setErrorMessage(errorMessage);
-        message.setLastAttemptAt(Instant.now());
-        outboxMessageRepository.save(message);
-        log.warn("Marked outbox message {} as failed: {}", message.getId(), errorMessage);
+    private enum OutcomeKind {
+        PUBLISHED,
+        /** First publish attempt failed: FAILED, retry_count + 1. */
+        FAILED,
+        /** Retry failed: retry_count + 1, DEAD once max-retries is reached. */
+        RETRY_FAILED
+    }
+
+    private record PublishOutcome(UUID messageId, Instant createdAt, OutcomeKind kind, String errorMessage) {
     }
 }
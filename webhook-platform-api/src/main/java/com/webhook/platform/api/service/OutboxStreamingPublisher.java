@@ -0,0 +1,258 @@
+package com.webhook.platform.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.ClockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Event-driven outbox publishing ({@code outbox.publisher.mode=notify}).
+ *
+ * <h3>Wake-up</h3>
+ * An {@code AFTER INSERT} trigger on {@code outbox_messages} calls
+ * {@code pg_notify('outbox_pending')}; Postgres delivers it when the inserting transaction
+ * commits. One listener thread holds a dedicated connection (outside the Hikari pool) on
+ * {@code LISTEN outbox_pending} and wakes the drainers on every notification. If nothing
+ * arrives for {@code fallback-poll-ms}, or the connection drops, it wakes them anyway, so a
+ * missed notification costs at most one fallback interval.
+ *
+ * <h3>Sharding</h3>
+ * Pending rows are split into {@code shards} by {@code hashtext(kafka_key)}. A shard is drained
+ * by at most one thread cluster-wide, guarded by the ShedLock row
+ * {@code outbox-publisher-shard-N}; each drain claims with {@code SKIP LOCKED} and waits for
+ * a batch's Kafka acks before claiming the next, so per-key order is kept while different
+ * shards publish in parallel across API pods. A shard that another pod holds is skipped: that
+ * pod received the same notification.
+ *
+ * <p>Retries of FAILED messages and SENDING recovery stay on the scheduled jobs in
+ * {@link OutboxPublisherService}.</p>
+ */
+@Component
+@Slf4j
+public class OutboxStreamingPublisher {
+
+    public static final String CHANNEL = "outbox_pending";
+
+    private static final String LOCK_PREFIX = "outbox-publisher-shard-";
+    private static final long RECONNECT_DELAY_MS = 1000;
+
+    private final OutboxPublisherService publisher;
+    private final LockProvider lockProvider;
+    private final boolean enabled;
+    private final int shardCount;
+    private final int drainThreads;
+    private final long fallbackPollMs;
+    private final Duration lockAtMostFor;
+    private final String jdbcUrl;
+    private final String jdbcUsername;
+    private final String jdbcPassword;
+
+    /** Shard has a drain queued or running on this pod. */
+    private final AtomicBoolean[] scheduled;
+    /** Shard was signalled since its drain last looked. */
+    private final AtomicBoolean[] dirty;
+
+    private final Counter notifications;
+    private final Counter fallbackPolls;
+    private final Counter shardBusy;
+
+    private volatile boolean running;
+    private ExecutorService drainers;
+    private Thread listener;
+
+    public OutboxStreamingPublisher(
+            OutboxPublisherService publisher,
+            LockProvider lockProvider,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.publisher.mode:polling}") String mode,
+            @Value("${outbox.publisher.shards:16}") int shardCount,
+            @Value("${outbox.publisher.drain-threads:4}") int drainThreads,
+            @Value("${outbox.publisher.fallback-poll-ms:1000}") long fallbackPollMs,
+            @Value("${outbox.publisher.shard-lock-at-most-for-seconds:30}") long lockAtMostForSeconds,
+            @Value("${spring.datasource.url:}") String jdbcUrl,
+            @Value("${spring.datasource.username:}") String jdbcUsername,
+            @Value("${spring.datasource.password:}") String jdbcPassword) {
+        this.publisher = publisher;
+        this.lockProvider = lockProvider;
+        this.enabled = OutboxPublisherService.MODE_NOTIFY.equalsIgnoreCase(mode);
+        this.shardCount = shardCount;
+        this.drainThreads = drainThreads;
+        this.fallbackPollMs = fallbackPollMs;
+        this.lockAtMostFor = Duration.ofSeconds(lockAtMostForSeconds);
+        this.jdbcUrl = jdbcUrl;
+        this.jdbcUsername = jdbcUsername;
+        this.jdbcPassword = jdbcPassword;
+
+        this.scheduled = new AtomicBoolean[shardCount];
+        this.dirty = new AtomicBoolean[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            scheduled[i] = new AtomicBoolean();
+            dirty[i] = new AtomicBoolean();
+        }
+
+        this.notifications = Counter.builder("outbox_notifications_total")
+                .description("NOTIFY wake-ups received by the outbox listener")
+                .register(meterRegistry);
+        this.fallbackPolls = Counter.builder("outbox_fallback_polls_total")
+                .description("Outbox wake-ups caused by the fallback poll interval rather than NOTIFY")
+                .register(meterRegistry);
+        this.shardBusy = Counter.builder("outbox_shard_lock_busy_total")
+                .description("Shard drains skipped because another instance holds the shard lock")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        startDrainers();
+        listener = new Thread(this::listen, "outbox-listener");
+        listener.setDaemon(true);
+        listener.start();
+        log.info("Outbox publisher in notify mode: shards={}, drainThreads={}, fallbackPoll={}ms",
+                shardCount, drainThreads, fallbackPollMs);
+    }
+
+    void startDrainers() {
+        running = true;
+        AtomicInteger threadIndex = new AtomicInteger();
+        drainers = Executors.newFixedThreadPool(drainThreads, r -> {
+            Thread thread = new Thread(r, "outbox-drain-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        drainers.shutdown();
+        try {
+            if (listener != null) {
+                listener.join(fallbackPollMs + RECONNECT_DELAY_MS);
+            }
+            drainers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Marks every shard dirty and queues a drain for each one not already queued or running.
+     */
+    public void signal() {
+        if (!running) {
+            return;
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            dirty[shard].set(true);
+            schedule(shard);
+        }
+    }
+
+    private void schedule(int shard) {
+        if (running && scheduled[shard].compareAndSet(false, true)) {
+            int s = shard;
+            drainers.execute(() -> drain(s));
+        }
+    }
+
+    /**
+     * Drains one shard until it is empty and no further signal arrived, holding its ShedLock.
+     * The hold is capped at half of {@code lockAtMostFor}; a longer backlog releases the lock
+     * and re-queues the shard so the lock never expires under a running drain.
+     */
+    void drain(int shard) {
+        try {
+            Optional<SimpleLock> lock = lockProvider.lock(new LockConfiguration(
+                    ClockProvider.now(), LOCK_PREFIX + shard, lockAtMostFor, Duration.ZERO));
+            if (lock.isEmpty()) {
+                dirty[shard].set(false);
+                shardBusy.increment();
+                return;
+            }
+            long deadline = System.nanoTime() + lockAtMostFor.toNanos() / 2;
+            try {
+                while (running && dirty[shard].getAndSet(false)) {
+                    while (running && publisher.publishPendingShard(shard, shardCount) > 0) {
+                        if (System.nanoTime() - deadline > 0) {
+                            dirty[shard].set(true);
+                            return;
+                        }
+                    }
+                }
+            } finally {
+                lock.get().unlock();
+            }
+        } catch (Exception e) {
+            log.error("Outbox drain of shard {} failed: {}", shard, e.getMessage(), e);
+        } finally {
+            scheduled[shard].set(false);
+            if (dirty[shard].get()) {
+                schedule(shard);
+            }
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(jdbcUrl, jdbcUsername, jdbcPassword)) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening on Postgres channel '{}'", CHANNEL);
+                // Rows committed while we were not listening
+                signal();
+
+                while (running) {
+                    PGNotification[] received = pgConnection.getNotifications((int) fallbackPollMs);
+                    if (received != null && received.length > 0) {
+                        notifications.increment();
+                    } else {
+                        fallbackPolls.increment();
+                    }
+                    signal();
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Outbox LISTEN connection failed, polling until it is re-established: {}", e.getMessage());
+                fallbackPolls.increment();
+                signal();
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.webhook.platform.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the daily {@code created_at} partitions of {@code delivery_attempts} and
+ * {@code outbox_messages} (see V042) in shape.
+ *
+ * <h3>Creation</h3>
+ * Partitions are pre-created {@code premake-days} ahead on a schedule. Rows that find no
+ * daily partition go to {@code <table>_default} and are removed by the row-based cleanup.
+ *
+ * <h3>Retention</h3>
+ * {@link #dropPartitionsBefore} drops every daily partition whose whole day lies before the
+ * cutoff, which costs the same for ten rows as for ten million. The retention jobs call it
+ * first and then run their batched DELETEs, which are left with only the default partition
+ * and the partially expired day. Each drop runs in its own short transaction with a
+ * {@code lock_timeout}, because it takes an exclusive lock on the parent table; a drop that
+ * cannot get the lock is retried on the next run.
+ */
+@Service
+@Slf4j
+public class PartitionMaintenanceService {
+
+    public static final String DELIVERY_ATTEMPTS = "delivery_attempts";
+    public static final String OUTBOX_MESSAGES = "outbox_messages";
+
+    private static final Set<String> PARTITIONED_TABLES = Set.of(DELIVERY_ATTEMPTS, OUTBOX_MESSAGES);
+    private static final DateTimeFormatter DAY_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate dropTx;
+    private final MeterRegistry meterRegistry;
+    private final int premakeDays;
+    private final long dropLockTimeoutMs;
+
+    public PartitionMaintenanceService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager txManager,
+            MeterRegistry meterRegistry,
+            @Value("${partitioning.premake-days:14}") int premakeDays,
+            @Value("${partitioning.drop-lock-timeout-ms:5000}") long dropLockTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dropTx = new TransactionTemplate(txManager);
+        this.dropTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.premakeDays = premakeDays;
+        this.dropLockTimeoutMs = dropLockTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${partitioning.maintenance-interval-ms:3600000}",
+            initialDelayString = "${partitioning.maintenance-initial-delay-ms:60000}")
+    @SchedulerLock(name = "partition-maintenance", lockAtLeastFor = "PT1M", lockAtMostFor = "PT10M")
+    public void createFuturePartitions() {
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                Integer created = jdbcTemplate.queryForObject(
+                        "SELECT create_daily_partitions(?, CURRENT_DATE, CURRENT_DATE + ?)",
+                        Integer.class, table, premakeDays);
+                if (created != null && created > 0) {
+                    Counter.builder("partitions_created_total")
+                            .tag("table", table)
+                            .register(meterRegistry)
+                            .increment(created);
+                    log.info("Created {} daily partitions of {}", created, table);
+                }
+            } catch (Exception e) {
+                log.error("Failed to pre-create partitions of {}: {}", table, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Drops the daily partitions of {@code table} whose day ends on or before {@code cutoff}.
+     *
+     * @param keepWhere SQL condition on the partition's rows; a partition holding any matching
+     *                  row is kept (its rows are left to the row-based cleanup). {@code null}
+     *                  drops unconditionally.
+     * @return number of partitions dropped
+     */
+    public int dropPartitionsBefore(String table, Instant cutoff, String keepWhere) {
+        if (!PARTITIONED_TABLES.contains(table)) {
+            throw new IllegalArgumentException("Not a partitioned table: " + table);
+        }
+        LocalDate cutoffDay = LocalDate.ofInstant(cutoff, ZoneOffset.UTC);
+        int dropped = 0;
+        for (String partition : expiredPartitions(table, listPartitions(table), cutoffDay)) {
+            try {
+                Boolean done = dropTx.execute(status -> {
+                    jdbcTemplate.execute("SET LOCAL lock_timeout = " + dropLockTimeoutMs);
+                    if (keepWhere != null && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                            "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE " + keepWhere + ")",
+                            Boolean.class))) {
+                        return false;
+                    }
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                    return true;
+                });
+                if (Boolean.TRUE.equals(done)) {
+                    dropped++;
+                } else {
+                    log.debug("Keeping partition {}: it still holds rows outside retention", partition);
+                }
+            } catch (Exception e) {
+                log.warn("Could not drop partition {}, will retry on next run: {}", partition, e.getMessage());
+            }
+        }
+        if (dropped > 0) {
+            Counter.builder("partitions_dropped_total")
+                    .tag("table", table)
+                    .register(meterRegistry)
+                    .increment(dropped);
+            log.info("Dropped {} partitions of {} older than {}", dropped, table, cutoffDay);
+        }
+        return dropped;
+    }
+
+    private List<String> listPartitions(String table) {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = CAST(? AS regclass)
+                """, String.class, table);
+    }
+
+    /**
+     * Daily partitions ({@code <table>_pYYYYMMDD}) whose day is before {@code cutoffDay},
+     * oldest first. The default partition and anything not named by
+     * {@code create_daily_partitions} are never returned.
+     */
+    static List<String> expiredPartitions(String table, List<String> partitions, LocalDate cutoffDay) {
+        String prefix = table + "_p";
+        List<String> expired = new ArrayList<>();
+        for (String partition : partitions) {
+            if (!partition.startsWith(prefix) || partition.length() != prefix.length() + 8) {
+                continue;
+            }
+            try {
+                LocalDate day = LocalDate.parse(partition.substring(prefix.length()), DAY_SUFFIX);
+                if (day.isBefore(cutoffDay)) {
+                    expired.add(partition);
+                }
+            } catch (DateTimeParseException e) {
+                // not one of ours
+            }
+        }
+        expired.sort(null);
+        return expired;
+    }
+}
@@ -82,13 +82,21 @@ public class RedisRateLimiterService {
     }
 
     public RateLimitResult tryAcquireWithInfo(UUID projectId, int ratePerSecond) {
+        return tryAcquireWithInfo(projectId, ratePerSecond, 1);
+    }
+
+    /**
+     * Takes {@code permits} tokens at once, e.g. one per event of a batch ingest.
+     * A request for more permits than the per-second rate can never succeed.
+     */
+    public RateLimitResult tryAcquireWithInfo(UUID projectId, int ratePerSecond, int permits) {
         try {
             String key = KEY_PREFIX + projectId;
             RRateLimiter limiter = redissonClient.getRateLimiter(key);
             limiter.trySetRate(RateType.OVERALL, ratePerSecond, 1, RateIntervalUnit.SECONDS);
             limiter.expire(KEY_TTL);
 
-            boolean acquired = limiter.tryAcquire(1);
+            boolean acquired = limiter.tryAcquire(permits);
             long available = limiter.availablePermits();
             int remaining = (int) Math.max(0, Math.min(available, ratePerSecond));
             long resetTimestamp = Instant.now().plusSeconds(1).getEpochSecond();
@@ -115,10 +123,10 @@ public class RedisRateLimiterService {
             log.warn("Redis rate limiter unavailable, using local fallback for project {}: {}",
                     projectId, e.getMessage());
             rateLimitFallback.increment();
-            boolean acquired = tryLocalFallback(projectId, ratePerSecond);
+            boolean acquired = tryLocalFallback(projectId, ratePerSecond, permits);
             RateLimitInfo info = RateLimitInfo.builder()
                     .limit(ratePerSecond)
-                    .remaining(acquired ? ratePerSecond - 1 : 0)
+                    .remaining(acquired ? ratePerSecond - permits : 0)
                     .resetTimestamp(Instant.now().plusSeconds(1).getEpochSecond())
                     .build();
             return RateLimitResult.builder()
@@ -152,7 +160,7 @@ public class RedisRateLimiterService {
             log.warn("Redis rate limiter unavailable, using local fallback for id {}: {}",
                     id, e.getMessage());
             rateLimitFallback.increment();
-            return tryLocalFallback(id, ratePerSecond);
+            return tryLocalFallback(id, ratePerSecond, 1);
         }
     }
 
@@ -198,7 +206,7 @@ public class RedisRateLimiterService {
      * Local in-memory rate limiter fallback using Bucket4j.
      * Provides emergency throttling when Redis is unavailable.
      */
-    private boolean tryLocalFallback(UUID projectId, int ratePerSecond) {
+    private boolean tryLocalFallback(UUID projectId, int ratePerSecond, int permits) {
         Bucket bucket = localFallbackBuckets.get(projectId, id -> Bucket.builder()
                 .addLimit(Bandwidth.builder()
                         .capacity(ratePerSecond)
@@ -206,7 +214,7 @@ public class RedisRateLimiterService {
                         .build())
                 .build());
 
-        boolean acquired = bucket.tryConsume(1);
+        boolean acquired = bucket.tryConsume(permits);
         if (acquired) {
             rateLimitHits.increment();
         } else {
@@ -12,6 +12,8 @@ import com.webhook.platform.api.dto.ReplaySessionResponse;
 import com.webhook.platform.api.exception.ConflictException;
 import com.webhook.platform.api.exception.ForbiddenException;
 import com.webhook.platform.api.exception.NotFoundException;
+import com.webhook.platform.api.service.routing.SubscriptionRoutingService;
+import com.webhook.platform.api.service.routing.SubscriptionRoutingTable;
 import com.webhook.platform.common.constants.KafkaTopics;
 import com.webhook.platform.common.dto.DeliveryMessage;
 import io.micrometer.core.instrument.Counter;
@@ -41,7 +43,7 @@ public class ReplayService {
 
     private final ReplaySessionRepository replaySessionRepository;
     private final EventRepository eventRepository;
-    private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionRoutingService subscriptionRoutingService;
     private final DeliveryRepository deliveryRepository;
     private final OutboxMessageRepository outboxMessageRepository;
     private final ProjectRepository projectRepository;
@@ -66,7 +68,7 @@ public class ReplayService {
     public ReplayService(
             ReplaySessionRepository replaySessionRepository,
             EventRepository eventRepository,
-            SubscriptionRepository subscriptionRepository,
+            SubscriptionRoutingService subscriptionRoutingService,
             DeliveryRepository deliveryRepository,
             OutboxMessageRepository outboxMessageRepository,
             ProjectRepository projectRepository,
@@ -76,7 +78,7 @@ public class ReplayService {
             MeterRegistry meterRegistry) {
         this.replaySessionRepository = replaySessionRepository;
         this.eventRepository = eventRepository;
-        this.subscriptionRepository = subscriptionRepository;
+        this.subscriptionRoutingService = subscriptionRoutingService;
         this.deliveryRepository = deliveryRepository;
         this.outboxMessageRepository = outboxMessageRepository;
         this.projectRepository = projectRepository;
@@ -237,7 +239,7 @@ public class ReplayService {
                     .filter(s -> s.getEndpointId().equals(session.getEndpointId()))
                     .toList();
         }
-        final List<Subscription> activeSubscriptions = subscriptions;
+        final SubscriptionRoutingTable routing = SubscriptionRoutingTable.of(subscriptions);
         final UUID sid = sessionId;
 
         // Cursor-based batch processing
@@ -278,7 +280,7 @@ public class ReplayService {
             final List<Event> currentBatch = batch;
             try {
                 BatchResult result = txTemplate.execute(status ->
-                        processBatch(currentBatch, activeSubscriptions, sid));
+                        processBatch(currentBatch, routing, sid));
                 if (result != null) {
                     totalProcessed += currentBatch.size();
                     totalDeliveries += result.deliveriesCreated;
@@ -316,18 +318,13 @@ public class ReplayService {
                 sessionId, totalProcessed, totalDeliveries, totalErrors);
     }
 
-    private BatchResult processBatch(List<Event> events, List<Subscription> subscriptions, UUID sessionId) {
+    private BatchResult processBatch(List<Event> events, SubscriptionRoutingTable routing, UUID sessionId) {
         int errors = 0;
 
         List<Delivery> deliveriesToSave = new ArrayList<>();
 
         for (Event event : events) {
-            for (Subscription subscription : subscriptions) {
-                // Match event type to subscription (wildcard or exact)
-                if (!matchesEventType(event.getEventType(), subscription.getEventType())) {
-                    continue;
-                }
-
+            for (Subscription subscription : routing.match(event.getEventType())) {
                 try {
                     Long sequenceNumber = null;
                     boolean orderingEnabled = Boolean.TRUE.equals(subscription.getOrderingEnabled());
@@ -404,22 +401,16 @@ public class ReplayService {
         return eventRepository.countForReplay(projectId, request.getFromDate(), request.getToDate());
     }
 
+    /**
+     * Enabled subscriptions that would receive the replayed events: those matching the
+     * requested event type (wildcards included), or all of them without a type filter.
+     */
     private List<Subscription> findActiveSubscriptions(UUID projectId, ReplayRequest request) {
+        SubscriptionRoutingTable routing = subscriptionRoutingService.tableFor(projectId);
         if (request.getEventType() != null && !request.getEventType().isBlank()) {
-            return subscriptionRepository.findByProjectIdAndEventTypeAndEnabledTrue(projectId, request.getEventType());
-        }
-        return subscriptionRepository.findByProjectIdAndEnabledTrue(projectId);
-    }
-
-    private boolean matchesEventType(String eventType, String pattern) {
-        if ("*".equals(pattern) || pattern.equals(eventType)) {
-            return true;
-        }
-        if (pattern.endsWith(".*")) {
-            String prefix = pattern.substring(0, pattern.length() - 2);
-            return eventType.startsWith(prefix + ".") || eventType.equals(prefix);
+            return routing.match(request.getEventType());
         }
-        return false;
+        return routing.all();
     }
 
     private OutboxMessage createOutboxMessage(Delivery delivery) {
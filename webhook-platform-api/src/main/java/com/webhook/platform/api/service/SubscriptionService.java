@@ -11,6 +11,7 @@ import com.webhook.platform.api.domain.repository.SubscriptionRepository;
 import com.webhook.platform.api.domain.repository.TransformationRepository;
 import com.webhook.platform.api.dto.SubscriptionRequest;
 import com.webhook.platform.api.dto.SubscriptionResponse;
+import com.webhook.platform.api.service.routing.SubscriptionRoutingService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,16 +29,19 @@ public class SubscriptionService {
     private final SubscriptionRepository subscriptionRepository;
     private final ProjectRepository projectRepository;
     private final TransformationRepository transformationRepository;
+    private final SubscriptionRoutingService subscriptionRoutingService;
     private final ObjectMapper objectMapper;
 
     public SubscriptionService(
             SubscriptionRepository subscriptionRepository,
             ProjectRepository projectRepository,
             TransformationRepository transformationRepository,
+            SubscriptionRoutingService subscriptionRoutingService,
             ObjectMapper objectMapper) {
         this.subscriptionRepository = subscriptionRepository;
         this.projectRepository = projectRepository;
         this.transformationRepository = transformationRepository;
+        this.subscriptionRoutingService = subscriptionRoutingService;
         this.objectMapper = objectMapper;
     }
 
@@ -74,6 +78,7 @@ public class SubscriptionService {
                 .build();
         
         subscription = subscriptionRepository.saveAndFlush(subscription);
+        subscriptionRoutingService.invalidate(subscription.getProjectId());
         return mapToResponse(subscription);
     }
 
@@ -132,6 +137,7 @@ public class SubscriptionService {
         }
         
         subscription = subscriptionRepository.saveAndFlush(subscription);
+        subscriptionRoutingService.invalidate(subscription.getProjectId());
         return mapToResponse(subscription);
     }
 
@@ -142,6 +148,7 @@ public class SubscriptionService {
                 .orElseThrow(() -> new NotFoundException("Subscription not found"));
         validateProjectOwnership(subscription.getProjectId(), organizationId);
         subscriptionRepository.deleteById(id);
+        subscriptionRoutingService.invalidate(subscription.getProjectId());
     }
 
     private void validatePayloadTemplate(String template) {
@@ -0,0 +1,71 @@
+package com.webhook.platform.api.service.alerting;
+
+import com.webhook.platform.api.domain.entity.AlertRule;
+import com.webhook.platform.api.domain.repository.AlertRuleRepository;
+import com.webhook.platform.api.service.AlertService;
+import com.webhook.platform.common.constants.KafkaTopics;
+import com.webhook.platform.common.dto.DeliveryOutcomeMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Feeds {@code deliveries.outcomes} into the {@link AlertRuleEngine} and fires the alerts it
+ * reports through {@link AlertService}.
+ */
+@Component
+@Slf4j
+public class AlertOutcomeListener {
+
+    private final AlertRuleEngine engine;
+    private final AlertService alertService;
+    private final AlertRuleRepository ruleRepository;
+    private final Counter alertsFired;
+    private final Counter alertsSuppressed;
+
+    public AlertOutcomeListener(AlertRuleEngine engine, AlertService alertService,
+                                AlertRuleRepository ruleRepository, MeterRegistry meterRegistry) {
+        this.engine = engine;
+        this.alertService = alertService;
+        this.ruleRepository = ruleRepository;
+        this.alertsFired = Counter.builder("alert_engine_alerts_fired_total").register(meterRegistry);
+        this.alertsSuppressed = Counter.builder("alert_engine_alerts_suppressed_total")
+                .description("Threshold crossings of muted, snoozed or disabled rules")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = KafkaTopics.DELIVERIES_OUTCOMES,
+            containerFactory = "alertOutcomeListenerContainerFactory",
+            autoStartup = "${app.alerts.engine.enabled:true}")
+    public void onOutcomes(List<DeliveryOutcomeMessage> outcomes) {
+        for (DeliveryOutcomeMessage outcome : outcomes) {
+            try {
+                for (AlertRuleEngine.Firing firing : engine.onOutcome(outcome)) {
+                    fire(firing);
+                }
+            } catch (Exception e) {
+                // Alerting is best-effort: never stall the partition on one outcome
+                log.warn("Failed to evaluate alert rules for delivery {}: {}",
+                        outcome.getDeliveryId(), e.getMessage());
+            }
+        }
+    }
+
+    void fire(AlertRuleEngine.Firing firing) {
+        // The engine's rule cache may be a few seconds old: re-read before notifying
+        AlertRule rule = ruleRepository.findById(firing.rule().getId()).orElse(null);
+        if (rule == null || !Boolean.TRUE.equals(rule.getEnabled()) || Boolean.TRUE.equals(rule.getMuted())
+                || (rule.getSnoozedUntil() != null && rule.getSnoozedUntil().isAfter(Instant.now()))) {
+            alertsSuppressed.increment();
+            log.debug("Suppressed alert for rule {}: {}", firing.rule().getId(), firing.message());
+            return;
+        }
+        alertService.fireAlert(rule, firing.value(), firing.message());
+        alertsFired.increment();
+    }
+}
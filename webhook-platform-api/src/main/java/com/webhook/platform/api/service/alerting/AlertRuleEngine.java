@@ -0,0 +1,316 @@
+package com.webhook.platform.api.service.alerting;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.webhook.platform.api.domain.entity.AlertRule;
+import com.webhook.platform.api.domain.enums.AlertType;
+import com.webhook.platform.api.domain.repository.AlertRuleRepository;
+import com.webhook.platform.common.dto.DeliveryOutcomeMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming evaluation of alert rules over the {@code deliveries.outcomes} topic.
+ *
+ * <h3>Evaluation</h3>
+ * Every outcome updates the state of each enabled rule of its project (optionally scoped to
+ * one endpoint) in O(1) and compares the new value with the threshold. A rule fires when its
+ * value reaches the threshold and fires again only after it dropped below; a failure streak
+ * fires once when it reaches the threshold. Windows advance with the outcomes' own
+ * timestamps, so consumer lag does not shrink them.
+ * <ul>
+ *   <li>{@code FAILURE_RATE}: failed attempts in % of attempts in the window</li>
+ *   <li>{@code DLQ_THRESHOLD}: deliveries moved to DLQ in the window</li>
+ *   <li>{@code CONSECUTIVE_FAILURES}: failed attempts in a row of one endpoint</li>
+ *   <li>{@code LATENCY_THRESHOLD}: average attempt latency (ms) in the window</li>
+ * </ul>
+ * Rate and latency rules wait for {@code min-samples} attempts in the window.
+ *
+ * <h3>State</h3>
+ * Outcomes are keyed by project, so each project's rules live on the one instance that owns
+ * its partition. Dirty states are checkpointed into {@code alert_rule_state} (V045) every
+ * {@code checkpoint-interval-ms} and restored when a rule is first seen after a restart or
+ * rebalance; revoked partitions are checkpointed and dropped first. A crash loses at most one
+ * checkpoint interval of window data. Rule definitions are cached per project for
+ * {@code rule-max-age-seconds}; mute, snooze and disable are re-checked when firing.
+ */
+@Service
+@Slf4j
+public class AlertRuleEngine implements ConsumerRebalanceListener {
+
+    static final String SELECT_STATE_SQL =
+            "SELECT alert_type, window_seconds, state FROM alert_rule_state WHERE rule_id = ?";
+
+    static final String UPSERT_STATE_SQL = "INSERT INTO alert_rule_state " +
+            "(rule_id, alert_type, window_seconds, state, checkpointed_at) " +
+            "SELECT ?, ?, ?, ?, NOW() WHERE EXISTS (SELECT 1 FROM alert_rules WHERE id = ?) " +
+            "ON CONFLICT (rule_id) DO UPDATE SET alert_type = EXCLUDED.alert_type, " +
+            "window_seconds = EXCLUDED.window_seconds, state = EXCLUDED.state, " +
+            "checkpointed_at = EXCLUDED.checkpointed_at";
+
+    private final AlertRuleRepository ruleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int minSamples;
+    private final int maxWindowSlots;
+    private final long stateIdleMs;
+
+    private final Cache<UUID, List<AlertRule>> rules;
+    private final ConcurrentHashMap<UUID, AlertRuleState> states = new ConcurrentHashMap<>();
+
+    private final Counter outcomesEvaluated;
+    private final Counter statesRestored;
+    private final Counter checkpointFailures;
+    private final DistributionSummary checkpointRows;
+
+    public AlertRuleEngine(
+            AlertRuleRepository ruleRepository,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.alerts.engine.rule-max-age-seconds:30}") long ruleMaxAgeSeconds,
+            @Value("${app.alerts.engine.max-projects:10000}") long maxProjects,
+            @Value("${app.alerts.engine.min-samples:10}") int minSamples,
+            @Value("${app.alerts.engine.max-window-slots:600}") int maxWindowSlots,
+            @Value("${app.alerts.engine.state-idle-minutes:60}") long stateIdleMinutes) {
+        this.ruleRepository = ruleRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.minSamples = minSamples;
+        this.maxWindowSlots = maxWindowSlots;
+        this.stateIdleMs = Duration.ofMinutes(stateIdleMinutes).toMillis();
+        this.rules = Caffeine.newBuilder()
+                .maximumSize(maxProjects)
+                .expireAfterWrite(Duration.ofSeconds(ruleMaxAgeSeconds))
+                .build();
+
+        this.outcomesEvaluated = Counter.builder("alert_engine_outcomes_total")
+                .description("Delivery outcomes evaluated against at least one alert rule")
+                .register(meterRegistry);
+        this.statesRestored = Counter.builder("alert_engine_states_restored_total")
+                .description("Rule states restored from a checkpoint")
+                .register(meterRegistry);
+        this.checkpointFailures = Counter.builder("alert_engine_checkpoint_failures_total")
+                .register(meterRegistry);
+        this.checkpointRows = DistributionSummary.builder("alert_engine_checkpoint_rows")
+                .register(meterRegistry);
+        Gauge.builder("alert_engine_rule_states", states, Map::size)
+                .description("Alert rules with in-memory state")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A rule that crossed its threshold with this outcome.
+     */
+    public record Firing(AlertRule rule, double value, String message) {}
+
+    /**
+     * Applies one outcome to the project's rules. Called from the single listener thread.
+     *
+     * @return rules that started firing, usually none
+     */
+    public List<Firing> onOutcome(DeliveryOutcomeMessage outcome) {
+        if (outcome.getProjectId() == null) {
+            return List.of();
+        }
+        List<AlertRule> projectRules = rules.get(outcome.getProjectId(), ruleRepository::findByProjectIdAndEnabledTrue);
+        if (projectRules.isEmpty()) {
+            return List.of();
+        }
+        outcomesEvaluated.increment();
+
+        long nowMs = System.currentTimeMillis();
+        long second = (outcome.getOccurredAtMs() != null ? outcome.getOccurredAtMs() : nowMs) / 1000;
+        List<Firing> firings = List.of();
+        for (AlertRule rule : projectRules) {
+            if (rule.getEndpointId() != null && !rule.getEndpointId().equals(outcome.getEndpointId())) {
+                continue;
+            }
+            AlertRuleState state = stateFor(rule);
+            Firing firing;
+            synchronized (state) {
+                firing = apply(rule, state, outcome, second);
+                state.dirty = true;
+                state.lastTouchedMs = nowMs;
+            }
+            if (firing != null) {
+                if (firings.isEmpty()) {
+                    firings = new ArrayList<>(1);
+                }
+                firings.add(firing);
+            }
+        }
+        return firings;
+    }
+
+    private Firing apply(AlertRule rule, AlertRuleState state, DeliveryOutcomeMessage outcome, long second) {
+        boolean succeeded = "SUCCESS".equals(outcome.getStatus());
+        double threshold = rule.getThresholdValue();
+        int windowMinutes = state.windowSeconds / 60;
+
+        switch (rule.getAlertType()) {
+            case FAILURE_RATE -> {
+                state.window.add(second, 1, succeeded ? 0 : 1);
+                long attempts = state.window.firstTotal();
+                long failed = state.window.secondTotal();
+                double rate = attempts > 0 ? 100.0 * failed / attempts : 0;
+                return edge(rule, state, attempts >= minSamples && rate >= threshold, rate,
+                        String.format("Failure rate %.1f%% over the last %d min (%d of %d attempts failed)",
+                                rate, windowMinutes, failed, attempts));
+            }
+            case DLQ_THRESHOLD -> {
+                state.window.add(second, "DLQ".equals(outcome.getStatus()) ? 1 : 0, 0);
+                long dlq = state.window.firstTotal();
+                return edge(rule, state, dlq > 0 && dlq >= threshold, dlq,
+                        String.format("%d deliveries moved to DLQ in the last %d min", dlq, windowMinutes));
+            }
+            case LATENCY_THRESHOLD -> {
+                if (outcome.getLatencyMs() == null) {
+                    return null;
+                }
+                state.window.add(second, 1, outcome.getLatencyMs());
+                long attempts = state.window.firstTotal();
+                double avg = attempts > 0 ? (double) state.window.secondTotal() / attempts : 0;
+                return edge(rule, state, attempts >= minSamples && avg >= threshold, avg,
+                        String.format("Average latency %.0f ms over the last %d min (%d attempts)",
+                                avg, windowMinutes, attempts));
+            }
+            case CONSECUTIVE_FAILURES -> {
+                UUID endpointId = outcome.getEndpointId();
+                if (endpointId == null) {
+                    return null;
+                }
+                if (succeeded) {
+                    state.failureStreaks.remove(endpointId);
+                    return null;
+                }
+                int streak = state.failureStreaks.merge(endpointId, 1, Integer::sum);
+                if (streak != Math.max(1, (int) Math.ceil(threshold))) {
+                    return null;
+                }
+                return new Firing(rule, streak,
+                        String.format("Endpoint %s failed %d consecutive attempts", endpointId, streak));
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private static Firing edge(AlertRule rule, AlertRuleState state, boolean breached, double value, String message) {
+        if (!breached) {
+            state.firing = false;
+            return null;
+        }
+        if (state.firing) {
+            return null;
+        }
+        state.firing = true;
+        return new Firing(rule, value, message);
+    }
+
+    private AlertRuleState stateFor(AlertRule rule) {
+        int windowSeconds = Math.max(1, rule.getWindowMinutes() != null ? rule.getWindowMinutes() : 5) * 60;
+        AlertRuleState state = states.get(rule.getId());
+        if (state == null || !state.matches(rule.getAlertType(), windowSeconds)) {
+            // First sight since start / rebalance, or the rule's type or window was edited
+            state = restore(rule.getId(), rule.getAlertType(), windowSeconds);
+            states.put(rule.getId(), state);
+        }
+        return state;
+    }
+
+    private AlertRuleState restore(UUID ruleId, AlertType alertType, int windowSeconds) {
+        AlertRuleState state = new AlertRuleState(alertType, windowSeconds, maxWindowSlots);
+        try {
+            jdbcTemplate.query(SELECT_STATE_SQL, rs -> {
+                if (alertType.name().equals(rs.getString(1)) && rs.getInt(2) == windowSeconds) {
+                    state.restore(rs.getBytes(3));
+                    statesRestored.increment();
+                }
+            }, ruleId);
+        } catch (Exception e) {
+            log.warn("Failed to restore state of alert rule {}, starting empty: {}", ruleId, e.getMessage());
+            return new AlertRuleState(alertType, windowSeconds, maxWindowSlots);
+        }
+        return state;
+    }
+
+    /**
+     * Writes states changed since the last run and drops states that have been idle for
+     * {@code state-idle-minutes} (they are restored from the checkpoint when needed again).
+     */
+    @Scheduled(fixedDelayString = "${app.alerts.engine.checkpoint-interval-ms:10000}")
+    public synchronized void checkpoint() {
+        long idleBefore = System.currentTimeMillis() - stateIdleMs;
+        List<Object[]> rows = new ArrayList<>();
+        List<AlertRuleState> written = new ArrayList<>();
+        for (Map.Entry<UUID, AlertRuleState> entry : states.entrySet()) {
+            AlertRuleState state = entry.getValue();
+            synchronized (state) {
+                if (state.dirty) {
+                    rows.add(new Object[] {
+                            entry.getKey(), state.alertType.name(), state.windowSeconds, state.encode(), entry.getKey()
+                    });
+                    written.add(state);
+                    state.dirty = false;
+                } else if (state.lastTouchedMs < idleBefore) {
+                    states.remove(entry.getKey(), state);
+                }
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_STATE_SQL, rows);
+            checkpointRows.record(rows.size());
+        } catch (Exception e) {
+            checkpointFailures.increment();
+            log.warn("Alert rule state checkpoint of {} rules failed, retrying on next run: {}",
+                    rows.size(), e.getMessage());
+            for (AlertRuleState state : written) {
+                synchronized (state) {
+                    state.dirty = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        // Another instance continues these projects from the checkpoint; every state is
+        // dropped because the project → partition mapping is not known here.
+        checkpoint();
+        states.clear();
+        log.info("Alert engine released {} partitions, rule states checkpointed", partitions.size());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        // States are restored lazily per rule
+    }
+
+    @PreDestroy
+    void stop() {
+        checkpoint();
+    }
+}
@@ -0,0 +1,98 @@
+package com.webhook.platform.api.service.alerting;
+
+import com.webhook.platform.api.domain.enums.AlertType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory evaluation state of one alert rule. Which fields are used depends on the type:
+ * <ul>
+ *   <li>{@code FAILURE_RATE}: window of (attempts, failed attempts)</li>
+ *   <li>{@code DLQ_THRESHOLD}: window of (deliveries moved to DLQ, -)</li>
+ *   <li>{@code LATENCY_THRESHOLD}: window of (attempts, latency sum in ms)</li>
+ *   <li>{@code CONSECUTIVE_FAILURES}: current failure streak per endpoint</li>
+ * </ul>
+ * Callers synchronize on the instance.
+ */
+final class AlertRuleState {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    final AlertType alertType;
+    final int windowSeconds;
+    final SlidingWindowCounter window;
+    final Map<UUID, Integer> failureStreaks;
+    /** Threshold is currently breached; cleared when the value drops below it again */
+    boolean firing;
+    boolean dirty;
+    long lastTouchedMs;
+
+    AlertRuleState(AlertType alertType, int windowSeconds, int maxSlots) {
+        this.alertType = alertType;
+        this.windowSeconds = windowSeconds;
+        this.window = alertType == AlertType.CONSECUTIVE_FAILURES
+                ? null
+                : new SlidingWindowCounter(windowSeconds, maxSlots);
+        this.failureStreaks = alertType == AlertType.CONSECUTIVE_FAILURES ? new HashMap<>() : null;
+        this.lastTouchedMs = System.currentTimeMillis();
+    }
+
+    boolean matches(AlertType type, int seconds) {
+        return alertType == type && windowSeconds == seconds;
+    }
+
+    /**
+     * Compact checkpoint: non-empty window slots or non-zero streaks plus the firing flag.
+     */
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeBoolean(firing);
+            if (window != null) {
+                window.writeTo(out);
+            } else {
+                out.writeInt(failureStreaks.size());
+                for (Map.Entry<UUID, Integer> streak : failureStreaks.entrySet()) {
+                    out.writeLong(streak.getKey().getMostSignificantBits());
+                    out.writeLong(streak.getKey().getLeastSignificantBits());
+                    out.writeInt(streak.getValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code bytes} is not a checkpoint of this format
+     */
+    void restore(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readByte() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown alert rule state format");
+            }
+            firing = in.readBoolean();
+            if (window != null) {
+                window.readFrom(in);
+            } else {
+                failureStreaks.clear();
+                int streaks = in.readInt();
+                for (int i = 0; i < streaks; i++) {
+                    failureStreaks.put(new UUID(in.readLong(), in.readLong()), in.readInt());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt alert rule state", e);
+        }
+    }
+}
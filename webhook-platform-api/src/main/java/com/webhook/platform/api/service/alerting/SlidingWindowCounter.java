@@ -0,0 +1,131 @@
+package com.webhook.platform.api.service.alerting;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Two counters summed over a sliding time window, kept as a ring of fixed-width slots.
+ *
+ * <p>{@link #add} and the window sums are O(1): totals are maintained incrementally and
+ * slots are expired as time advances, each slot at most once per pass of the ring. The
+ * window ends at the latest time seen, so it only moves forward with the added samples
+ * (event time); samples older than the window are dropped. Slots are one second wide
+ * for windows up to {@code maxSlots} seconds and proportionally wider above, which is the
+ * granularity at which samples leave the window.</p>
+ *
+ * <p>Not thread-safe.</p>
+ */
+final class SlidingWindowCounter {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int slotSeconds;
+    private final long[] slotIds;
+    private final long[] first;
+    private final long[] second;
+    private long head = EMPTY;
+    private long firstTotal;
+    private long secondTotal;
+
+    SlidingWindowCounter(int windowSeconds, int maxSlots) {
+        this.slotSeconds = Math.max(1, (windowSeconds + maxSlots - 1) / maxSlots);
+        int slots = Math.max(1, (windowSeconds + slotSeconds - 1) / slotSeconds);
+        this.slotIds = new long[slots];
+        this.first = new long[slots];
+        this.second = new long[slots];
+        Arrays.fill(slotIds, EMPTY);
+    }
+
+    void add(long epochSecond, long firstDelta, long secondDelta) {
+        long slotId = Math.floorDiv(epochSecond, slotSeconds);
+        advance(slotId);
+        if (slotId <= head - slotIds.length) {
+            return;
+        }
+        int index = (int) Math.floorMod(slotId, (long) slotIds.length);
+        slotIds[index] = slotId;
+        first[index] += firstDelta;
+        second[index] += secondDelta;
+        firstTotal += firstDelta;
+        secondTotal += secondDelta;
+    }
+
+    long firstTotal() {
+        return firstTotal;
+    }
+
+    long secondTotal() {
+        return secondTotal;
+    }
+
+    private void advance(long slotId) {
+        if (head == EMPTY || slotId - head >= slotIds.length) {
+            if (head == EMPTY || slotId > head) {
+                clear();
+                head = slotId;
+            }
+            return;
+        }
+        for (long id = head + 1; id <= slotId; id++) {
+            int index = (int) Math.floorMod(id, (long) slotIds.length);
+            if (slotIds[index] != EMPTY) {
+                firstTotal -= first[index];
+                secondTotal -= second[index];
+                slotIds[index] = EMPTY;
+                first[index] = 0;
+                second[index] = 0;
+            }
+        }
+        head = Math.max(head, slotId);
+    }
+
+    private void clear() {
+        Arrays.fill(slotIds, EMPTY);
+        Arrays.fill(first, 0);
+        Arrays.fill(second, 0);
+        firstTotal = 0;
+        secondTotal = 0;
+    }
+
+    /**
+     * Writes the head and the non-empty slots only.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        int used = 0;
+        for (long slotId : slotIds) {
+            if (slotId != EMPTY) {
+                used++;
+            }
+        }
+        out.writeLong(head);
+        out.writeInt(used);
+        for (int i = 0; i < slotIds.length; i++) {
+            if (slotIds[i] != EMPTY) {
+                out.writeLong(slotIds[i]);
+                out.writeLong(first[i]);
+                out.writeLong(second[i]);
+            }
+        }
+    }
+
+    void readFrom(DataInput in) throws IOException {
+        clear();
+        head = in.readLong();
+        int used = in.readInt();
+        for (int i = 0; i < used; i++) {
+            long slotId = in.readLong();
+            long firstValue = in.readLong();
+            long secondValue = in.readLong();
+            if (slotId > head - slotIds.length && slotId <= head) {
+                int index = (int) Math.floorMod(slotId, (long) slotIds.length);
+                slotIds[index] = slotId;
+                first[index] = firstValue;
+                second[index] = secondValue;
+                firstTotal += firstValue;
+                secondTotal += secondValue;
+            }
+        }
+    }
+}
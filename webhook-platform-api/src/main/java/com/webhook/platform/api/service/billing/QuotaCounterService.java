@@ -40,12 +40,22 @@ public class QuotaCounterService {
      * Fire-and-forget — if Redis is down, we just skip.
      */
     public void increment(UUID organizationId) {
+        increment(organizationId, 1);
+    }
+
+    /**
+     * Adds {@code delta} events in one Redis round-trip (batch ingestion).
+     */
+    public void increment(UUID organizationId, long delta) {
+        if (delta <= 0) {
+            return;
+        }
         try {
             String key = currentKey(organizationId);
             RAtomicLong counter = redissonClient.getAtomicLong(key);
-            long val = counter.incrementAndGet();
-            // Set TTL on first increment (when counter transitions from 0→1)
-            if (val == 1) {
+            long val = counter.addAndGet(delta);
+            // Set TTL on first increment (when counter transitions from 0)
+            if (val == delta) {
                 counter.expire(ttlForCurrentMonth());
             }
         } catch (Exception e) {
@@ -1,7 +1,9 @@
 package com.webhook.platform.api.service.billing;
 
+import com.webhook.platform.api.service.PartitionMaintenanceService;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
@@ -9,6 +11,9 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
+
 /**
  * Scheduled job that enforces per-plan retention limits.
  * <p>
@@ -19,6 +24,12 @@ import org.springframework.transaction.annotation.Transactional;
  * Deletions happen in batches to avoid long locks. Self-hosted plans
  * ({@code max_retention_days = -1}) are skipped (unlimited retention).
  * <p>
+ * {@code delivery_attempts} is partitioned by day (see V042). When every organization has a
+ * finite retention, days older than the longest one are dropped as whole partitions first.
+ * The row-based DELETE only removes attempts that are themselves past their organization's
+ * retention, bounded by the shortest retention so older partitions alone are scanned; an
+ * expired event with a recent attempt (e.g. a replay) stays until that attempt expires too.
+ * <p>
  * When {@code billing.enabled=false}, the scheduler is a no-op.
  */
 @Service
@@ -29,6 +40,7 @@ public class RetentionCleanupScheduler {
     private static final int BATCH_SIZE = 1000;
 
     private final EntitlementService entitlementService;
+    private final PartitionMaintenanceService partitionMaintenanceService;
 
     @PersistenceContext
     private EntityManager em;
@@ -39,11 +51,32 @@ public class RetentionCleanupScheduler {
     public void cleanup() {
         if (!entitlementService.isBillingEnabled()) return;
 
-        // Step 1: delete delivery_attempts for expired events
+        Integer shortestDays = retentionDays("""
+            SELECT MIN(pl.max_retention_days) FROM organizations o
+            JOIN plans pl ON o.plan_id = pl.id
+            WHERE pl.max_retention_days > 0
+            """);
+        if (shortestDays == null) return;
+        Instant now = Instant.now();
+
+        // Step 0: whole attempt days that are past every organization's retention
+        Integer longestDays = retentionDays("""
+            SELECT CASE WHEN bool_and(COALESCE(pl.max_retention_days, -1) > 0)
+                        THEN MAX(pl.max_retention_days) END
+            FROM organizations o
+            LEFT JOIN plans pl ON o.plan_id = pl.id
+            """);
+        if (longestDays != null) {
+            partitionMaintenanceService.dropPartitionsBefore(PartitionMaintenanceService.DELIVERY_ATTEMPTS,
+                    now.minus(Duration.ofDays(longestDays)), null);
+        }
+
+        // Step 1: delete expired delivery_attempts of expired events
         int totalAttempts = deleteInBatches("""
             DELETE FROM delivery_attempts
-            WHERE id IN (
-                SELECT da.id FROM delivery_attempts da
+            WHERE created_at < :attemptsBefore
+              AND (id, created_at) IN (
+                SELECT da.id, da.created_at FROM delivery_attempts da
                 JOIN deliveries d ON da.delivery_id = d.id
                 JOIN events e ON d.event_id = e.id
                 JOIN projects p ON e.project_id = p.id
@@ -51,9 +84,11 @@ public class RetentionCleanupScheduler {
                 JOIN plans pl ON o.plan_id = pl.id
                 WHERE pl.max_retention_days > 0
                   AND e.created_at < NOW() - (pl.max_retention_days || ' days')::interval
+                  AND da.created_at < :attemptsBefore
+                  AND da.created_at < NOW() - (pl.max_retention_days || ' days')::interval
                 LIMIT :batchSize
             )
-            """);
+            """, now.minus(Duration.ofDays(shortestDays)));
 
         // Step 2: delete deliveries for expired events
         int totalDeliveries = deleteInBatches("""
@@ -67,11 +102,12 @@ public class RetentionCleanupScheduler {
                 WHERE pl.max_retention_days > 0
                   AND e.created_at < NOW() - (pl.max_retention_days || ' days')::interval
                   AND NOT EXISTS (
-                      SELECT 1 FROM delivery_attempts da WHERE da.delivery_id = d.id
+                      SELECT 1 FROM delivery_attempts da
+                      WHERE da.delivery_id = d.id AND da.created_at >= d.created_at - interval '1 hour'
                   )
                 LIMIT :batchSize
             )
-            """);
+            """, null);
 
         // Step 3: delete expired events (no remaining deliveries)
         int totalEvents = deleteInBatches("""
@@ -88,7 +124,7 @@ public class RetentionCleanupScheduler {
                   )
                 LIMIT :batchSize
             )
-            """);
+            """, null);
 
         if (totalAttempts + totalDeliveries + totalEvents > 0) {
             log.info("Retention cleanup: deleted {} attempts, {} deliveries, {} events",
@@ -96,13 +132,24 @@ public class RetentionCleanupScheduler {
         }
     }
 
-    private int deleteInBatches(String sql) {
+    private Integer retentionDays(String sql) {
+        Object days = em.createNativeQuery(sql).getSingleResult();
+        return days != null ? ((Number) days).intValue() : null;
+    }
+
+    /**
+     * @param attemptsBefore bound for the {@code :attemptsBefore} parameter, or null if the
+     *                       statement has none
+     */
+    private int deleteInBatches(String sql, Instant attemptsBefore) {
         int total = 0;
         int deleted;
         do {
-            deleted = em.createNativeQuery(sql)
-                    .setParameter("batchSize", BATCH_SIZE)
-                    .executeUpdate();
+            Query query = em.createNativeQuery(sql).setParameter("batchSize", BATCH_SIZE);
+            if (attemptsBefore != null) {
+                query.setParameter("attemptsBefore", attemptsBefore);
+            }
+            deleted = query.executeUpdate();
             total += deleted;
             if (deleted > 0) {
                 em.flush();
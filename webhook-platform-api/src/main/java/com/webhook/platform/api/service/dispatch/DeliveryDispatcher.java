@@ -0,0 +1,257 @@
+package com.webhook.platform.api.service.dispatch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webhook.platform.api.domain.entity.Delivery;
+import com.webhook.platform.api.domain.entity.OutboxMessage;
+import com.webhook.platform.api.domain.enums.OutboxStatus;
+import com.webhook.platform.api.domain.repository.DeliveryRepository;
+import com.webhook.platform.api.domain.repository.OutboxMessageRepository;
+import com.webhook.platform.common.constants.KafkaTopics;
+import com.webhook.platform.common.dto.DeliveryMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hands newly created deliveries to the worker.
+ *
+ * <h3>Modes</h3>
+ * {@code webhook.dispatch.mode=outbox} (default) writes one {@link OutboxMessage} per delivery in
+ * the caller's transaction; {@code OutboxPublisherService} publishes it later. {@code direct}
+ * skips the outbox: once the transaction commits, each delivery is sent to
+ * {@code deliveries.dispatch} by the idempotent producer, and acked ids are stamped with
+ * {@code dispatched_at} in bulk every {@code marker-flush-interval-ms}. That replaces the
+ * outbox's insert, claim, publish, delete cycle with one marker update per delivery.
+ *
+ * <h3>Crash consistency (direct)</h3>
+ * A crash between commit and send, a failed send, or a crash before the marker flush leaves a
+ * PENDING delivery without {@code dispatched_at}. {@link #reconcile} finds those older than
+ * {@code reconcile-after-seconds} and sends them again, so dispatch is at-least-once, as with
+ * the outbox; the worker already tolerates duplicate dispatch records. Deliveries that still
+ * have an outbox row are left to the outbox publisher.
+ *
+ * <p>Only event ingestion goes through this class; replays, manual retries and workflow
+ * deliveries keep using the outbox in both modes.</p>
+ */
+@Service
+@Slf4j
+public class DeliveryDispatcher {
+
+    public static final String MODE_OUTBOX = "outbox";
+    public static final String MODE_DIRECT = "direct";
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate txTemplate;
+    private final boolean direct;
+    private final Duration reconcileAfter;
+    private final Duration reconcileMaxAge;
+    private final int reconcileBatchSize;
+
+    /** Delivery ids acked by Kafka whose marker is not written yet. */
+    private final Queue<UUID> acked = new ConcurrentLinkedQueue<>();
+
+    private final Counter sent;
+    private final Counter sendFailures;
+    private final Counter reconciled;
+
+    public DeliveryDispatcher(
+            OutboxMessageRepository outboxMessageRepository,
+            DeliveryRepository deliveryRepository,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager txManager,
+            @Value("${webhook.dispatch.mode:outbox}") String mode,
+            @Value("${webhook.dispatch.reconcile-after-seconds:60}") long reconcileAfterSeconds,
+            @Value("${webhook.dispatch.reconcile-max-age-hours:24}") long reconcileMaxAgeHours,
+            @Value("${webhook.dispatch.reconcile-batch-size:500}") int reconcileBatchSize) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.direct = MODE_DIRECT.equalsIgnoreCase(mode);
+        this.reconcileAfter = Duration.ofSeconds(reconcileAfterSeconds);
+        this.reconcileMaxAge = Duration.ofHours(reconcileMaxAgeHours);
+        this.reconcileBatchSize = reconcileBatchSize;
+
+        this.sent = Counter.builder("delivery_dispatch_direct_total")
+                .description("Deliveries sent to Kafka directly after commit")
+                .tag("result", "acked")
+                .register(meterRegistry);
+        this.sendFailures = Counter.builder("delivery_dispatch_direct_total")
+                .description("Deliveries sent to Kafka directly after commit")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.reconciled = Counter.builder("delivery_dispatch_reconciled_total")
+                .description("Undispatched deliveries re-sent by the reconciliation sweep")
+                .register(meterRegistry);
+        Gauge.builder("delivery_dispatch_unmarked", acked, Queue::size)
+                .description("Acked direct dispatches waiting for their dispatched_at marker")
+                .register(meterRegistry);
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Dispatches freshly saved deliveries. Call inside the transaction that created them: in
+     * outbox mode the outbox rows join it, in direct mode the sends wait for its commit.
+     */
+    public void dispatch(List<Delivery> deliveries) {
+        if (deliveries.isEmpty()) {
+            return;
+        }
+        if (!direct) {
+            List<OutboxMessage> outboxMessages = new ArrayList<>(deliveries.size());
+            for (Delivery delivery : deliveries) {
+                outboxMessages.add(createOutboxMessage(delivery));
+            }
+            outboxMessageRepository.saveAll(outboxMessages);
+            return;
+        }
+
+        List<DeliveryMessage> messages = new ArrayList<>(deliveries.size());
+        for (Delivery delivery : deliveries) {
+            messages.add(toMessage(delivery));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(messages);
+                }
+            });
+        } else {
+            send(messages);
+        }
+    }
+
+    void send(List<DeliveryMessage> messages) {
+        for (DeliveryMessage message : messages) {
+            try {
+                kafkaTemplate.send(KafkaTopics.DELIVERIES_DISPATCH, message.getEndpointId().toString(), message)
+                        .whenComplete((result, ex) -> {
+                            if (ex != null) {
+                                sendFailures.increment();
+                                log.warn("Direct dispatch of delivery {} failed, left to reconciliation: {}",
+                                        message.getDeliveryId(), ex.getMessage());
+                            } else {
+                                sent.increment();
+                                acked.add(message.getDeliveryId());
+                            }
+                        });
+            } catch (Exception e) {
+                sendFailures.increment();
+                log.warn("Direct dispatch of delivery {} failed, left to reconciliation: {}",
+                        message.getDeliveryId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stamps {@code dispatched_at} on every acked delivery with one UPDATE. Ids whose write
+     * fails go back on the queue.
+     */
+    @Scheduled(fixedDelayString = "${webhook.dispatch.marker-flush-interval-ms:200}")
+    public void flushMarkers() {
+        List<UUID> drained = new ArrayList<>();
+        for (UUID id; (id = acked.poll()) != null; ) {
+            drained.add(id);
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        try {
+            String[] ids = drained.stream().map(UUID::toString).toArray(String[]::new);
+            txTemplate.executeWithoutResult(status -> deliveryRepository.markDispatched(ids));
+        } catch (Exception e) {
+            log.error("Failed to mark {} deliveries as dispatched, will retry: {}", drained.size(), e.getMessage());
+            acked.addAll(drained);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        if (direct) {
+            flushMarkers();
+        }
+    }
+
+    /**
+     * Re-sends PENDING deliveries that were never marked dispatched within
+     * {@code reconcile-after-seconds} of creation.
+     */
+    @Scheduled(fixedDelayString = "${webhook.dispatch.reconcile-interval-ms:30000}")
+    @SchedulerLock(name = "delivery-dispatch-reconciler", lockAtLeastFor = "PT5S", lockAtMostFor = "PT5M")
+    public void reconcile() {
+        if (!direct) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant notBefore = now.minus(reconcileMaxAge);
+        List<Delivery> stale = deliveryRepository.findUndispatched(notBefore, now.minus(reconcileAfter),
+                notBefore.minus(Duration.ofHours(1)), reconcileBatchSize);
+        if (stale.isEmpty()) {
+            return;
+        }
+        log.warn("Re-dispatching {} deliveries without a dispatch marker after {}s",
+                stale.size(), reconcileAfter.getSeconds());
+        send(stale.stream().map(this::toMessage).toList());
+        reconciled.increment(stale.size());
+    }
+
+    private DeliveryMessage toMessage(Delivery delivery) {
+        return DeliveryMessage.builder()
+                .deliveryId(delivery.getId())
+                .eventId(delivery.getEventId())
+                .endpointId(delivery.getEndpointId())
+                .subscriptionId(delivery.getSubscriptionId())
+                .status(delivery.getStatus().name())
+                .attemptCount(delivery.getAttemptCount())
+                .sequenceNumber(delivery.getSequenceNumber())
+                .orderingEnabled(delivery.getOrderingEnabled())
+                .build();
+    }
+
+    private OutboxMessage createOutboxMessage(Delivery delivery) {
+        try {
+            String payload = objectMapper.writeValueAsString(toMessage(delivery));
+            return OutboxMessage.builder()
+                    .aggregateType("Delivery")
+                    .aggregateId(delivery.getId())
+                    .eventType("DeliveryCreated")
+                    .payload(payload)
+                    .kafkaTopic(KafkaTopics.DELIVERIES_DISPATCH)
+                    .kafkaKey(delivery.getEndpointId().toString())
+                    .status(OutboxStatus.PENDING)
+                    .retryCount(0)
+                    .build();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create outbox message", e);
+        }
+    }
+}
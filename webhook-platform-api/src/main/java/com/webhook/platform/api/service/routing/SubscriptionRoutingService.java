@@ -0,0 +1,157 @@
+package com.webhook.platform.api.service.routing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.webhook.platform.api.domain.entity.Subscription;
+import com.webhook.platform.api.domain.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-project {@link SubscriptionRoutingTable} cache shared by ingest, replay and dry-run.
+ *
+ * <h3>Invalidation</h3>
+ * Subscription CRUD calls {@link #invalidate(UUID)}. Inside a transaction the local
+ * eviction and the broadcast on the {@value #INVALIDATION_TOPIC} channel happen after
+ * commit, so no pod can reload the pre-commit rows. Other pods evict on receipt.
+ * Pub/sub is best-effort: tables also expire after {@code max-age-seconds}, which bounds
+ * staleness when a message is lost or Redis is down.
+ */
+@Service
+@Slf4j
+public class SubscriptionRoutingService {
+
+    static final String INVALIDATION_TOPIC = "subscription-routing:invalidate";
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final RedissonClient redissonClient;
+    private final Cache<UUID, SubscriptionRoutingTable> tables;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Counter loads;
+    private final Counter remoteInvalidations;
+    private Integer listenerId;
+
+    public SubscriptionRoutingService(
+            SubscriptionRepository subscriptionRepository,
+            RedissonClient redissonClient,
+            MeterRegistry meterRegistry,
+            @Value("${webhook.subscription-routing.max-age-seconds:60}") long maxAgeSeconds,
+            @Value("${webhook.subscription-routing.max-projects:10000}") long maxProjects) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.redissonClient = redissonClient;
+        this.tables = Caffeine.newBuilder()
+                .maximumSize(maxProjects)
+                .expireAfterWrite(Duration.ofSeconds(maxAgeSeconds))
+                .build();
+
+        this.loads = Counter.builder("subscription_routing_loads_total")
+                .description("Routing tables built from the database")
+                .register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("subscription_routing_remote_invalidations_total")
+                .description("Routing tables evicted on another pod's broadcast")
+                .register(meterRegistry);
+        Gauge.builder("subscription_routing_cached_projects", tables, Cache::estimatedSize)
+                .description("Projects with a cached routing table")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        try {
+            listenerId = topic().addListener(String.class, (channel, message) -> onRemoteInvalidation(message));
+        } catch (Exception e) {
+            log.warn("Subscription routing invalidation listener failed, relying on max-age expiry: {}",
+                    e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerId != null) {
+            try {
+                topic().removeListener(listenerId);
+            } catch (Exception e) {
+                log.debug("Failed to remove subscription routing listener: {}", e.getMessage());
+            }
+        }
+    }
+
+    public SubscriptionRoutingTable tableFor(UUID projectId) {
+        return tables.get(projectId, this::load);
+    }
+
+    /**
+     * Enabled subscriptions of the project whose pattern matches {@code eventType}.
+     */
+    public List<Subscription> match(UUID projectId, String eventType) {
+        return tableFor(projectId).match(eventType);
+    }
+
+    /**
+     * Drop the project's table here and on every other pod; after commit when called
+     * inside a transaction.
+     */
+    public void invalidate(UUID projectId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndBroadcast(projectId);
+                }
+            });
+        } else {
+            evictAndBroadcast(projectId);
+        }
+    }
+
+    private void evictAndBroadcast(UUID projectId) {
+        tables.invalidate(projectId);
+        log.debug("Invalidated subscription routing for project {}", projectId);
+        try {
+            topic().publishAsync(instanceId + "|" + projectId);
+        } catch (Exception e) {
+            log.debug("Redis unavailable for subscription routing broadcast: {}", e.getMessage());
+        }
+    }
+
+    private void onRemoteInvalidation(String message) {
+        // instanceId|projectId
+        int separator = message.indexOf('|');
+        if (separator < 0 || message.startsWith(instanceId + "|")) {
+            return;
+        }
+        try {
+            tables.invalidate(UUID.fromString(message.substring(separator + 1)));
+            remoteInvalidations.increment();
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed subscription routing message: {}", message);
+        }
+    }
+
+    private SubscriptionRoutingTable load(UUID projectId) {
+        SubscriptionRoutingTable table = SubscriptionRoutingTable.of(
+                subscriptionRepository.findByProjectIdAndEnabledTrue(projectId));
+        loads.increment();
+        log.debug("Loaded routing table with {} subscriptions for project {}", table.size(), projectId);
+        return table;
+    }
+
+    private RTopic topic() {
+        return redissonClient.getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE);
+    }
+}
@@ -0,0 +1,81 @@
+package com.webhook.platform.api.service.routing;
+
+import com.webhook.platform.api.domain.entity.Subscription;
+import com.webhook.platform.common.util.EventTypePatternSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable routing index over one project's enabled subscriptions.
+ * <p>
+ * Every subscription's pattern goes into one {@link EventTypePatternSet} under its
+ * position in the load order, so a single walk of the event type yields the matching
+ * positions already sorted. Resolved lists are memoised per event type (up to
+ * {@value #MAX_RESOLVED_TYPES} types), so steady-state routing is one map lookup.
+ * <p>
+ * The {@link Subscription} instances are shared across requests and must be treated
+ * as read-only.
+ */
+public final class SubscriptionRoutingTable {
+
+    static final int MAX_RESOLVED_TYPES = 1024;
+
+    private final List<Subscription> subscriptions;
+    private final EventTypePatternSet patterns;
+    private final ConcurrentHashMap<String, List<Subscription>> resolved = new ConcurrentHashMap<>();
+
+    private SubscriptionRoutingTable(List<Subscription> subscriptions) {
+        this.subscriptions = List.copyOf(subscriptions);
+        this.patterns = new EventTypePatternSet();
+        for (Subscription subscription : this.subscriptions) {
+            patterns.add(subscription.getEventType());
+        }
+    }
+
+    public static SubscriptionRoutingTable of(List<Subscription> subscriptions) {
+        return new SubscriptionRoutingTable(subscriptions);
+    }
+
+    /**
+     * Subscriptions whose pattern matches {@code eventType}, as an unmodifiable list.
+     */
+    public List<Subscription> match(String eventType) {
+        if (eventType == null) {
+            return List.of();
+        }
+        List<Subscription> cached = resolved.get(eventType);
+        if (cached != null) {
+            return cached;
+        }
+        List<Subscription> matched = resolve(eventType);
+        if (resolved.size() < MAX_RESOLVED_TYPES) {
+            resolved.putIfAbsent(eventType, matched);
+        }
+        return matched;
+    }
+
+    private List<Subscription> resolve(String eventType) {
+        int[] ids = patterns.match(eventType);
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Subscription> matched = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            matched.add(subscriptions.get(id));
+        }
+        return List.copyOf(matched);
+    }
+
+    /**
+     * Every subscription in the table, in load order.
+     */
+    public List<Subscription> all() {
+        return subscriptions;
+    }
+
+    public int size() {
+        return subscriptions.size();
+    }
+}
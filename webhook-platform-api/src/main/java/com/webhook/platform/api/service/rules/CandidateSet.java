@@ -0,0 +1,111 @@
+package com.webhook.platform.api.service.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Candidate rules of one event type, sorted once into evaluation order (priority, highest
+ * first), with a value index over their text equality guards.
+ * <p>
+ * A rule whose condition requires {@code field EQ "value"} ({@link ConditionCompiler#equalityGuard})
+ * can only match events where that field has that text, so it is filed under the value in a
+ * per-field hash map. For an event, each guarded field is resolved once and looked up once;
+ * only the rules found there plus the unguarded rules are evaluated. Immutable once built.
+ */
+final class CandidateSet {
+
+    /** Guard of a rule, with its field resolved to a {@link FieldPaths} slot */
+    record SlotGuard(int slot, String value) {}
+
+    private final List<CompiledRule> rules;
+
+    /** Positions in {@link #rules} of rules without a guard, ascending */
+    private final int[] unguarded;
+
+    /** Guarded fields, and per field: value → positions in {@link #rules}, ascending */
+    private final int[] guardSlots;
+    private final List<Map<String, int[]>> guardIndexes;
+
+    CandidateSet(List<CompiledRule> candidates, Map<CompiledRule, SlotGuard> guards) {
+        List<CompiledRule> sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparingInt(CompiledRule::getPriority).reversed());
+        this.rules = List.copyOf(sorted);
+
+        List<Integer> open = new ArrayList<>();
+        Map<Integer, Map<String, List<Integer>>> bySlot = new LinkedHashMap<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            SlotGuard guard = guards.get(sorted.get(i));
+            if (guard == null) {
+                open.add(i);
+            } else {
+                bySlot.computeIfAbsent(guard.slot(), k -> new HashMap<>())
+                        .computeIfAbsent(guard.value(), k -> new ArrayList<>())
+                        .add(i);
+            }
+        }
+        this.unguarded = toArray(open);
+        this.guardSlots = new int[bySlot.size()];
+        this.guardIndexes = new ArrayList<>(bySlot.size());
+        int n = 0;
+        for (Map.Entry<Integer, Map<String, List<Integer>>> field : bySlot.entrySet()) {
+            guardSlots[n++] = field.getKey();
+            Map<String, int[]> index = new HashMap<>();
+            field.getValue().forEach((value, positions) -> index.put(value, toArray(positions)));
+            guardIndexes.add(index);
+        }
+    }
+
+    /**
+     * All candidates in evaluation order.
+     */
+    List<CompiledRule> rules() {
+        return rules;
+    }
+
+    /**
+     * Candidates whose guard, if any, holds for the event, in evaluation order. Rules left out
+     * cannot match it.
+     */
+    List<CompiledRule> select(FieldPaths.Values values) {
+        if (guardSlots.length == 0) {
+            return rules;
+        }
+        int[][] hits = new int[guardSlots.length][];
+        int count = unguarded.length;
+        for (int i = 0; i < guardSlots.length; i++) {
+            String key = ConditionCompiler.guardKey(values.get(guardSlots[i]));
+            hits[i] = key == null ? null : guardIndexes.get(i).get(key);
+            if (hits[i] != null) {
+                count += hits[i].length;
+            }
+        }
+        if (count == rules.size()) {
+            return rules;
+        }
+
+        int[] positions = Arrays.copyOf(unguarded, count);
+        int n = unguarded.length;
+        for (int[] hit : hits) {
+            if (hit != null) {
+                System.arraycopy(hit, 0, positions, n, hit.length);
+                n += hit.length;
+            }
+        }
+        // Each rule has at most one guard, so positions are distinct
+        Arrays.sort(positions);
+        List<CompiledRule> selected = new ArrayList<>(count);
+        for (int position : positions) {
+            selected.add(rules.get(position));
+        }
+        return selected;
+    }
+
+    private static int[] toArray(List<Integer> positions) {
+        return positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
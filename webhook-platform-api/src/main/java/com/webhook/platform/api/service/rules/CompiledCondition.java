@@ -0,0 +1,18 @@
+package com.webhook.platform.api.service.rules;
+
+/**
+ * Executable form of a {@link com.webhook.platform.api.dto.ConditionNode} tree, built by
+ * {@link ConditionTreeEvaluator#compile}. Immutable and safe to share between threads.
+ */
+@FunctionalInterface
+public interface CompiledCondition {
+
+    CompiledCondition ALWAYS = fields -> true;
+    CompiledCondition NEVER = fields -> false;
+
+    /**
+     * @param fields field values of the event, bound from the {@link FieldPaths} the
+     *               condition was compiled against
+     */
+    boolean matches(FieldPaths.Values fields);
+}
@@ -27,6 +27,10 @@ public class CompiledRule {
     /** Pre-parsed condition tree (avoids JSON parsing per event). NULL = match all. */
     private final ConditionNode conditionTree;
 
+    /** {@link #conditionTree} compiled against the project's {@link FieldPaths} */
+    @Builder.Default
+    private final CompiledCondition condition = CompiledCondition.ALWAYS;
+
     /** Pre-resolved actions */
     private final List<CompiledAction> actions;
 
@@ -0,0 +1,449 @@
+package com.webhook.platform.api.service.rules;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.webhook.platform.api.dto.ConditionNode;
+import com.webhook.platform.api.dto.ConditionNode.Group;
+import com.webhook.platform.api.dto.ConditionNode.Predicate;
+import com.webhook.platform.api.dto.ConditionNode.PredicateOperator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static com.webhook.platform.api.service.rules.ConditionTreeEvaluator.asText;
+
+/**
+ * Turns a {@link ConditionNode} tree into a graph of {@link CompiledCondition} closures with the
+ * semantics of {@link ConditionTreeEvaluator#evaluate}.
+ * <p>
+ * Everything that depends only on the rule is done here, once: field paths become
+ * {@link FieldPaths} slots, literals are parsed into longs / {@link BigDecimal}s, {@code IN}
+ * lists into hash sets (plus a sorted {@code long[]} for integer fields), regexes are compiled
+ * and invalid ones rejected. Equality, ordering, {@code IN} and case-sensitive text operators
+ * on text, integer and boolean fields evaluate without allocating.
+ */
+@Slf4j
+final class ConditionCompiler {
+
+    private static final int NOT_A_NUMBER = Integer.MIN_VALUE;
+
+    private ConditionCompiler() {
+    }
+
+    static CompiledCondition compile(ConditionNode root, FieldPaths fields) {
+        return root == null ? CompiledCondition.ALWAYS : node(root, fields);
+    }
+
+    private static CompiledCondition node(ConditionNode node, FieldPaths fields) {
+        if (node instanceof Group group) {
+            return group(group, fields);
+        } else if (node instanceof Predicate pred) {
+            return predicate(pred, fields);
+        }
+        return CompiledCondition.NEVER;
+    }
+
+    // ─── Groups ─────────────────────────────────────────────────────────
+
+    private static CompiledCondition group(Group group, FieldPaths fields) {
+        if (group.getOp() == null || group.getChildren() == null || group.getChildren().isEmpty()) {
+            return CompiledCondition.ALWAYS;
+        }
+        if (group.getOp() == ConditionNode.GroupOperator.NOT) {
+            // NOT applies to first child only
+            CompiledCondition child = node(group.getChildren().get(0), fields);
+            return values -> !child.matches(values);
+        }
+
+        CompiledCondition[] children = group.getChildren().stream()
+                .map(child -> node(child, fields))
+                .toArray(CompiledCondition[]::new);
+        if (children.length == 1) {
+            return children[0];
+        }
+        return switch (group.getOp()) {
+            case AND -> values -> {
+                for (CompiledCondition child : children) {
+                    if (!child.matches(values)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+            case OR -> values -> {
+                for (CompiledCondition child : children) {
+                    if (child.matches(values)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+            case NOT -> throw new IllegalStateException("unreachable");
+        };
+    }
+
+    // ─── Predicates ─────────────────────────────────────────────────────
+
+    /**
+     * Test of a field value that is present and not JSON null.
+     */
+    @FunctionalInterface
+    private interface ValueTest {
+        boolean test(JsonNode node);
+    }
+
+    private static final ValueTest NO_VALUE_MATCHES = node -> false;
+
+    private static CompiledCondition predicate(Predicate pred, FieldPaths fields) {
+        if (pred.getField() == null || pred.getOperator() == null) {
+            return CompiledCondition.NEVER;
+        }
+        int slot = fields.slot(pred.getField());
+        PredicateOperator op = pred.getOperator();
+        Object value = pred.getValue();
+        boolean ci = Boolean.TRUE.equals(pred.getCaseInsensitive());
+
+        CompiledCondition condition = predicate(slot, op, value, ci);
+        return condition == CompiledCondition.NEVER
+                ? condition
+                : fields.sharedPredicate(new PredicateKey(slot, op, value, ci), condition);
+    }
+
+    /** Identity of a predicate within one {@link FieldPaths}; the field is its slot */
+    private record PredicateKey(int slot, PredicateOperator op, Object value, boolean ci) {}
+
+    private static CompiledCondition predicate(int slot, PredicateOperator op, Object value, boolean ci) {
+        // Presence operators
+        switch (op) {
+            case EXISTS -> {
+                return values -> {
+                    JsonNode node = values.get(slot);
+                    return node != null && !node.isMissingNode();
+                };
+            }
+            case NOT_EXISTS -> {
+                return values -> {
+                    JsonNode node = values.get(slot);
+                    return node == null || node.isMissingNode();
+                };
+            }
+            case IS_NULL -> {
+                return values -> {
+                    JsonNode node = values.get(slot);
+                    return node == null || node.isMissingNode() || node.isNull();
+                };
+            }
+            case NOT_NULL -> {
+                return values -> present(values.get(slot));
+            }
+            default -> {
+            }
+        }
+
+        ValueTest test = switch (op) {
+            case EQ, NEQ -> equalsTest(value, ci);
+            case GT, GTE, LT, LTE -> orderTest(op, value);
+            case BETWEEN -> betweenTest(value);
+            case CONTAINS, NOT_CONTAINS, STARTS_WITH, ENDS_WITH -> textTest(op, value, ci);
+            case IN, NOT_IN -> inTest(value, ci);
+            case REGEX -> regexTest(value);
+            default -> NO_VALUE_MATCHES;
+        };
+        if (test == NO_VALUE_MATCHES && op != PredicateOperator.NEQ && op != PredicateOperator.NOT_IN) {
+            return CompiledCondition.NEVER;
+        }
+        // Negated operators still fail on a missing field
+        if (op == PredicateOperator.NEQ || op == PredicateOperator.NOT_IN) {
+            return values -> {
+                JsonNode node = values.get(slot);
+                return present(node) && !test.test(node);
+            };
+        }
+        return values -> {
+            JsonNode node = values.get(slot);
+            return present(node) && test.test(node);
+        };
+    }
+
+    static boolean present(JsonNode node) {
+        return node != null && !node.isMissingNode() && !node.isNull();
+    }
+
+    // ─── Equality ───────────────────────────────────────────────────────
+
+    /**
+     * A text equality every match of a condition must satisfy: {@code field EQ value},
+     * case-sensitive, with a value that is neither numeric nor boolean. Such a predicate holds
+     * exactly when the field is present, not boolean, and its {@link ConditionTreeEvaluator#asText
+     * text} equals {@code value}, so rules can be looked up by the field's text.
+     */
+    record EqualityGuard(String field, String value) {}
+
+    /**
+     * The first {@link EqualityGuard} among the conjuncts of {@code root} (the root predicate,
+     * or the direct predicate children of a root AND group), or {@code null}.
+     */
+    static EqualityGuard equalityGuard(ConditionNode root) {
+        if (root instanceof Predicate pred) {
+            return equalityGuard(pred);
+        }
+        if (root instanceof Group group && group.getOp() == ConditionNode.GroupOperator.AND
+                && group.getChildren() != null) {
+            for (ConditionNode child : group.getChildren()) {
+                if (child instanceof Predicate pred) {
+                    EqualityGuard guard = equalityGuard(pred);
+                    if (guard != null) {
+                        return guard;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static EqualityGuard equalityGuard(Predicate pred) {
+        if (pred.getField() == null || pred.getOperator() != PredicateOperator.EQ
+                || Boolean.TRUE.equals(pred.getCaseInsensitive()) || !(pred.getValue() instanceof String text)
+                || NumberLiteral.parse(text) != null || "true".equals(text) || "false".equals(text)) {
+            return null;
+        }
+        return new EqualityGuard(pred.getField(), text);
+    }
+
+    /**
+     * Lookup key of a field value in an {@link EqualityGuard} index: its text, or {@code null}
+     * when no guard value can equal it (absent, null, boolean or number).
+     */
+    static String guardKey(JsonNode node) {
+        if (!present(node) || node.isBoolean() || node.isNumber()) {
+            return null;
+        }
+        return asText(node);
+    }
+
+    private static ValueTest equalsTest(Object value, boolean ci) {
+        if (value == null) {
+            return NO_VALUE_MATCHES;
+        }
+        String valueText = String.valueOf(value);
+        NumberLiteral number = NumberLiteral.parse(valueText);
+        Boolean bool = "true".equals(valueText) ? Boolean.TRUE : "false".equals(valueText) ? Boolean.FALSE : null;
+        return node -> {
+            if (node.isNumber() && number != null) {
+                return compare(node, number) == 0;
+            }
+            if (node.isBoolean()) {
+                return bool != null && node.booleanValue() == bool;
+            }
+            String text = asText(node);
+            return ci ? text.equalsIgnoreCase(valueText) : text.equals(valueText);
+        };
+    }
+
+    // ─── Numeric ordering ───────────────────────────────────────────────
+
+    private static ValueTest orderTest(PredicateOperator op, Object value) {
+        NumberLiteral number = NumberLiteral.parse(String.valueOf(value));
+        if (number == null) {
+            return NO_VALUE_MATCHES;
+        }
+        return switch (op) {
+            case GT -> node -> {
+                int c = compare(node, number);
+                return c != NOT_A_NUMBER && c > 0;
+            };
+            case GTE -> node -> {
+                int c = compare(node, number);
+                return c != NOT_A_NUMBER && c >= 0;
+            };
+            case LT -> node -> {
+                int c = compare(node, number);
+                return c != NOT_A_NUMBER && c < 0;
+            };
+            default -> node -> {
+                int c = compare(node, number);
+                return c != NOT_A_NUMBER && c <= 0;
+            };
+        };
+    }
+
+    private static ValueTest betweenTest(Object value) {
+        if (!(value instanceof List<?> list) || list.size() != 2) {
+            return NO_VALUE_MATCHES;
+        }
+        NumberLiteral low = NumberLiteral.parse(String.valueOf(list.get(0)));
+        NumberLiteral high = NumberLiteral.parse(String.valueOf(list.get(1)));
+        if (low == null || high == null) {
+            return NO_VALUE_MATCHES;
+        }
+        return node -> {
+            int c = compare(node, low);
+            return c != NOT_A_NUMBER && c >= 0 && compare(node, high) <= 0;
+        };
+    }
+
+    /**
+     * Numeric comparison of a field with a literal, {@link #NOT_A_NUMBER} if the field is not
+     * a number or numeric text. Integer fields compare as longs.
+     */
+    private static int compare(JsonNode node, NumberLiteral literal) {
+        if (node.isIntegralNumber() && node.canConvertToLong()) {
+            long v = node.longValue();
+            return literal.isLong
+                    ? Long.compare(v, literal.longValue)
+                    : BigDecimal.valueOf(v).compareTo(literal.decimal);
+        }
+        BigDecimal decimal = decimalOf(node);
+        return decimal == null ? NOT_A_NUMBER : decimal.compareTo(literal.decimal);
+    }
+
+    private static BigDecimal decimalOf(JsonNode node) {
+        try {
+            if (node.isBigDecimal()) {
+                return node.decimalValue();
+            }
+            if (node.isBigInteger()) {
+                return new BigDecimal(node.bigIntegerValue());
+            }
+            if (node.isTextual()) {
+                return new BigDecimal(node.textValue());
+            }
+            if (node.isNumber()) {
+                return new BigDecimal(node.toString());
+            }
+        } catch (NumberFormatException e) {
+            // not numeric text
+        }
+        return null;
+    }
+
+    /**
+     * Numeric literal, parsed once; {@code isLong} when it has no fractional part and fits a long.
+     */
+    private static final class NumberLiteral {
+        final BigDecimal decimal;
+        final boolean isLong;
+        final long longValue;
+
+        private NumberLiteral(BigDecimal decimal) {
+            this.decimal = decimal;
+            long exact = 0;
+            boolean fits;
+            try {
+                exact = decimal.longValueExact();
+                fits = true;
+            } catch (ArithmeticException e) {
+                fits = false;
+            }
+            this.isLong = fits;
+            this.longValue = exact;
+        }
+
+        static NumberLiteral parse(String text) {
+            try {
+                return new NumberLiteral(new BigDecimal(text));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    // ─── Text ───────────────────────────────────────────────────────────
+
+    private static ValueTest textTest(PredicateOperator op, Object value, boolean ci) {
+        String valueText = ci ? String.valueOf(value).toLowerCase() : String.valueOf(value);
+        return switch (op) {
+            case CONTAINS -> node -> text(node, ci).contains(valueText);
+            case NOT_CONTAINS -> node -> !text(node, ci).contains(valueText);
+            case STARTS_WITH -> node -> text(node, ci).startsWith(valueText);
+            default -> node -> text(node, ci).endsWith(valueText);
+        };
+    }
+
+    private static String text(JsonNode node, boolean lowerCase) {
+        String text = asText(node);
+        return lowerCase ? text.toLowerCase() : text;
+    }
+
+    // ─── IN ─────────────────────────────────────────────────────────────
+
+    private static ValueTest inTest(Object value, boolean ci) {
+        if (!(value instanceof List<?> list)) {
+            String valueText = String.valueOf(value);
+            return node -> ci ? asText(node).equalsIgnoreCase(valueText) : asText(node).equals(valueText);
+        }
+        Set<String> texts = new HashSet<>();
+        long[] longs = new long[list.size()];
+        int longCount = 0;
+        for (Object element : list) {
+            String text = String.valueOf(element);
+            texts.add(ci ? text.toLowerCase() : text);
+            Long canonical = canonicalLong(text);
+            if (canonical != null) {
+                longs[longCount++] = canonical;
+            }
+        }
+        long[] sortedLongs = Arrays.copyOf(longs, longCount);
+        Arrays.sort(sortedLongs);
+        return node -> {
+            // An integer field's text is its decimal form: look it up without building it
+            if (node.isIntegralNumber() && node.canConvertToLong()) {
+                return Arrays.binarySearch(sortedLongs, node.longValue()) >= 0;
+            }
+            return texts.contains(text(node, ci));
+        };
+    }
+
+    /**
+     * The value of {@code text} if it is exactly how {@link Long#toString} prints it.
+     */
+    private static Long canonicalLong(String text) {
+        try {
+            long parsed = Long.parseLong(text);
+            return Long.toString(parsed).equals(text) ? parsed : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // ─── REGEX ──────────────────────────────────────────────────────────
+
+    private static ValueTest regexTest(Object value) {
+        if (value == null) {
+            return NO_VALUE_MATCHES;
+        }
+        String patternStr = String.valueOf(value);
+        if (patternStr.length() > ConditionTreeEvaluator.MAX_REGEX_LENGTH) {
+            log.warn("Regex pattern too long ({} > {}), rule condition never matches",
+                    patternStr.length(), ConditionTreeEvaluator.MAX_REGEX_LENGTH);
+            return NO_VALUE_MATCHES;
+        }
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile(patternStr);
+        } catch (PatternSyntaxException e) {
+            log.warn("Invalid regex pattern: {}", patternStr);
+            return NO_VALUE_MATCHES;
+        }
+        return node -> {
+            try {
+                CharSequence input = new ConditionTreeEvaluator.InterruptibleCharSequence(
+                        asText(node), ConditionTreeEvaluator.REGEX_TIMEOUT_MS);
+                return pattern.matcher(input).find();
+            } catch (RuntimeException e) {
+                if (e.getCause() instanceof InterruptedException
+                        || e.getMessage() != null && e.getMessage().contains("timed out")) {
+                    log.warn("Regex evaluation timed out after {}ms for pattern: {}",
+                            ConditionTreeEvaluator.REGEX_TIMEOUT_MS, patternStr);
+                    return false;
+                }
+                throw e;
+            }
+        };
+    }
+}
@@ -22,12 +22,15 @@ import java.util.regex.PatternSyntaxException;
  * Supports nested AND/OR/NOT groups with recursive evaluation.
  * Field values are resolved once and cached per event (memoization).
  * No reflection, no script engines — pure switch-dispatch for maximum throughput.
+ * <p>
+ * {@link #evaluate} interprets the tree on every call. Trees evaluated repeatedly (rules)
+ * should be {@link #compile compiled} once instead; the compiled form gives the same results.
  */
 @Slf4j
 public class ConditionTreeEvaluator {
 
-    private static final int MAX_REGEX_LENGTH = 256;
-    private static final long REGEX_TIMEOUT_MS = 200;
+    static final int MAX_REGEX_LENGTH = 256;
+    static final long REGEX_TIMEOUT_MS = 200;
     private static final int REGEX_CACHE_MAX_SIZE = 256;
 
     @SuppressWarnings("serial")
@@ -56,6 +59,17 @@ public class ConditionTreeEvaluator {
         return evaluateNode(root, eventJson, fieldCache);
     }
 
+    /**
+     * Compile a condition tree into a {@link CompiledCondition}, registering its field paths
+     * in {@code fields} (shared by the rules of one project).
+     *
+     * @param root   condition tree root (may be null = match all)
+     * @param fields field paths of the plan being compiled
+     */
+    public static CompiledCondition compile(ConditionNode root, FieldPaths fields) {
+        return ConditionCompiler.compile(root, fields);
+    }
+
     private static boolean evaluateNode(ConditionNode node, JsonNode eventJson, Map<String, JsonNode> fieldCache) {
         if (node instanceof Group group) {
             return evaluateGroup(group, eventJson, fieldCache);
@@ -296,7 +310,7 @@ public class ConditionTreeEvaluator {
      * Each charAt() call checks elapsed time — if exceeded, throws to break
      * catastrophic backtracking (ReDoS protection).
      */
-    private static final class InterruptibleCharSequence implements CharSequence {
+    static final class InterruptibleCharSequence implements CharSequence {
         private final CharSequence inner;
         private final long deadlineNanos;
 
@@ -330,7 +344,7 @@ public class ConditionTreeEvaluator {
         }
     }
 
-    private static String asText(JsonNode node) {
+    static String asText(JsonNode node) {
         return node.isTextual() ? node.textValue() : node.toString();
     }
 
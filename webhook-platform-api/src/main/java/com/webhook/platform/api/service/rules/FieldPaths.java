@@ -0,0 +1,186 @@
+package com.webhook.platform.api.service.rules;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Field paths and predicates referenced by the compiled conditions of one project.
+ * <p>
+ * Every path is split once, at compile time, into a chain of slots — one per segment — and
+ * slots are shared by path prefix: {@code data.customer.id} and {@code data.customer.tier}
+ * reuse the slots of {@code data} and {@code data.customer}. {@link Values} resolves each
+ * slot at most once per event, so a field read by many rules is looked up once.
+ * <p>
+ * Predicates are shared the same way: identical predicates of different rules (same path,
+ * operator, value and case sensitivity) compile to one node whose result {@link Values}
+ * memoizes per event.
+ * <p>
+ * Paths follow {@link ConditionTreeEvaluator}: an optional {@code $.} prefix, dot-separated
+ * segments and {@code name[index]} for array elements. Populated while a plan is compiled,
+ * read-only once the plan is published.
+ */
+public final class FieldPaths {
+
+    private static final int NO_INDEX = -1;
+    private static final int INVALID_INDEX = -2;
+
+    /** Slot id per path prefix */
+    private final Map<String, Integer> slots = new HashMap<>();
+    private Step[] steps = new Step[16];
+    private int size;
+
+    /** Shared predicate nodes by definition */
+    private final Map<Object, CompiledCondition> predicates = new HashMap<>();
+
+    /**
+     * Slot of {@code path}, registering it and its prefixes on first use.
+     */
+    int slot(String path) {
+        String cleanPath = path.startsWith("$.") ? path.substring(2) : path;
+        Integer known = slots.get(cleanPath);
+        if (known != null) {
+            return known;
+        }
+        int parent = -1;
+        StringBuilder prefix = new StringBuilder(cleanPath.length());
+        for (String segment : cleanPath.split("\\.")) {
+            if (!prefix.isEmpty()) {
+                prefix.append('.');
+            }
+            prefix.append(segment);
+            String key = prefix.toString();
+            Integer slot = slots.get(key);
+            if (slot == null) {
+                if (size == steps.length) {
+                    steps = Arrays.copyOf(steps, size * 2);
+                }
+                slot = size;
+                steps[size++] = Step.parse(parent, segment);
+                slots.put(key, slot);
+            }
+            parent = slot;
+        }
+        // A path with a trailing dot splits like the one without it; "." is the root itself (-1)
+        slots.putIfAbsent(cleanPath, parent);
+        return parent;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int predicateCount() {
+        return predicates.size();
+    }
+
+    /**
+     * The shared node for predicate {@code key}: on first use, {@code predicate} wrapped so its
+     * result is computed once per event.
+     */
+    CompiledCondition sharedPredicate(Object key, CompiledCondition predicate) {
+        CompiledCondition shared = predicates.get(key);
+        if (shared == null) {
+            int id = predicates.size();
+            shared = values -> values.predicate(id, predicate);
+            predicates.put(key, shared);
+        }
+        return shared;
+    }
+
+    /**
+     * Field values of one event, resolved on first access.
+     */
+    public Values bind(JsonNode root) {
+        return new Values(steps, size, predicates.size(), root);
+    }
+
+    /**
+     * One path segment applied to the value of the parent slot (or to the event root).
+     */
+    private record Step(int parent, String name, int index) {
+
+        static Step parse(int parent, String segment) {
+            int bracketIdx = segment.indexOf('[');
+            if (bracketIdx >= 0 && segment.endsWith("]")) {
+                int index;
+                try {
+                    index = Integer.parseInt(segment.substring(bracketIdx + 1, segment.length() - 1));
+                } catch (NumberFormatException e) {
+                    index = INVALID_INDEX;
+                }
+                return new Step(parent, segment.substring(0, bracketIdx), index < 0 ? INVALID_INDEX : index);
+            }
+            return new Step(parent, segment, NO_INDEX);
+        }
+
+        JsonNode apply(JsonNode current) {
+            JsonNode child = current.path(name);
+            if (index == NO_INDEX) {
+                return child;
+            }
+            if (!child.isArray() || index == INVALID_INDEX) {
+                return null;
+            }
+            return child.get(index);
+        }
+    }
+
+    /**
+     * Per-event memo of slot values and predicate results. Not thread-safe; one instance per
+     * evaluated event.
+     */
+    public static final class Values {
+
+        /** Marks a slot not resolved yet; compared by identity */
+        private static final JsonNode UNRESOLVED = JsonNodeFactory.instance.objectNode();
+
+        private static final byte MATCHED = 1;
+        private static final byte NOT_MATCHED = 2;
+
+        private final Step[] steps;
+        private final JsonNode root;
+        private final JsonNode[] values;
+        /** 0 = not evaluated yet */
+        private final byte[] predicateResults;
+
+        private Values(Step[] steps, int size, int predicateCount, JsonNode root) {
+            this.steps = steps;
+            this.root = root;
+            this.values = new JsonNode[size];
+            this.predicateResults = new byte[predicateCount];
+            Arrays.fill(values, UNRESOLVED);
+        }
+
+        boolean predicate(int id, CompiledCondition predicate) {
+            byte result = predicateResults[id];
+            if (result == 0) {
+                result = predicate.matches(this) ? MATCHED : NOT_MATCHED;
+                predicateResults[id] = result;
+            }
+            return result == MATCHED;
+        }
+
+        /**
+         * Value at {@code slot}: {@code null} when a parent is missing or null, otherwise
+         * what Jackson's {@code path}/{@code get} returns (possibly a missing or null node).
+         */
+        JsonNode get(int slot) {
+            if (slot < 0) {
+                return root;
+            }
+            JsonNode value = values[slot];
+            if (value != UNRESOLVED) {
+                return value;
+            }
+            Step step = steps[slot];
+            JsonNode current = step.parent() < 0 ? root : get(step.parent());
+            value = current == null || current.isMissingNode() || current.isNull() ? null : step.apply(current);
+            values[slot] = value;
+            return value;
+        }
+    }
+}
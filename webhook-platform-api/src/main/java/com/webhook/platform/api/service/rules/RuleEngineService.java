@@ -5,15 +5,32 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webhook.platform.api.domain.entity.Rule;
 import com.webhook.platform.api.domain.entity.RuleAction;
 import com.webhook.platform.api.domain.entity.RuleAction.ActionType;
-import com.webhook.platform.api.domain.entity.RuleExecutionLog;
-import com.webhook.platform.api.domain.repository.RuleExecutionLogRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.webhook.platform.api.domain.repository.RulePlanVersionRepository;
 import com.webhook.platform.api.domain.repository.RuleRepository;
 import com.webhook.platform.api.dto.ConditionNode;
 import com.webhook.platform.common.util.EventTypeMatcher;
+import com.webhook.platform.common.util.EventTypePatternSet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -21,30 +38,102 @@ import java.util.stream.Collectors;
 /**
  * High-performance rules engine with two-stage evaluation:
  * <ol>
- *   <li><b>Stage A — Prefilter (O(1))</b>: index by event_type_pattern → candidate rules</li>
- *   <li><b>Stage B — Full evaluation (O(k))</b>: evaluate compiled conditions with memoized field cache</li>
+ *   <li><b>Stage A — Prefilter (O(1))</b>: event type → precomputed, pre-sorted {@link CandidateSet};
+ *       rules guarded by a text equality are looked up by the event's field value</li>
+ *   <li><b>Stage B — Full evaluation (O(k))</b>: evaluate compiled conditions of the remaining candidates</li>
  * </ol>
  * <p>
- * Rules are loaded into memory and refreshed periodically.
- * No DB access per event evaluation.
+ * Condition trees are compiled once per plan load ({@link ConditionTreeEvaluator#compile});
+ * the rules of a project share one {@link FieldPaths}, so a field is resolved and an identical
+ * predicate evaluated once per event. Cost per event follows the rules that can match it
+ * rather than the size of the project's rule set.
+ * <p>
+ * Rules are loaded into memory on first use (or at startup, for the busiest projects) and
+ * kept until their project's rules change.
+ * No DB access per event evaluation: execution telemetry goes through {@link RuleExecutionLogWriter}.
+ *
+ * <h3>Invalidation</h3>
+ * Each plan carries the project's {@code rules_version} it was loaded at. Rule CRUD calls
+ * {@link #invalidate(UUID)}, which bumps the version in the caller's transaction; after commit
+ * the plan is dropped locally and the new version is broadcast on {@value #INVALIDATION_TOPIC},
+ * where pods holding an older plan drop theirs. A plan is reloaded by the next event that needs it.
+ * Pub/sub is best-effort: {@link #refreshAll()} compares the versions of all cached plans in
+ * one query and drops only the outdated ones, which bounds staleness when a message is lost.
  */
 @Service
 @Slf4j
 public class RuleEngineService {
 
+    static final String INVALIDATION_TOPIC = "rule-plans:invalidate";
+
+    /** Projects per version query of {@link #refreshAll()} */
+    private static final int SWEEP_BATCH = 1000;
+
     private final RuleRepository ruleRepository;
-    private final RuleExecutionLogRepository executionLogRepository;
+    private final RulePlanVersionRepository versionRepository;
+    private final RuleExecutionLogWriter executionLog;
     private final ObjectMapper objectMapper;
+    private final RedissonClient redissonClient;
+    private final int warmUpProjects;
 
     /** projectId → compiled execution plan */
-    private final ConcurrentHashMap<UUID, ProjectRulePlan> planCache = new ConcurrentHashMap<>();
+    private final Cache<UUID, ProjectRulePlan> plans;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Counter loads;
+    private final Counter remoteInvalidations;
+    private final Counter sweepInvalidations;
+    private Integer listenerId;
 
     public RuleEngineService(RuleRepository ruleRepository,
-                             RuleExecutionLogRepository executionLogRepository,
-                             ObjectMapper objectMapper) {
+                             RulePlanVersionRepository versionRepository,
+                             RuleExecutionLogWriter executionLog,
+                             ObjectMapper objectMapper,
+                             RedissonClient redissonClient,
+                             MeterRegistry meterRegistry,
+                             @Value("${rules.plan-cache.max-projects:10000}") long maxProjects,
+                             @Value("${rules.plan-cache.warm-up-projects:500}") int warmUpProjects) {
         this.ruleRepository = ruleRepository;
-        this.executionLogRepository = executionLogRepository;
+        this.versionRepository = versionRepository;
+        this.executionLog = executionLog;
         this.objectMapper = objectMapper;
+        this.redissonClient = redissonClient;
+        this.warmUpProjects = warmUpProjects;
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(maxProjects)
+                .build();
+
+        this.loads = Counter.builder("rule_plan_loads_total")
+                .description("Rule plans built from the database")
+                .register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("rule_plan_remote_invalidations_total")
+                .description("Rule plans dropped on another pod's broadcast")
+                .register(meterRegistry);
+        this.sweepInvalidations = Counter.builder("rule_plan_sweep_invalidations_total")
+                .description("Outdated rule plans found by the periodic version sweep")
+                .register(meterRegistry);
+        Gauge.builder("rule_plan_cached_projects", plans, Cache::estimatedSize)
+                .description("Projects with a cached rule plan")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        try {
+            listenerId = topic().addListener(String.class, (channel, message) -> onRemoteInvalidation(message));
+        } catch (Exception e) {
+            log.warn("Rule plan invalidation listener failed, relying on the version sweep: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerId != null) {
+            try {
+                topic().removeListener(listenerId);
+            } catch (Exception e) {
+                log.debug("Failed to remove rule plan listener: {}", e.getMessage());
+            }
+        }
     }
 
     // ─── Evaluation ─────────────────────────────────────────────────────
@@ -59,41 +148,34 @@ public class RuleEngineService {
      * @return list of matched rules with their actions
      */
     public List<RuleMatch> evaluate(UUID projectId, String eventType, JsonNode eventJson, UUID eventId) {
-        ProjectRulePlan plan = planCache.get(projectId);
-        if (plan == null) {
-            plan = loadPlan(projectId);
-        }
+        return evaluate(planFor(projectId), projectId, eventType, eventJson, eventId);
+    }
 
-        Map<String, JsonNode> fieldCache = ConditionTreeEvaluator.newFieldCache();
+    /**
+     * Evaluate against a plan the caller already holds, so a batch of events
+     * sees one consistent rule set and resolves the plan once.
+     */
+    public List<RuleMatch> evaluate(ProjectRulePlan plan, UUID projectId, String eventType,
+                                    JsonNode eventJson, UUID eventId) {
+        // Each field is resolved at most once per event, across all rules
+        FieldPaths.Values fields = plan.bindFields(eventJson);
         List<RuleMatch> matches = new ArrayList<>();
 
-        // Stage A: prefilter — get candidate rules
-        List<CompiledRule> candidates = plan.getCandidates(eventType);
+        // Stage A: prefilter — candidates for the event type whose equality guard holds
+        List<CompiledRule> candidates = plan.getCandidates(eventType, fields);
 
         // Stage B: evaluate conditions
         for (CompiledRule rule : candidates) {
             long start = System.nanoTime();
-            boolean matched = ConditionTreeEvaluator.evaluate(
-                    rule.getConditionTree(), eventJson, fieldCache);
-            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            boolean matched = rule.getCondition().matches(fields);
+            long elapsedNanos = System.nanoTime() - start;
 
             if (matched) {
                 matches.add(new RuleMatch(rule, rule.getActions()));
             }
 
-            // Async log (fire-and-forget, non-blocking for main pipeline)
-            try {
-                executionLogRepository.save(RuleExecutionLog.builder()
-                        .ruleId(rule.getRuleId())
-                        .projectId(projectId)
-                        .eventId(eventId)
-                        .matched(matched)
-                        .actionsExecuted(matched ? rule.getActions().size() : 0)
-                        .evaluationTimeMs((int) elapsed)
-                        .build());
-            } catch (Exception e) {
-                log.debug("Failed to save rule execution log: {}", e.getMessage());
-            }
+            // Meters in memory, log row buffered for the background flusher
+            executionLog.record(rule, projectId, eventId, matched, elapsedNanos);
         }
 
         return matches;
@@ -101,46 +183,150 @@ public class RuleEngineService {
 
     // ─── Cache management ───────────────────────────────────────────────
 
+    /**
+     * Cached plan for a project, loaded on first use.
+     */
+    public ProjectRulePlan planFor(UUID projectId) {
+        return plans.get(projectId, this::load);
+    }
+
     /**
      * Load or reload the rule execution plan for a project.
      */
     public ProjectRulePlan loadPlan(UUID projectId) {
-        List<Rule> rules = ruleRepository.findEnabledWithActions(projectId);
-        List<CompiledRule> compiled = rules.stream()
-                .map(this::compile)
-                .collect(Collectors.toList());
-
-        ProjectRulePlan plan = new ProjectRulePlan(compiled);
-        planCache.put(projectId, plan);
-        log.debug("Loaded {} rules for project {}", compiled.size(), projectId);
+        ProjectRulePlan plan = load(projectId);
+        plans.put(projectId, plan);
         return plan;
     }
 
     /**
-     * Invalidate cache for a project (called after rule CRUD).
+     * Rules of the project changed: bump its version and, after commit when called inside a
+     * transaction, drop its plan here and on every other pod.
      */
     public void invalidate(UUID projectId) {
-        planCache.remove(projectId);
-        log.debug("Invalidated rule cache for project {}", projectId);
+        long version = versionRepository.bump(projectId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndBroadcast(projectId, version);
+                }
+            });
+        } else {
+            evictAndBroadcast(projectId, version);
+        }
     }
 
     /**
-     * Periodic refresh — reload all cached projects every 30 seconds.
+     * Periodic version sweep: one query per {@value #SWEEP_BATCH} cached projects, dropping
+     * the plans whose version is behind the database. Plans that are current stay untouched.
      */
     @Scheduled(fixedDelayString = "${rules.cache-refresh-ms:30000}")
     public void refreshAll() {
-        for (UUID projectId : planCache.keySet()) {
+        List<UUID> cached = new ArrayList<>(plans.asMap().keySet());
+        for (int from = 0; from < cached.size(); from += SWEEP_BATCH) {
+            List<UUID> batch = cached.subList(from, Math.min(from + SWEEP_BATCH, cached.size()));
             try {
-                loadPlan(projectId);
+                Map<UUID, Long> versions = versionRepository.findAll(batch);
+                for (UUID projectId : batch) {
+                    ProjectRulePlan plan = plans.getIfPresent(projectId);
+                    if (plan != null && plan.getVersion() < versions.getOrDefault(projectId, 0L)) {
+                        plans.invalidate(projectId);
+                        sweepInvalidations.increment();
+                    }
+                }
             } catch (Exception e) {
-                log.warn("Failed to refresh rules for project {}: {}", projectId, e.getMessage());
+                log.warn("Failed to check rule plan versions for {} projects: {}", batch.size(), e.getMessage());
             }
         }
     }
 
+    /**
+     * Load the plans of the busiest projects with rules in one bulk query, so the first
+     * events after a deploy don't each pay for a plan load.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmUpProjects <= 0) {
+            return;
+        }
+        try {
+            List<UUID> projectIds = versionRepository.findMostActiveProjectsWithRules(
+                    Instant.now().minus(Duration.ofDays(1)), warmUpProjects);
+            if (projectIds.isEmpty()) {
+                return;
+            }
+            // Read before the rules, as in load()
+            Map<UUID, Long> versions = versionRepository.findAll(projectIds);
+            Map<UUID, List<Rule>> rulesByProject = ruleRepository.findEnabledWithActionsByProjectIds(projectIds)
+                    .stream()
+                    .collect(Collectors.groupingBy(Rule::getProjectId));
+            for (UUID projectId : projectIds) {
+                ProjectRulePlan plan = build(projectId, versions.getOrDefault(projectId, 0L),
+                        rulesByProject.getOrDefault(projectId, List.of()));
+                plans.asMap().putIfAbsent(projectId, plan);
+            }
+            log.info("Warmed up rule plans for {} projects", projectIds.size());
+        } catch (Exception e) {
+            log.warn("Rule plan warm-up failed, plans load on first use: {}", e.getMessage());
+        }
+    }
+
+    private ProjectRulePlan load(UUID projectId) {
+        // Versions first: a change committed in between leaves the plan behind, not ahead
+        long version = versionRepository.find(projectId);
+        return build(projectId, version, ruleRepository.findEnabledWithActions(projectId));
+    }
+
+    private ProjectRulePlan build(UUID projectId, long version, List<Rule> rules) {
+        FieldPaths fields = new FieldPaths();
+        List<CompiledRule> compiled = rules.stream()
+                .map(rule -> compile(rule, fields))
+                .collect(Collectors.toList());
+
+        ProjectRulePlan plan = new ProjectRulePlan(compiled, fields, version);
+        loads.increment();
+        log.debug("Loaded {} rules for project {} at version {}", compiled.size(), projectId, version);
+        return plan;
+    }
+
+    private void evictAndBroadcast(UUID projectId, long version) {
+        plans.invalidate(projectId);
+        log.debug("Invalidated rule plan for project {} at version {}", projectId, version);
+        try {
+            topic().publishAsync(instanceId + "|" + projectId + "|" + version);
+        } catch (Exception e) {
+            log.debug("Redis unavailable for rule plan broadcast: {}", e.getMessage());
+        }
+    }
+
+    private void onRemoteInvalidation(String message) {
+        // instanceId|projectId|version
+        String[] parts = message.split("\\|");
+        if (parts.length != 3 || parts[0].equals(instanceId)) {
+            return;
+        }
+        try {
+            UUID projectId = UUID.fromString(parts[1]);
+            long version = Long.parseLong(parts[2]);
+            ProjectRulePlan plan = plans.getIfPresent(projectId);
+            // Also when absent: drops a plan still being loaded from pre-commit rows
+            if (plan == null || plan.getVersion() < version) {
+                plans.invalidate(projectId);
+                remoteInvalidations.increment();
+            }
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed rule plan message: {}", message);
+        }
+    }
+
+    private RTopic topic() {
+        return redissonClient.getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE);
+    }
+
     // ─── Compilation ────────────────────────────────────────────────────
 
-    private CompiledRule compile(Rule rule) {
+    private CompiledRule compile(Rule rule, FieldPaths fields) {
         ConditionNode conditionTree = null;
         if (rule.getConditions() != null && !rule.getConditions().isBlank()) {
             try {
@@ -169,6 +355,7 @@ public class RuleEngineService {
                 .priority(rule.getPriority())
                 .eventTypePattern(rule.getEventTypePattern())
                 .conditionTree(conditionTree)
+                .condition(ConditionTreeEvaluator.compile(conditionTree, fields))
                 .actions(actions)
                 .build();
     }
@@ -177,22 +364,47 @@ public class RuleEngineService {
 
     /**
      * In-memory execution plan for a project.
-     * Two-tier index: exact event type → rules, plus catch-all list.
+     * Two-tier index: exact event type → rules, plus catch-all list; the resulting candidates
+     * are built into a {@link CandidateSet} once per event type.
      */
     public static class ProjectRulePlan {
 
+        /** Bound on cached candidate sets, against projects fed unbounded event type names */
+        static final int MAX_CACHED_EVENT_TYPES = 1024;
+
         /** Exact event type → rules (no wildcards) */
         private final Map<String, List<CompiledRule>> exactIndex;
 
-        /** Wildcard rules (patterns with * or **) */
+        /** Wildcard rules (patterns with * or **), indexed by their id in {@link #wildcardPatterns} */
         private final List<CompiledRule> wildcardRules;
 
+        private final EventTypePatternSet wildcardPatterns;
+
         /** Catch-all rules (no event_type_pattern) */
         private final List<CompiledRule> catchAllRules;
 
-        public ProjectRulePlan(List<CompiledRule> rules) {
+        /** Field paths of all compiled conditions, shared by prefix */
+        private final FieldPaths fields;
+
+        /** Text equality guard per rule that has one, by identity */
+        private final Map<CompiledRule, CandidateSet.SlotGuard> guards = new IdentityHashMap<>();
+
+        /** Event type → candidates, built on first use */
+        private final ConcurrentHashMap<String, CandidateSet> candidateSets = new ConcurrentHashMap<>();
+
+        /** {@code rules_version} of the project when the rules were read */
+        private final long version;
+
+        public ProjectRulePlan(List<CompiledRule> rules, FieldPaths fields) {
+            this(rules, fields, 0);
+        }
+
+        public ProjectRulePlan(List<CompiledRule> rules, FieldPaths fields, long version) {
+            this.fields = fields;
+            this.version = version;
             this.exactIndex = new HashMap<>();
             this.wildcardRules = new ArrayList<>();
+            this.wildcardPatterns = new EventTypePatternSet();
             this.catchAllRules = new ArrayList<>();
 
             for (CompiledRule rule : rules) {
@@ -200,18 +412,60 @@ public class RuleEngineService {
                 if (pattern == null || pattern.isBlank()) {
                     catchAllRules.add(rule);
                 } else if (EventTypeMatcher.isWildcard(pattern)) {
+                    wildcardPatterns.add(pattern);
                     wildcardRules.add(rule);
                 } else {
                     exactIndex.computeIfAbsent(pattern, k -> new ArrayList<>()).add(rule);
                 }
+                ConditionCompiler.EqualityGuard guard = ConditionCompiler.equalityGuard(rule.getConditionTree());
+                if (guard != null) {
+                    guards.put(rule, new CandidateSet.SlotGuard(fields.slot(guard.field()), guard.value()));
+                }
             }
         }
 
+        public long getVersion() {
+            return version;
+        }
+
         /**
-         * Get candidate rules for a concrete event type.
-         * O(1) for exact matches + O(w) for wildcard rules + catch-all.
+         * Field values of one event for the plan's compiled conditions.
+         */
+        public FieldPaths.Values bindFields(JsonNode eventJson) {
+            return fields.bind(eventJson);
+        }
+
+        /**
+         * Get candidate rules for a concrete event type, highest priority first.
+         * Precomputed per event type; the returned list is immutable.
          */
         public List<CompiledRule> getCandidates(String eventType) {
+            return candidateSet(eventType).rules();
+        }
+
+        /**
+         * Candidate rules for an event: those of its type whose equality guard, if any, holds
+         * for the event's {@code values}. Same order as {@link #getCandidates(String)}.
+         */
+        public List<CompiledRule> getCandidates(String eventType, FieldPaths.Values values) {
+            return candidateSet(eventType).select(values);
+        }
+
+        private CandidateSet candidateSet(String eventType) {
+            CandidateSet set = candidateSets.get(eventType);
+            if (set == null) {
+                set = buildCandidateSet(eventType);
+                if (candidateSets.size() < MAX_CACHED_EVENT_TYPES) {
+                    candidateSets.putIfAbsent(eventType, set);
+                }
+            }
+            return set;
+        }
+
+        /**
+         * O(1) for exact matches + one pattern-set walk for wildcard rules + catch-all.
+         */
+        private CandidateSet buildCandidateSet(String eventType) {
             List<CompiledRule> candidates = new ArrayList<>();
 
             // 1. Exact match
@@ -221,18 +475,15 @@ public class RuleEngineService {
             }
 
             // 2. Wildcard rules
-            for (CompiledRule rule : wildcardRules) {
-                if (EventTypeMatcher.matches(rule.getEventTypePattern(), eventType)) {
-                    candidates.add(rule);
-                }
+            for (int id : wildcardPatterns.match(eventType)) {
+                candidates.add(wildcardRules.get(id));
             }
 
             // 3. Catch-all
             candidates.addAll(catchAllRules);
 
-            // Sort by priority (highest first)
-            candidates.sort(Comparator.comparingInt(CompiledRule::getPriority).reversed());
-            return candidates;
+            // Sorted by priority (highest first) on construction
+            return new CandidateSet(candidates, guards);
         }
     }
 
@@ -0,0 +1,271 @@
+package com.webhook.platform.api.service.rules;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Telemetry of rule evaluations, kept off the ingest path.
+ *
+ * <h3>Meters</h3>
+ * Every evaluation updates in-memory per-rule meters: {@code rule_engine_evaluations_total}
+ * (tags {@code rule_id}, {@code matched}) and the {@code rule_engine_evaluation_duration}
+ * timer. Meters of rules not evaluated for {@code meter-idle-minutes} are removed from the
+ * registry, so deleted rules do not pile up.
+ *
+ * <h3>Log rows</h3>
+ * A {@code sample-rate} share of evaluations (default all) is appended to a bounded lock-free
+ * buffer and written to {@code rule_execution_log} by one flusher thread as multi-row INSERTs
+ * of up to {@code max-batch-rows}, every {@code flush-interval-ms} or as soon as a batch is
+ * full. The ingest thread never blocks and never touches the database: when
+ * {@code max-buffered-rows} are waiting, new rows are dropped and counted. Rows still buffered
+ * at a crash are lost; a batch whose write fails is dropped after a warning. Rule statistics
+ * read from the log (execution and match counts) are therefore sampled counts, while the
+ * meters above are exact.
+ */
+@Component
+@Slf4j
+public class RuleExecutionLogWriter {
+
+    static final String INSERT_PREFIX = "INSERT INTO rule_execution_log " +
+            "(rule_id, project_id, event_id, matched, actions_executed, evaluation_time_ms, executed_at) VALUES ";
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?)";
+    private static final int COLUMNS = 7;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final double sampleRate;
+    private final long flushIntervalNanos;
+    private final int maxBatchRows;
+    private final int maxBufferedRows;
+
+    private final Queue<Row> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    /** Multi-row INSERT statements by row count, so each size is built once */
+    private final ConcurrentHashMap<Integer, String> insertSql = new ConcurrentHashMap<>();
+    private final Cache<UUID, RuleMeters> ruleMeters;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    private final Counter rowsDropped;
+    private final Counter flushFailures;
+    private final DistributionSummary batchRows;
+
+    public RuleExecutionLogWriter(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${rules.execution-log.sample-rate:1.0}") double sampleRate,
+            @Value("${rules.execution-log.flush-interval-ms:500}") long flushIntervalMs,
+            @Value("${rules.execution-log.max-batch-rows:500}") int maxBatchRows,
+            @Value("${rules.execution-log.max-buffered-rows:50000}") int maxBufferedRows,
+            @Value("${rules.execution-log.meter-idle-minutes:60}") long meterIdleMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.maxBatchRows = Math.max(1, maxBatchRows);
+        this.maxBufferedRows = maxBufferedRows;
+        this.ruleMeters = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(meterIdleMinutes))
+                .removalListener((UUID ruleId, RuleMeters meters, RemovalCause cause) -> {
+                    if (meters != null) {
+                        meters.remove(meterRegistry);
+                    }
+                })
+                .build();
+
+        this.rowsDropped = Counter.builder("rule_engine_execution_log_dropped_total")
+                .description("Execution log rows dropped because the buffer was full")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("rule_engine_execution_log_flush_failures_total")
+                .register(meterRegistry);
+        this.batchRows = DistributionSummary.builder("rule_engine_execution_log_batch_rows")
+                .register(meterRegistry);
+        Gauge.builder("rule_engine_execution_log_buffered", buffered, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (sampleRate == 0) {
+            log.info("Rule execution log rows disabled (sample-rate 0), per-rule meters only");
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "rule-execution-log");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Writes what is still buffered before the datasource goes away.
+     */
+    @PreDestroy
+    void stop() {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Records one evaluation. Non-blocking; called on the ingest thread.
+     */
+    public void record(CompiledRule rule, UUID projectId, UUID eventId, boolean matched, long elapsedNanos) {
+        ruleMeters.get(rule.getRuleId(), id -> new RuleMeters(id, meterRegistry)).record(matched, elapsedNanos);
+
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        if (buffered.incrementAndGet() > maxBufferedRows) {
+            buffered.decrementAndGet();
+            rowsDropped.increment();
+            return;
+        }
+        buffer.offer(new Row(rule.getRuleId(), projectId, eventId, matched,
+                matched ? rule.getActions().size() : 0,
+                (int) TimeUnit.NANOSECONDS.toMillis(elapsedNanos), System.currentTimeMillis()));
+        if (buffered.get() >= maxBatchRows && flusher != null) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    private void runFlusher() {
+        while (running) {
+            if (buffered.get() < maxBatchRows) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            try {
+                flush();
+            } catch (Exception e) {
+                log.warn("Rule execution log flush failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Drains the buffer in batches of up to {@code max-batch-rows}, one INSERT per batch.
+     */
+    void flush() {
+        List<Row> batch = new ArrayList<>(Math.min(maxBatchRows, Math.max(1, buffered.get())));
+        for (Row row; (row = buffer.poll()) != null; ) {
+            buffered.decrementAndGet();
+            batch.add(row);
+            if (batch.size() == maxBatchRows) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Row> batch) {
+        Object[] args = new Object[batch.size() * COLUMNS];
+        int i = 0;
+        for (Row row : batch) {
+            args[i++] = row.ruleId();
+            args[i++] = row.projectId();
+            args[i++] = row.eventId();
+            args[i++] = row.matched();
+            args[i++] = row.actionsExecuted();
+            args[i++] = row.evaluationTimeMs();
+            args[i++] = OffsetDateTime.ofInstant(Instant.ofEpochMilli(row.executedAtMs()), ZoneOffset.UTC);
+        }
+        try {
+            jdbcTemplate.update(insertSql.computeIfAbsent(batch.size(), RuleExecutionLogWriter::buildInsert), args);
+            batchRows.record(batch.size());
+        } catch (Exception e) {
+            flushFailures.increment();
+            log.warn("Dropped {} rule execution log rows: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    static String buildInsert(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2))
+                .append(INSERT_PREFIX);
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+
+    int bufferedRows() {
+        return buffered.get();
+    }
+
+    record Row(UUID ruleId, UUID projectId, UUID eventId, boolean matched, int actionsExecuted,
+               int evaluationTimeMs, long executedAtMs) {}
+
+    /**
+     * Meters of one rule, registered on its first evaluation.
+     */
+    private static final class RuleMeters {
+
+        private final Counter matched;
+        private final Counter notMatched;
+        private final Timer duration;
+
+        RuleMeters(UUID ruleId, MeterRegistry registry) {
+            String id = ruleId.toString();
+            this.matched = Counter.builder("rule_engine_evaluations_total")
+                    .tag("rule_id", id).tag("matched", "true").register(registry);
+            this.notMatched = Counter.builder("rule_engine_evaluations_total")
+                    .tag("rule_id", id).tag("matched", "false").register(registry);
+            this.duration = Timer.builder("rule_engine_evaluation_duration")
+                    .tag("rule_id", id)
+                    .serviceLevelObjectives(Duration.ofNanos(100_000), Duration.ofMillis(1), Duration.ofMillis(10))
+                    .register(registry);
+        }
+
+        void record(boolean isMatch, long elapsedNanos) {
+            (isMatch ? matched : notMatched).increment();
+            duration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        void remove(MeterRegistry registry) {
+            registry.remove(matched);
+            registry.remove(notMatched);
+            registry.remove(duration);
+        }
+    }
+}
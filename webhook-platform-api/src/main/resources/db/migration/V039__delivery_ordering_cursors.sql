@@ -0,0 +1,11 @@
+-- =============================================
+-- Partition-affine ordered delivery (ordering.mode=partition)
+-- =============================================
+
+-- Last settled sequence per ordered endpoint. Written behind by the worker that owns the
+-- endpoint's deliveries.dispatch partition and read back when the partition is reassigned.
+CREATE TABLE delivery_ordering_cursors (
+    endpoint_id UUID PRIMARY KEY REFERENCES endpoints(id) ON DELETE CASCADE,
+    last_sequence BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
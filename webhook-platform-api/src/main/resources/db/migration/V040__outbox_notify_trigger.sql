@@ -0,0 +1,17 @@
+-- =============================================
+-- Outbox wake-up for outbox.publisher.mode=notify
+-- =============================================
+
+-- One notification per inserting statement; Postgres delivers it on commit and folds
+-- identical notifications raised in the same transaction into one.
+CREATE OR REPLACE FUNCTION notify_outbox_pending()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('outbox_pending', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_outbox_notify_pending
+    AFTER INSERT ON outbox_messages
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_outbox_pending();
@@ -0,0 +1,11 @@
+-- =============================================
+-- Direct (outbox-less) dispatch (webhook.dispatch.mode=direct)
+-- =============================================
+
+-- Set once the deliveries.dispatch record for this delivery has been acked by Kafka.
+-- Deliveries dispatched through the outbox leave it NULL.
+ALTER TABLE deliveries ADD COLUMN dispatched_at TIMESTAMP WITH TIME ZONE;
+
+-- Reconciliation sweep: fresh PENDING deliveries whose record was never acked
+CREATE INDEX idx_deliveries_undispatched ON deliveries(created_at)
+    WHERE status = 'PENDING' AND dispatched_at IS NULL;
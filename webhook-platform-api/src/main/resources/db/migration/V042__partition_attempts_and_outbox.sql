@@ -0,0 +1,103 @@
+-- =============================================
+-- Daily range partitioning by created_at for delivery_attempts and outbox_messages
+-- =============================================
+-- Both tables are append-heavy and only ever age out, so retention can drop whole
+-- partitions (PartitionMaintenanceService) instead of deleting rows in batches.
+-- events, deliveries and incoming_events stay plain tables: other tables reference them
+-- with ON DELETE CASCADE, and a partitioned table can only be referenced through a key
+-- that includes the partition column.
+--
+-- The migration copies each table into its partitioned replacement. On large installs run
+-- it in a maintenance window.
+
+-- Creates <parent>_pYYYYMMDD partitions for every day in [from_day, to_day] that does not
+-- have one yet; returns how many were created. A day whose rows already sit in the default
+-- partition is skipped with a warning (Postgres refuses to create it) and stays there.
+CREATE OR REPLACE FUNCTION create_daily_partitions(parent TEXT, from_day DATE, to_day DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    d DATE := from_day;
+    part TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE d <= to_day LOOP
+        part := parent || '_p' || to_char(d, 'YYYYMMDD');
+        IF to_regclass(part) IS NULL THEN
+            BEGIN
+                EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                               part, parent, d, d + 1);
+                created := created + 1;
+            EXCEPTION WHEN check_violation THEN
+                RAISE WARNING 'Partition % not created: rows for that day are in %_default', part, parent;
+            END;
+        END IF;
+        d := d + 1;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ---------------------------------------------
+-- delivery_attempts
+-- ---------------------------------------------
+ALTER TABLE delivery_attempts RENAME TO delivery_attempts_legacy;
+
+CREATE TABLE delivery_attempts (LIKE delivery_attempts_legacy INCLUDING DEFAULTS)
+    PARTITION BY RANGE (created_at);
+
+-- Rows outside every daily partition (older than the backfill window, or written while
+-- maintenance was behind) land here; retention deletes them row by row.
+CREATE TABLE delivery_attempts_default PARTITION OF delivery_attempts DEFAULT;
+
+SELECT create_daily_partitions('delivery_attempts',
+        GREATEST(COALESCE((SELECT MIN(created_at)::date FROM delivery_attempts_legacy), CURRENT_DATE),
+                 CURRENT_DATE - 120),
+        CURRENT_DATE + 14);
+
+INSERT INTO delivery_attempts SELECT * FROM delivery_attempts_legacy;
+DROP TABLE delivery_attempts_legacy;
+
+ALTER TABLE delivery_attempts ADD PRIMARY KEY (id, created_at);
+ALTER TABLE delivery_attempts ADD CONSTRAINT delivery_attempts_delivery_id_fkey
+    FOREIGN KEY (delivery_id) REFERENCES deliveries(id) ON DELETE CASCADE;
+
+CREATE INDEX idx_delivery_attempts_delivery_id ON delivery_attempts(delivery_id);
+CREATE INDEX idx_delivery_attempts_created_at ON delivery_attempts(created_at);
+CREATE INDEX idx_delivery_attempts_delivery_attempt_number ON delivery_attempts(delivery_id, attempt_number DESC);
+CREATE INDEX idx_delivery_attempts_cleanup ON delivery_attempts(created_at, http_status_code);
+
+COMMENT ON TABLE delivery_attempts IS 'Stores webhook delivery attempt details with request/response data. Partitioned daily by created_at. Retention: 90 days or last 10 attempts per delivery.';
+
+-- ---------------------------------------------
+-- outbox_messages
+-- ---------------------------------------------
+ALTER TABLE outbox_messages RENAME TO outbox_messages_legacy;
+
+CREATE TABLE outbox_messages (LIKE outbox_messages_legacy INCLUDING DEFAULTS)
+    PARTITION BY RANGE (created_at);
+
+CREATE TABLE outbox_messages_default PARTITION OF outbox_messages DEFAULT;
+
+SELECT create_daily_partitions('outbox_messages',
+        GREATEST(COALESCE((SELECT MIN(created_at)::date FROM outbox_messages_legacy), CURRENT_DATE),
+                 CURRENT_DATE - 120),
+        CURRENT_DATE + 14);
+
+INSERT INTO outbox_messages SELECT * FROM outbox_messages_legacy;
+DROP TABLE outbox_messages_legacy;
+
+ALTER TABLE outbox_messages ADD PRIMARY KEY (id, created_at);
+
+CREATE INDEX idx_outbox_messages_status ON outbox_messages(status);
+CREATE INDEX idx_outbox_messages_created_at ON outbox_messages(created_at);
+CREATE INDEX idx_outbox_messages_aggregate ON outbox_messages(aggregate_type, aggregate_id);
+CREATE INDEX idx_outbox_messages_pending ON outbox_messages(created_at) WHERE status = 'PENDING';
+CREATE INDEX idx_outbox_pending_topic_created ON outbox_messages(kafka_topic, created_at) WHERE status = 'PENDING';
+
+CREATE TRIGGER trg_outbox_updated_at
+    BEFORE UPDATE ON outbox_messages
+    FOR EACH ROW EXECUTE FUNCTION update_outbox_updated_at();
+
+CREATE TRIGGER trg_outbox_notify_pending
+    AFTER INSERT ON outbox_messages
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_outbox_pending();
@@ -0,0 +1,46 @@
+-- =============================================
+-- Incremental delivery analytics rollups
+-- =============================================
+-- Workers upsert per-(project, endpoint, event type, minute) counters into
+-- delivery_stats_minute (DeliveryStatsRecorder); the API compacts settled minutes into
+-- delivery_stats_hour (DeliveryStatsCompactionService) and AnalyticsService reads only these
+-- two tables, so a dashboard load costs O(buckets) instead of O(deliveries + attempts).
+--
+-- deliveries / succeeded / failed are bucketed by the delivery's created_at (a delivery that
+-- succeeds hours later still lands in the minute it was created, like the old status counts);
+-- attempts / latency_* are bucketed by the time of the attempt.
+
+CREATE TABLE delivery_stats_minute (
+    project_id      UUID        NOT NULL,
+    endpoint_id     UUID        NOT NULL,
+    event_type      VARCHAR(255) NOT NULL,
+    bucket_start    TIMESTAMPTZ NOT NULL,
+    deliveries      BIGINT      NOT NULL DEFAULT 0,
+    succeeded       BIGINT      NOT NULL DEFAULT 0,
+    failed          BIGINT      NOT NULL DEFAULT 0,
+    attempts        BIGINT      NOT NULL DEFAULT 0,
+    latency_sum_ms  BIGINT      NOT NULL DEFAULT 0,
+    latency_max_ms  INTEGER     NOT NULL DEFAULT 0,
+    PRIMARY KEY (project_id, bucket_start, endpoint_id, event_type)
+);
+
+CREATE INDEX idx_delivery_stats_minute_bucket ON delivery_stats_minute(bucket_start);
+
+CREATE TABLE delivery_stats_hour (
+    project_id      UUID        NOT NULL,
+    endpoint_id     UUID        NOT NULL,
+    event_type      VARCHAR(255) NOT NULL,
+    bucket_start    TIMESTAMPTZ NOT NULL,
+    deliveries      BIGINT      NOT NULL DEFAULT 0,
+    succeeded       BIGINT      NOT NULL DEFAULT 0,
+    failed          BIGINT      NOT NULL DEFAULT 0,
+    attempts        BIGINT      NOT NULL DEFAULT 0,
+    latency_sum_ms  BIGINT      NOT NULL DEFAULT 0,
+    latency_max_ms  INTEGER     NOT NULL DEFAULT 0,
+    PRIMARY KEY (project_id, bucket_start, endpoint_id, event_type)
+);
+
+CREATE INDEX idx_delivery_stats_hour_bucket ON delivery_stats_hour(bucket_start);
+
+COMMENT ON TABLE delivery_stats_minute IS 'Per-minute delivery counters upserted by workers; compacted into delivery_stats_hour once settled.';
+COMMENT ON TABLE delivery_stats_hour IS 'Hourly delivery counters compacted from delivery_stats_minute. Read by the analytics dashboard.';
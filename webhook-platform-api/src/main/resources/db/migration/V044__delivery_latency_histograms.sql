@@ -0,0 +1,34 @@
+-- =============================================
+-- Mergeable delivery latency histograms
+-- =============================================
+-- Workers append one HdrHistogram (LatencyHistogram, compressed encoding) per
+-- (project, endpoint, minute) they delivered to once that minute has closed
+-- (DeliveryStatsRecorder). Several workers may each write a row for the same minute, so
+-- delivery_latency_minute is append-only and readers merge all rows of a range.
+-- DeliveryStatsCompactionService merges settled minutes into one row per hour in
+-- delivery_latency_hour. AnalyticsService computes every latency percentile by merging
+-- these histograms instead of running percentile_cont over delivery_attempts.
+
+CREATE TABLE delivery_latency_minute (
+    id              BIGSERIAL   PRIMARY KEY,
+    project_id      UUID        NOT NULL,
+    endpoint_id     UUID        NOT NULL,
+    bucket_start    TIMESTAMPTZ NOT NULL,
+    histogram       BYTEA       NOT NULL
+);
+
+CREATE INDEX idx_delivery_latency_minute_project_bucket ON delivery_latency_minute(project_id, bucket_start);
+CREATE INDEX idx_delivery_latency_minute_bucket ON delivery_latency_minute(bucket_start);
+
+CREATE TABLE delivery_latency_hour (
+    project_id      UUID        NOT NULL,
+    endpoint_id     UUID        NOT NULL,
+    bucket_start    TIMESTAMPTZ NOT NULL,
+    histogram       BYTEA       NOT NULL,
+    PRIMARY KEY (project_id, bucket_start, endpoint_id)
+);
+
+CREATE INDEX idx_delivery_latency_hour_bucket ON delivery_latency_hour(bucket_start);
+
+COMMENT ON TABLE delivery_latency_minute IS 'Per-minute latency histograms appended by workers; merged into delivery_latency_hour once settled.';
+COMMENT ON TABLE delivery_latency_hour IS 'Hourly latency histograms merged from delivery_latency_minute. Read by the analytics dashboard.';
@@ -0,0 +1,18 @@
+-- =============================================
+-- Streaming alert engine checkpoints
+-- =============================================
+-- AlertRuleEngine keeps per-rule sliding windows / failure streaks in memory while
+-- consuming deliveries.outcomes and checkpoints changed states here every few seconds.
+-- A rule's state is restored from this row when the rule is first evaluated after a
+-- restart or partition rebalance; rows whose type or window no longer match the rule are
+-- ignored and overwritten.
+
+CREATE TABLE alert_rule_state (
+    rule_id         UUID        PRIMARY KEY REFERENCES alert_rules(id) ON DELETE CASCADE,
+    alert_type      VARCHAR(50) NOT NULL,
+    window_seconds  INTEGER     NOT NULL,
+    state           BYTEA       NOT NULL,
+    checkpointed_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON TABLE alert_rule_state IS 'Compact checkpoint of the streaming alert engine state per alert rule.';
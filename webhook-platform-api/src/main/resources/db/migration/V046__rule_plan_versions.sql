@@ -0,0 +1,16 @@
+-- =============================================
+-- Versioned rule plans
+-- =============================================
+-- Every rule create / update / delete / toggle bumps the project's rules_version in the
+-- same transaction (RuleEngineService.invalidate). API pods tag their cached rule plan with
+-- the version it was loaded at: after commit the new version is broadcast over Redis and
+-- pods holding an older plan drop it, and a periodic sweep compares cached versions in one
+-- query to catch lost messages. Projects without a row are at version 0.
+
+CREATE TABLE rule_plan_versions (
+    project_id    UUID        PRIMARY KEY REFERENCES projects(id) ON DELETE CASCADE,
+    rules_version BIGINT      NOT NULL,
+    updated_at    TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON TABLE rule_plan_versions IS 'Per-project version of the rule set, bumped on every rule change.';
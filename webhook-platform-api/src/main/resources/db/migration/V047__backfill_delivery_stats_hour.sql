@@ -0,0 +1,69 @@
+-- =============================================
+-- Backfill delivery_stats_hour from existing deliveries
+-- =============================================
+-- V043 starts the rollups empty, so the dashboard would show nothing for traffic from before
+-- workers began recording. This aggregates the last 90 days (the default
+-- analytics.rollups.hour-retention-days) of deliveries / delivery_attempts into hourly rows,
+-- using the same bucketing as DeliveryStatsRecorder:
+--   deliveries / succeeded / failed by the delivery's created_at, counting only deliveries
+--   that reached an HTTP attempt; attempts / latency_* by the attempt's created_at.
+--
+-- Only rows older than the first bucket the workers already wrote are taken (or now() if
+-- there is none yet), so nothing is counted twice. Outcomes of backfilled deliveries that
+-- are still retrying are added by the workers as usual once they settle.
+--
+-- deliveries.created_at and delivery_attempts.created_at are UTC timestamps without zone.
+-- Latency histograms (V044) cannot be built in SQL and are not backfilled; percentiles
+-- before the rollout stay empty.
+
+WITH bounds AS (
+    SELECT DATE_TRUNC('hour', now() - INTERVAL '90 days', 'UTC') AT TIME ZONE 'UTC' AS since,
+           COALESCE(LEAST((SELECT MIN(bucket_start) FROM delivery_stats_minute),
+                          (SELECT MIN(bucket_start) FROM delivery_stats_hour)),
+                    now()) AT TIME ZONE 'UTC' AS until
+),
+outcomes AS (
+    SELECT e.project_id, d.endpoint_id, e.event_type,
+           DATE_TRUNC('hour', d.created_at AT TIME ZONE 'UTC', 'UTC') AS bucket_start,
+           COUNT(*) AS deliveries,
+           COUNT(*) FILTER (WHERE d.status = 'SUCCESS') AS succeeded,
+           COUNT(*) FILTER (WHERE d.status IN ('FAILED', 'DLQ')) AS failed,
+           CAST(0 AS BIGINT) AS attempts,
+           CAST(0 AS BIGINT) AS latency_sum_ms,
+           0 AS latency_max_ms
+    FROM deliveries d
+    JOIN events e ON e.id = d.event_id
+    CROSS JOIN bounds b
+    WHERE d.created_at >= b.since AND d.created_at < b.until AND d.attempt_count > 0
+    GROUP BY 1, 2, 3, 4
+),
+attempt_stats AS (
+    SELECT e.project_id, d.endpoint_id, e.event_type,
+           DATE_TRUNC('hour', da.created_at AT TIME ZONE 'UTC', 'UTC') AS bucket_start,
+           CAST(0 AS BIGINT) AS deliveries,
+           CAST(0 AS BIGINT) AS succeeded,
+           CAST(0 AS BIGINT) AS failed,
+           COUNT(*) AS attempts,
+           SUM(da.duration_ms) AS latency_sum_ms,
+           MAX(da.duration_ms) AS latency_max_ms
+    FROM delivery_attempts da
+    JOIN deliveries d ON d.id = da.delivery_id
+    JOIN events e ON e.id = d.event_id
+    CROSS JOIN bounds b
+    WHERE da.created_at >= b.since AND da.created_at < b.until AND da.duration_ms IS NOT NULL
+    GROUP BY 1, 2, 3, 4
+)
+INSERT INTO delivery_stats_hour (project_id, endpoint_id, event_type, bucket_start, deliveries,
+                                 succeeded, failed, attempts, latency_sum_ms, latency_max_ms)
+SELECT project_id, endpoint_id, event_type, bucket_start,
+       SUM(deliveries), SUM(succeeded), SUM(failed), SUM(attempts), SUM(latency_sum_ms),
+       MAX(latency_max_ms)
+FROM (SELECT * FROM outcomes UNION ALL SELECT * FROM attempt_stats) buckets
+GROUP BY project_id, endpoint_id, event_type, bucket_start
+ON CONFLICT (project_id, bucket_start, endpoint_id, event_type) DO UPDATE SET
+    deliveries = delivery_stats_hour.deliveries + EXCLUDED.deliveries,
+    succeeded = delivery_stats_hour.succeeded + EXCLUDED.succeeded,
+    failed = delivery_stats_hour.failed + EXCLUDED.failed,
+    attempts = delivery_stats_hour.attempts + EXCLUDED.attempts,
+    latency_sum_ms = delivery_stats_hour.latency_sum_ms + EXCLUDED.latency_sum_ms,
+    latency_max_ms = GREATEST(delivery_stats_hour.latency_max_ms, EXCLUDED.latency_max_ms);
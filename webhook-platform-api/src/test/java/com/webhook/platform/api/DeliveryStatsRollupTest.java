@@ -0,0 +1,225 @@
+package com.webhook.platform.api;
+
+import com.webhook.platform.api.domain.repository.DeliveryStatsRepository;
+import com.webhook.platform.api.service.DeliveryStatsCompactionService;
+import com.webhook.platform.common.util.LatencyHistogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Delivery stats rollups (V043) and latency histograms (V044) against a real Postgres.
+ *
+ * Tests:
+ * 1. Compaction moves minutes into hours without changing any dashboard read
+ * 2. A late outcome for an already compacted hour is added to that hour on the next run
+ * 3. Compacting latency histograms (also into an existing hour) keeps every percentile
+ * 4. The V047 backfill adds pre-rollout deliveries and attempts without double counting
+ */
+public class DeliveryStatsRollupTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private DeliveryStatsRepository deliveryStatsRepository;
+
+    @Autowired
+    private DeliveryStatsCompactionService compactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final UUID projectId = UUID.randomUUID();
+    private final UUID endpointId = UUID.randomUUID();
+    private final Instant now = Instant.now();
+    private final Instant from = now.minus(24, ChronoUnit.HOURS);
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("DELETE FROM delivery_stats_minute");
+        jdbcTemplate.update("DELETE FROM delivery_stats_hour");
+        jdbcTemplate.update("DELETE FROM delivery_latency_minute");
+        jdbcTemplate.update("DELETE FROM delivery_latency_hour");
+    }
+
+    @Test
+    void compaction_preservesEveryRead() {
+        // 10 hours of traffic, 3 event types, one row per minute each
+        for (int minute = 0; minute < 600; minute++) {
+            Instant bucket = now.minus(minute, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MINUTES);
+            for (String eventType : new String[] { "order.created", "order.paid", "user.signup" }) {
+                upsertMinute(bucket, eventType, 2, 1, 1, 3, 300, minute % 97);
+            }
+        }
+
+        DeliveryStatsRepository.Totals before = deliveryStatsRepository.getTotals(projectId, from, now);
+        List<DeliveryStatsRepository.Bucket> hourlyBefore =
+                deliveryStatsRepository.getTimeSeries(projectId, from, now, "hour");
+        List<DeliveryStatsRepository.EventTypeTotals> typesBefore =
+                deliveryStatsRepository.getEventTypeTotals(projectId, from, now, 10);
+
+        compactionService.compact();
+
+        assertTrue(count("delivery_stats_minute") <= 3 * 180, "settled minutes should be compacted");
+        assertTrue(count("delivery_stats_hour") > 0);
+        assertEquals(new DeliveryStatsRepository.Totals(3600, 1800, 1800, 5400, 540_000), before);
+        assertEquals(before, deliveryStatsRepository.getTotals(projectId, from, now));
+        assertEquals(hourlyBefore, deliveryStatsRepository.getTimeSeries(projectId, from, now, "hour"));
+        assertEquals(typesBefore, deliveryStatsRepository.getEventTypeTotals(projectId, from, now, 10));
+    }
+
+    @Test
+    void lateOutcome_isAddedToCompactedHour() {
+        Instant bucket = now.minus(5, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MINUTES);
+        upsertMinute(bucket, "order.created", 1, 0, 0, 1, 100, 100);
+        compactionService.compact();
+        assertEquals(0, count("delivery_stats_minute"));
+
+        // The delivery goes to DLQ hours later; the worker writes to its creation minute again
+        upsertMinute(bucket, "order.created", 0, 0, 1, 0, 0, 0);
+        compactionService.compact();
+
+        assertEquals(0, count("delivery_stats_minute"));
+        assertEquals(1, count("delivery_stats_hour"));
+        assertEquals(new DeliveryStatsRepository.Totals(1, 0, 1, 1, 100),
+                deliveryStatsRepository.getTotals(projectId, from, now));
+    }
+
+    @Test
+    void latencyCompaction_preservesPercentiles() {
+        // Two workers write a histogram for each minute of the last 5 hours
+        for (int minute = 0; minute < 300; minute++) {
+            Instant bucket = now.minus(minute, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MINUTES);
+            for (int worker = 0; worker < 2; worker++) {
+                LatencyHistogram histogram = new LatencyHistogram();
+                histogram.record(10 + minute);
+                histogram.record(1000 + minute * 10 + worker);
+                insertLatencyMinute(bucket, histogram);
+            }
+        }
+        LatencyHistogram before = deliveryStatsRepository.getLatencyHistograms(projectId, from, now)
+                .get(endpointId.toString());
+
+        compactionService.compact();
+        // A late minute for an already compacted hour is merged into that hour
+        LatencyHistogram late = new LatencyHistogram();
+        late.record(5_000);
+        insertLatencyMinute(now.minus(4, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MINUTES), late);
+        before.merge(late);
+        compactionService.compact();
+
+        assertTrue(count("delivery_latency_minute") <= 2 * 180, "settled minutes should be compacted");
+        assertTrue(count("delivery_latency_hour") > 0);
+        Map<String, LatencyHistogram> after = deliveryStatsRepository.getLatencyHistograms(projectId, from, now);
+        assertEquals(1, after.size());
+        assertEquals(1201, after.get(endpointId.toString()).count());
+        for (double q : new double[] { 0.5, 0.9, 0.95, 0.99, 1.0 }) {
+            assertEquals(before.valueAt(q), after.get(endpointId.toString()).valueAt(q), "q=" + q);
+        }
+    }
+
+    @Test
+    void backfill_countsOnlyRowsBeforeTheFirstRecordedBucket() throws IOException {
+        // Workers started recording 30 minutes ago
+        Instant recordedFrom = now.minus(30, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MINUTES);
+        upsertMinute(recordedFrom, "order.created", 1, 1, 0, 1, 100, 100);
+
+        Instant fiveHoursAgo = now.minus(5, ChronoUnit.HOURS);
+        List<UUID> deliveryIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        UUID eventId = UUID.randomUUID();
+        transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.execute("SET LOCAL session_replication_role = replica");
+            jdbcTemplate.update("INSERT INTO events (id, project_id, event_type, payload, created_at) " +
+                    "VALUES (?, ?, 'order.created', '{}', ?)", eventId, projectId, utc(fiveHoursAgo));
+            insertDelivery(deliveryIds.get(0), eventId, "SUCCESS", 2, fiveHoursAgo);
+            insertAttempt(deliveryIds.get(0), 1, 200, fiveHoursAgo);
+            insertAttempt(deliveryIds.get(0), 2, 100, now.minus(4, ChronoUnit.HOURS));
+            insertDelivery(deliveryIds.get(1), eventId, "DLQ", 1, fiveHoursAgo);
+            insertAttempt(deliveryIds.get(1), 1, 50, fiveHoursAgo);
+            // Never attempted: not counted, like DeliveryStatsRecorder
+            insertDelivery(deliveryIds.get(2), eventId, "PENDING", 0, now.minus(3, ChronoUnit.HOURS));
+            // Already in the recorded minute row
+            insertDelivery(deliveryIds.get(3), eventId, "SUCCESS", 1, recordedFrom.plusSeconds(5));
+            insertAttempt(deliveryIds.get(3), 1, 100, recordedFrom.plusSeconds(5));
+        });
+
+        try {
+            jdbcTemplate.execute(new ClassPathResource("db/migration/V047__backfill_delivery_stats_hour.sql")
+                    .getContentAsString(StandardCharsets.UTF_8));
+
+            assertEquals(2, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM delivery_stats_hour WHERE project_id = ?", Integer.class, projectId));
+            assertEquals(new DeliveryStatsRepository.Totals(3, 2, 1, 4, 450),
+                    deliveryStatsRepository.getTotals(projectId, from, now));
+        } finally {
+            transactionTemplate.executeWithoutResult(tx -> {
+                jdbcTemplate.execute("SET LOCAL session_replication_role = replica");
+                String[] ids = deliveryIds.stream().map(UUID::toString).toArray(String[]::new);
+                jdbcTemplate.update("DELETE FROM delivery_attempts WHERE delivery_id = ANY(CAST(? AS uuid[]))",
+                        (Object) ids);
+                jdbcTemplate.update("DELETE FROM deliveries WHERE id = ANY(CAST(? AS uuid[]))", (Object) ids);
+                jdbcTemplate.update("DELETE FROM events WHERE id = ?", eventId);
+            });
+        }
+    }
+
+    private void insertDelivery(UUID id, UUID eventId, String status, int attemptCount, Instant createdAt) {
+        jdbcTemplate.update("INSERT INTO deliveries (id, event_id, endpoint_id, subscription_id, status, attempt_count, " +
+                        "max_attempts, ordering_enabled, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, 5, false, ?, ?)",
+                id, eventId, endpointId, UUID.randomUUID(), status, attemptCount, utc(createdAt), utc(createdAt));
+    }
+
+    private void insertAttempt(UUID deliveryId, int attemptNumber, int durationMs, Instant createdAt) {
+        jdbcTemplate.update("INSERT INTO delivery_attempts (id, delivery_id, attempt_number, http_status_code, " +
+                        "duration_ms, created_at) VALUES (?, ?, ?, 200, ?, ?)",
+                UUID.randomUUID(), deliveryId, attemptNumber, durationMs, utc(createdAt));
+    }
+
+    /** deliveries, delivery_attempts and events store UTC wall-clock time without zone. */
+    private static LocalDateTime utc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private void insertLatencyMinute(Instant bucket, LatencyHistogram histogram) {
+        jdbcTemplate.update("INSERT INTO delivery_latency_minute (project_id, endpoint_id, bucket_start, histogram) " +
+                "VALUES (?, ?, ?, ?)", projectId, endpointId, Timestamp.from(bucket), histogram.toBytes());
+    }
+
+    private void upsertMinute(Instant bucket, String eventType, long deliveries, long succeeded, long failed,
+                              long attempts, long latencySumMs, int latencyMaxMs) {
+        jdbcTemplate.update("""
+                INSERT INTO delivery_stats_minute (project_id, endpoint_id, event_type, bucket_start, deliveries,
+                                                   succeeded, failed, attempts, latency_sum_ms, latency_max_ms)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (project_id, bucket_start, endpoint_id, event_type) DO UPDATE SET
+                    deliveries = delivery_stats_minute.deliveries + EXCLUDED.deliveries,
+                    succeeded = delivery_stats_minute.succeeded + EXCLUDED.succeeded,
+                    failed = delivery_stats_minute.failed + EXCLUDED.failed,
+                    attempts = delivery_stats_minute.attempts + EXCLUDED.attempts,
+                    latency_sum_ms = delivery_stats_minute.latency_sum_ms + EXCLUDED.latency_sum_ms,
+                    latency_max_ms = GREATEST(delivery_stats_minute.latency_max_ms, EXCLUDED.latency_max_ms)
+                """, projectId, endpointId, eventType, Timestamp.from(bucket), deliveries, succeeded, failed,
+                attempts, latencySumMs, latencyMaxMs);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
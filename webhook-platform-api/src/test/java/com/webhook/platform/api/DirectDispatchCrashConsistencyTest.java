@@ -0,0 +1,252 @@
+package com.webhook.platform.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webhook.platform.api.domain.repository.DeliveryRepository;
+import com.webhook.platform.api.domain.repository.OutboxMessageRepository;
+import com.webhook.platform.api.service.dispatch.DeliveryDispatcher;
+import com.webhook.platform.common.constants.KafkaTopics;
+import com.webhook.platform.common.kafka.CompactMessageSerializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.kafka.KafkaContainer;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Direct dispatch ({@code webhook.dispatch.mode=direct}) against real Postgres and Kafka.
+ * A "crash" is simulated by dropping a dispatcher instance at the given point and letting a
+ * fresh one (the restarted pod) run the reconciliation sweep.
+ *
+ * Tests:
+ * 1. Happy path: the record is sent after commit, the marker is set, no outbox row is written
+ * 2. Rolled-back transaction: nothing is sent
+ * 3. Crash between commit and send: reconcile sends the delivery and marks it
+ * 4. Crash after send, before the marker flush: reconcile re-sends (at-least-once), then stops
+ * 5. Deliveries still owned by an outbox row are left alone by reconcile
+ */
+public class DirectDispatchCrashConsistencyTest extends AbstractIntegrationTest {
+
+    @Container
+    static final KafkaContainer kafka = new KafkaContainer("apache/kafka-native:3.8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private DefaultKafkaProducerFactory<String, Object> producerFactory;
+    private KafkaConsumer<String, String> consumer;
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setup() {
+        tx = new TransactionTemplate(txManager);
+        outboxMessageRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM deliveries");
+
+        Map<String, Object> producerProps = new HashMap<>();
+        producerProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers());
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, CompactMessageSerializer.class);
+        producerProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        producerProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        producerFactory = new DefaultKafkaProducerFactory<>(producerProps);
+
+        Map<String, Object> consumerProps = new HashMap<>();
+        consumerProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers());
+        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, "crash-test-" + UUID.randomUUID());
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        consumer = new KafkaConsumer<>(consumerProps, new StringDeserializer(), new StringDeserializer());
+        consumer.subscribe(List.of(KafkaTopics.DELIVERIES_DISPATCH));
+        // Join the group before anything is produced so "latest" starts at the current end
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (consumer.assignment().isEmpty() && System.currentTimeMillis() < deadline) {
+            consumer.poll(Duration.ofMillis(200));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+        producerFactory.destroy();
+    }
+
+    @Test
+    void happyPath_sendsAfterCommitAndMarks() {
+        DeliveryDispatcher dispatcher = dispatcher();
+        UUID deliveryId = UUID.randomUUID();
+
+        tx.executeWithoutResult(status -> {
+            insertDelivery(deliveryId, Instant.now());
+            dispatcher.dispatch(List.of(deliveryRepository.findById(deliveryId).orElseThrow()));
+        });
+
+        assertEquals(List.of(deliveryId), awaitRecords(1));
+        awaitMarker(dispatcher, deliveryId);
+        assertEquals(0, outboxMessageRepository.count());
+    }
+
+    @Test
+    void rolledBackTransaction_sendsNothing() {
+        DeliveryDispatcher dispatcher = dispatcher();
+        UUID deliveryId = UUID.randomUUID();
+
+        assertThrows(IllegalStateException.class, () -> tx.executeWithoutResult(status -> {
+            insertDelivery(deliveryId, Instant.now());
+            dispatcher.dispatch(List.of(deliveryRepository.findById(deliveryId).orElseThrow()));
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertTrue(pollRecords(Duration.ofSeconds(3)).isEmpty());
+        assertTrue(deliveryRepository.findById(deliveryId).isEmpty());
+    }
+
+    @Test
+    void crashBetweenCommitAndSend_isRecoveredByReconcile() {
+        UUID deliveryId = UUID.randomUUID();
+        // Committed, but the process died before the afterCommit send ran
+        tx.executeWithoutResult(status -> insertDelivery(deliveryId, Instant.now().minusSeconds(120)));
+        assertTrue(pollRecords(Duration.ofSeconds(1)).isEmpty());
+
+        DeliveryDispatcher restarted = dispatcher();
+        restarted.reconcile();
+
+        assertEquals(List.of(deliveryId), awaitRecords(1));
+        awaitMarker(restarted, deliveryId);
+
+        restarted.reconcile();
+        assertTrue(pollRecords(Duration.ofSeconds(2)).isEmpty(), "marked delivery must not be re-sent");
+    }
+
+    @Test
+    void crashAfterSendBeforeMarker_isResentOnce() {
+        DeliveryDispatcher crashed = dispatcher();
+        UUID deliveryId = UUID.randomUUID();
+        tx.executeWithoutResult(status -> {
+            insertDelivery(deliveryId, Instant.now().minusSeconds(120));
+            crashed.dispatch(List.of(deliveryRepository.findById(deliveryId).orElseThrow()));
+        });
+        assertEquals(List.of(deliveryId), awaitRecords(1));
+        // crashed.flushMarkers() never runs
+
+        DeliveryDispatcher restarted = dispatcher();
+        restarted.reconcile();
+
+        assertEquals(List.of(deliveryId), awaitRecords(1), "at-least-once: the delivery is sent again");
+        awaitMarker(restarted, deliveryId);
+
+        restarted.reconcile();
+        assertTrue(pollRecords(Duration.ofSeconds(2)).isEmpty());
+    }
+
+    @Test
+    void outboxOwnedDeliveries_areIgnoredByReconcile() {
+        UUID deliveryId = UUID.randomUUID();
+        tx.executeWithoutResult(status -> {
+            insertDelivery(deliveryId, Instant.now().minusSeconds(120));
+            jdbcTemplate.update("INSERT INTO outbox_messages (id, aggregate_type, aggregate_id, event_type, payload, "
+                            + "kafka_topic, kafka_key, status, retry_count, created_at) "
+                            + "VALUES (?, 'Delivery', ?, 'DeliveryCreated', '{}', ?, 'k', 'PENDING', 0, now())",
+                    UUID.randomUUID(), deliveryId, KafkaTopics.DELIVERIES_DISPATCH);
+        });
+
+        dispatcher().reconcile();
+
+        assertTrue(pollRecords(Duration.ofSeconds(2)).isEmpty());
+    }
+
+    private DeliveryDispatcher dispatcher() {
+        return new DeliveryDispatcher(outboxMessageRepository, deliveryRepository,
+                new KafkaTemplate<>(producerFactory), objectMapper, new SimpleMeterRegistry(), txManager,
+                DeliveryDispatcher.MODE_DIRECT, 60, 24, 500);
+    }
+
+    /** Inserts a PENDING delivery, skipping FK checks for the event/endpoint/subscription. */
+    private void insertDelivery(UUID id, Instant createdAt) {
+        jdbcTemplate.execute("SET LOCAL session_replication_role = replica");
+        jdbcTemplate.update(
+                "INSERT INTO deliveries (id, event_id, endpoint_id, subscription_id, status, attempt_count, "
+                        + "max_attempts, ordering_enabled, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, 'PENDING', 0, 7, false, ?, ?)",
+                id, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                Timestamp.from(createdAt), Timestamp.from(createdAt));
+    }
+
+    private void awaitMarker(DeliveryDispatcher dispatcher, UUID deliveryId) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            dispatcher.flushMarkers();
+            if (deliveryRepository.findById(deliveryId).orElseThrow().getDispatchedAt() != null) {
+                return;
+            }
+            sleep(100);
+        }
+        fail("delivery " + deliveryId + " was never marked dispatched");
+    }
+
+    private List<UUID> awaitRecords(int expected) {
+        List<UUID> received = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (received.size() < expected && System.currentTimeMillis() < deadline) {
+            received.addAll(pollRecords(Duration.ofMillis(500)));
+        }
+        return received;
+    }
+
+    private List<UUID> pollRecords(Duration timeout) {
+        List<UUID> ids = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(200))) {
+                try {
+                    ids.add(UUID.fromString(objectMapper.readTree(record.value()).get("deliveryId").asText()));
+                } catch (Exception e) {
+                    throw new IllegalStateException("Unreadable dispatch record: " + record.value(), e);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
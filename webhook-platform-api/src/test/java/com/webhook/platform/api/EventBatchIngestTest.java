@@ -0,0 +1,153 @@
+package com.webhook.platform.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.webhook.platform.api.domain.repository.EventRepository;
+import com.webhook.platform.api.dto.EventBatchIngestRequest;
+import com.webhook.platform.api.dto.EventBatchIngestResponse;
+import com.webhook.platform.api.dto.ProjectRequest;
+import com.webhook.platform.api.dto.RegisterRequest;
+import com.webhook.platform.api.service.EventIngestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Batch ingest against a real Postgres.
+ *
+ * Tests:
+ * 1. Re-submitting a batch reports every item as DUPLICATE via the single ANY(?) lookup
+ * 2. A batch with invalid items and an in-batch duplicate key fails only those items,
+ *    commits the rest and looks idempotency keys up once
+ *
+ * Single vs. batch ingest throughput is measured by
+ * {@link com.webhook.platform.api.benchmark.EventIngestBenchmark}.
+ */
+public class EventBatchIngestTest extends AbstractIntegrationTest {
+
+    private static final int EVENTS = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EventIngestService eventIngestService;
+
+    @SpyBean
+    private EventRepository eventRepository;
+
+    private UUID projectId;
+
+    @BeforeEach
+    void setup() throws Exception {
+        RegisterRequest registerRequest = RegisterRequest.builder()
+                .email("batch-" + UUID.randomUUID().toString().substring(0, 8) + "@test.com")
+                .password("Test1234!")
+                .organizationName("Batch Ingest Org")
+                .build();
+        MvcResult registerResult = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String jwtToken = objectMapper.readTree(registerResult.getResponse().getContentAsString())
+                .get("accessToken").asText();
+
+        MvcResult projectResult = mockMvc.perform(post("/api/v1/projects")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ProjectRequest.builder()
+                                .name("Batch Ingest Project")
+                                .build())))
+                .andExpect(status().isCreated())
+                .andReturn();
+        JsonNode projectJson = objectMapper.readTree(projectResult.getResponse().getContentAsString());
+        projectId = UUID.fromString(projectJson.get("id").asText());
+    }
+
+    @Test
+    void resubmittedBatch_isReportedAsDuplicates() {
+        List<EventBatchIngestRequest.Item> items = items("resubmit", 20);
+
+        EventBatchIngestResponse first = eventIngestService.ingestBatch(projectId, items);
+        EventBatchIngestResponse second = eventIngestService.ingestBatch(projectId, items);
+
+        assertEquals(20, first.getAccepted());
+        assertEquals(0, second.getAccepted());
+        assertEquals(20, second.getDuplicates());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(first.getResults().get(i).getEventId(), second.getResults().get(i).getEventId());
+        }
+    }
+
+    @Test
+    void mixedBatch_reportsPerItemOutcomesWithOneIdempotencyLookup() {
+        List<EventBatchIngestRequest.Item> items = new ArrayList<>(items("mixed", EVENTS));
+        items.add(EventBatchIngestRequest.Item.builder()
+                .type("Order Created")
+                .data(objectMapper.createObjectNode())
+                .idempotencyKey("mixed-bad-type")
+                .build());
+        items.add(EventBatchIngestRequest.Item.builder()
+                .type("order.created")
+                .idempotencyKey("mixed-no-data")
+                .build());
+        items.add(items.get(0)); // same key as item 0 within the batch
+        clearInvocations(eventRepository);
+
+        EventBatchIngestResponse response = eventIngestService.ingestBatch(projectId, items);
+
+        verify(eventRepository, times(1)).findByProjectIdAndIdempotencyKeyAny(eq(projectId), any());
+        assertEquals(EVENTS, response.getAccepted());
+        assertEquals(1, response.getDuplicates());
+        assertEquals(2, response.getFailed());
+        assertEquals(items.size(), response.getResults().size());
+        for (int i = 0; i < EVENTS; i++) {
+            assertEquals(i, response.getResults().get(i).getIndex());
+            assertEquals(EventBatchIngestResponse.ItemStatus.CREATED, response.getResults().get(i).getStatus());
+        }
+        assertEquals(EventBatchIngestResponse.ItemStatus.FAILED, response.getResults().get(EVENTS).getStatus());
+        assertNotNull(response.getResults().get(EVENTS).getError());
+        assertEquals(EventBatchIngestResponse.ItemStatus.FAILED, response.getResults().get(EVENTS + 1).getStatus());
+        assertEquals("Event data is required", response.getResults().get(EVENTS + 1).getError());
+        assertEquals(EventBatchIngestResponse.ItemStatus.DUPLICATE, response.getResults().get(EVENTS + 2).getStatus());
+        assertEquals(response.getResults().get(0).getEventId(), response.getResults().get(EVENTS + 2).getEventId());
+
+        String[] keys = items.stream().map(EventBatchIngestRequest.Item::getIdempotencyKey).toArray(String[]::new);
+        assertEquals(EVENTS, eventRepository.findByProjectIdAndIdempotencyKeyAny(projectId, keys).size());
+    }
+
+    private List<EventBatchIngestRequest.Item> items(String prefix, int count) {
+        List<EventBatchIngestRequest.Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ObjectNode data = objectMapper.createObjectNode();
+            data.put("orderId", i);
+            data.put("amount", 100 + i);
+            items.add(EventBatchIngestRequest.Item.builder()
+                    .type("order.created")
+                    .data(data)
+                    .idempotencyKey(prefix + "-" + i)
+                    .build());
+        }
+        return items;
+    }
+}
@@ -0,0 +1,179 @@
+package com.webhook.platform.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webhook.platform.api.domain.entity.OutboxMessage;
+import com.webhook.platform.api.domain.enums.OutboxStatus;
+import com.webhook.platform.api.domain.repository.OutboxMessageRepository;
+import com.webhook.platform.api.service.OutboxPublisherService;
+import com.webhook.platform.api.service.PartitionMaintenanceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Bulk outcome flush of the outbox publisher against a real Postgres.
+ * Kafka is stubbed: acks complete on one "producer I/O" thread, like the real client, and
+ * sends for keys starting with {@code fail-} are rejected.
+ *
+ * Tests:
+ * 1. One publish pass marks acked rows PUBLISHED and rejected rows FAILED with retry_count 1
+ * 2. A rejected retry at max-retries moves the row to DEAD
+ * 3. Outcomes of a failed flush are re-queued and written by the next flush
+ *
+ * Per-message save vs. bulk flush throughput is measured by
+ * {@link com.webhook.platform.api.benchmark.OutboxPublishBenchmark}.
+ */
+public class OutboxPublishFlushTest extends AbstractIntegrationTest {
+
+    private static final int MESSAGES = 300;
+    private static final int BATCH_SIZE = 100;
+    private static final int MAX_RETRIES = 2;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ExecutorService producerIoThread;
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        outboxMessageRepository.deleteAll();
+        producerIoThread = Executors.newSingleThreadExecutor(r -> new Thread(r, "stub-kafka-producer"));
+        kafkaTemplate = mock(KafkaTemplate.class);
+        SendResult<String, Object> ack = mock(SendResult.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(inv -> {
+            ProducerRecord<String, Object> record = inv.getArgument(0);
+            return CompletableFuture.supplyAsync(() -> {
+                if (record.key().startsWith("fail-")) {
+                    throw new IllegalStateException("broker rejected " + record.key());
+                }
+                return ack;
+            }, producerIoThread);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        producerIoThread.shutdownNow();
+    }
+
+    @Test
+    void publishPass_marksAckedPublishedAndRejectedFailed() {
+        insertPending(MESSAGES, "endpoint-");
+        List<OutboxMessage> rejected = insertPending(10, "fail-");
+        OutboxPublisherService publisher = publisher(outboxMessageRepository);
+
+        drainPending(publisher);
+
+        assertEquals(MESSAGES, outboxMessageRepository.countByStatus(OutboxStatus.PUBLISHED));
+        assertEquals(rejected.size(), outboxMessageRepository.countByStatus(OutboxStatus.FAILED));
+        assertEquals(0, outboxMessageRepository.countByStatus(OutboxStatus.SENDING));
+        for (OutboxMessage message : rejected) {
+            OutboxMessage stored = outboxMessageRepository.findById(message.getId()).orElseThrow();
+            assertEquals(1, stored.getRetryCount());
+            assertNotNull(stored.getLastAttemptAt());
+            assertTrue(stored.getErrorMessage().contains("broker rejected"));
+        }
+        assertEquals(MESSAGES, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbox_messages WHERE status = 'PUBLISHED' AND published_at IS NOT NULL",
+                Integer.class));
+    }
+
+    @Test
+    void rejectedRetryAtMaxRetries_movesToDead() {
+        List<OutboxMessage> rejected = insertPending(5, "fail-");
+        OutboxPublisherService publisher = publisher(outboxMessageRepository);
+        drainPending(publisher);
+        assertEquals(rejected.size(), outboxMessageRepository.countByStatus(OutboxStatus.FAILED));
+
+        // Past the retry backoff
+        jdbcTemplate.update("UPDATE outbox_messages SET last_attempt_at = now() - interval '1 hour'");
+        publisher.retryFailedMessages();
+
+        assertEquals(rejected.size(), outboxMessageRepository.countByStatus(OutboxStatus.DEAD));
+        for (OutboxMessage message : rejected) {
+            assertEquals(MAX_RETRIES, outboxMessageRepository.findById(message.getId()).orElseThrow().getRetryCount());
+        }
+    }
+
+    @Test
+    void failedFlush_requeuesOutcomesForNextFlush() {
+        insertPending(BATCH_SIZE, "endpoint-");
+        OutboxMessageRepository flaky = mock(OutboxMessageRepository.class, delegatesTo(outboxMessageRepository));
+        doThrow(new DataAccessResourceFailureException("db down"))
+                .doAnswer(delegatesTo(outboxMessageRepository))
+                .when(flaky).markPublished(any(), any());
+        OutboxPublisherService publisher = publisher(flaky);
+
+        publisher.publishPendingMessages();
+
+        assertEquals(BATCH_SIZE, outboxMessageRepository.countByStatus(OutboxStatus.SENDING));
+        assertEquals(0, outboxMessageRepository.countByStatus(OutboxStatus.PUBLISHED));
+
+        publisher.flushLateOutcomes();
+
+        assertEquals(BATCH_SIZE, outboxMessageRepository.countByStatus(OutboxStatus.PUBLISHED));
+        verify(flaky, times(2)).markPublished(any(), any());
+    }
+
+    private OutboxPublisherService publisher(OutboxMessageRepository repository) {
+        return new OutboxPublisherService(
+                repository, kafkaTemplate, objectMapper, new SimpleMeterRegistry(), txManager,
+                partitionMaintenanceService, BATCH_SIZE, MAX_RETRIES, 90, 300, 30, 24, OutboxPublisherService.MODE_POLLING);
+    }
+
+    private void drainPending(OutboxPublisherService publisher) {
+        while (outboxMessageRepository.countByStatus(OutboxStatus.PENDING) > 0) {
+            publisher.publishPendingMessages();
+        }
+    }
+
+    private List<OutboxMessage> insertPending(int count, String keyPrefix) {
+        List<OutboxMessage> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UUID deliveryId = UUID.randomUUID();
+            batch.add(OutboxMessage.builder()
+                    .aggregateType("Delivery")
+                    .aggregateId(deliveryId)
+                    .eventType("DeliveryCreated")
+                    .payload("{\"deliveryId\":\"" + deliveryId + "\"}")
+                    .kafkaTopic("deliveries.dispatch")
+                    .kafkaKey(keyPrefix + (i % 50))
+                    .build());
+        }
+        return outboxMessageRepository.saveAll(batch);
+    }
+}
@@ -0,0 +1,144 @@
+package com.webhook.platform.api;
+
+import com.webhook.platform.api.domain.repository.DeliveryAttemptRepository;
+import com.webhook.platform.api.service.PartitionMaintenanceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Partition-based retention against a real Postgres.
+ *
+ * Tests:
+ * 1. Dropping delivery_attempts partitions before a cutoff removes exactly the whole expired days;
+ *    the cutoff day and the default partition are left to the batched DELETE, which then
+ *    removes only their expired rows
+ * 2. An outbox day that still holds a PENDING message is kept; its published rows are not lost
+ *    to the drop and the PENDING row survives
+ * 3. Maintenance pre-creates partitions ahead of today
+ */
+public class PartitionRetentionTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @Autowired
+    private DeliveryAttemptRepository deliveryAttemptRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Test
+    void dropPartitionsBefore_dropsWholeExpiredDaysAndLeavesTheRestToDelete() {
+        LocalDate firstDay = LocalDate.now(ZoneOffset.UTC).minusDays(200);
+        LocalDate secondDay = firstDay.plusDays(1);
+        LocalDate cutoffDay = firstDay.plusDays(2);
+        LocalDate unpartitionedDay = firstDay.minusDays(100);
+        insertAttempts(firstDay, 6, 300, true);
+        insertAttempts(secondDay, 12, 500, true);
+        insertAttempts(cutoffDay, 6, 200, true);   // before the cutoff
+        insertAttempts(cutoffDay, 18, 100, true);  // after the cutoff
+        insertAttempts(unpartitionedDay, 6, 50, false);
+        assertEquals(50, countDefaultRowsOn(unpartitionedDay));
+        Instant cutoff = cutoffDay.atTime(12, 0).toInstant(ZoneOffset.UTC);
+
+        int dropped = partitionMaintenanceService.dropPartitionsBefore(
+                PartitionMaintenanceService.DELIVERY_ATTEMPTS, cutoff, null);
+
+        assertEquals(2, dropped);
+        assertNull(partition(firstDay));
+        assertNull(partition(secondDay));
+        assertNotNull(partition(cutoffDay));
+        assertEquals(300, countRows(partition(cutoffDay)));
+        assertEquals(50, countDefaultRowsOn(unpartitionedDay));
+
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        int deleted = tx.execute(status -> deliveryAttemptRepository.deleteOldAttempts(cutoff, 1000));
+
+        assertEquals(250, deleted);
+        assertEquals(0, countDefaultRowsOn(unpartitionedDay));
+        assertEquals(100, countRows(partition(cutoffDay)));
+    }
+
+    @Test
+    void outboxPartitionWithPendingRows_isKept() {
+        LocalDate day = LocalDate.now(ZoneOffset.UTC).minusDays(210);
+        jdbcTemplate.queryForObject("SELECT create_daily_partitions('outbox_messages', ?, ?)",
+                Integer.class, Date.valueOf(day), Date.valueOf(day));
+        jdbcTemplate.update("""
+                INSERT INTO outbox_messages (aggregate_type, aggregate_id, event_type, payload, kafka_topic,
+                                             kafka_key, status, created_at)
+                SELECT 'Delivery', gen_random_uuid(), 'DeliveryCreated', '{}', 'deliveries.dispatch', 'k',
+                       CASE WHEN g = 1 THEN 'PENDING' ELSE 'PUBLISHED' END, CAST(? AS date) + interval '1 hour'
+                FROM generate_series(1, 100) g
+                """, Date.valueOf(day));
+
+        int dropped = partitionMaintenanceService.dropPartitionsBefore(PartitionMaintenanceService.OUTBOX_MESSAGES,
+                day.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC), "status NOT IN ('PUBLISHED', 'FAILED')");
+
+        assertEquals(0, dropped);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_messages WHERE status = 'PENDING' AND created_at::date = ?",
+                Integer.class, Date.valueOf(day)));
+    }
+
+    @Test
+    void maintenance_preCreatesFuturePartitions() {
+        partitionMaintenanceService.createFuturePartitions();
+
+        LocalDate ahead = LocalDate.now(ZoneOffset.UTC).plusDays(10);
+        for (String table : new String[] { "delivery_attempts", "outbox_messages" }) {
+            assertNotNull(jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class,
+                    table + "_p" + ahead.toString().replace("-", "")));
+        }
+    }
+
+    /**
+     * Inserts {@code rows} attempts at {@code hour}:00 UTC on {@code day}; without a daily
+     * partition they land in {@code delivery_attempts_default}.
+     */
+    private void insertAttempts(LocalDate day, int hour, int rows, boolean createPartition) {
+        new TransactionTemplate(txManager).executeWithoutResult(status -> {
+            if (createPartition) {
+                jdbcTemplate.queryForObject("SELECT create_daily_partitions('delivery_attempts', ?, ?)",
+                        Integer.class, Date.valueOf(day), Date.valueOf(day));
+            }
+            // No deliveries exist for these attempts; skip the FK check
+            jdbcTemplate.execute("SET LOCAL session_replication_role = replica");
+            jdbcTemplate.update("""
+                    INSERT INTO delivery_attempts (id, delivery_id, attempt_number, http_status_code, duration_ms,
+                                                   response_body, created_at)
+                    SELECT gen_random_uuid(), gen_random_uuid(), 1, 500, 120, repeat('x', 200),
+                           CAST(? AS date) + ? * interval '1 hour'
+                    FROM generate_series(1, ?) g
+                    """, Date.valueOf(day), hour, rows);
+        });
+    }
+
+    private String partition(LocalDate day) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class,
+                "delivery_attempts_p" + day.toString().replace("-", ""));
+    }
+
+    private int countRows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private int countDefaultRowsOn(LocalDate day) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM delivery_attempts_default WHERE created_at >= ? AND created_at < ?",
+                Integer.class, Date.valueOf(day), Date.valueOf(day.plusDays(1)));
+    }
+}
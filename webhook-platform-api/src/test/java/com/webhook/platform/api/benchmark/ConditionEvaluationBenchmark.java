@@ -0,0 +1,115 @@
+package com.webhook.platform.api.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webhook.platform.api.dto.ConditionNode;
+import com.webhook.platform.api.dto.ConditionNode.Group;
+import com.webhook.platform.api.dto.ConditionNode.GroupOperator;
+import com.webhook.platform.api.dto.ConditionNode.Predicate;
+import com.webhook.platform.api.dto.ConditionNode.PredicateOperator;
+import com.webhook.platform.api.service.rules.CompiledCondition;
+import com.webhook.platform.api.service.rules.ConditionTreeEvaluator;
+import com.webhook.platform.api.service.rules.FieldPaths;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of evaluating all rule conditions of a project against one event: the
+ * {@link ConditionTreeEvaluator#evaluate interpreter} (fresh field cache per event, as the
+ * rules engine used it) against {@link ConditionTreeEvaluator#compile compiled} conditions
+ * sharing one {@link FieldPaths}.
+ *
+ * <p>Conditions cycle through typical shapes — string EQ, numeric ranges, IN lists, nested
+ * AND/OR/NOT, text prefixes — over a handful of payload fields, so rules overlap on fields as
+ * they do in practice. Run with {@code -prof gc} to compare allocation per event.</p>
+ *
+ * Run {@link #main} from the test classpath (or {@code org.openjdk.jmh.Main ConditionEvaluationBenchmark}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConditionEvaluationBenchmark {
+
+    private static final String EVENT = """
+            {"type":"order.completed","data":{"id":"ord_123","amount":1250,"currency":"EUR",
+             "customer":{"id":"cus_9","tier":"gold","country":"DE","email":"a@example.com"},
+             "items":[{"sku":"SKU-1","qty":2},{"sku":"SKU-2","qty":1}],"channel":"web"}}
+            """;
+
+    @Param({"5", "20", "100"})
+    public int ruleCount;
+
+    private JsonNode event;
+    private List<ConditionNode> trees;
+    private FieldPaths fields;
+    private CompiledCondition[] compiled;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        event = new ObjectMapper().readTree(EVENT);
+        trees = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) {
+            trees.add(condition(i));
+        }
+        fields = new FieldPaths();
+        compiled = trees.stream()
+                .map(tree -> ConditionTreeEvaluator.compile(tree, fields))
+                .toArray(CompiledCondition[]::new);
+    }
+
+    @Benchmark
+    public void interpreted(Blackhole bh) {
+        Map<String, JsonNode> fieldCache = ConditionTreeEvaluator.newFieldCache();
+        for (ConditionNode tree : trees) {
+            bh.consume(ConditionTreeEvaluator.evaluate(tree, event, fieldCache));
+        }
+    }
+
+    @Benchmark
+    public void compiled(Blackhole bh) {
+        FieldPaths.Values values = fields.bind(event);
+        for (CompiledCondition condition : compiled) {
+            bh.consume(condition.matches(values));
+        }
+    }
+
+    private static ConditionNode condition(int i) {
+        return switch (i % 5) {
+            case 0 -> pred("data.customer.tier", PredicateOperator.EQ, i % 2 == 0 ? "gold" : "silver");
+            case 1 -> Group.builder().op(GroupOperator.AND).children(List.of(
+                    pred("data.amount", PredicateOperator.GTE, 100 * i),
+                    pred("data.currency", PredicateOperator.EQ, "EUR"))).build();
+            case 2 -> pred("data.customer.country", PredicateOperator.IN, List.of("DE", "FR", "NL", "AT", "BE"));
+            case 3 -> Group.builder().op(GroupOperator.OR).children(List.of(
+                    pred("$.data.items[0].sku", PredicateOperator.STARTS_WITH, "SKU-"),
+                    Group.builder().op(GroupOperator.NOT).children(List.of(
+                            pred("data.channel", PredicateOperator.EQ, "api"))).build())).build();
+            default -> Group.builder().op(GroupOperator.AND).children(List.of(
+                    pred("type", PredicateOperator.EQ, "order.completed"),
+                    pred("data.items[1].qty", PredicateOperator.BETWEEN, List.of(1, 10)),
+                    pred("data.customer.email", PredicateOperator.EXISTS, null))).build();
+        };
+    }
+
+    private static Predicate pred(String field, PredicateOperator op, Object value) {
+        return Predicate.builder().field(field).operator(op).value(value).build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(ConditionEvaluationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
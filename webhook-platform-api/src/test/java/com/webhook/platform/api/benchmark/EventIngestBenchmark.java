@@ -0,0 +1,126 @@
+package com.webhook.platform.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.webhook.platform.api.AbstractIntegrationTest;
+import com.webhook.platform.api.dto.EventBatchIngestRequest;
+import com.webhook.platform.api.dto.EventIngestRequest;
+import com.webhook.platform.api.service.EventIngestService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestContextManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of ingesting {@code events} events against a real Postgres: {@link EventIngestService#ingestEvent}
+ * once per event (one transaction, idempotency lookup and flush each) versus
+ * {@link EventIngestService#ingestBatch} in chunks of {@code batchSize} (one transaction,
+ * one {@code = ANY(?)} idempotency lookup and one JDBC batch per chunk).
+ *
+ * <p>Boots the same application context as the integration tests. Every invocation ingests
+ * fresh idempotency keys so nothing is reported as a duplicate. Requires Docker.</p>
+ *
+ * Run {@link #main} from the test classpath (or {@code org.openjdk.jmh.Main EventIngestBenchmark}).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EventIngestBenchmark extends AbstractIntegrationTest {
+
+    @Param({"1000"})
+    public int events;
+
+    @Param({"250"})
+    public int batchSize;
+
+    @Autowired
+    private EventIngestService eventIngestService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestContextManager testContextManager;
+    private UUID projectId;
+    private List<EventBatchIngestRequest.Item> items;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        postgres.start();
+        testContextManager = new TestContextManager(EventIngestBenchmark.class);
+        testContextManager.beforeTestClass();
+        testContextManager.prepareTestInstance(this);
+
+        UUID organizationId = UUID.randomUUID();
+        projectId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO organizations (id, name, plan_id) " +
+                "VALUES (?, 'Ingest Benchmark Org', (SELECT id FROM plans WHERE name = 'free'))", organizationId);
+        jdbcTemplate.update("INSERT INTO projects (id, organization_id, name) VALUES (?, ?, 'Ingest Benchmark')",
+                projectId, organizationId);
+    }
+
+    @Setup(Level.Invocation)
+    public void newItems() {
+        String prefix = UUID.randomUUID().toString();
+        items = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            ObjectNode data = objectMapper.createObjectNode();
+            data.put("orderId", i);
+            data.put("amount", 100 + i);
+            items.add(EventBatchIngestRequest.Item.builder()
+                    .type("order.created")
+                    .data(data)
+                    .idempotencyKey(prefix + "-" + i)
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        testContextManager.afterTestClass();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public int singleIngest() {
+        int accepted = 0;
+        for (EventBatchIngestRequest.Item item : items) {
+            eventIngestService.ingestEvent(projectId, EventIngestRequest.builder()
+                    .type(item.getType())
+                    .data(item.getData())
+                    .build(), item.getIdempotencyKey());
+            accepted++;
+        }
+        return accepted;
+    }
+
+    @Benchmark
+    public int batchIngest() {
+        int accepted = 0;
+        for (int from = 0; from < items.size(); from += batchSize) {
+            accepted += eventIngestService.ingestBatch(projectId,
+                    items.subList(from, Math.min(from + batchSize, items.size()))).getAccepted();
+        }
+        return accepted;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(EventIngestBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,171 @@
+package com.webhook.platform.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webhook.platform.api.AbstractIntegrationTest;
+import com.webhook.platform.api.domain.entity.OutboxMessage;
+import com.webhook.platform.api.domain.enums.OutboxStatus;
+import com.webhook.platform.api.domain.repository.OutboxMessageRepository;
+import com.webhook.platform.api.service.OutboxPublisherService;
+import com.webhook.platform.api.service.PartitionMaintenanceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.context.TestContextManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cost of publishing {@code messages} pending outbox messages against a real Postgres: every
+ * ack callback saving its own row on the producer thread (the publisher before the bulk
+ * outcome flush, replayed here) versus {@link OutboxPublisherService#publishPendingMessages}
+ * with its per-batch bulk status updates.
+ *
+ * <p>Kafka is stubbed: acks complete on one "producer I/O" thread, like the real client. Both
+ * variants claim {@code batchSize} rows at a time. Every invocation starts from freshly
+ * inserted PENDING rows. Requires Docker.</p>
+ *
+ * Run {@link #main} from the test classpath (or {@code org.openjdk.jmh.Main OutboxPublishBenchmark}).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OutboxPublishBenchmark extends AbstractIntegrationTest {
+
+    @Param({"10000"})
+    public int messages;
+
+    @Param({"100"})
+    public int batchSize;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    private TestContextManager testContextManager;
+    private ExecutorService producerIoThread;
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private OutboxPublisherService publisher;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        postgres.start();
+        testContextManager = new TestContextManager(OutboxPublishBenchmark.class);
+        testContextManager.beforeTestClass();
+        testContextManager.prepareTestInstance(this);
+
+        producerIoThread = Executors.newSingleThreadExecutor(r -> new Thread(r, "stub-kafka-producer"));
+        kafkaTemplate = mock(KafkaTemplate.class);
+        SendResult<String, Object> ack = mock(SendResult.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenAnswer(inv -> CompletableFuture.supplyAsync(() -> ack, producerIoThread));
+        publisher = new OutboxPublisherService(
+                outboxMessageRepository, kafkaTemplate, objectMapper, new SimpleMeterRegistry(), txManager,
+                partitionMaintenanceService, batchSize, 5, 90, 300, 30, 24, OutboxPublisherService.MODE_POLLING);
+    }
+
+    @Setup(Level.Invocation)
+    public void insertPending() {
+        outboxMessageRepository.deleteAllInBatch();
+        List<OutboxMessage> batch = new ArrayList<>(1000);
+        for (int i = 0; i < messages; i++) {
+            UUID deliveryId = UUID.randomUUID();
+            batch.add(OutboxMessage.builder()
+                    .aggregateType("Delivery")
+                    .aggregateId(deliveryId)
+                    .eventType("DeliveryCreated")
+                    .payload("{\"deliveryId\":\"" + deliveryId + "\"}")
+                    .kafkaTopic("deliveries.dispatch")
+                    .kafkaKey("endpoint-" + (i % 200))
+                    .build());
+            if (batch.size() == 1000) {
+                outboxMessageRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        outboxMessageRepository.saveAll(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        producerIoThread.shutdownNow();
+        testContextManager.afterTestClass();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public long perMessageSave() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        Instant since = Instant.now().minus(Duration.ofHours(24));
+        long published = 0;
+        while (true) {
+            List<OutboxMessage> claimed = tx.execute(status -> {
+                List<OutboxMessage> batch = outboxMessageRepository
+                        .findPendingBatchForUpdate(OutboxStatus.PENDING.name(), batchSize, 10, since);
+                batch.forEach(m -> m.setStatus(OutboxStatus.SENDING));
+                return batch.isEmpty() ? batch : outboxMessageRepository.saveAll(batch);
+            });
+            if (claimed == null || claimed.isEmpty()) {
+                return published;
+            }
+            List<CompletableFuture<Void>> acks = new ArrayList<>(claimed.size());
+            for (OutboxMessage message : claimed) {
+                acks.add(kafkaTemplate.send(new ProducerRecord<>(message.getKafkaTopic(), message.getKafkaKey(),
+                                message.getPayload()))
+                        .thenAccept(result -> {
+                            message.setStatus(OutboxStatus.PUBLISHED);
+                            message.setPublishedAt(Instant.now());
+                            outboxMessageRepository.save(message);
+                        }));
+            }
+            CompletableFuture.allOf(acks.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+            published += claimed.size();
+        }
+    }
+
+    @Benchmark
+    public long bulkFlush() {
+        while (outboxMessageRepository.countByStatus(OutboxStatus.PENDING) > 0) {
+            publisher.publishPendingMessages();
+        }
+        return outboxMessageRepository.countByStatus(OutboxStatus.PUBLISHED);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(OutboxPublishBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
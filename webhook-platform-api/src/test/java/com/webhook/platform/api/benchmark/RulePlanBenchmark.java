@@ -0,0 +1,150 @@
+package com.webhook.platform.api.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webhook.platform.api.dto.ConditionNode;
+import com.webhook.platform.api.dto.ConditionNode.Group;
+import com.webhook.platform.api.dto.ConditionNode.GroupOperator;
+import com.webhook.platform.api.dto.ConditionNode.Predicate;
+import com.webhook.platform.api.dto.ConditionNode.PredicateOperator;
+import com.webhook.platform.api.service.rules.CompiledRule;
+import com.webhook.platform.api.service.rules.ConditionTreeEvaluator;
+import com.webhook.platform.api.service.rules.FieldPaths;
+import com.webhook.platform.api.service.rules.RuleEngineService.ProjectRulePlan;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of matching one event against a project with 1,000 rules: the indexed plan
+ * ({@link ProjectRulePlan#getCandidates(String, FieldPaths.Values) precomputed candidates} with
+ * the equality value index) against a full scan that collects and sorts the event type's
+ * candidates and evaluates every one, as the engine did before.
+ *
+ * <p>Rules spread over 1 or 20 event types plus wildcard and catch-all patterns; most are guarded by
+ * a customer id, tier or country equality, as per-customer routing rules are. Both variants
+ * share one {@link FieldPaths}, so the difference is the candidates evaluated.</p>
+ *
+ * Run {@link #main} from the test classpath (or {@code org.openjdk.jmh.Main RulePlanBenchmark}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulePlanBenchmark {
+
+    private static final String[] TIERS = {"gold", "silver", "bronze", "trial"};
+    private static final String[] COUNTRIES = {"DE", "FR", "NL", "AT", "BE", "US", "GB", "ES"};
+
+    private static final String EVENT = """
+            {"type":"order.type0","data":{"id":"ord_123","amount":1250,"currency":"EUR",
+             "customer":{"id":"cus_17","tier":"gold","country":"DE"},"channel":"web"}}
+            """;
+
+    @Param({"1000"})
+    public int ruleCount;
+
+    /** Exact event types the rules spread over; the event has the first */
+    @Param({"1", "20"})
+    public int eventTypes;
+
+    private JsonNode event;
+    private String eventType;
+    private ProjectRulePlan plan;
+    private List<CompiledRule> exact;
+    private List<CompiledRule> others;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        event = new ObjectMapper().readTree(EVENT);
+        eventType = event.get("type").asText();
+        FieldPaths fields = new FieldPaths();
+        List<CompiledRule> rules = new ArrayList<>(ruleCount);
+        exact = new ArrayList<>();
+        others = new ArrayList<>();
+        for (int i = 0; i < ruleCount; i++) {
+            ConditionNode condition = condition(i);
+            CompiledRule rule = CompiledRule.builder()
+                    .ruleId(UUID.randomUUID())
+                    .priority(i % 10)
+                    .eventTypePattern(pattern(i, eventTypes))
+                    .conditionTree(condition)
+                    .condition(ConditionTreeEvaluator.compile(condition, fields))
+                    .actions(List.of())
+                    .build();
+            rules.add(rule);
+            if (eventType.equals(rule.getEventTypePattern())) {
+                exact.add(rule);
+            } else if (rule.getEventTypePattern() == null || rule.getEventTypePattern().endsWith("*")) {
+                others.add(rule);
+            }
+        }
+        plan = new ProjectRulePlan(rules, fields);
+    }
+
+    @Benchmark
+    public void indexed(Blackhole bh) {
+        FieldPaths.Values values = plan.bindFields(event);
+        for (CompiledRule rule : plan.getCandidates(eventType, values)) {
+            bh.consume(rule.getCondition().matches(values));
+        }
+    }
+
+    @Benchmark
+    public void fullScan(Blackhole bh) {
+        FieldPaths.Values values = plan.bindFields(event);
+        List<CompiledRule> candidates = new ArrayList<>(exact);
+        candidates.addAll(others);
+        candidates.sort(Comparator.comparingInt(CompiledRule::getPriority).reversed());
+        for (CompiledRule rule : candidates) {
+            bh.consume(rule.getCondition().matches(values));
+        }
+    }
+
+    /** 1 in 50 catch-all, 1 in 25 wildcard, the rest spread over the exact event types */
+    private static String pattern(int i, int eventTypes) {
+        if (i % 50 == 0) {
+            return null;
+        }
+        if (i % 25 == 0) {
+            return "order.*";
+        }
+        return "order.type" + (i % eventTypes);
+    }
+
+    private static ConditionNode condition(int i) {
+        return switch (i % 4) {
+            case 0 -> pred("data.customer.id", PredicateOperator.EQ, "cus_" + (i / 4));
+            case 1 -> Group.builder().op(GroupOperator.AND).children(List.of(
+                    pred("data.amount", PredicateOperator.GTE, 10 * i),
+                    pred("data.customer.tier", PredicateOperator.EQ, TIERS[(i / 4) % TIERS.length]))).build();
+            case 2 -> Group.builder().op(GroupOperator.AND).children(List.of(
+                    pred("data.customer.country", PredicateOperator.EQ, COUNTRIES[(i / 4) % COUNTRIES.length]),
+                    pred("data.currency", PredicateOperator.IN, List.of("EUR", "USD")))).build();
+            default -> Group.builder().op(GroupOperator.OR).children(List.of(
+                    pred("data.channel", PredicateOperator.EQ, "api"),
+                    pred("data.amount", PredicateOperator.GT, 100 * i))).build();
+        };
+    }
+
+    private static Predicate pred(String field, PredicateOperator op, Object value) {
+        return Predicate.builder().field(field).operator(op).value(value).build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(RulePlanBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -24,6 +24,7 @@ class RequestSizeLimitFilterTest {
 
     private static final long MAX_SIZE = 100; // 100 bytes max for testing
     private static final long INGRESS_MAX_SIZE = 200; // 200 bytes max for ingress
+    private static final long BATCH_MAX_SIZE = 400; // 400 bytes max for batch ingest
 
     @Mock
     private HttpServletRequest request;
@@ -38,7 +39,7 @@ class RequestSizeLimitFilterTest {
 
     @BeforeEach
     void setUp() {
-        filter = new RequestSizeLimitFilter(MAX_SIZE, INGRESS_MAX_SIZE);
+        filter = new RequestSizeLimitFilter(MAX_SIZE, INGRESS_MAX_SIZE, BATCH_MAX_SIZE);
     }
 
     @Test
@@ -156,6 +157,18 @@ class RequestSizeLimitFilterTest {
         assertTrue(sw.toString().contains("payload_too_large"));
     }
 
+    @Test
+    void shouldUseBatchLimitForBatchIngestPath() throws Exception {
+        // 300 bytes > INGRESS_MAX_SIZE (200) but < BATCH_MAX_SIZE (400)
+        when(request.getContentLengthLong()).thenReturn(300L);
+        when(request.getRequestURI()).thenReturn("/api/v1/events/batch");
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(any(), eq(response));
+        verify(response, never()).setStatus(413);
+    }
+
     private ServletInputStream mockServletInputStream(byte[] data) {
         ByteArrayInputStream bais = new ByteArrayInputStream(data);
         return new ServletInputStream() {
@@ -0,0 +1,129 @@
+package com.webhook.platform.api.service;
+
+import com.webhook.platform.api.domain.repository.DeliveryStatsRepository;
+import com.webhook.platform.api.domain.repository.EventRepository;
+import com.webhook.platform.api.dto.AnalyticsResponse;
+import com.webhook.platform.common.util.LatencyHistogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AnalyticsServiceTest {
+
+    private static final UUID PROJECT = UUID.randomUUID();
+    private static final String BUSY = UUID.randomUUID().toString();
+    private static final String IDLE = UUID.randomUUID().toString();
+    private static final String OUTSIDE_TOP_N = UUID.randomUUID().toString();
+
+    @Mock
+    private DeliveryStatsRepository deliveryStatsRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private AnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AnalyticsService(deliveryStatsRepository, eventRepository);
+        when(eventRepository.countByProjectIdAndCreatedAtBetween(eq(PROJECT), any(), any())).thenReturn(86_400L);
+        when(deliveryStatsRepository.getTotals(eq(PROJECT), any(), any()))
+                .thenReturn(new DeliveryStatsRepository.Totals(200, 190, 6, 250, 25_000));
+        when(deliveryStatsRepository.getTimeSeries(eq(PROJECT), any(), any(), anyString())).thenReturn(List.of(
+                new DeliveryStatsRepository.Bucket("2026-03-02T08:00:00Z", 0, 0, 0, 4, 400),
+                new DeliveryStatsRepository.Bucket("2026-03-02T09:00:00Z", 200, 190, 6, 246, 24_600)));
+        when(deliveryStatsRepository.getEventTypeTotals(eq(PROJECT), any(), any(), anyInt())).thenReturn(List.of(
+                new DeliveryStatsRepository.EventTypeTotals("order.created", 150, 150),
+                new DeliveryStatsRepository.EventTypeTotals("order.paid", 50, 40)));
+        when(deliveryStatsRepository.getEndpointTotals(eq(PROJECT), any(), any(), anyInt())).thenReturn(List.of(
+                new DeliveryStatsRepository.EndpointTotals(BUSY, "https://a.example", true, 200, 190, 6, 250,
+                        25_000, Instant.parse("2026-03-02T09:59:00Z")),
+                new DeliveryStatsRepository.EndpointTotals(IDLE, "https://b.example", false, 0, 0, 0, 0, 0, null)));
+        // BUSY saw 1..500 ms, another endpoint 501..1000 ms
+        when(deliveryStatsRepository.getLatencyHistograms(eq(PROJECT), any(), any()))
+                .thenReturn(Map.of(BUSY, histogram(1, 500), OUTSIDE_TOP_N, histogram(501, 1000)));
+    }
+
+    private static LatencyHistogram histogram(int fromMs, int toMs) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = fromMs; ms <= toMs; ms++) {
+            histogram.record(ms);
+        }
+        return histogram;
+    }
+
+    @Test
+    void overview_isBuiltFromRollupTotals() {
+        AnalyticsResponse.OverviewMetrics overview = service.getAnalytics(PROJECT, UUID.randomUUID(), "24h")
+                .getOverview();
+
+        assertThat(overview.getTotalEvents()).isEqualTo(86_400);
+        assertThat(overview.getEventsPerSecond()).isEqualTo(1.0);
+        assertThat(overview.getTotalDeliveries()).isEqualTo(200);
+        assertThat(overview.getSuccessfulDeliveries()).isEqualTo(190);
+        assertThat(overview.getFailedDeliveries()).isEqualTo(6);
+        assertThat(overview.getSuccessRate()).isEqualTo(95.0);
+        assertThat(overview.getAvgLatencyMs()).isEqualTo(100.0);
+        assertThat(overview.getP50LatencyMs()).isCloseTo(500, within(5L));
+        assertThat(overview.getP95LatencyMs()).isCloseTo(950, within(10L));
+        assertThat(overview.getP99LatencyMs()).isCloseTo(990, within(10L));
+    }
+
+    @Test
+    void percentiles_mergeAllEndpointHistograms() {
+        AnalyticsResponse.LatencyPercentiles percentiles = service.getAnalytics(PROJECT, UUID.randomUUID(), "24h")
+                .getLatencyPercentiles();
+
+        assertThat(percentiles.getP50()).isCloseTo(500, within(5L));
+        assertThat(percentiles.getP75()).isCloseTo(750, within(8L));
+        assertThat(percentiles.getP90()).isCloseTo(900, within(9L));
+        assertThat(percentiles.getMax()).isCloseTo(1000, within(10L));
+        verify(deliveryStatsRepository, times(1)).getLatencyHistograms(eq(PROJECT), any(), any());
+    }
+
+    @Test
+    void timeSeries_splitIntoDeliveryAndLatencySeries() {
+        AnalyticsResponse response = service.getAnalytics(PROJECT, UUID.randomUUID(), "7d");
+
+        verify(deliveryStatsRepository).getTimeSeries(eq(PROJECT), any(), any(), eq("day"));
+        assertThat(response.getDeliveryTimeSeries()).hasSize(1);
+        assertThat(response.getDeliveryTimeSeries().get(0).getFailed()).isEqualTo(6);
+        assertThat(response.getLatencyTimeSeries()).hasSize(2);
+        assertThat(response.getLatencyTimeSeries().get(0).getAvgLatencyMs()).isEqualTo(100.0);
+    }
+
+    @Test
+    void breakdownAndEndpoints_comeFromRollups() {
+        AnalyticsResponse response = service.getAnalytics(PROJECT, UUID.randomUUID(), "24h");
+
+        assertThat(response.getEventTypeBreakdown().get(0).getPercentage()).isEqualTo(75.0);
+        assertThat(response.getEventTypeBreakdown().get(1).getSuccessRate()).isEqualTo(80.0);
+
+        AnalyticsResponse.EndpointPerformance busy = response.getEndpointPerformance().get(0);
+        assertThat(busy.getStatus()).isEqualTo("DEGRADED");
+        assertThat(busy.getAvgLatencyMs()).isEqualTo(100.0);
+        assertThat(busy.getP95LatencyMs()).isCloseTo(475, within(5L));
+        assertThat(busy.getP99LatencyMs()).isCloseTo(495, within(5L));
+        assertThat(busy.getLastDeliveryAt()).isEqualTo("2026-03-02T09:59:00Z");
+
+        AnalyticsResponse.EndpointPerformance idle = response.getEndpointPerformance().get(1);
+        assertThat(idle.getStatus()).isEqualTo("HEALTHY");
+        assertThat(idle.getP95LatencyMs()).isZero();
+        assertThat(idle.getP99LatencyMs()).isZero();
+    }
+}
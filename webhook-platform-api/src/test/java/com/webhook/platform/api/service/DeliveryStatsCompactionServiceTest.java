@@ -0,0 +1,114 @@
+package com.webhook.platform.api.service;
+
+import com.webhook.platform.common.util.LatencyHistogram;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DeliveryStatsCompactionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private DeliveryStatsCompactionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DeliveryStatsCompactionService(jdbcTemplate, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), 120, 90, 1000);
+    }
+
+    @Test
+    void compactionCutoff_keepsMinutesAndRoundsDownToTheHour() {
+        assertThat(DeliveryStatsCompactionService.compactionCutoff(
+                Instant.parse("2026-03-02T10:47:12Z"), Duration.ofMinutes(120)))
+                .isEqualTo(Instant.parse("2026-03-02T08:00:00Z"));
+    }
+
+    @Test
+    void compact_movesSettledMinutesAndPrunesOldHours() {
+        when(jdbcTemplate.update(eq(DeliveryStatsCompactionService.COMPACT_SQL), any(Object.class))).thenReturn(7);
+
+        int compacted = service.compact(Instant.parse("2026-03-02T10:47:12Z"));
+
+        assertThat(compacted).isEqualTo(7);
+        verify(jdbcTemplate).update(DeliveryStatsCompactionService.COMPACT_SQL,
+                OffsetDateTime.of(2026, 3, 2, 8, 0, 0, 0, ZoneOffset.UTC));
+        OffsetDateTime retentionCutoff =
+                Instant.parse("2026-03-02T10:47:12Z").minus(Duration.ofDays(90)).atOffset(ZoneOffset.UTC);
+        verify(jdbcTemplate).update(DeliveryStatsCompactionService.PRUNE_HOURS_SQL, retentionCutoff);
+        verify(jdbcTemplate).query(eq(DeliveryStatsCompactionService.TAKE_LATENCY_MINUTES_SQL),
+                any(RowCallbackHandler.class), eq(OffsetDateTime.of(2026, 3, 2, 8, 0, 0, 0, ZoneOffset.UTC)), eq(1000));
+        verify(jdbcTemplate).update(DeliveryStatsCompactionService.PRUNE_LATENCY_HOURS_SQL, retentionCutoff);
+    }
+
+    @Test
+    void compactLatencyBatch_mergesMinutesIntoExistingHour() throws Exception {
+        UUID project = UUID.randomUUID();
+        UUID endpoint = UUID.randomUUID();
+        OffsetDateTime hour = OffsetDateTime.of(2026, 3, 2, 7, 0, 0, 0, ZoneOffset.UTC);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject(1, UUID.class)).thenReturn(project);
+        when(rs.getObject(2, UUID.class)).thenReturn(endpoint);
+        when(rs.getObject(3, OffsetDateTime.class)).thenReturn(hour);
+        when(rs.getBytes(4)).thenReturn(histogram(100).toBytes(), histogram(300).toBytes());
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(eq(DeliveryStatsCompactionService.TAKE_LATENCY_MINUTES_SQL),
+                any(RowCallbackHandler.class), any(Object[].class));
+        when(jdbcTemplate.query(eq(DeliveryStatsCompactionService.SELECT_LATENCY_HOUR_SQL), any(RowMapper.class),
+                any(Object[].class))).thenReturn(List.of(histogram(200).toBytes()));
+
+        int moved = service.compactLatencyBatch(Instant.parse("2026-03-02T08:00:00Z"));
+
+        assertThat(moved).isEqualTo(2);
+        ArgumentCaptor<byte[]> merged = ArgumentCaptor.forClass(byte[].class);
+        verify(jdbcTemplate).update(eq(DeliveryStatsCompactionService.UPSERT_LATENCY_HOUR_SQL), eq(project),
+                eq(endpoint), eq(hour), merged.capture());
+        LatencyHistogram result = LatencyHistogram.fromBytes(merged.getValue());
+        assertThat(result.count()).isEqualTo(3);
+        assertThat(result.valueAt(0.5)).isEqualTo(200);
+    }
+
+    private static LatencyHistogram histogram(long latencyMs) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(latencyMs);
+        return histogram;
+    }
+
+    @Test
+    void scheduledRun_swallowsDatabaseErrors() {
+        when(jdbcTemplate.update(anyString(), any(Object.class)))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+
+        assertThatCode(() -> service.compact()).doesNotThrowAnyException();
+    }
+}
@@ -2,15 +2,23 @@ package com.webhook.platform.api.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.webhook.platform.api.domain.entity.Delivery;
 import com.webhook.platform.api.domain.entity.Event;
 import com.webhook.platform.api.domain.entity.OutboxMessage;
+import com.webhook.platform.api.domain.entity.Project;
 import com.webhook.platform.api.domain.entity.Subscription;
 import com.webhook.platform.api.domain.repository.*;
+import com.webhook.platform.api.dto.EventBatchIngestRequest;
+import com.webhook.platform.api.dto.EventBatchIngestResponse;
+import com.webhook.platform.api.dto.EventBatchIngestResponse.ItemStatus;
 import com.webhook.platform.api.dto.EventIngestRequest;
 import com.webhook.platform.api.dto.EventIngestResponse;
 import com.webhook.platform.api.service.billing.QuotaCounterService;
+import com.webhook.platform.api.service.dispatch.DeliveryDispatcher;
+import com.webhook.platform.api.service.routing.SubscriptionRoutingService;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,7 +26,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.redisson.api.RedissonClient;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.core.KafkaTemplate;
 import com.webhook.platform.api.service.rules.RuleEngineService;
 import com.webhook.platform.api.service.workflow.WorkflowTriggerService;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -26,6 +36,7 @@ import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -69,13 +80,20 @@ class EventIngestServiceTest {
     private final UUID eventId = UUID.randomUUID();
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
+        SubscriptionRoutingService routingService = new SubscriptionRoutingService(
+                subscriptionRepository, mock(RedissonClient.class), meterRegistry, 60, 100);
+        DeliveryDispatcher dispatcher = new DeliveryDispatcher(
+                outboxMessageRepository, deliveryRepository, mock(KafkaTemplate.class), objectMapper,
+                meterRegistry, transactionManager, DeliveryDispatcher.MODE_OUTBOX, 60, 24, 500);
         service = new EventIngestService(
-                eventRepository, subscriptionRepository, deliveryRepository,
-                outboxMessageRepository, objectMapper, meterRegistry,
+                eventRepository, routingService, deliveryRepository,
+                dispatcher, objectMapper, meterRegistry,
                 sequenceGeneratorService, schemaRegistryService, projectRepository,
                 ruleEngineService, workflowTriggerService, quotaCounterService,
-                transactionManager, 262144L, 1024, 5
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                transactionManager, 262144L, 1024, 5, 10
         );
     }
 
@@ -190,6 +208,120 @@ class EventIngestServiceTest {
                 .isInstanceOf(DataIntegrityViolationException.class);
     }
 
+    // ─── Batch ingestion ────────────────────────────────────────────────
+
+    private EventBatchIngestRequest.Item item(String type, String idempotencyKey) {
+        ObjectNode data = objectMapper.createObjectNode();
+        data.put("key", "value");
+        return EventBatchIngestRequest.Item.builder().type(type).data(data).idempotencyKey(idempotencyKey).build();
+    }
+
+    private Subscription subscription(String eventType) {
+        return Subscription.builder()
+                .id(UUID.randomUUID())
+                .projectId(projectId)
+                .endpointId(UUID.randomUUID())
+                .eventType(eventType)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Event> stubBatchSaves() {
+        List<Event> saved = new ArrayList<>();
+        when(eventRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Event> events = inv.getArgument(0);
+            for (Event e : events) {
+                e.setId(UUID.randomUUID());
+                e.setCreatedAt(Instant.now());
+            }
+            saved.addAll(events);
+            return events;
+        });
+        when(deliveryRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Delivery> deliveries = inv.getArgument(0);
+            deliveries.forEach(d -> d.setId(UUID.randomUUID()));
+            return deliveries;
+        });
+        return saved;
+    }
+
+    @Test
+    void ingestBatch_mixedItems_reportsEachItemAndQueriesOnce() {
+        UUID organizationId = UUID.randomUUID();
+        when(projectRepository.findById(projectId))
+                .thenReturn(Optional.of(Project.builder().id(projectId).organizationId(organizationId).build()));
+        Event existing = buildEvent("order.created", "seen-before");
+        when(eventRepository.findByProjectIdAndIdempotencyKeyAny(eq(projectId), any()))
+                .thenReturn(List.of(existing));
+        when(subscriptionRepository.findByProjectIdAndEnabledTrue(projectId))
+                .thenReturn(List.of(subscription("order.*"), subscription("user.created")));
+        List<Event> saved = stubBatchSaves();
+        stubTransactionTemplate();
+
+        EventBatchIngestResponse response = service.ingestBatch(projectId, List.of(
+                item("order.created", "k1"),
+                item("Not A Type", null),
+                item("order.created", "seen-before"),
+                item("order.paid", "k1"),
+                item("user.created", null)));
+
+        assertThat(response.getResults()).extracting(EventBatchIngestResponse.ItemResult::getStatus)
+                .containsExactly(ItemStatus.CREATED, ItemStatus.FAILED, ItemStatus.DUPLICATE,
+                        ItemStatus.DUPLICATE, ItemStatus.CREATED);
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getDuplicates()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getResults().get(0).getDeliveriesCreated()).isEqualTo(1);
+        assertThat(response.getResults().get(2).getEventId()).isEqualTo(eventId);
+        assertThat(response.getResults().get(3).getEventId()).isEqualTo(response.getResults().get(0).getEventId());
+        assertThat(response.getResults().get(1).getError()).contains("lowercase");
+        assertThat(saved).hasSize(2);
+
+        verify(eventRepository).findByProjectIdAndIdempotencyKeyAny(projectId, new String[] { "k1", "seen-before" });
+        verify(subscriptionRepository, times(1)).findByProjectIdAndEnabledTrue(projectId);
+        verify(ruleEngineService, times(1)).planFor(projectId);
+        verify(eventRepository, never()).saveAndFlush(any());
+        verify(eventRepository, times(1)).flush();
+        verify(outboxMessageRepository).saveAll(argThat((List<OutboxMessage> rows) -> rows.size() == 2));
+        verify(quotaCounterService).increment(organizationId, 2);
+    }
+
+    @Test
+    void ingestBatch_fanoutExceeded_failsOnlyThatItem() {
+        List<Subscription> subscriptions = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            subscriptions.add(subscription("order.created"));
+        }
+        subscriptions.add(subscription("user.created"));
+        when(subscriptionRepository.findByProjectIdAndEnabledTrue(projectId)).thenReturn(subscriptions);
+        stubBatchSaves();
+        stubTransactionTemplate();
+
+        EventBatchIngestResponse response = service.ingestBatch(projectId, List.of(
+                item("order.created", null),
+                item("user.created", null)));
+
+        assertThat(response.getResults()).extracting(EventBatchIngestResponse.ItemResult::getStatus)
+                .containsExactly(ItemStatus.FAILED, ItemStatus.CREATED);
+        assertThat(response.getResults().get(0).getError()).contains("Fanout limit exceeded");
+        verify(eventRepository).deleteAll(argThat((List<Event> rejected) ->
+                rejected.size() == 1 && rejected.get(0).getEventType().equals("order.created")));
+        verify(eventRepository, never()).findByProjectIdAndIdempotencyKeyAny(any(), any());
+    }
+
+    @Test
+    void ingestBatch_overMaxBatchSize_isRejected() {
+        List<EventBatchIngestRequest.Item> items = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            items.add(item("order.created", null));
+        }
+
+        assertThatThrownBy(() -> service.ingestBatch(projectId, items))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maximum batch size of 10");
+        verifyNoInteractions(transactionManager);
+    }
+
     /**
      * Stubs PlatformTransactionManager so TransactionTemplate.execute() runs the callback directly.
      */
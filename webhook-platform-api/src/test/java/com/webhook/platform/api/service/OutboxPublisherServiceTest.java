@@ -9,6 +9,7 @@ import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -19,6 +20,7 @@ import org.springframework.kafka.support.SendResult;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionStatus;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
@@ -45,6 +47,9 @@ class OutboxPublisherServiceTest {
     @Mock
     private PlatformTransactionManager txManager;
 
+    @Mock
+    private PartitionMaintenanceService partitionMaintenanceService;
+
     private OutboxPublisherService service;
 
     @BeforeEach
@@ -54,12 +59,12 @@ class OutboxPublisherServiceTest {
 
         service = new OutboxPublisherService(
                 outboxMessageRepository, kafkaTemplate, objectMapper,
-                new SimpleMeterRegistry(), txManager, 100, 5, 90, 300, 1);
+                new SimpleMeterRegistry(), txManager, partitionMaintenanceService, 100, 5, 90, 300, 1, 24, "polling");
     }
 
     @Test
     void shouldNotProcessWhenNoPendingMessages() {
-        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt()))
+        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt(), any()))
                 .thenReturn(Collections.emptyList());
 
         service.publishPendingMessages();
@@ -69,13 +74,13 @@ class OutboxPublisherServiceTest {
 
     @Test
     void shouldUseFairBatchingWithMaxPerKey() {
-        when(outboxMessageRepository.findPendingBatchForUpdate(eq("PENDING"), eq(100), eq(10)))
+        when(outboxMessageRepository.findPendingBatchForUpdate(eq("PENDING"), eq(100), eq(10), any()))
                 .thenReturn(Collections.emptyList());
 
         service.publishPendingMessages();
 
         // Verify fair batching: 3rd arg is maxPerKey=10
-        verify(outboxMessageRepository).findPendingBatchForUpdate("PENDING", 100, 10);
+        verify(outboxMessageRepository).findPendingBatchForUpdate(eq("PENDING"), eq(100), eq(10), any());
     }
 
     @Test
@@ -85,9 +90,8 @@ class OutboxPublisherServiceTest {
                 .deliveryId(UUID.randomUUID())
                 .build();
 
-        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt()))
+        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt(), any()))
                 .thenReturn(List.of(message));
-        when(outboxMessageRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
         when(objectMapper.readValue(anyString(), eq(DeliveryMessage.class)))
                 .thenReturn(deliveryMessage);
 
@@ -98,36 +102,30 @@ class OutboxPublisherServiceTest {
 
         service.publishPendingMessages();
 
-        // Phase 1: message was set to SENDING via saveAll during claim
-        verify(outboxMessageRepository).saveAll(argThat(list -> {
-            @SuppressWarnings("unchecked")
-            List<OutboxMessage> msgs = (List<OutboxMessage>) list;
-            return !msgs.isEmpty();
-        }));
+        // Phase 1: message was set to SENDING by a native UPDATE carrying the partition key
+        verify(outboxMessageRepository).markSending(eq(new String[] { message.getId().toString() }), any());
+        verify(outboxMessageRepository, never()).saveAll(anyList());
 
-        // Phase 2: message marked PUBLISHED after Kafka ack
-        verify(outboxMessageRepository).save(argThat(msg ->
-            msg.getStatus() == OutboxStatus.PUBLISHED && msg.getPublishedAt() != null
-        ));
+        // Phase 2: message marked PUBLISHED in bulk after Kafka ack
+        verify(outboxMessageRepository).markPublished(eq(new String[] { message.getId().toString() }), any());
+        verify(outboxMessageRepository, never()).save(any(OutboxMessage.class));
     }
 
     @Test
     void shouldMarkAsFailedOnException() throws Exception {
         OutboxMessage message = createTestMessage();
 
-        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt()))
+        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt(), any()))
                 .thenReturn(List.of(message));
-        when(outboxMessageRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
         when(objectMapper.readValue(anyString(), eq(DeliveryMessage.class)))
                 .thenThrow(new RuntimeException("Parse error"));
 
         service.publishPendingMessages();
 
-        verify(outboxMessageRepository).save(argThat(msg ->
-            msg.getStatus() == OutboxStatus.FAILED &&
-            msg.getRetryCount() == 1 &&
-            msg.getErrorMessage() != null
-        ));
+        verify(outboxMessageRepository).markFailed(
+                eq(new String[] { message.getId().toString() }),
+                argThat(errors -> errors.length == 1 && errors[0].contains("Parse error")),
+                any());
     }
 
     @Test
@@ -137,9 +135,8 @@ class OutboxPublisherServiceTest {
                 .deliveryId(UUID.randomUUID())
                 .build();
 
-        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt()))
+        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt(), any()))
                 .thenReturn(List.of(message));
-        when(outboxMessageRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
         when(objectMapper.readValue(anyString(), eq(DeliveryMessage.class)))
                 .thenReturn(deliveryMessage);
 
@@ -151,11 +148,10 @@ class OutboxPublisherServiceTest {
         service.publishPendingMessages();
 
         // handle() callback should mark FAILED based on actual Kafka error
-        verify(outboxMessageRepository).save(argThat(msg ->
-            msg.getStatus() == OutboxStatus.FAILED &&
-            msg.getErrorMessage() != null &&
-            msg.getErrorMessage().contains("Broker unavailable")
-        ));
+        verify(outboxMessageRepository).markFailed(
+                eq(new String[] { message.getId().toString() }),
+                argThat(errors -> errors.length == 1 && errors[0].contains("Broker unavailable")),
+                any());
     }
 
     @Test
@@ -168,9 +164,8 @@ class OutboxPublisherServiceTest {
                 .deliveryId(UUID.randomUUID())
                 .build();
 
-        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt()))
+        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt(), any()))
                 .thenReturn(List.of(message));
-        when(outboxMessageRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
         when(objectMapper.readValue(anyString(), eq(DeliveryMessage.class)))
                 .thenReturn(deliveryMessage);
 
@@ -182,16 +177,183 @@ class OutboxPublisherServiceTest {
 
         // Message must NOT be marked FAILED — it stays SENDING.
         // cleanupOldMessages() will recover it back to PENDING after 120s.
-        verify(outboxMessageRepository, never()).save(argThat(msg ->
-            msg.getStatus() == OutboxStatus.FAILED
-        ));
-        verify(outboxMessageRepository, never()).save(argThat(msg ->
-            msg.getStatus() == OutboxStatus.PUBLISHED
-        ));
+        verify(outboxMessageRepository, never()).markFailed(any(), any(), any());
+        verify(outboxMessageRepository, never()).markPublished(any(), any());
         // Message remains SENDING (set during claim phase)
         assertThat(message.getStatus()).isEqualTo(OutboxStatus.SENDING);
     }
 
+    @Test
+    void notifyMode_skipsGlobalPoll() {
+        OutboxPublisherService notifyService = new OutboxPublisherService(
+                outboxMessageRepository, kafkaTemplate, objectMapper,
+                new SimpleMeterRegistry(), txManager, partitionMaintenanceService, 100, 5, 90, 300, 1, 24, "notify");
+
+        notifyService.publishPendingMessages();
+
+        verify(outboxMessageRepository, never()).findPendingBatchForUpdate(anyString(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void publishPendingShard_claimsOnlyThatShardAndRecordsCommitLatency() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service = new OutboxPublisherService(
+                outboxMessageRepository, kafkaTemplate, objectMapper,
+                registry, txManager, partitionMaintenanceService, 100, 5, 90, 300, 1, 24, "notify");
+        OutboxMessage message = createTestMessage();
+
+        when(outboxMessageRepository.findPendingShardBatchForUpdate(eq("PENDING"), eq(3), eq(16), eq(100), eq(10), any()))
+                .thenReturn(List.of(message));
+        when(objectMapper.readValue(anyString(), eq(DeliveryMessage.class)))
+                .thenReturn(DeliveryMessage.builder().deliveryId(UUID.randomUUID()).build());
+        @SuppressWarnings("unchecked")
+        SendResult<String, Object> sendResult = mock(SendResult.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        assertThat(service.publishPendingShard(3, 16)).isEqualTo(1);
+
+        verify(outboxMessageRepository).markPublished(eq(new String[] { message.getId().toString() }), any());
+        assertThat(registry.get("outbox_commit_to_publish_latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void publishPendingShard_returnsZeroWhenShardEmpty() {
+        when(outboxMessageRepository.findPendingShardBatchForUpdate(anyString(), anyInt(), anyInt(), anyInt(), anyInt(), any()))
+                .thenReturn(Collections.emptyList());
+
+        assertThat(service.publishPendingShard(0, 16)).isZero();
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    void lateKafkaAck_isWrittenByNextFlush() throws Exception {
+        OutboxMessage message = createTestMessage();
+        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt(), any()))
+                .thenReturn(List.of(message));
+        when(objectMapper.readValue(anyString(), eq(DeliveryMessage.class)))
+                .thenReturn(DeliveryMessage.builder().deliveryId(UUID.randomUUID()).build());
+        CompletableFuture<SendResult<String, Object>> future = new CompletableFuture<>();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(future);
+
+        service.publishPendingMessages();
+        verify(outboxMessageRepository, never()).markPublished(any(), any());
+
+        // Ack arrives after the batch stopped waiting
+        @SuppressWarnings("unchecked")
+        SendResult<String, Object> sendResult = mock(SendResult.class);
+        future.complete(sendResult);
+        service.flushLateOutcomes();
+
+        verify(outboxMessageRepository).markPublished(eq(new String[] { message.getId().toString() }), any());
+    }
+
+    @Test
+    void failedStatusWrite_keepsOutcomesForNextFlush() throws Exception {
+        OutboxMessage first = createTestMessage();
+        OutboxMessage second = createTestMessage();
+        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt(), any()))
+                .thenReturn(List.of(first, second));
+        when(objectMapper.readValue(anyString(), eq(DeliveryMessage.class)))
+                .thenReturn(DeliveryMessage.builder().deliveryId(UUID.randomUUID()).build());
+        @SuppressWarnings("unchecked")
+        SendResult<String, Object> sendResult = mock(SendResult.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(sendResult));
+        when(outboxMessageRepository.markPublished(any(), any()))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(2);
+
+        service.publishPendingMessages();
+        service.flushLateOutcomes();
+
+        verify(outboxMessageRepository, times(2)).markPublished(
+                argThat(ids -> ids.length == 2
+                        && List.of(ids).containsAll(List.of(first.getId().toString(), second.getId().toString()))),
+                any());
+    }
+
+    @Test
+    void retryFailure_updatesRetryCountInBulk() throws Exception {
+        OutboxMessage message = createTestMessage();
+        message.setStatus(OutboxStatus.FAILED);
+        message.setRetryCount(4);
+        message.setLastAttemptAt(Instant.now().minusSeconds(3600));
+        when(outboxMessageRepository.findFailedMessagesForRetry(anyString(), anyInt(), anyInt(), anyInt(), any()))
+                .thenReturn(List.of(message));
+        when(objectMapper.readValue(anyString(), eq(DeliveryMessage.class)))
+                .thenReturn(DeliveryMessage.builder().deliveryId(UUID.randomUUID()).build());
+        CompletableFuture<SendResult<String, Object>> future = new CompletableFuture<>();
+        future.completeExceptionally(new RuntimeException("Broker unavailable"));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(future);
+
+        service.retryFailedMessages();
+
+        verify(outboxMessageRepository).markRetryFailed(
+                eq(new String[] { message.getId().toString() }),
+                argThat(errors -> errors[0].contains("Broker unavailable")),
+                eq(5),
+                any());
+    }
+
+    @Test
+    void statusUpdate_isBoundedByOldestCreatedAt() throws Exception {
+        OutboxMessage older = createTestMessage();
+        older.setCreatedAt(Instant.parse("2026-03-01T10:00:00Z"));
+        OutboxMessage newer = createTestMessage();
+        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt(), any()))
+                .thenReturn(List.of(newer, older));
+        when(objectMapper.readValue(anyString(), eq(DeliveryMessage.class)))
+                .thenReturn(DeliveryMessage.builder().deliveryId(UUID.randomUUID()).build());
+        @SuppressWarnings("unchecked")
+        SendResult<String, Object> sendResult = mock(SendResult.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        service.publishPendingMessages();
+
+        verify(outboxMessageRepository).markPublished(any(), eq(Instant.parse("2026-03-01T09:59:59Z")));
+    }
+
+    @Test
+    void claim_isBoundedByClaimWindowAndMarksSendingFromOldestCreatedAt() throws Exception {
+        OutboxMessage older = createTestMessage();
+        older.setCreatedAt(Instant.parse("2026-03-01T10:00:00Z"));
+        OutboxMessage newer = createTestMessage();
+        when(outboxMessageRepository.findPendingBatchForUpdate(anyString(), anyInt(), anyInt(), any()))
+                .thenReturn(List.of(newer, older));
+        when(objectMapper.readValue(anyString(), eq(DeliveryMessage.class)))
+                .thenReturn(DeliveryMessage.builder().deliveryId(UUID.randomUUID()).build());
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<>());
+        // Nothing claimable outside the window
+        when(outboxMessageRepository.findOldestClaimableCreatedAt(5)).thenReturn(null);
+        service.refreshClaimFloor();
+
+        Instant before = Instant.now().minus(Duration.ofHours(24));
+        service.publishPendingMessages();
+
+        verify(outboxMessageRepository).findPendingBatchForUpdate(eq("PENDING"), eq(100), eq(10),
+                argThat(since -> !since.isBefore(before) && since.isBefore(Instant.now().minus(Duration.ofHours(23)))));
+        verify(outboxMessageRepository).markSending(any(), eq(Instant.parse("2026-03-01T09:59:59Z")));
+    }
+
+    @Test
+    void claimSince_widensToOldestClaimableRow() {
+        Instant backlog = Instant.now().minus(Duration.ofDays(3));
+        when(outboxMessageRepository.findOldestClaimableCreatedAt(5)).thenReturn(backlog);
+
+        assertThat(service.claimSince()).isEqualTo(Instant.EPOCH);
+        service.refreshClaimFloor();
+        assertThat(service.claimSince()).isEqualTo(backlog.minusSeconds(1));
+    }
+
+    @Test
+    void cleanup_dropsFullyPublishedPartitionsBeforeDeleting() {
+        service.cleanupOldMessages();
+
+        InOrder inOrder = inOrder(partitionMaintenanceService, outboxMessageRepository);
+        inOrder.verify(partitionMaintenanceService).dropPartitionsBefore(
+                eq(PartitionMaintenanceService.OUTBOX_MESSAGES), any(Instant.class), eq("status <> 'PUBLISHED'"));
+        inOrder.verify(outboxMessageRepository).deleteOldPublishedMessages(eq("PUBLISHED"), any(Instant.class), anyInt());
+    }
+
     private OutboxMessage createTestMessage() {
         OutboxMessage message = new OutboxMessage();
         message.setId(UUID.randomUUID());
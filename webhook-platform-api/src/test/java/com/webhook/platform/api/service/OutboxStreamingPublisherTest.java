@@ -0,0 +1,79 @@
+package com.webhook.platform.api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxStreamingPublisherTest {
+
+    private static final int SHARDS = 4;
+
+    @Mock
+    private OutboxPublisherService publisher;
+
+    @Mock
+    private LockProvider lockProvider;
+
+    @Mock
+    private SimpleLock lock;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxStreamingPublisher streaming;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        streaming = new OutboxStreamingPublisher(publisher, lockProvider, meterRegistry,
+                "notify", SHARDS, 1, 1000, 30, "", "", "");
+        streaming.startDrainers();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streaming.stop();
+    }
+
+    @Test
+    void drain_publishesUntilShardIsEmpty_underShardLock() {
+        when(lockProvider.lock(any())).thenReturn(Optional.of(lock));
+        when(publisher.publishPendingShard(2, SHARDS)).thenReturn(100, 100, 7, 0);
+
+        streaming.signal();
+        verify(publisher, timeout(2000).times(4)).publishPendingShard(2, SHARDS);
+        verify(lock, timeout(2000).times(SHARDS)).unlock();
+
+        ArgumentCaptor<LockConfiguration> config = ArgumentCaptor.forClass(LockConfiguration.class);
+        verify(lockProvider, times(SHARDS)).lock(config.capture());
+        assertThat(config.getAllValues()).extracting(LockConfiguration::getName)
+                .containsExactlyInAnyOrder("outbox-publisher-shard-0", "outbox-publisher-shard-1",
+                        "outbox-publisher-shard-2", "outbox-publisher-shard-3");
+    }
+
+    @Test
+    void drain_skipsShardHeldByAnotherInstance() {
+        when(lockProvider.lock(any())).thenReturn(Optional.empty());
+
+        streaming.drain(1);
+
+        verify(lockProvider).lock(any());
+        verify(publisher, never()).publishPendingShard(anyInt(), eq(SHARDS));
+        assertThat(meterRegistry.get("outbox_shard_lock_busy_total").counter().count()).isEqualTo(1);
+    }
+}
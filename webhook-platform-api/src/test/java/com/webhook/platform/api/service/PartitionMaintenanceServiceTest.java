@@ -0,0 +1,104 @@
+package com.webhook.platform.api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PartitionMaintenanceServiceTest {
+
+    private static final List<String> PARTITIONS = List.of(
+            "delivery_attempts_default",
+            "delivery_attempts_p20260301",
+            "delivery_attempts_p20260228",
+            "delivery_attempts_p20260302",
+            "delivery_attempts_p2026030",
+            "delivery_attempts_pXXXXXXXX");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager txManager;
+
+    private PartitionMaintenanceService service;
+
+    @BeforeEach
+    void setUp() {
+        when(txManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("delivery_attempts")))
+                .thenReturn(PARTITIONS);
+        service = new PartitionMaintenanceService(jdbcTemplate, txManager, new SimpleMeterRegistry(), 14, 5000);
+    }
+
+    @Test
+    void expiredPartitions_onlyWholeDaysBeforeCutoff_oldestFirst() {
+        assertThat(PartitionMaintenanceService.expiredPartitions(
+                "delivery_attempts", PARTITIONS, LocalDate.of(2026, 3, 2)))
+                .containsExactly("delivery_attempts_p20260228", "delivery_attempts_p20260301");
+    }
+
+    @Test
+    void dropPartitionsBefore_dropsExpiredDays() {
+        int dropped = service.dropPartitionsBefore(PartitionMaintenanceService.DELIVERY_ATTEMPTS,
+                Instant.parse("2026-03-02T05:00:00Z"), null);
+
+        assertThat(dropped).isEqualTo(2);
+        verify(jdbcTemplate).execute("DROP TABLE delivery_attempts_p20260228");
+        verify(jdbcTemplate).execute("DROP TABLE delivery_attempts_p20260301");
+        verify(jdbcTemplate, never()).execute("DROP TABLE delivery_attempts_p20260302");
+        verify(jdbcTemplate, never()).execute("DROP TABLE delivery_attempts_default");
+    }
+
+    @Test
+    void dropPartitionsBefore_keepsPartitionWithSurvivingRows() {
+        when(jdbcTemplate.queryForObject(contains("delivery_attempts_p20260228"), eq(Boolean.class)))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("delivery_attempts_p20260301"), eq(Boolean.class)))
+                .thenReturn(false);
+
+        int dropped = service.dropPartitionsBefore(PartitionMaintenanceService.DELIVERY_ATTEMPTS,
+                Instant.parse("2026-03-02T05:00:00Z"), "http_status_code IS NULL");
+
+        assertThat(dropped).isEqualTo(1);
+        verify(jdbcTemplate, never()).execute("DROP TABLE delivery_attempts_p20260228");
+        verify(jdbcTemplate).execute("DROP TABLE delivery_attempts_p20260301");
+    }
+
+    @Test
+    void dropPartitionsBefore_lockTimeoutSkipsPartitionAndContinues() {
+        doThrow(new CannotAcquireLockException("lock timeout"))
+                .when(jdbcTemplate).execute("DROP TABLE delivery_attempts_p20260228");
+
+        int dropped = service.dropPartitionsBefore(PartitionMaintenanceService.DELIVERY_ATTEMPTS,
+                Instant.parse("2026-03-02T05:00:00Z"), null);
+
+        assertThat(dropped).isEqualTo(1);
+        verify(jdbcTemplate).execute("DROP TABLE delivery_attempts_p20260301");
+    }
+
+    @Test
+    void dropPartitionsBefore_rejectsUnknownTable() {
+        assertThatThrownBy(() -> service.dropPartitionsBefore("events", Instant.now(), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,259 @@
+package com.webhook.platform.api.service.alerting;
+
+import com.webhook.platform.api.domain.entity.AlertRule;
+import com.webhook.platform.api.domain.enums.AlertType;
+import com.webhook.platform.api.domain.repository.AlertRuleRepository;
+import com.webhook.platform.api.service.AlertService;
+import com.webhook.platform.common.dto.DeliveryOutcomeMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AlertRuleEngineTest {
+
+    private static final long T0 = 1_772_000_000_000L;
+
+    @Mock
+    private AlertRuleRepository ruleRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final UUID projectId = UUID.randomUUID();
+    private final UUID endpointId = UUID.randomUUID();
+
+    private AlertRuleEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = newEngine();
+    }
+
+    private AlertRuleEngine newEngine() {
+        return new AlertRuleEngine(ruleRepository, jdbcTemplate, new SimpleMeterRegistry(), 30, 100, 4, 600, 60);
+    }
+
+    @Test
+    void failureRate_firesOnceWhenCrossedAndRearmsAfterRecovery() {
+        AlertRule rule = givenRule(AlertType.FAILURE_RATE, 50.0, null);
+
+        assertThat(feed(List.of("SUCCESS", "FAILED", "FAILED"), 0)).isEmpty();
+        List<AlertRuleEngine.Firing> firings = feed(List.of("FAILED"), 3);
+        assertThat(firings).hasSize(1);
+        assertThat(firings.get(0).rule()).isSameAs(rule);
+        assertThat(firings.get(0).value()).isEqualTo(75.0);
+
+        assertThat(feed(List.of("FAILED"), 4)).isEmpty();
+        assertThat(feed(List.of("SUCCESS", "SUCCESS", "SUCCESS", "SUCCESS"), 5)).isEmpty();
+        assertThat(feed(List.of("FAILED", "FAILED", "FAILED"), 9)).hasSize(1);
+    }
+
+    @Test
+    void failureRate_forgetsFailuresOutsideTheWindow() {
+        givenRule(AlertType.FAILURE_RATE, 50.0, null);
+
+        feed(List.of("FAILED", "FAILED", "FAILED"), 0);
+
+        assertThat(feed(List.of("SUCCESS", "SUCCESS", "SUCCESS", "FAILED"), 400)).isEmpty();
+    }
+
+    @Test
+    void dlqThreshold_countsDeliveriesMovedToDlq() {
+        givenRule(AlertType.DLQ_THRESHOLD, 2.0, null);
+
+        assertThat(feed(List.of("DLQ", "FAILED", "SUCCESS"), 0)).isEmpty();
+        assertThat(feed(List.of("DLQ"), 3)).singleElement()
+                .extracting(AlertRuleEngine.Firing::value).isEqualTo(2.0);
+    }
+
+    @Test
+    void latencyThreshold_usesTheWindowAverage() {
+        givenRule(AlertType.LATENCY_THRESHOLD, 500.0, null);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(engine.onOutcome(outcome("SUCCESS", endpointId, 900, i))).isEmpty();
+        }
+        assertThat(engine.onOutcome(outcome("SUCCESS", endpointId, 100, 3))).singleElement()
+                .extracting(AlertRuleEngine.Firing::value).isEqualTo(700.0);
+    }
+
+    @Test
+    void consecutiveFailures_trackEachEndpointAndResetOnSuccess() {
+        givenRule(AlertType.CONSECUTIVE_FAILURES, 3.0, null);
+        UUID otherEndpoint = UUID.randomUUID();
+
+        engine.onOutcome(outcome("FAILED", endpointId, 10, 0));
+        engine.onOutcome(outcome("FAILED", endpointId, 10, 1));
+        engine.onOutcome(outcome("FAILED", otherEndpoint, 10, 2));
+        engine.onOutcome(outcome("SUCCESS", otherEndpoint, 10, 3));
+        engine.onOutcome(outcome("FAILED", otherEndpoint, 10, 4));
+
+        assertThat(engine.onOutcome(outcome("FAILED", endpointId, 10, 5))).hasSize(1);
+        assertThat(engine.onOutcome(outcome("FAILED", endpointId, 10, 6))).isEmpty();
+        engine.onOutcome(outcome("SUCCESS", endpointId, 10, 7));
+        engine.onOutcome(outcome("FAILED", endpointId, 10, 8));
+        engine.onOutcome(outcome("FAILED", endpointId, 10, 9));
+        assertThat(engine.onOutcome(outcome("FAILED", endpointId, 10, 10))).hasSize(1);
+    }
+
+    @Test
+    void endpointScopedRule_ignoresOtherEndpoints() {
+        givenRule(AlertType.DLQ_THRESHOLD, 1.0, UUID.randomUUID());
+
+        assertThat(feed(List.of("DLQ", "DLQ"), 0)).isEmpty();
+    }
+
+    @Test
+    void checkpoint_restoresStateInANewEngine() throws Exception {
+        AlertRule rule = givenRule(AlertType.FAILURE_RATE, 50.0, null);
+        feed(List.of("FAILED", "FAILED", "SUCCESS"), 0);
+
+        engine.checkpoint();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(AlertRuleEngine.UPSERT_STATE_SQL), rows.capture());
+        Object[] row = rows.getValue().get(0);
+        assertThat(row[0]).isEqualTo(rule.getId());
+        assertThat(row[1]).isEqualTo("FAILURE_RATE");
+        assertThat(row[2]).isEqualTo(300);
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn((String) row[1]);
+        when(rs.getInt(2)).thenReturn((Integer) row[2]);
+        when(rs.getBytes(3)).thenReturn((byte[]) row[3]);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(eq(AlertRuleEngine.SELECT_STATE_SQL), any(RowCallbackHandler.class), eq(rule.getId()));
+
+        AlertRuleEngine restarted = newEngine();
+        assertThat(restarted.onOutcome(outcome("FAILED", endpointId, 10, 3))).hasSize(1);
+    }
+
+    @Test
+    void checkpoint_writesOnlyChangedStates() {
+        givenRule(AlertType.DLQ_THRESHOLD, 5.0, null);
+        feed(List.of("DLQ"), 0);
+
+        engine.checkpoint();
+        engine.checkpoint();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(AlertRuleEngine.UPSERT_STATE_SQL), anyList());
+    }
+
+    @Test
+    void checkpoint_retriesAfterFailure() {
+        givenRule(AlertType.DLQ_THRESHOLD, 5.0, null);
+        feed(List.of("DLQ"), 0);
+        when(jdbcTemplate.batchUpdate(eq(AlertRuleEngine.UPSERT_STATE_SQL), anyList()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(new int[] {1});
+
+        engine.checkpoint();
+        engine.checkpoint();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(AlertRuleEngine.UPSERT_STATE_SQL), anyList());
+    }
+
+    @Test
+    void onPartitionsRevoked_checkpointsAndRestoresFromDatabase() {
+        AlertRule rule = givenRule(AlertType.DLQ_THRESHOLD, 5.0, null);
+        feed(List.of("DLQ"), 0);
+
+        engine.onPartitionsRevoked(List.of(new TopicPartition("deliveries.outcomes", 0)));
+        verify(jdbcTemplate).batchUpdate(eq(AlertRuleEngine.UPSERT_STATE_SQL), anyList());
+
+        feed(List.of("DLQ"), 1);
+        verify(jdbcTemplate, times(2)).query(eq(AlertRuleEngine.SELECT_STATE_SQL),
+                any(RowCallbackHandler.class), eq(rule.getId()));
+    }
+
+    @Test
+    void listener_suppressesMutedAndSnoozedRules() {
+        AlertService alertService = mock(AlertService.class);
+        AlertOutcomeListener listener =
+                new AlertOutcomeListener(engine, alertService, ruleRepository, new SimpleMeterRegistry());
+        AlertRule rule = givenRule(AlertType.DLQ_THRESHOLD, 1.0, null);
+        AlertRule muted = copy(rule);
+        muted.setMuted(true);
+        AlertRule snoozed = copy(rule);
+        snoozed.setSnoozedUntil(Instant.now().plusSeconds(600));
+        when(ruleRepository.findById(rule.getId()))
+                .thenReturn(Optional.of(muted), Optional.of(snoozed), Optional.of(copy(rule)));
+
+        AlertRuleEngine.Firing firing = new AlertRuleEngine.Firing(rule, 1, "1 deliveries moved to DLQ");
+        listener.fire(firing);
+        listener.fire(firing);
+        verify(alertService, never()).fireAlert(any(), anyDouble(), anyString());
+
+        listener.fire(firing);
+        verify(alertService).fireAlert(any(AlertRule.class), eq(1.0), eq("1 deliveries moved to DLQ"));
+    }
+
+    private AlertRule givenRule(AlertType type, double threshold, UUID ruleEndpointId) {
+        AlertRule rule = AlertRule.builder()
+                .id(UUID.randomUUID())
+                .projectId(projectId)
+                .name(type.name())
+                .alertType(type)
+                .thresholdValue(threshold)
+                .windowMinutes(5)
+                .endpointId(ruleEndpointId)
+                .build();
+        when(ruleRepository.findByProjectIdAndEnabledTrue(projectId)).thenReturn(List.of(rule));
+        return rule;
+    }
+
+    private static AlertRule copy(AlertRule rule) {
+        return AlertRule.builder()
+                .id(rule.getId())
+                .projectId(rule.getProjectId())
+                .name(rule.getName())
+                .alertType(rule.getAlertType())
+                .thresholdValue(rule.getThresholdValue())
+                .windowMinutes(rule.getWindowMinutes())
+                .build();
+    }
+
+    private List<AlertRuleEngine.Firing> feed(List<String> statuses, int startSecond) {
+        List<AlertRuleEngine.Firing> firings = new ArrayList<>();
+        for (int i = 0; i < statuses.size(); i++) {
+            firings.addAll(engine.onOutcome(outcome(statuses.get(i), endpointId, 50, startSecond + i)));
+        }
+        return firings;
+    }
+
+    private DeliveryOutcomeMessage outcome(String status, UUID endpoint, int latencyMs, int second) {
+        return DeliveryOutcomeMessage.builder()
+                .deliveryId(UUID.randomUUID())
+                .projectId(projectId)
+                .endpointId(endpoint)
+                .status(status)
+                .latencyMs(latencyMs)
+                .occurredAtMs(T0 + second * 1000L)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.webhook.platform.api.service.alerting;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    @Test
+    void add_expiresSamplesOlderThanTheWindow() {
+        SlidingWindowCounter window = new SlidingWindowCounter(60, 600);
+
+        window.add(1_000, 1, 1);
+        window.add(1_030, 1, 0);
+        assertThat(window.firstTotal()).isEqualTo(2);
+        assertThat(window.secondTotal()).isEqualTo(1);
+
+        window.add(1_060, 1, 0);
+        assertThat(window.firstTotal()).isEqualTo(2);
+        assertThat(window.secondTotal()).isZero();
+
+        window.add(5_000, 1, 1);
+        assertThat(window.firstTotal()).isEqualTo(1);
+        assertThat(window.secondTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void add_keepsLateSamplesInsideTheWindowAndDropsOlderOnes() {
+        SlidingWindowCounter window = new SlidingWindowCounter(60, 600);
+        window.add(1_000, 1, 0);
+
+        window.add(950, 1, 0);
+        window.add(900, 1, 0);
+
+        assertThat(window.firstTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void add_widensSlotsForWindowsAboveMaxSlots() {
+        SlidingWindowCounter window = new SlidingWindowCounter(3_600, 60);
+
+        window.add(0, 1, 0);
+        window.add(59, 1, 0);
+        window.add(3_599, 1, 0);
+        assertThat(window.firstTotal()).isEqualTo(3);
+
+        window.add(3_600, 1, 0);
+        assertThat(window.firstTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void writeTo_readFrom_roundTrips() throws Exception {
+        SlidingWindowCounter window = new SlidingWindowCounter(300, 600);
+        window.add(10_000, 3, 120);
+        window.add(10_100, 2, 80);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        window.writeTo(new DataOutputStream(bytes));
+
+        SlidingWindowCounter restored = new SlidingWindowCounter(300, 600);
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(restored.firstTotal()).isEqualTo(5);
+        assertThat(restored.secondTotal()).isEqualTo(200);
+        restored.add(10_350, 1, 0);
+        assertThat(restored.firstTotal()).isEqualTo(3);
+    }
+}
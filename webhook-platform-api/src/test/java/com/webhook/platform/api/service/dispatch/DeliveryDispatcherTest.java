@@ -0,0 +1,170 @@
+package com.webhook.platform.api.service.dispatch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webhook.platform.api.domain.entity.Delivery;
+import com.webhook.platform.api.domain.entity.OutboxMessage;
+import com.webhook.platform.api.domain.repository.DeliveryRepository;
+import com.webhook.platform.api.domain.repository.OutboxMessageRepository;
+import com.webhook.platform.common.constants.KafkaTopics;
+import com.webhook.platform.common.dto.DeliveryMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DeliveryDispatcherTest {
+
+    @Mock
+    private OutboxMessageRepository outboxMessageRepository;
+    @Mock
+    private DeliveryRepository deliveryRepository;
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    @Mock
+    private PlatformTransactionManager txManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private DeliveryDispatcher dispatcher(String mode) {
+        when(txManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        return new DeliveryDispatcher(outboxMessageRepository, deliveryRepository, kafkaTemplate,
+                new ObjectMapper(), meterRegistry, txManager, mode, 60, 24, 500);
+    }
+
+    @Test
+    void outboxMode_writesOneOutboxRowPerDelivery() {
+        DeliveryDispatcher dispatcher = dispatcher(DeliveryDispatcher.MODE_OUTBOX);
+
+        dispatcher.dispatch(List.of(delivery(), delivery()));
+
+        verify(outboxMessageRepository).saveAll(argThat((List<OutboxMessage> rows) -> rows.size() == 2
+                && rows.stream().allMatch(r -> KafkaTopics.DELIVERIES_DISPATCH.equals(r.getKafkaTopic()))));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void directMode_sendsOnlyAfterCommit_thenMarksInBulk() {
+        DeliveryDispatcher dispatcher = dispatcher(DeliveryDispatcher.MODE_DIRECT);
+        Delivery first = delivery();
+        Delivery second = delivery();
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        dispatcher.dispatch(List.of(first, second));
+        verifyNoInteractions(kafkaTemplate);
+
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+        }
+        verify(kafkaTemplate).send(eq(KafkaTopics.DELIVERIES_DISPATCH), eq(first.getEndpointId().toString()),
+                argThat(m -> ((DeliveryMessage) m).getDeliveryId().equals(first.getId())));
+        verify(kafkaTemplate, times(2)).send(anyString(), anyString(), any());
+        verifyNoInteractions(outboxMessageRepository);
+
+        dispatcher.flushMarkers();
+        verify(deliveryRepository).markDispatched(argThat(ids -> ids.length == 2
+                && List.of(ids).containsAll(List.of(first.getId().toString(), second.getId().toString()))));
+    }
+
+    @Test
+    void directMode_rolledBackTransaction_sendsNothing() {
+        DeliveryDispatcher dispatcher = dispatcher(DeliveryDispatcher.MODE_DIRECT);
+
+        TransactionSynchronizationManager.initSynchronization();
+        dispatcher.dispatch(List.of(delivery()));
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void directMode_failedSend_isNotMarked() {
+        DeliveryDispatcher dispatcher = dispatcher(DeliveryDispatcher.MODE_DIRECT);
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        dispatcher.dispatch(List.of(delivery()));
+        dispatcher.flushMarkers();
+
+        verify(deliveryRepository, never()).markDispatched(any());
+        assertThat(meterRegistry.get("delivery_dispatch_direct_total").tag("result", "failed").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_resendsUndispatchedDeliveries() {
+        DeliveryDispatcher dispatcher = dispatcher(DeliveryDispatcher.MODE_DIRECT);
+        Delivery stale = delivery();
+        when(deliveryRepository.findUndispatched(any(), any(), any(), eq(500))).thenReturn(List.of(stale));
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        dispatcher.reconcile();
+        dispatcher.flushMarkers();
+
+        verify(kafkaTemplate).send(eq(KafkaTopics.DELIVERIES_DISPATCH), eq(stale.getEndpointId().toString()), any());
+        verify(deliveryRepository).markDispatched(new String[] { stale.getId().toString() });
+    }
+
+    @Test
+    void reconcile_isNoOpInOutboxMode() {
+        dispatcher(DeliveryDispatcher.MODE_OUTBOX).reconcile();
+
+        verifyNoInteractions(deliveryRepository, kafkaTemplate);
+    }
+
+    @Test
+    void failedMarkerWrite_isRetriedOnNextFlush() {
+        DeliveryDispatcher dispatcher = dispatcher(DeliveryDispatcher.MODE_DIRECT);
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(deliveryRepository.markDispatched(any()))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(1);
+
+        dispatcher.dispatch(List.of(delivery()));
+        dispatcher.flushMarkers();
+        dispatcher.flushMarkers();
+
+        verify(deliveryRepository, times(2)).markDispatched(any());
+    }
+
+    private Delivery delivery() {
+        return Delivery.builder()
+                .id(UUID.randomUUID())
+                .eventId(UUID.randomUUID())
+                .endpointId(UUID.randomUUID())
+                .subscriptionId(UUID.randomUUID())
+                .build();
+    }
+}
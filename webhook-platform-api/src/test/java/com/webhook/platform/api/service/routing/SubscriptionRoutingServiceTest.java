@@ -0,0 +1,125 @@
+package com.webhook.platform.api.service.routing;
+
+import com.webhook.platform.api.domain.entity.Subscription;
+import com.webhook.platform.api.domain.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SubscriptionRoutingServiceTest {
+
+    private final UUID projectId = UUID.randomUUID();
+
+    private SubscriptionRepository subscriptionRepository;
+    private RTopic topic;
+    private SimpleMeterRegistry registry;
+    private SubscriptionRoutingService service;
+
+    @BeforeEach
+    void setUp() {
+        subscriptionRepository = mock(SubscriptionRepository.class);
+        topic = mock(RTopic.class);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic(SubscriptionRoutingService.INVALIDATION_TOPIC, StringCodec.INSTANCE))
+                .thenReturn(topic);
+        registry = new SimpleMeterRegistry();
+        service = new SubscriptionRoutingService(subscriptionRepository, redissonClient, registry, 60, 100);
+    }
+
+    private Subscription subscription(String eventType) {
+        return Subscription.builder()
+                .id(UUID.randomUUID())
+                .projectId(projectId)
+                .endpointId(UUID.randomUUID())
+                .eventType(eventType)
+                .build();
+    }
+
+    @Test
+    void match_usesExactAndWildcardPatternsInLoadOrder() {
+        Subscription all = subscription("**");
+        Subscription exact = subscription("order.created");
+        Subscription orders = subscription("order.*");
+        Subscription users = subscription("user.created");
+        when(subscriptionRepository.findByProjectIdAndEnabledTrue(projectId))
+                .thenReturn(List.of(all, exact, orders, users));
+
+        assertEquals(List.of(all, exact, orders), service.match(projectId, "order.created"));
+        assertEquals(List.of(all, users), service.match(projectId, "user.created"));
+        assertEquals(List.of(all), service.match(projectId, "order.line.added"));
+        verify(subscriptionRepository, times(1)).findByProjectIdAndEnabledTrue(projectId);
+    }
+
+    @Test
+    void invalidate_reloadsAndBroadcasts() {
+        when(subscriptionRepository.findByProjectIdAndEnabledTrue(projectId))
+                .thenReturn(List.of(subscription("order.created")))
+                .thenReturn(List.of());
+        assertEquals(1, service.match(projectId, "order.created").size());
+
+        service.invalidate(projectId);
+
+        assertTrue(service.match(projectId, "order.created").isEmpty());
+        verify(topic).publishAsync(endsWith("|" + projectId));
+        assertEquals(2.0, registry.counter("subscription_routing_loads_total").count());
+    }
+
+    @Test
+    void invalidate_insideTransaction_waitsForCommit() {
+        when(subscriptionRepository.findByProjectIdAndEnabledTrue(projectId)).thenReturn(List.of());
+        service.tableFor(projectId);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.invalidate(projectId);
+            service.tableFor(projectId);
+            verify(subscriptionRepository, times(1)).findByProjectIdAndEnabledTrue(projectId);
+            verifyNoInteractions(topic);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        service.tableFor(projectId);
+        verify(subscriptionRepository, times(2)).findByProjectIdAndEnabledTrue(projectId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void remoteInvalidation_evictsButIgnoresOwnMessages() {
+        when(subscriptionRepository.findByProjectIdAndEnabledTrue(projectId)).thenReturn(List.of());
+        service.subscribe();
+        var listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addListener(eq(String.class), listener.capture());
+
+        service.tableFor(projectId);
+        service.invalidate(projectId);
+        var ownMessage = ArgumentCaptor.forClass(String.class);
+        verify(topic).publishAsync(ownMessage.capture());
+        service.tableFor(projectId);
+
+        listener.getValue().onMessage(SubscriptionRoutingService.INVALIDATION_TOPIC, ownMessage.getValue());
+        service.tableFor(projectId);
+        verify(subscriptionRepository, times(2)).findByProjectIdAndEnabledTrue(projectId);
+
+        listener.getValue().onMessage(SubscriptionRoutingService.INVALIDATION_TOPIC, "other-pod|" + projectId);
+        service.tableFor(projectId);
+        verify(subscriptionRepository, times(3)).findByProjectIdAndEnabledTrue(projectId);
+        assertEquals(1.0, registry.counter("subscription_routing_remote_invalidations_total").count());
+    }
+}
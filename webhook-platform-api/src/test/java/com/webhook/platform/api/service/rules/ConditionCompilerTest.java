@@ -0,0 +1,213 @@
+package com.webhook.platform.api.service.rules;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webhook.platform.api.dto.ConditionNode;
+import com.webhook.platform.api.dto.ConditionNode.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionCompilerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static final String[] EVENTS = {
+            "{}",
+            "null",
+            "{\"v\":null}",
+            "{\"v\":\"Active\"}",
+            "{\"v\":\"active\"}",
+            "{\"v\":\"\"}",
+            "{\"v\":\"50\"}",
+            "{\"v\":\"abc\"}",
+            "{\"v\":50}",
+            "{\"v\":-7}",
+            "{\"v\":50.0}",
+            "{\"v\":49.99}",
+            "{\"v\":1e3}",
+            "{\"v\":92233720368547758070}",
+            "{\"v\":true}",
+            "{\"v\":false}",
+            "{\"v\":[1,2]}",
+            "{\"v\":{\"a\":1}}",
+            "{\"v\":\"USD\"}",
+            "{\"v\":\"order.created\"}",
+    };
+
+    private static final Object[] VALUES = {
+            null, "active", "ACTIVE", "50", 50, 50L, 50.0, 49.99, -7, "abc", true, "true", "false", "", "1000",
+            List.of("USD", "EUR"), List.of(1, 2, 50), List.of("50", "-7"), List.of(40, 60), List.of("a", 60),
+            List.of(50.0, 51), "^ord.*", "[unclosed", "order.", ".created", "a".repeat(300)
+    };
+
+    @Test
+    void compiledPredicates_matchInterpreter() throws Exception {
+        int compared = 0;
+        for (PredicateOperator op : PredicateOperator.values()) {
+            for (Object value : VALUES) {
+                for (Boolean ci : new Boolean[] {null, true}) {
+                    Predicate p = Predicate.builder().field("v").operator(op).value(value).caseInsensitive(ci).build();
+                    compared += assertSameResults(p);
+                }
+            }
+        }
+        assertThat(compared).isGreaterThan(10_000);
+    }
+
+    @Test
+    void compiledGroups_matchInterpreter() throws Exception {
+        Predicate isActive = pred("v", PredicateOperator.EQ, "active");
+        Predicate isNumber = pred("v", PredicateOperator.GT, 10);
+        Predicate broken = Predicate.builder().field(null).operator(PredicateOperator.EQ).build();
+        List<ConditionNode> trees = List.of(
+                Group.builder().op(GroupOperator.AND).children(List.of(isActive, isNumber)).build(),
+                Group.builder().op(GroupOperator.OR).children(List.of(isActive, isNumber)).build(),
+                Group.builder().op(GroupOperator.OR).children(List.of(isActive)).build(),
+                Group.builder().op(GroupOperator.NOT).children(List.of(isNumber, isActive)).build(),
+                Group.builder().op(GroupOperator.AND).children(List.of()).build(),
+                Group.builder().op(null).children(List.of(isActive)).build(),
+                Group.builder().op(GroupOperator.NOT).children(List.of(broken)).build(),
+                Group.builder().op(GroupOperator.OR).children(Arrays.asList(broken, null)).build());
+        for (ConditionNode tree : trees) {
+            assertSameResults(tree);
+        }
+        assertThat(ConditionTreeEvaluator.compile(null, new FieldPaths())).isSameAs(CompiledCondition.ALWAYS);
+    }
+
+    @Test
+    void compiledPaths_matchInterpreter() throws Exception {
+        String event = "{\"data\":{\"items\":[{\"sku\":\"A\"},{\"sku\":\"B\"}],\"n\":null,\"s\":\"x\"},\"\":{\"k\":1}}";
+        List<String> paths = List.of("data.items[1].sku", "$.data.items[0].sku", "data.items[2].sku",
+                "data.items[-1].sku", "data.items[x].sku", "data.items[0][0]", "data.s[0]", "data.n.deeper",
+                "data.missing.deeper", "data.s.", "data..s", ".k", ".", "", "data", "$.data");
+        for (String path : paths) {
+            for (PredicateOperator op : List.of(PredicateOperator.EXISTS, PredicateOperator.IS_NULL,
+                    PredicateOperator.EQ, PredicateOperator.NEQ)) {
+                Predicate p = pred(path, op, op == PredicateOperator.EQ || op == PredicateOperator.NEQ ? "B" : null);
+                JsonNode json = mapper.readTree(event);
+                boolean expected = ConditionTreeEvaluator.evaluate(p, json, ConditionTreeEvaluator.newFieldCache());
+                FieldPaths fields = new FieldPaths();
+                boolean actual = ConditionTreeEvaluator.compile(p, fields).matches(fields.bind(json));
+                assertThat(actual).as("%s %s", path, op).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void fieldPaths_sharePrefixesAcrossConditions() {
+        FieldPaths fields = new FieldPaths();
+        ConditionTreeEvaluator.compile(pred("data.customer.id", PredicateOperator.EQ, "c1"), fields);
+        ConditionTreeEvaluator.compile(pred("$.data.customer.tier", PredicateOperator.EQ, "gold"), fields);
+        ConditionTreeEvaluator.compile(pred("data.customer.id", PredicateOperator.EXISTS, null), fields);
+        ConditionTreeEvaluator.compile(pred("data.amount", PredicateOperator.GT, 10), fields);
+
+        // data, data.customer, data.customer.id, data.customer.tier, data.amount
+        assertThat(fields.size()).isEqualTo(5);
+    }
+
+    @Test
+    void identicalPredicates_areSharedAndEvaluatedOncePerEvent() throws Exception {
+        FieldPaths fields = new FieldPaths();
+        CompiledCondition gold = ConditionTreeEvaluator.compile(pred("$.data.tier", PredicateOperator.EQ, "gold"), fields);
+        CompiledCondition goldInDe = ConditionTreeEvaluator.compile(Group.builder().op(GroupOperator.AND).children(List.of(
+                pred("data.tier", PredicateOperator.EQ, "gold"),
+                pred("data.country", PredicateOperator.EQ, "DE"))).build(), fields);
+        ConditionTreeEvaluator.compile(pred("data.tier", PredicateOperator.EQ, "silver"), fields);
+        ConditionTreeEvaluator.compile(Predicate.builder().field("data.tier").operator(PredicateOperator.EQ)
+                .value("gold").caseInsensitive(true).build(), fields);
+
+        // tier == gold (shared), country == DE, tier == silver, tier ==~ gold
+        assertThat(fields.predicateCount()).isEqualTo(4);
+
+        FieldPaths.Values values = fields.bind(mapper.readTree("{\"data\":{\"tier\":\"gold\",\"country\":\"FR\"}}"));
+        assertThat(gold.matches(values)).isTrue();
+        assertThat(goldInDe.matches(values)).isFalse();
+        assertThat(gold.matches(values)).isTrue();
+
+        AtomicInteger calls = new AtomicInteger();
+        CompiledCondition counted = fields.sharedPredicate("counted", v -> calls.incrementAndGet() > 0);
+        assertThat(fields.sharedPredicate("counted", CompiledCondition.NEVER)).isSameAs(counted);
+        FieldPaths.Values event = fields.bind(mapper.readTree("{}"));
+        assertThat(counted.matches(event)).isTrue();
+        assertThat(counted.matches(event)).isTrue();
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void equalityGuard_onlyForCaseSensitiveTextConjuncts() {
+        Predicate tier = pred("data.tier", PredicateOperator.EQ, "gold");
+        assertThat(ConditionCompiler.equalityGuard(tier))
+                .isEqualTo(new ConditionCompiler.EqualityGuard("data.tier", "gold"));
+        assertThat(ConditionCompiler.equalityGuard(Group.builder().op(GroupOperator.AND).children(List.of(
+                pred("data.amount", PredicateOperator.GT, 10), tier)).build()))
+                .isEqualTo(new ConditionCompiler.EqualityGuard("data.tier", "gold"));
+
+        assertThat(ConditionCompiler.equalityGuard(null)).isNull();
+        assertThat(ConditionCompiler.equalityGuard(Group.builder().op(GroupOperator.OR).children(List.of(tier)).build())).isNull();
+        assertThat(ConditionCompiler.equalityGuard(Group.builder().op(GroupOperator.NOT).children(List.of(tier)).build())).isNull();
+        assertThat(ConditionCompiler.equalityGuard(pred("v", PredicateOperator.EQ, "50"))).isNull();
+        assertThat(ConditionCompiler.equalityGuard(pred("v", PredicateOperator.EQ, "true"))).isNull();
+        assertThat(ConditionCompiler.equalityGuard(pred("v", PredicateOperator.EQ, 50))).isNull();
+        assertThat(ConditionCompiler.equalityGuard(pred("v", PredicateOperator.NEQ, "gold"))).isNull();
+        assertThat(ConditionCompiler.equalityGuard(Predicate.builder().field("v").operator(PredicateOperator.EQ)
+                .value("gold").caseInsensitive(true).build())).isNull();
+    }
+
+    @Test
+    void equalityGuard_holdsExactlyWhenPredicateCanMatch() throws Exception {
+        for (Object value : VALUES) {
+            Predicate p = pred("v", PredicateOperator.EQ, value);
+            ConditionCompiler.EqualityGuard guard = ConditionCompiler.equalityGuard(p);
+            if (guard == null) {
+                continue;
+            }
+            for (String event : EVENTS) {
+                JsonNode json = mapper.readTree(event);
+                boolean expected = ConditionTreeEvaluator.evaluate(p, json, ConditionTreeEvaluator.newFieldCache());
+                FieldPaths fields = new FieldPaths();
+                int slot = fields.slot(guard.field());
+                boolean guardHolds = guard.value().equals(ConditionCompiler.guardKey(fields.bind(json).get(slot)));
+                assertThat(guardHolds).as("%s on %s", value, event).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void regex_timesOutOnCatastrophicBacktracking() throws Exception {
+        Predicate p = pred("v", PredicateOperator.REGEX, "(a+)+$");
+        FieldPaths fields = new FieldPaths();
+        CompiledCondition condition = ConditionTreeEvaluator.compile(p, fields);
+
+        long start = System.nanoTime();
+        boolean matched = condition.matches(fields.bind(mapper.readTree("{\"v\":\"" + "a".repeat(40) + "!\"}")));
+
+        assertThat(matched).isFalse();
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(5_000);
+    }
+
+    private int assertSameResults(ConditionNode tree) throws Exception {
+        FieldPaths fields = new FieldPaths();
+        CompiledCondition compiled = ConditionTreeEvaluator.compile(tree, fields);
+        List<String> mismatches = new ArrayList<>();
+        for (String event : EVENTS) {
+            JsonNode json = mapper.readTree(event);
+            boolean expected = ConditionTreeEvaluator.evaluate(tree, json, ConditionTreeEvaluator.newFieldCache());
+            boolean actual = compiled.matches(fields.bind(json));
+            if (expected != actual) {
+                mismatches.add(event + " expected " + expected);
+            }
+        }
+        assertThat(mismatches).as("%s", tree).isEmpty();
+        return EVENTS.length;
+    }
+
+    private static Predicate pred(String field, PredicateOperator op, Object value) {
+        return Predicate.builder().field(field).operator(op).value(value).build();
+    }
+}
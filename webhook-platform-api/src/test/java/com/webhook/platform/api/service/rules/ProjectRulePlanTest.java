@@ -0,0 +1,133 @@
+package com.webhook.platform.api.service.rules;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webhook.platform.api.dto.ConditionNode;
+import com.webhook.platform.api.dto.ConditionNode.*;
+import com.webhook.platform.api.service.rules.RuleEngineService.ProjectRulePlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectRulePlanTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void candidates_sortedByPriorityAcrossExactWildcardAndCatchAll() {
+        FieldPaths fields = new FieldPaths();
+        CompiledRule low = rule(fields, 1, "order.created", null);
+        CompiledRule wildcard = rule(fields, 5, "order.*", null);
+        CompiledRule catchAll = rule(fields, 3, null, null);
+        CompiledRule high = rule(fields, 9, "order.created", null);
+        CompiledRule other = rule(fields, 7, "invoice.paid", null);
+        ProjectRulePlan plan = new ProjectRulePlan(List.of(low, wildcard, catchAll, high, other), fields);
+
+        assertThat(plan.getCandidates("order.created")).containsExactly(high, wildcard, catchAll, low);
+        assertThat(plan.getCandidates("invoice.paid")).containsExactly(other, catchAll);
+        assertThat(plan.getCandidates("order.created")).isSameAs(plan.getCandidates("order.created"));
+    }
+
+    @Test
+    void guardedRules_onlySelectedWhenFieldHasTheirValue() throws Exception {
+        FieldPaths fields = new FieldPaths();
+        CompiledRule gold = rule(fields, 4, "order.created", eq("data.tier", "gold"));
+        CompiledRule silver = rule(fields, 6, "order.created", eq("data.tier", "silver"));
+        CompiledRule goldDe = rule(fields, 2, null, Group.builder().op(GroupOperator.AND).children(List.of(
+                pred("data.amount", PredicateOperator.GT, 10), eq("data.country", "DE"))).build());
+        CompiledRule open = rule(fields, 5, "order.*", pred("data.amount", PredicateOperator.GT, 10));
+        ProjectRulePlan plan = new ProjectRulePlan(List.of(gold, silver, goldDe, open), fields);
+
+        assertThat(plan.getCandidates("order.created", values(plan, "{\"data\":{\"tier\":\"gold\",\"country\":\"DE\"}}")))
+                .containsExactly(open, gold, goldDe);
+        assertThat(plan.getCandidates("order.created", values(plan, "{\"data\":{\"tier\":\"silver\"}}")))
+                .containsExactly(silver, open);
+        assertThat(plan.getCandidates("order.created", values(plan, "{\"data\":{\"tier\":true,\"country\":7}}")))
+                .containsExactly(open);
+        assertThat(plan.getCandidates("invoice.paid", values(plan, "{\"data\":{\"country\":\"DE\"}}")))
+                .containsExactly(goldDe);
+    }
+
+    @Test
+    void selectedCandidates_matchSameRulesAsFullScan() throws Exception {
+        String[] tiers = {"gold", "silver", "bronze", "50", "true"};
+        String[] types = {"order.created", "order.updated", "invoice.paid", null, "order.*", "**"};
+        FieldPaths fields = new FieldPaths();
+        List<CompiledRule> rules = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            ConditionNode condition = switch (i % 4) {
+                case 0 -> eq("data.tier", tiers[i % tiers.length]);
+                case 1 -> Group.builder().op(GroupOperator.AND).children(List.of(
+                        pred("data.amount", PredicateOperator.GTE, i), eq("data.tier", tiers[i % tiers.length]))).build();
+                case 2 -> Group.builder().op(GroupOperator.OR).children(List.of(
+                        eq("data.tier", "gold"), eq("data.country", "DE"))).build();
+                default -> null;
+            };
+            rules.add(rule(fields, i % 7, types[i % types.length], condition));
+        }
+        ProjectRulePlan plan = new ProjectRulePlan(rules, fields);
+
+        List<String> events = List.of(
+                "{\"data\":{\"tier\":\"gold\",\"amount\":60,\"country\":\"DE\"}}",
+                "{\"data\":{\"tier\":\"silver\",\"amount\":5}}",
+                "{\"data\":{\"tier\":50,\"amount\":100}}",
+                "{\"data\":{\"tier\":true}}",
+                "{\"data\":{\"tier\":null}}",
+                "{}");
+        for (String type : List.of("order.created", "order.updated", "invoice.paid", "user.signup")) {
+            for (String event : events) {
+                JsonNode json = mapper.readTree(event);
+                List<CompiledRule> expected = plan.getCandidates(type).stream()
+                        .filter(rule -> ConditionTreeEvaluator.evaluate(
+                                rule.getConditionTree(), json, ConditionTreeEvaluator.newFieldCache()))
+                        .toList();
+                FieldPaths.Values values = plan.bindFields(json);
+                List<CompiledRule> actual = plan.getCandidates(type, values).stream()
+                        .filter(rule -> rule.getCondition().matches(values))
+                        .toList();
+                assertThat(actual).as("%s %s", type, event).containsExactlyElementsOf(expected);
+            }
+        }
+    }
+
+    @Test
+    void candidateSets_cachedForBoundedNumberOfEventTypes() {
+        FieldPaths fields = new FieldPaths();
+        CompiledRule catchAll = rule(fields, 0, null, null);
+        ProjectRulePlan plan = new ProjectRulePlan(List.of(catchAll), fields);
+
+        for (int i = 0; i < ProjectRulePlan.MAX_CACHED_EVENT_TYPES + 10; i++) {
+            plan.getCandidates("type." + i);
+        }
+        String uncached = "type." + (ProjectRulePlan.MAX_CACHED_EVENT_TYPES + 5);
+        assertThat(plan.getCandidates(uncached)).containsExactly(catchAll);
+        assertThat(plan.getCandidates(uncached)).isNotSameAs(plan.getCandidates(uncached));
+    }
+
+    private FieldPaths.Values values(ProjectRulePlan plan, String event) throws Exception {
+        return plan.bindFields(mapper.readTree(event));
+    }
+
+    private static CompiledRule rule(FieldPaths fields, int priority, String eventType, ConditionNode condition) {
+        return CompiledRule.builder()
+                .ruleId(UUID.randomUUID())
+                .priority(priority)
+                .eventTypePattern(eventType)
+                .conditionTree(condition)
+                .condition(ConditionTreeEvaluator.compile(condition, fields))
+                .actions(List.of())
+                .build();
+    }
+
+    private static Predicate eq(String field, String value) {
+        return pred(field, PredicateOperator.EQ, value);
+    }
+
+    private static Predicate pred(String field, PredicateOperator op, Object value) {
+        return Predicate.builder().field(field).operator(op).value(value).build();
+    }
+}
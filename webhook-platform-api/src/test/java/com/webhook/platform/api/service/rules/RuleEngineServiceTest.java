@@ -0,0 +1,162 @@
+package com.webhook.platform.api.service.rules;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webhook.platform.api.domain.entity.Rule;
+import com.webhook.platform.api.domain.repository.RulePlanVersionRepository;
+import com.webhook.platform.api.domain.repository.RuleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RuleEngineServiceTest {
+
+    private final UUID projectId = UUID.randomUUID();
+
+    private RuleRepository ruleRepository;
+    private RulePlanVersionRepository versionRepository;
+    private RedissonClient redissonClient;
+    private RTopic topic;
+    private SimpleMeterRegistry registry;
+    private RuleEngineService service;
+
+    @BeforeEach
+    void setUp() {
+        ruleRepository = mock(RuleRepository.class);
+        versionRepository = mock(RulePlanVersionRepository.class);
+        topic = mock(RTopic.class);
+        redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic(RuleEngineService.INVALIDATION_TOPIC, StringCodec.INSTANCE)).thenReturn(topic);
+        registry = new SimpleMeterRegistry();
+        service = service(100);
+    }
+
+    private RuleEngineService service(int warmUpProjects) {
+        return new RuleEngineService(ruleRepository, versionRepository, mock(RuleExecutionLogWriter.class),
+                new ObjectMapper(), redissonClient, registry, 100, warmUpProjects);
+    }
+
+    private Rule rule(UUID projectId, String eventType) {
+        return Rule.builder()
+                .id(UUID.randomUUID())
+                .projectId(projectId)
+                .name("rule")
+                .eventTypePattern(eventType)
+                .build();
+    }
+
+    @Test
+    void planFor_loadsOnceAtCurrentVersion() {
+        when(versionRepository.find(projectId)).thenReturn(7L);
+        when(ruleRepository.findEnabledWithActions(projectId)).thenReturn(List.of(rule(projectId, "order.created")));
+
+        RuleEngineService.ProjectRulePlan plan = service.planFor(projectId);
+
+        assertSame(plan, service.planFor(projectId));
+        assertEquals(7, plan.getVersion());
+        assertEquals(1, plan.getCandidates("order.created").size());
+        verify(ruleRepository, times(1)).findEnabledWithActions(projectId);
+    }
+
+    @Test
+    void invalidate_insideTransaction_bumpsVersionAndEvictsAfterCommit() {
+        when(versionRepository.bump(projectId)).thenReturn(3L);
+        service.planFor(projectId);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.invalidate(projectId);
+            verify(versionRepository).bump(projectId);
+            service.planFor(projectId);
+            verify(ruleRepository, times(1)).findEnabledWithActions(projectId);
+            verifyNoInteractions(topic);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        service.planFor(projectId);
+        verify(ruleRepository, times(2)).findEnabledWithActions(projectId);
+        verify(topic).publishAsync(endsWith("|" + projectId + "|3"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void remoteInvalidation_evictsOnlyOlderPlans() {
+        when(versionRepository.find(projectId)).thenReturn(5L);
+        service.subscribe();
+        var listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addListener(eq(String.class), listener.capture());
+        service.planFor(projectId);
+
+        listener.getValue().onMessage(RuleEngineService.INVALIDATION_TOPIC, "other-pod|" + projectId + "|5");
+        service.planFor(projectId);
+        verify(ruleRepository, times(1)).findEnabledWithActions(projectId);
+
+        listener.getValue().onMessage(RuleEngineService.INVALIDATION_TOPIC, "other-pod|" + projectId + "|6");
+        service.planFor(projectId);
+        verify(ruleRepository, times(2)).findEnabledWithActions(projectId);
+        assertEquals(1.0, registry.counter("rule_plan_remote_invalidations_total").count());
+
+        listener.getValue().onMessage(RuleEngineService.INVALIDATION_TOPIC, "malformed");
+    }
+
+    @Test
+    void refreshAll_checksVersionsInOneQueryAndEvictsOnlyOutdated() {
+        UUID current = UUID.randomUUID();
+        UUID outdated = UUID.randomUUID();
+        when(versionRepository.find(current)).thenReturn(2L);
+        when(versionRepository.find(outdated)).thenReturn(1L);
+        service.planFor(current);
+        service.planFor(outdated);
+        when(versionRepository.findAll(anyCollection())).thenReturn(Map.of(current, 2L, outdated, 4L));
+
+        service.refreshAll();
+        service.planFor(current);
+        service.planFor(outdated);
+
+        verify(versionRepository, times(1)).findAll(anyCollection());
+        verify(ruleRepository, times(1)).findEnabledWithActions(current);
+        verify(ruleRepository, times(2)).findEnabledWithActions(outdated);
+        assertEquals(1.0, registry.counter("rule_plan_sweep_invalidations_total").count());
+    }
+
+    @Test
+    void warmUp_loadsBusiestProjectsInOneRulesQuery() {
+        UUID other = UUID.randomUUID();
+        when(versionRepository.findMostActiveProjectsWithRules(any(), eq(2))).thenReturn(List.of(projectId, other));
+        when(versionRepository.findAll(List.of(projectId, other))).thenReturn(Map.of(projectId, 9L));
+        when(ruleRepository.findEnabledWithActionsByProjectIds(List.of(projectId, other)))
+                .thenReturn(List.of(rule(projectId, "order.created"), rule(other, null)));
+        service = service(2);
+
+        service.warmUp();
+
+        assertEquals(9, service.planFor(projectId).getVersion());
+        assertEquals(1, service.planFor(projectId).getCandidates("order.created").size());
+        assertEquals(1, service.planFor(other).getCandidates("user.created").size());
+        verify(ruleRepository, never()).findEnabledWithActions(any());
+    }
+
+    @Test
+    void warmUp_disabledWithZeroProjects() {
+        service = service(0);
+        service.warmUp();
+        verifyNoInteractions(versionRepository, ruleRepository);
+    }
+}
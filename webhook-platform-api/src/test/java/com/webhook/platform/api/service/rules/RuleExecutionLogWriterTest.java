@@ -0,0 +1,121 @@
+package com.webhook.platform.api.service.rules;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RuleExecutionLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID projectId = UUID.randomUUID();
+
+    private RuleExecutionLogWriter writer(double sampleRate, int maxBatchRows, int maxBufferedRows) {
+        // Flusher thread not started: tests call flush() directly
+        return new RuleExecutionLogWriter(jdbcTemplate, meterRegistry, sampleRate, 500, maxBatchRows,
+                maxBufferedRows, 60);
+    }
+
+    @Test
+    void flush_writesBufferedRowsAsMultiRowInserts() {
+        RuleExecutionLogWriter writer = writer(1.0, 2, 100);
+        CompiledRule rule = rule(2);
+        for (int i = 0; i < 5; i++) {
+            writer.record(rule, projectId, UUID.randomUUID(), i % 2 == 0, 3_000_000);
+        }
+
+        writer.flush();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(3)).update(sql.capture(), args.capture());
+        assertThat(sql.getAllValues()).containsExactly(
+                RuleExecutionLogWriter.buildInsert(2), RuleExecutionLogWriter.buildInsert(2),
+                RuleExecutionLogWriter.buildInsert(1));
+        Object[] first = args.getAllValues().get(0);
+        assertThat(first).hasSize(14);
+        assertThat(first[0]).isEqualTo(rule.getRuleId());
+        assertThat(first[1]).isEqualTo(projectId);
+        assertThat(first[3]).isEqualTo(true);
+        assertThat(first[4]).isEqualTo(2);
+        assertThat(first[5]).isEqualTo(3);
+        assertThat(first[10]).isEqualTo(false);
+        assertThat(first[11]).isEqualTo(0);
+        assertThat(writer.bufferedRows()).isZero();
+    }
+
+    @Test
+    void buildInsert_hasOneValuesTuplePerRow() {
+        assertThat(RuleExecutionLogWriter.buildInsert(3)).isEqualTo(RuleExecutionLogWriter.INSERT_PREFIX +
+                "(?, ?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?, ?)");
+    }
+
+    @Test
+    void record_dropsRowsWhenBufferIsFull() {
+        RuleExecutionLogWriter writer = writer(1.0, 500, 3);
+        CompiledRule rule = rule(0);
+        for (int i = 0; i < 5; i++) {
+            writer.record(rule, projectId, UUID.randomUUID(), false, 1_000);
+        }
+
+        assertThat(writer.bufferedRows()).isEqualTo(3);
+        assertThat(meterRegistry.get("rule_engine_execution_log_dropped_total").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void record_countsEveryEvaluationInMetersEvenWhenRowsAreNotSampled() {
+        RuleExecutionLogWriter writer = writer(0.0, 500, 100);
+        CompiledRule rule = rule(1);
+        writer.record(rule, projectId, UUID.randomUUID(), true, 2_000_000);
+        writer.record(rule, projectId, UUID.randomUUID(), false, 1_000_000);
+        writer.record(rule, projectId, UUID.randomUUID(), false, 1_000_000);
+
+        writer.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+        String ruleId = rule.getRuleId().toString();
+        assertThat(meterRegistry.get("rule_engine_evaluations_total")
+                .tags("rule_id", ruleId, "matched", "true").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("rule_engine_evaluations_total")
+                .tags("rule_id", ruleId, "matched", "false").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("rule_engine_evaluation_duration")
+                .tag("rule_id", ruleId).timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void flush_dropsBatchWhenInsertFails() {
+        RuleExecutionLogWriter writer = writer(1.0, 500, 100);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new RuntimeException("db down"));
+        writer.record(rule(0), projectId, UUID.randomUUID(), false, 1_000);
+
+        assertThatCode(writer::flush).doesNotThrowAnyException();
+        assertThat(writer.bufferedRows()).isZero();
+        assertThat(meterRegistry.get("rule_engine_execution_log_flush_failures_total").counter().count())
+                .isEqualTo(1);
+    }
+
+    private static CompiledRule rule(int actions) {
+        return CompiledRule.builder()
+                .ruleId(UUID.randomUUID())
+                .name("rule")
+                .actions(Collections.nCopies(actions, CompiledRule.CompiledAction.builder().build()))
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.webhook.platform.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one delivery attempt, published by the worker to
+ * {@code deliveries.outcomes} (keyed by project id) for the alert engine.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeliveryOutcomeMessage {
+    private UUID deliveryId;
+    private UUID projectId;
+    private UUID endpointId;
+    /** Delivery status after the attempt: SUCCESS, PENDING (retry scheduled), FAILED or DLQ */
+    private String status;
+    private Integer latencyMs;
+    private Long occurredAtMs;
+}
@@ -0,0 +1,317 @@
+package com.webhook.platform.common.kafka;
+
+import com.webhook.platform.common.dto.DeliveryMessage;
+import com.webhook.platform.common.dto.IncomingForwardMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of the Kafka message DTOs.
+ *
+ * <h3>Layout</h3>
+ * <pre>
+ *   magic (0xB7) | layout version | message type | field mask (varint) | present fields, in field order
+ * </pre>
+ * UUIDs are 16 raw bytes, integers and longs zig-zag varints, booleans one byte and strings
+ * a varint length followed by UTF-8. A field is written only if its bit is set in the mask,
+ * so nulls cost nothing.
+ *
+ * <h3>Schema evolution</h3>
+ * Fields are append-only: a new field takes the next bit and is written after all existing
+ * ones. Older readers stop after the fields they know and ignore the rest; newer readers see
+ * the bit unset in older messages and leave the field null. Removing or reordering fields
+ * requires a new {@link #LAYOUT_VERSION}, which older readers reject.
+ *
+ * <h3>Why the magic byte</h3>
+ * 0xB7 is a UTF-8 continuation byte, so it can never start a JSON document. That is what lets
+ * {@link DualFormatDeserializer} read both formats during a rolling migration.
+ */
+public final class BinaryMessageCodec {
+
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final byte LAYOUT_VERSION = 1;
+
+    static final byte TYPE_DELIVERY = 1;
+    static final byte TYPE_INCOMING_FORWARD = 2;
+
+    private BinaryMessageCodec() {
+    }
+
+    public static boolean supports(Class<?> type) {
+        return type == DeliveryMessage.class || type == IncomingForwardMessage.class;
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(Object message) {
+        if (message instanceof DeliveryMessage delivery) {
+            return encodeDelivery(delivery);
+        }
+        if (message instanceof IncomingForwardMessage forward) {
+            return encodeIncomingForward(forward);
+        }
+        throw new IllegalArgumentException("No binary encoding for " +
+                (message == null ? "null" : message.getClass().getName()));
+    }
+
+    /**
+     * Decodes {@code data}, which must carry a message of {@code type}.
+     *
+     * @throws IllegalArgumentException on a foreign, truncated or newer-layout payload
+     */
+    public static <T> T decode(byte[] data, Class<T> type) {
+        Object decoded = decode(data);
+        if (!type.isInstance(decoded)) {
+            throw new IllegalArgumentException("Expected " + type.getSimpleName() + " but payload holds "
+                    + decoded.getClass().getSimpleName());
+        }
+        return type.cast(decoded);
+    }
+
+    public static Object decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary message (missing magic byte)");
+        }
+        Reader in = new Reader(data, 1);
+        byte version = in.readByte();
+        if (version > LAYOUT_VERSION) {
+            throw new IllegalArgumentException("Unsupported binary layout version " + version
+                    + " (this reader knows up to " + LAYOUT_VERSION + ")");
+        }
+        byte type = in.readByte();
+        return switch (type) {
+            case TYPE_DELIVERY -> decodeDelivery(in);
+            case TYPE_INCOMING_FORWARD -> decodeIncomingForward(in);
+            default -> throw new IllegalArgumentException("Unknown binary message type " + type);
+        };
+    }
+
+    // DeliveryMessage field bits: append new fields at the end, never reuse a bit
+
+    private static final int D_DELIVERY_ID = 0;
+    private static final int D_EVENT_ID = 1;
+    private static final int D_ENDPOINT_ID = 2;
+    private static final int D_SUBSCRIPTION_ID = 3;
+    private static final int D_STATUS = 4;
+    private static final int D_ATTEMPT_COUNT = 5;
+    private static final int D_SEQUENCE_NUMBER = 6;
+    private static final int D_ORDERING_ENABLED = 7;
+
+    private static byte[] encodeDelivery(DeliveryMessage m) {
+        long mask = bit(D_DELIVERY_ID, m.getDeliveryId())
+                | bit(D_EVENT_ID, m.getEventId())
+                | bit(D_ENDPOINT_ID, m.getEndpointId())
+                | bit(D_SUBSCRIPTION_ID, m.getSubscriptionId())
+                | bit(D_STATUS, m.getStatus())
+                | bit(D_ATTEMPT_COUNT, m.getAttemptCount())
+                | bit(D_SEQUENCE_NUMBER, m.getSequenceNumber())
+                | bit(D_ORDERING_ENABLED, m.getOrderingEnabled());
+
+        Writer out = new Writer(3 + 1 + 4 * 16 + 24);
+        out.writeHeader(TYPE_DELIVERY, mask);
+        if (m.getDeliveryId() != null) out.writeUuid(m.getDeliveryId());
+        if (m.getEventId() != null) out.writeUuid(m.getEventId());
+        if (m.getEndpointId() != null) out.writeUuid(m.getEndpointId());
+        if (m.getSubscriptionId() != null) out.writeUuid(m.getSubscriptionId());
+        if (m.getStatus() != null) out.writeString(m.getStatus());
+        if (m.getAttemptCount() != null) out.writeZigZag(m.getAttemptCount());
+        if (m.getSequenceNumber() != null) out.writeZigZag(m.getSequenceNumber());
+        if (m.getOrderingEnabled() != null) out.writeBoolean(m.getOrderingEnabled());
+        return out.toByteArray();
+    }
+
+    private static DeliveryMessage decodeDelivery(Reader in) {
+        long mask = in.readVarLong();
+        DeliveryMessage m = new DeliveryMessage();
+        if (has(mask, D_DELIVERY_ID)) m.setDeliveryId(in.readUuid());
+        if (has(mask, D_EVENT_ID)) m.setEventId(in.readUuid());
+        if (has(mask, D_ENDPOINT_ID)) m.setEndpointId(in.readUuid());
+        if (has(mask, D_SUBSCRIPTION_ID)) m.setSubscriptionId(in.readUuid());
+        if (has(mask, D_STATUS)) m.setStatus(in.readString());
+        if (has(mask, D_ATTEMPT_COUNT)) m.setAttemptCount((int) in.readZigZag());
+        if (has(mask, D_SEQUENCE_NUMBER)) m.setSequenceNumber(in.readZigZag());
+        if (has(mask, D_ORDERING_ENABLED)) m.setOrderingEnabled(in.readBoolean());
+        return m;
+    }
+
+    // IncomingForwardMessage field bits
+
+    private static final int F_INCOMING_EVENT_ID = 0;
+    private static final int F_DESTINATION_ID = 1;
+    private static final int F_INCOMING_SOURCE_ID = 2;
+    private static final int F_ATTEMPT_COUNT = 3;
+    private static final int F_REPLAY = 4;
+
+    private static byte[] encodeIncomingForward(IncomingForwardMessage m) {
+        long mask = bit(F_INCOMING_EVENT_ID, m.getIncomingEventId())
+                | bit(F_DESTINATION_ID, m.getDestinationId())
+                | bit(F_INCOMING_SOURCE_ID, m.getIncomingSourceId())
+                | bit(F_ATTEMPT_COUNT, m.getAttemptCount())
+                | 1L << F_REPLAY;
+
+        Writer out = new Writer(3 + 1 + 3 * 16 + 8);
+        out.writeHeader(TYPE_INCOMING_FORWARD, mask);
+        if (m.getIncomingEventId() != null) out.writeUuid(m.getIncomingEventId());
+        if (m.getDestinationId() != null) out.writeUuid(m.getDestinationId());
+        if (m.getIncomingSourceId() != null) out.writeUuid(m.getIncomingSourceId());
+        if (m.getAttemptCount() != null) out.writeZigZag(m.getAttemptCount());
+        out.writeBoolean(m.isReplay());
+        return out.toByteArray();
+    }
+
+    private static IncomingForwardMessage decodeIncomingForward(Reader in) {
+        long mask = in.readVarLong();
+        IncomingForwardMessage m = new IncomingForwardMessage();
+        if (has(mask, F_INCOMING_EVENT_ID)) m.setIncomingEventId(in.readUuid());
+        if (has(mask, F_DESTINATION_ID)) m.setDestinationId(in.readUuid());
+        if (has(mask, F_INCOMING_SOURCE_ID)) m.setIncomingSourceId(in.readUuid());
+        if (has(mask, F_ATTEMPT_COUNT)) m.setAttemptCount((int) in.readZigZag());
+        if (has(mask, F_REPLAY)) m.setReplay(in.readBoolean());
+        return m;
+    }
+
+    private static long bit(int index, Object value) {
+        return value == null ? 0L : 1L << index;
+    }
+
+    private static boolean has(long mask, int index) {
+        return (mask & (1L << index)) != 0;
+    }
+
+    static final class Writer {
+        private byte[] buf;
+        private int pos;
+
+        Writer(int initialCapacity) {
+            this.buf = new byte[initialCapacity];
+        }
+
+        void writeHeader(byte type, long mask) {
+            writeByte(MAGIC);
+            writeByte(LAYOUT_VERSION);
+            writeByte(type);
+            writeVarLong(mask);
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeBoolean(boolean value) {
+            writeByte(value ? 1 : 0);
+        }
+
+        void writeUuid(UUID value) {
+            writeLong(value.getMostSignificantBits());
+            writeLong(value.getLeastSignificantBits());
+        }
+
+        private void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[pos++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return pos == buf.length ? buf : Arrays.copyOf(buf, pos);
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+    }
+
+    static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf, int pos) {
+            this.buf = buf;
+            this.pos = pos;
+        }
+
+        byte readByte() {
+            require(1);
+            return buf[pos++];
+        }
+
+        boolean readBoolean() {
+            return readByte() != 0;
+        }
+
+        UUID readUuid() {
+            return new UUID(readLong(), readLong());
+        }
+
+        private long readLong() {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buf[pos++] & 0xFF);
+            }
+            return value;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        long readZigZag() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length < 0 || length > buf.length - pos) {
+                throw new IllegalArgumentException("String length " + length + " exceeds payload");
+            }
+            String value = new String(buf, pos, (int) length, StandardCharsets.UTF_8);
+            pos += (int) length;
+            return value;
+        }
+
+        private void require(int n) {
+            if (pos + n > buf.length) {
+                throw new IllegalArgumentException("Truncated binary message");
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.webhook.platform.common.kafka;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Kafka value serializer that writes {@link BinaryMessageCodec} payloads when
+ * {@link #FORMAT_CONFIG} is {@code binary} and Spring JSON otherwise.
+ * Types the codec does not know are always written as JSON, so one producer factory
+ * can keep serving mixed payloads.
+ * <p>
+ * Consumers must run {@link DualFormatDeserializer} before any producer is switched to
+ * {@code binary}; switching back to {@code json} is always safe.
+ */
+public class CompactMessageSerializer<T> implements Serializer<T> {
+
+    public static final String FORMAT_CONFIG = "webhook.kafka.value-format";
+    public static final String FORMAT_JSON = "json";
+    public static final String FORMAT_BINARY = "binary";
+
+    private final JsonSerializer<T> json = new JsonSerializer<>();
+    private boolean binary;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+        Object format = configs.get(FORMAT_CONFIG);
+        binary = format != null && FORMAT_BINARY.equalsIgnoreCase(format.toString());
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        if (binary && data != null && BinaryMessageCodec.supports(data.getClass())) {
+            return BinaryMessageCodec.encode(data);
+        }
+        return json.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        if (binary && data != null && BinaryMessageCodec.supports(data.getClass())) {
+            // No __TypeId__ headers: the layout carries its own message type
+            return BinaryMessageCodec.encode(data);
+        }
+        return json.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
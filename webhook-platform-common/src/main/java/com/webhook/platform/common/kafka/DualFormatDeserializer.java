@@ -0,0 +1,71 @@
+package com.webhook.platform.common.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Kafka value deserializer that accepts both {@link BinaryMessageCodec} payloads and Spring
+ * JSON, told apart by the leading magic byte. JSON settings ({@code spring.json.*}) are passed
+ * through to the wrapped {@link JsonDeserializer} unchanged.
+ * <p>
+ * This is what lets producers move between formats independently of consumers: deploy it on
+ * every consumer first, then flip {@link CompactMessageSerializer#FORMAT_CONFIG} on producers.
+ */
+public class DualFormatDeserializer<T> implements Deserializer<T> {
+
+    private final JsonDeserializer<T> json = new JsonDeserializer<>();
+    private Class<T> valueType;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+        Object defaultType = configs.get(JsonDeserializer.VALUE_DEFAULT_TYPE);
+        if (defaultType instanceof Class<?> type) {
+            valueType = (Class<T>) type;
+        } else if (defaultType != null) {
+            try {
+                valueType = (Class<T>) Class.forName(defaultType.toString(), true,
+                        Thread.currentThread().getContextClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Unknown " + JsonDeserializer.VALUE_DEFAULT_TYPE + ": " + defaultType, e);
+            }
+        }
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (BinaryMessageCodec.isBinary(data)) {
+            return decodeBinary(topic, data);
+        }
+        return json.deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (BinaryMessageCodec.isBinary(data)) {
+            return decodeBinary(topic, data);
+        }
+        return json.deserialize(topic, headers, data);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T decodeBinary(String topic, byte[] data) {
+        try {
+            return valueType != null
+                    ? BinaryMessageCodec.decode(data, valueType)
+                    : (T) BinaryMessageCodec.decode(data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot decode binary message from " + topic + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
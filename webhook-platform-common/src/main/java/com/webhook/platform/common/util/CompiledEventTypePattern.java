@@ -0,0 +1,113 @@
+package com.webhook.platform.common.util;
+
+import java.util.Objects;
+
+/**
+ * An event type pattern parsed once, matching with the same semantics as
+ * {@link EventTypeMatcher#matches(String, String)}.
+ * <p>
+ * The pattern is split into literal, {@code *} and {@code **} segments at
+ * {@link #compile} time. {@link #matches} walks the event type by character offset
+ * and backtracks only to the most recent {@code **}, so a check allocates nothing and
+ * never recurses. Instances are immutable and thread-safe.
+ */
+public final class CompiledEventTypePattern {
+
+    static final byte LITERAL = 0;
+    static final byte STAR = 1;
+    static final byte GLOBSTAR = 2;
+
+    private final String pattern;
+    private final String[] segments;
+    private final byte[] kinds;
+    private final int globstars;
+
+    private CompiledEventTypePattern(String pattern) {
+        this.pattern = pattern;
+        this.segments = pattern.split("\\.");
+        this.kinds = new byte[segments.length];
+        int count = 0;
+        for (int i = 0; i < segments.length; i++) {
+            if ("**".equals(segments[i])) {
+                kinds[i] = GLOBSTAR;
+                count++;
+            } else if ("*".equals(segments[i])) {
+                kinds[i] = STAR;
+            }
+        }
+        this.globstars = count;
+    }
+
+    public static CompiledEventTypePattern compile(String pattern) {
+        return new CompiledEventTypePattern(Objects.requireNonNull(pattern, "pattern"));
+    }
+
+    /**
+     * Returns {@code true} if the concrete {@code eventType} matches this pattern.
+     */
+    public boolean matches(String eventType) {
+        if (eventType == null) {
+            return false;
+        }
+        int limit = EventTypeSegments.limit(eventType);
+        int e = EventTypeSegments.first(eventType, limit);
+        int p = 0;
+        int resumeP = -1;
+        int resumeE = -1;
+        while (e <= limit) {
+            if (p < segments.length) {
+                if (kinds[p] == GLOBSTAR) {
+                    resumeP = ++p;
+                    resumeE = e;
+                    continue;
+                }
+                int end = EventTypeSegments.end(eventType, e, limit);
+                if (kinds[p] == STAR || EventTypeSegments.regionEquals(
+                        segments[p], 0, segments[p].length(), eventType, e, end)) {
+                    p++;
+                    e = end + 1;
+                    continue;
+                }
+            }
+            if (resumeP < 0) {
+                return false;
+            }
+            resumeE = EventTypeSegments.end(eventType, resumeE, limit) + 1;
+            p = resumeP;
+            e = resumeE;
+        }
+        while (p < segments.length && kinds[p] == GLOBSTAR) {
+            p++;
+        }
+        return p == segments.length;
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    public boolean isWildcard() {
+        return EventTypeMatcher.isWildcard(pattern);
+    }
+
+    int segmentCount() {
+        return segments.length;
+    }
+
+    String segment(int index) {
+        return segments[index];
+    }
+
+    byte kind(int index) {
+        return kinds[index];
+    }
+
+    int globstarCount() {
+        return globstars;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -1,5 +1,8 @@
 package com.webhook.platform.common.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
@@ -11,6 +14,7 @@ import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.security.spec.KeySpec;
 import java.util.Base64;
+import java.util.HexFormat;
 
 public class CryptoUtils {
 
@@ -21,6 +25,17 @@ public class CryptoUtils {
     private static final int PBKDF2_ITERATIONS = 65536;
     private static final int AES_KEY_LENGTH_BITS = 256;
 
+    /**
+     * Derived AES keys keyed by (SHA-256 of master key, salt).
+     * PBKDF2 with 65k iterations costs milliseconds per call; the inputs only
+     * change on key rotation, so a handful of entries covers every deployment.
+     */
+    private static final Cache<KeyMaterialId, SecretKey> DERIVED_KEYS = Caffeine.newBuilder()
+            .maximumSize(16)
+            .build();
+
+    private record KeyMaterialId(String masterKeyDigest, String salt) {}
+
     public static String hashApiKey(String apiKey) {
         try {
             MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
@@ -37,7 +52,7 @@ public class CryptoUtils {
             SecureRandom random = new SecureRandom();
             random.nextBytes(iv);
 
-            SecretKey key = deriveKey(masterKey, salt);
+            SecretKey key = getDerivedKey(masterKey, salt);
             Cipher cipher = Cipher.getInstance(AES_ALGORITHM);
             GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
             cipher.init(Cipher.ENCRYPT_MODE, key, spec);
@@ -54,11 +69,14 @@ public class CryptoUtils {
     }
 
     public static String decryptSecret(String ciphertext, String iv, String masterKey, String salt) {
+        return decryptSecret(ciphertext, iv, getDerivedKey(masterKey, salt));
+    }
+
+    public static String decryptSecret(String ciphertext, String iv, SecretKey key) {
         try {
             byte[] ciphertextBytes = Base64.getDecoder().decode(ciphertext);
             byte[] ivBytes = Base64.getDecoder().decode(iv);
 
-            SecretKey key = deriveKey(masterKey, salt);
             Cipher cipher = Cipher.getInstance(AES_ALGORITHM);
             GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, ivBytes);
             cipher.init(Cipher.DECRYPT_MODE, key, spec);
@@ -77,6 +95,37 @@ public class CryptoUtils {
         return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
+    /**
+     * Returns the AES key for the given master key and salt, deriving it with
+     * PBKDF2 only on first use. The returned key is immutable and thread-safe.
+     */
+    public static SecretKey getDerivedKey(String masterKey, String salt) {
+        KeyMaterialId id = new KeyMaterialId(sha256Hex(masterKey), salt);
+        return DERIVED_KEYS.get(id, ignored -> {
+            try {
+                return deriveKey(masterKey, salt);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to derive encryption key", e);
+            }
+        });
+    }
+
+    /**
+     * Drops all cached derived keys (e.g. after master key rotation).
+     */
+    public static void clearDerivedKeyCache() {
+        DERIVED_KEYS.invalidateAll();
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to hash key material", e);
+        }
+    }
+
     private static SecretKey deriveKey(String masterKey, String salt) throws Exception {
         SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
         KeySpec spec = new PBEKeySpec(masterKey.toCharArray(), salt.getBytes(StandardCharsets.UTF_8), PBKDF2_ITERATIONS, AES_KEY_LENGTH_BITS);
@@ -0,0 +1,91 @@
+package com.webhook.platform.common.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicting cache of decrypted secrets keyed by (entity id, updatedAt).
+ * <p>
+ * An entry is only served while the entity's {@code updatedAt} matches the version
+ * it was decrypted from, so a secret rotation is picked up on the next lookup
+ * without an explicit invalidation. {@link #invalidate(UUID)} and
+ * {@link #invalidateAll()} are available for callers that learn about changes
+ * out of band.
+ */
+public class DecryptedSecretCache implements MeterBinder {
+
+    private final String name;
+    private final Cache<UUID, Entry> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private record Entry(Instant updatedAt, String plaintext) {}
+
+    public DecryptedSecretCache(String name, long maximumSize, Duration ttl) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Returns the cached plaintext for the given entity version, or runs
+     * {@code decryptor} and caches its result.
+     */
+    public String get(UUID entityId, Instant updatedAt, Supplier<String> decryptor) {
+        Entry entry = cache.getIfPresent(entityId);
+        if (entry != null && Objects.equals(entry.updatedAt(), updatedAt)) {
+            hits.increment();
+            return entry.plaintext();
+        }
+        misses.increment();
+        String plaintext = decryptor.get();
+        cache.put(entityId, new Entry(updatedAt, plaintext));
+        return plaintext;
+    }
+
+    public void invalidate(UUID entityId) {
+        cache.invalidate(entityId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("secret_cache_requests_total", this, DecryptedSecretCache::hitCount)
+                .tag("cache", name).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("secret_cache_requests_total", this, DecryptedSecretCache::missCount)
+                .tag("cache", name).tag("result", "miss")
+                .register(registry);
+        Gauge.builder("secret_cache_size", this, DecryptedSecretCache::size)
+                .tag("cache", name)
+                .register(registry);
+    }
+}
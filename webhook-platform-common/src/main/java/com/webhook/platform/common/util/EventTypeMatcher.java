@@ -11,6 +11,8 @@ package com.webhook.platform.common.util;
  *   <li>{@code *} — matches any single-segment event type</li>
  *   <li>{@code **} — catch-all, matches everything</li>
  * </ul>
+ * Patterns checked repeatedly against many event types should be compiled once with
+ * {@link CompiledEventTypePattern}, or grouped into an {@link EventTypePatternSet}.
  */
 public final class EventTypeMatcher {
 
@@ -34,46 +36,48 @@ public final class EventTypeMatcher {
             return true;
         }
 
-        String[] patternParts = pattern.split("\\.");
-        String[] eventParts = eventType.split("\\.");
-
-        return matchParts(patternParts, 0, eventParts, 0);
-    }
-
-    private static boolean matchParts(String[] pattern, int pi, String[] event, int ei) {
-        while (pi < pattern.length && ei < event.length) {
-            String seg = pattern[pi];
-            if ("**".equals(seg)) {
-                // ** at the end matches everything remaining
-                if (pi == pattern.length - 1) {
-                    return true;
+        // Glob walk over both strings by offset: no split, no recursion. On a mismatch the
+        // most recent ** absorbs one more event segment and matching resumes right after it.
+        int patternLimit = EventTypeSegments.limit(pattern);
+        int eventLimit = EventTypeSegments.limit(eventType);
+        int p = EventTypeSegments.first(pattern, patternLimit);
+        int e = EventTypeSegments.first(eventType, eventLimit);
+        int resumeP = -1;
+        int resumeE = -1;
+        while (e <= eventLimit) {
+            if (p <= patternLimit) {
+                int patternEnd = EventTypeSegments.end(pattern, p, patternLimit);
+                if (EventTypeSegments.isGlobstar(pattern, p, patternEnd)) {
+                    p = patternEnd + 1;
+                    resumeP = p;
+                    resumeE = e;
+                    continue;
                 }
-                // try matching ** against 0..N remaining event segments
-                for (int skip = ei; skip <= event.length; skip++) {
-                    if (matchParts(pattern, pi + 1, event, skip)) {
-                        return true;
-                    }
+                int eventEnd = EventTypeSegments.end(eventType, e, eventLimit);
+                if (EventTypeSegments.isStar(pattern, p, patternEnd)
+                        || EventTypeSegments.regionEquals(pattern, p, patternEnd, eventType, e, eventEnd)) {
+                    p = patternEnd + 1;
+                    e = eventEnd + 1;
+                    continue;
                 }
+            }
+            if (resumeP < 0) {
                 return false;
-            } else if ("*".equals(seg)) {
-                // single-segment wildcard — matches exactly one segment
-                pi++;
-                ei++;
-            } else {
-                if (!seg.equals(event[ei])) {
-                    return false;
-                }
-                pi++;
-                ei++;
             }
+            resumeE = EventTypeSegments.end(eventType, resumeE, eventLimit) + 1;
+            p = resumeP;
+            e = resumeE;
         }
 
         // skip trailing ** patterns
-        while (pi < pattern.length && "**".equals(pattern[pi])) {
-            pi++;
+        while (p <= patternLimit) {
+            int patternEnd = EventTypeSegments.end(pattern, p, patternLimit);
+            if (!EventTypeSegments.isGlobstar(pattern, p, patternEnd)) {
+                return false;
+            }
+            p = patternEnd + 1;
         }
-
-        return pi == pattern.length && ei == event.length;
+        return true;
     }
 
     /**
@@ -0,0 +1,253 @@
+package com.webhook.platform.common.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * A set of event type patterns compiled into one segment trie, matching with the same
+ * semantics as {@link EventTypeMatcher#matches(String, String)}.
+ * <p>
+ * {@link #add} returns a dense id per pattern (0, 1, 2, ...) that callers use to index
+ * their own subscriptions or rules. Literal segments become children looked up in a
+ * per-node open-addressing table, {@code *} and {@code **} become dedicated edges.
+ * {@link #forEachMatch} walks the concrete event type once by character offset: child
+ * lookups hash and compare the segment in place, so matching N patterns allocates nothing.
+ *
+ * <h3>Several {@code **}</h3>
+ * A pattern with at most one {@code **} reaches its trie node at most once for a given
+ * event type. Patterns with several (e.g. {@code **.a.**}) could reach it along several
+ * paths, so they are kept out of the trie and checked one by one as
+ * {@link CompiledEventTypePattern}s instead; each id is reported at most once per call.
+ *
+ * <h3>Threading</h3>
+ * Build the set on one thread, then publish it safely; concurrent matching on an
+ * unmodified set is safe.
+ */
+public final class EventTypePatternSet {
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final Node root = new Node();
+    private final List<String> patterns = new ArrayList<>();
+    private CompiledEventTypePattern[] scanned = new CompiledEventTypePattern[0];
+    private int[] scannedIds = NO_IDS;
+
+    /**
+     * Adds a pattern and returns its id. A {@code null} pattern takes an id but never matches.
+     */
+    public int add(String pattern) {
+        int id = patterns.size();
+        patterns.add(pattern);
+        if (pattern == null) {
+            return id;
+        }
+        CompiledEventTypePattern compiled = CompiledEventTypePattern.compile(pattern);
+        if (compiled.globstarCount() > 1) {
+            scanned = Arrays.copyOf(scanned, scanned.length + 1);
+            scanned[scanned.length - 1] = compiled;
+            scannedIds = Arrays.copyOf(scannedIds, scannedIds.length + 1);
+            scannedIds[scannedIds.length - 1] = id;
+            return id;
+        }
+        Node node = root;
+        for (int i = 0; i < compiled.segmentCount(); i++) {
+            switch (compiled.kind(i)) {
+                case CompiledEventTypePattern.GLOBSTAR -> {
+                    if (node.globstar == null) {
+                        node.globstar = new Node();
+                    }
+                    node = node.globstar;
+                }
+                case CompiledEventTypePattern.STAR -> {
+                    if (node.star == null) {
+                        node.star = new Node();
+                    }
+                    node = node.star;
+                }
+                default -> node = node.childOrCreate(compiled.segment(i));
+            }
+        }
+        node.addId(id);
+        return id;
+    }
+
+    public int size() {
+        return patterns.size();
+    }
+
+    public boolean isEmpty() {
+        return patterns.isEmpty();
+    }
+
+    public String pattern(int id) {
+        return patterns.get(id);
+    }
+
+    /**
+     * Reports the id of every pattern matching {@code eventType} to {@code action}, once
+     * each, in no particular order.
+     */
+    public void forEachMatch(String eventType, IntConsumer action) {
+        if (eventType == null || patterns.isEmpty()) {
+            return;
+        }
+        int limit = EventTypeSegments.limit(eventType);
+        walk(root, eventType, EventTypeSegments.first(eventType, limit), limit, action);
+        for (int i = 0; i < scanned.length; i++) {
+            if (scanned[i].matches(eventType)) {
+                action.accept(scannedIds[i]);
+            }
+        }
+    }
+
+    /**
+     * Ids of every pattern matching {@code eventType}, in ascending order.
+     */
+    public int[] match(String eventType) {
+        IdCollector collector = new IdCollector();
+        forEachMatch(eventType, collector);
+        return collector.sorted();
+    }
+
+    /**
+     * @param pos start of the next unconsumed segment; {@code > limit} once all are consumed
+     */
+    private static void walk(Node node, String eventType, int pos, int limit, IntConsumer action) {
+        if (node.globstar != null) {
+            walkGlobstar(node.globstar, eventType, pos, limit, action);
+        }
+        if (pos > limit) {
+            for (int i = 0; i < node.idCount; i++) {
+                action.accept(node.ids[i]);
+            }
+            return;
+        }
+        int end = EventTypeSegments.end(eventType, pos, limit);
+        Node literal = node.child(eventType, pos, end);
+        if (literal != null) {
+            walk(literal, eventType, end + 1, limit, action);
+        }
+        if (node.star != null) {
+            walk(node.star, eventType, end + 1, limit, action);
+        }
+    }
+
+    /** {@code **} consumes zero or more segments, then matching continues below it. */
+    private static void walkGlobstar(Node globstar, String eventType, int pos, int limit, IntConsumer action) {
+        while (true) {
+            walk(globstar, eventType, pos, limit, action);
+            if (pos > limit) {
+                return;
+            }
+            pos = EventTypeSegments.end(eventType, pos, limit) + 1;
+        }
+    }
+
+    private static final class IdCollector implements IntConsumer {
+        private int[] ids = NO_IDS;
+        private int count;
+
+        @Override
+        public void accept(int id) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(4, count * 2));
+            }
+            ids[count++] = id;
+        }
+
+        int[] sorted() {
+            if (count == 0) {
+                return NO_IDS;
+            }
+            int[] result = Arrays.copyOf(ids, count);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
+    private static final class Node {
+        /** Open-addressing table of literal children; length is a power of two. */
+        private String[] keys;
+        private Node[] children;
+        private int childCount;
+
+        private Node star;
+        private Node globstar;
+
+        private int[] ids;
+        private int idCount;
+
+        Node child(String s, int start, int end) {
+            if (keys == null) {
+                return null;
+            }
+            int len = end - start;
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + s.charAt(i);
+            }
+            int mask = keys.length - 1;
+            for (int i = spread(h) & mask; keys[i] != null; i = (i + 1) & mask) {
+                String key = keys[i];
+                if (key.length() == len && s.regionMatches(start, key, 0, len)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(String segment) {
+            Node existing = child(segment, 0, segment.length());
+            if (existing != null) {
+                return existing;
+            }
+            if (keys == null || (childCount + 1) * 4 > keys.length * 3) {
+                resize();
+            }
+            Node created = new Node();
+            insert(keys, children, segment, created);
+            childCount++;
+            return created;
+        }
+
+        private void resize() {
+            int capacity = keys == null ? 4 : keys.length * 2;
+            String[] newKeys = new String[capacity];
+            Node[] newChildren = new Node[capacity];
+            if (keys != null) {
+                for (int i = 0; i < keys.length; i++) {
+                    if (keys[i] != null) {
+                        insert(newKeys, newChildren, keys[i], children[i]);
+                    }
+                }
+            }
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        private static void insert(String[] keys, Node[] children, String key, Node child) {
+            int mask = keys.length - 1;
+            int i = spread(key.hashCode()) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            children[i] = child;
+        }
+
+        private static int spread(int h) {
+            return h ^ (h >>> 16);
+        }
+
+        void addId(int id) {
+            if (ids == null) {
+                ids = new int[1];
+            } else if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, idCount * 2);
+            }
+            ids[idCount++] = id;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.webhook.platform.common.util;
+
+/**
+ * Walks the {@code .}-separated segments of an event type by character offset, with the
+ * same segmentation as {@code eventType.split("\\.")}: empty segments in the middle are
+ * kept, trailing ones are dropped, and a string without dots is one segment (even if empty).
+ * <p>
+ * A cursor is the start offset of the next unconsumed segment. It is exhausted once it is
+ * past {@link #limit}.
+ */
+final class EventTypeSegments {
+
+    private EventTypeSegments() {
+    }
+
+    /**
+     * End of the last segment: the length of {@code s} with trailing dots removed.
+     */
+    static int limit(String s) {
+        int limit = s.length();
+        if (s.indexOf('.') < 0) {
+            return limit;
+        }
+        while (limit > 0 && s.charAt(limit - 1) == '.') {
+            limit--;
+        }
+        return limit;
+    }
+
+    /**
+     * Cursor at the first segment, or an exhausted one when {@code s} consists only of dots.
+     */
+    static int first(String s, int limit) {
+        return limit == 0 && !s.isEmpty() ? 1 : 0;
+    }
+
+    /**
+     * End offset (exclusive) of the segment starting at {@code pos}; the next one starts one past it.
+     */
+    static int end(String s, int pos, int limit) {
+        int dot = s.indexOf('.', pos);
+        return dot < 0 || dot >= limit ? limit : dot;
+    }
+
+    static boolean isStar(String s, int start, int end) {
+        return end - start == 1 && s.charAt(start) == '*';
+    }
+
+    static boolean isGlobstar(String s, int start, int end) {
+        return end - start == 2 && s.charAt(start) == '*' && s.charAt(start + 1) == '*';
+    }
+
+    static boolean regionEquals(String a, int aStart, int aEnd, String b, int bStart, int bEnd) {
+        int len = aEnd - aStart;
+        return len == bEnd - bStart && a.regionMatches(aStart, b, bStart, len);
+    }
+}
@@ -0,0 +1,90 @@
+package com.webhook.platform.common.util;
+
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+
+/**
+ * Mergeable, serializable histogram of delivery latencies in milliseconds, backed by an
+ * HdrHistogram with {@value #SIGNIFICANT_DIGITS} significant digits.
+ *
+ * <h3>Accuracy</h3>
+ * Every value is recorded into a bucket no wider than 1% of its value (values below 256 ms
+ * are exact). {@link #valueAt(double)} returns the upper bound of the bucket that holds the
+ * nearest-rank quantile, so for any quantile and any mix of merged histograms the result
+ * {@code v} satisfies {@code exact <= v <= exact * 1.01}, where {@code exact} is the
+ * nearest-rank quantile of all recorded values. Merging is lossless: merging two
+ * histograms gives exactly the histogram of both inputs. Latencies above
+ * {@value #MAX_TRACKABLE_MS} ms are recorded as {@value #MAX_TRACKABLE_MS}.
+ *
+ * <h3>Size</h3>
+ * {@link #toBytes()} writes the compressed HdrHistogram encoding; a typical
+ * minute of one endpoint takes well under a kilobyte.
+ *
+ * <p>Not thread-safe.</p>
+ */
+public final class LatencyHistogram {
+
+    public static final int SIGNIFICANT_DIGITS = 2;
+    public static final long MAX_TRACKABLE_MS = 3_600_000L;
+
+    private final Histogram histogram;
+
+    public LatencyHistogram() {
+        this(new Histogram(MAX_TRACKABLE_MS, SIGNIFICANT_DIGITS));
+    }
+
+    private LatencyHistogram(Histogram histogram) {
+        this.histogram = histogram;
+    }
+
+    public void record(long latencyMs) {
+        histogram.recordValue(Math.max(0, Math.min(latencyMs, MAX_TRACKABLE_MS)));
+    }
+
+    /**
+     * Adds all values of {@code other} to this histogram.
+     */
+    public LatencyHistogram merge(LatencyHistogram other) {
+        histogram.add(other.histogram);
+        return this;
+    }
+
+    public long count() {
+        return histogram.getTotalCount();
+    }
+
+    /**
+     * @param quantile in {@code [0, 1]}; {@code 1.0} gives the maximum
+     * @return the latency at that quantile, or 0 if nothing was recorded
+     */
+    public long valueAt(double quantile) {
+        if (histogram.getTotalCount() == 0) {
+            return 0;
+        }
+        if (quantile >= 1.0) {
+            return histogram.getMaxValue();
+        }
+        return histogram.getValueAtPercentile(quantile * 100.0);
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer, Deflater.BEST_SPEED);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    public static LatencyHistogram fromBytes(byte[] bytes) {
+        try {
+            return new LatencyHistogram(Histogram.decodeFromCompressedByteBuffer(
+                    ByteBuffer.wrap(bytes), MAX_TRACKABLE_MS));
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid latency histogram encoding", e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.webhook.platform.common.benchmark;
+
+import com.webhook.platform.common.util.CompiledEventTypePattern;
+import com.webhook.platform.common.util.EventTypeMatcher;
+import com.webhook.platform.common.util.EventTypePatternSet;
+import com.webhook.platform.common.util.LegacyEventTypeMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routing one event type against 1k subscription patterns.
+ * <ul>
+ *   <li>{@code legacyLinearScan} – the original split-and-recurse matcher over every subscription</li>
+ *   <li>{@code linearScan} – {@link EventTypeMatcher#matches} (offset walk, no split) over every subscription</li>
+ *   <li>{@code compiledLinearScan} – one {@link CompiledEventTypePattern} per subscription</li>
+ *   <li>{@code patternSet} – all patterns in one {@link EventTypePatternSet}, a single walk per event type</li>
+ * </ul>
+ * Patterns mix 70% exact types, 15% {@code domain.*}, 10% {@code domain.**} / {@code domain.**.verb}
+ * and 5% {@code *.verb}. Run {@link #main} from the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventTypeRoutingBenchmark {
+
+    private static final String[] DOMAINS = {
+            "order", "user", "invoice", "payment", "shipment", "refund", "customer", "product",
+            "cart", "coupon", "subscription", "account", "session", "review", "inventory", "ticket"
+    };
+    private static final String[] VERBS = { "created", "updated", "deleted", "completed", "failed", "archived" };
+
+    @Param({ "1000" })
+    public int subscriptions;
+
+    private List<String> patterns;
+    private CompiledEventTypePattern[] compiled;
+    private EventTypePatternSet patternSet;
+    private String[] eventTypes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        patterns = new ArrayList<>(subscriptions);
+        compiled = new CompiledEventTypePattern[subscriptions];
+        patternSet = new EventTypePatternSet();
+        for (int i = 0; i < subscriptions; i++) {
+            String domain = DOMAINS[random.nextInt(DOMAINS.length)] + (i % 8 == 0 ? "_" + i : "");
+            String verb = VERBS[random.nextInt(VERBS.length)];
+            int kind = random.nextInt(100);
+            String pattern;
+            if (kind < 70) {
+                pattern = random.nextBoolean() ? domain + "." + verb : domain + ".line." + verb;
+            } else if (kind < 85) {
+                pattern = domain + ".*";
+            } else if (kind < 95) {
+                pattern = random.nextBoolean() ? domain + ".**" : domain + ".**." + verb;
+            } else {
+                pattern = "*." + verb;
+            }
+            patterns.add(pattern);
+            compiled[i] = CompiledEventTypePattern.compile(pattern);
+            patternSet.add(pattern);
+        }
+        eventTypes = new String[256];
+        for (int i = 0; i < eventTypes.length; i++) {
+            String domain = DOMAINS[random.nextInt(DOMAINS.length)];
+            String verb = VERBS[random.nextInt(VERBS.length)];
+            eventTypes[i] = random.nextInt(4) == 0 ? domain + ".line." + verb : domain + "." + verb;
+        }
+    }
+
+    private String nextEventType() {
+        return eventTypes[next++ & (eventTypes.length - 1)];
+    }
+
+    @Benchmark
+    public void legacyLinearScan(Blackhole bh) {
+        String eventType = nextEventType();
+        int matched = 0;
+        for (String pattern : patterns) {
+            if (LegacyEventTypeMatcher.matches(pattern, eventType)) {
+                matched++;
+            }
+        }
+        bh.consume(matched);
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole bh) {
+        String eventType = nextEventType();
+        int matched = 0;
+        for (String pattern : patterns) {
+            if (EventTypeMatcher.matches(pattern, eventType)) {
+                matched++;
+            }
+        }
+        bh.consume(matched);
+    }
+
+    @Benchmark
+    public void compiledLinearScan(Blackhole bh) {
+        String eventType = nextEventType();
+        int matched = 0;
+        for (CompiledEventTypePattern pattern : compiled) {
+            if (pattern.matches(eventType)) {
+                matched++;
+            }
+        }
+        bh.consume(matched);
+    }
+
+    @Benchmark
+    public void patternSet(Blackhole bh) {
+        patternSet.forEachMatch(nextEventType(), bh::consume);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(EventTypeRoutingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
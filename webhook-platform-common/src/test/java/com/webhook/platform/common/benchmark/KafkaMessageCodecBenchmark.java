@@ -0,0 +1,119 @@
+package com.webhook.platform.common.benchmark;
+
+import com.webhook.platform.common.dto.DeliveryMessage;
+import com.webhook.platform.common.kafka.BinaryMessageCodec;
+import com.webhook.platform.common.kafka.CompactMessageSerializer;
+import com.webhook.platform.common.kafka.DualFormatDeserializer;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of putting a {@link DeliveryMessage} on / taking it off the wire.
+ * <ul>
+ *   <li>{@code jsonSerialize} / {@code jsonDeserialize} – Spring JSON with type headers (current format)</li>
+ *   <li>{@code binarySerialize} / {@code binaryDeserialize} – {@link BinaryMessageCodec} through the same
+ *       Kafka serializer / dual-format deserializer the producers and consumers use</li>
+ * </ul>
+ * {@link #main} also prints the value and header bytes each format puts on the wire.
+ * Run it from the test classpath (or {@code org.openjdk.jmh.Main KafkaMessageCodecBenchmark}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KafkaMessageCodecBenchmark {
+
+    private DeliveryMessage message;
+    private CompactMessageSerializer<Object> jsonSerializer;
+    private CompactMessageSerializer<Object> binarySerializer;
+    private DualFormatDeserializer<DeliveryMessage> deserializer;
+    private RecordHeaders jsonHeaders;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setUp() {
+        message = sampleMessage();
+        jsonSerializer = serializer(CompactMessageSerializer.FORMAT_JSON);
+        binarySerializer = serializer(CompactMessageSerializer.FORMAT_BINARY);
+        deserializer = new DualFormatDeserializer<>();
+        deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "com.webhook.platform.common.dto",
+                JsonDeserializer.VALUE_DEFAULT_TYPE, DeliveryMessage.class.getName()), false);
+        jsonHeaders = new RecordHeaders();
+        jsonBytes = jsonSerializer.serialize("deliveries.dispatch", jsonHeaders, message);
+        binaryBytes = binarySerializer.serialize("deliveries.dispatch", new RecordHeaders(), message);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return jsonSerializer.serialize("deliveries.dispatch", new RecordHeaders(), message);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return binarySerializer.serialize("deliveries.dispatch", new RecordHeaders(), message);
+    }
+
+    @Benchmark
+    public DeliveryMessage jsonDeserialize() {
+        return deserializer.deserialize("deliveries.dispatch", jsonHeaders, jsonBytes);
+    }
+
+    @Benchmark
+    public DeliveryMessage binaryDeserialize() {
+        return deserializer.deserialize("deliveries.dispatch", new RecordHeaders(), binaryBytes);
+    }
+
+    private static DeliveryMessage sampleMessage() {
+        return DeliveryMessage.builder()
+                .deliveryId(UUID.randomUUID())
+                .eventId(UUID.randomUUID())
+                .endpointId(UUID.randomUUID())
+                .subscriptionId(UUID.randomUUID())
+                .status("PENDING")
+                .attemptCount(0)
+                .sequenceNumber(1_234_567L)
+                .orderingEnabled(true)
+                .build();
+    }
+
+    private static CompactMessageSerializer<Object> serializer(String format) {
+        CompactMessageSerializer<Object> serializer = new CompactMessageSerializer<>();
+        serializer.configure(Map.of(CompactMessageSerializer.FORMAT_CONFIG, format), false);
+        return serializer;
+    }
+
+    private static void printBytesOnWire() {
+        DeliveryMessage message = sampleMessage();
+        for (String format : new String[] { CompactMessageSerializer.FORMAT_JSON, CompactMessageSerializer.FORMAT_BINARY }) {
+            RecordHeaders headers = new RecordHeaders();
+            byte[] value = serializer(format).serialize("deliveries.dispatch", headers, message);
+            int headerBytes = 0;
+            for (Header header : headers) {
+                headerBytes += header.key().length() + header.value().length;
+            }
+            System.out.printf("%-6s value=%d bytes, type headers=%d bytes, total=%d bytes%n",
+                    format, value.length, headerBytes, value.length + headerBytes);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        printBytesOnWire();
+        Options options = new OptionsBuilder()
+                .include(KafkaMessageCodecBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,71 @@
+package com.webhook.platform.common.benchmark;
+
+import com.webhook.platform.common.util.CryptoUtils;
+import com.webhook.platform.common.util.DecryptedSecretCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-delivery cost of resolving an endpoint signing secret.
+ * <ul>
+ *   <li>{@code pbkdf2PerCall} – previous behaviour: PBKDF2 key derivation + AES-GCM on every call</li>
+ *   <li>{@code cachedDerivedKey} – derived key reused, AES-GCM decrypt per call</li>
+ *   <li>{@code cachedPlaintext} – plaintext served from {@link DecryptedSecretCache}</li>
+ * </ul>
+ * Run {@link #main} from the test classpath (or {@code org.openjdk.jmh.Main SecretDecryptBenchmark}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecretDecryptBenchmark {
+
+    private static final String MASTER_KEY = "benchmark_master_key_32_chars_xx";
+    private static final String SALT = "benchmark_salt";
+
+    private CryptoUtils.EncryptedData encrypted;
+    private DecryptedSecretCache secretCache;
+    private UUID endpointId;
+    private Instant updatedAt;
+
+    @Setup
+    public void setUp() {
+        encrypted = CryptoUtils.encryptSecret("whsec_" + UUID.randomUUID(), MASTER_KEY, SALT);
+        secretCache = new DecryptedSecretCache("benchmark", 10_000, Duration.ofMinutes(10));
+        endpointId = UUID.randomUUID();
+        updatedAt = Instant.now();
+    }
+
+    @Benchmark
+    public String pbkdf2PerCall() {
+        CryptoUtils.clearDerivedKeyCache();
+        return CryptoUtils.decryptSecret(encrypted.getCiphertext(), encrypted.getIv(), MASTER_KEY, SALT);
+    }
+
+    @Benchmark
+    public String cachedDerivedKey() {
+        return CryptoUtils.decryptSecret(encrypted.getCiphertext(), encrypted.getIv(), MASTER_KEY, SALT);
+    }
+
+    @Benchmark
+    public String cachedPlaintext() {
+        return secretCache.get(endpointId, updatedAt, () -> CryptoUtils.decryptSecret(
+                encrypted.getCiphertext(), encrypted.getIv(), MASTER_KEY, SALT));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(SecretDecryptBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,163 @@
+package com.webhook.platform.common.kafka;
+
+import com.webhook.platform.common.dto.DeliveryMessage;
+import com.webhook.platform.common.dto.IncomingForwardMessage;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryMessageCodecTest {
+
+    private static DeliveryMessage fullDelivery() {
+        return DeliveryMessage.builder()
+                .deliveryId(UUID.randomUUID())
+                .eventId(UUID.randomUUID())
+                .endpointId(UUID.randomUUID())
+                .subscriptionId(UUID.randomUUID())
+                .status("PENDING")
+                .attemptCount(3)
+                .sequenceNumber(1_234_567L)
+                .orderingEnabled(true)
+                .build();
+    }
+
+    private static CompactMessageSerializer<Object> serializer(String format) {
+        CompactMessageSerializer<Object> serializer = new CompactMessageSerializer<>();
+        serializer.configure(Map.of(CompactMessageSerializer.FORMAT_CONFIG, format), false);
+        return serializer;
+    }
+
+    private static <T> DualFormatDeserializer<T> deserializer(Class<T> type) {
+        DualFormatDeserializer<T> deserializer = new DualFormatDeserializer<>();
+        deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "com.webhook.platform.common.dto",
+                JsonDeserializer.VALUE_DEFAULT_TYPE, type.getName()), false);
+        return deserializer;
+    }
+
+    @Test
+    void testDeliveryMessageRoundTrip() {
+        DeliveryMessage message = fullDelivery();
+
+        byte[] bytes = BinaryMessageCodec.encode(message);
+
+        assertTrue(BinaryMessageCodec.isBinary(bytes));
+        assertEquals(message, BinaryMessageCodec.decode(bytes, DeliveryMessage.class));
+    }
+
+    @Test
+    void testNullFieldsAreOmittedAndStayNull() {
+        DeliveryMessage sparse = DeliveryMessage.builder().deliveryId(UUID.randomUUID()).build();
+
+        byte[] bytes = BinaryMessageCodec.encode(sparse);
+
+        assertEquals(3 + 1 + 16, bytes.length);
+        assertEquals(sparse, BinaryMessageCodec.decode(bytes, DeliveryMessage.class));
+    }
+
+    @Test
+    void testIncomingForwardMessageRoundTrip() {
+        IncomingForwardMessage message = IncomingForwardMessage.builder()
+                .incomingEventId(UUID.randomUUID())
+                .destinationId(UUID.randomUUID())
+                .incomingSourceId(UUID.randomUUID())
+                .attemptCount(0)
+                .replay(true)
+                .build();
+
+        assertEquals(message, BinaryMessageCodec.decode(BinaryMessageCodec.encode(message), IncomingForwardMessage.class));
+    }
+
+    @Test
+    void testOlderReaderIgnoresAppendedFields() {
+        byte[] current = BinaryMessageCodec.encode(fullDelivery());
+        // Same message from a newer writer: bit 8 set in the mask (0xFF 0x01 -> 0xFF 0x03)
+        // and one extra field byte appended after the known fields
+        byte[] newer = Arrays.copyOf(current, current.length + 1);
+        newer[4] = 0x03;
+        newer[newer.length - 1] = 42;
+
+        assertEquals(BinaryMessageCodec.decode(current, DeliveryMessage.class),
+                BinaryMessageCodec.decode(newer, DeliveryMessage.class));
+    }
+
+    @Test
+    void testNewerLayoutVersionIsRejected() {
+        byte[] bytes = BinaryMessageCodec.encode(fullDelivery());
+        bytes[1] = (byte) (BinaryMessageCodec.LAYOUT_VERSION + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> BinaryMessageCodec.decode(bytes));
+    }
+
+    @Test
+    void testTruncatedPayloadIsRejected() {
+        byte[] bytes = BinaryMessageCodec.encode(fullDelivery());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryMessageCodec.decode(Arrays.copyOf(bytes, bytes.length - 5)));
+    }
+
+    @Test
+    void testWrongTypeIsRejected() {
+        byte[] bytes = BinaryMessageCodec.encode(fullDelivery());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryMessageCodec.decode(bytes, IncomingForwardMessage.class));
+    }
+
+    @Test
+    void testDualFormatDeserializerReadsJsonAndBinary() {
+        DeliveryMessage message = fullDelivery();
+        DualFormatDeserializer<DeliveryMessage> deserializer = deserializer(DeliveryMessage.class);
+
+        RecordHeaders jsonHeaders = new RecordHeaders();
+        byte[] json = serializer(CompactMessageSerializer.FORMAT_JSON).serialize("t", jsonHeaders, message);
+        RecordHeaders binaryHeaders = new RecordHeaders();
+        byte[] binary = serializer(CompactMessageSerializer.FORMAT_BINARY).serialize("t", binaryHeaders, message);
+
+        assertEquals('{', json[0]);
+        assertTrue(BinaryMessageCodec.isBinary(binary));
+        assertFalse(binaryHeaders.iterator().hasNext(), "binary values need no type headers");
+        assertEquals(message, deserializer.deserialize("t", jsonHeaders, json));
+        assertEquals(message, deserializer.deserialize("t", binaryHeaders, binary));
+    }
+
+    @Test
+    void testCorruptBinaryValueSurfacesAsSerializationException() {
+        DualFormatDeserializer<DeliveryMessage> deserializer = deserializer(DeliveryMessage.class);
+
+        assertThrows(SerializationException.class,
+                () -> deserializer.deserialize("t", new byte[] { BinaryMessageCodec.MAGIC, 1, 9 }));
+    }
+
+    @Test
+    void testBinaryFormatFallsBackToJsonForUnknownTypes() {
+        byte[] bytes = serializer(CompactMessageSerializer.FORMAT_BINARY).serialize("t", Map.of("k", "v"));
+
+        assertEquals("{\"k\":\"v\"}", new String(bytes));
+    }
+
+    @Test
+    void testBytesOnTheWire() {
+        DeliveryMessage message = fullDelivery();
+        RecordHeaders headers = new RecordHeaders();
+        byte[] json = serializer(CompactMessageSerializer.FORMAT_JSON).serialize("t", headers, message);
+        int jsonHeaderBytes = 0;
+        for (var header : headers) {
+            jsonHeaderBytes += header.key().length() + header.value().length;
+        }
+        byte[] binary = BinaryMessageCodec.encode(message);
+
+        // header (5) + 4 UUIDs (64) + "PENDING" (8) + attempt (1) + sequence (4) + flag (1)
+        assertEquals(83, binary.length);
+        assertTrue(json.length + jsonHeaderBytes > 4 * binary.length,
+                "json=" + json.length + "+" + jsonHeaderBytes + " header bytes, binary=" + binary.length);
+    }
+}
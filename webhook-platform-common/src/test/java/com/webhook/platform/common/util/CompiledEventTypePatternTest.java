@@ -0,0 +1,92 @@
+package com.webhook.platform.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Property checks: the offset-based matchers must agree with {@link LegacyEventTypeMatcher}
+ * on random patterns and event types, including empty segments and stray dots.
+ */
+class CompiledEventTypePatternTest {
+
+    private static final String[] PATTERN_SEGMENTS = { "order", "line", "a", "", "*", "**", "a*" };
+    private static final String[] EVENT_SEGMENTS = { "order", "line", "a", "", "*", "a*" };
+
+    @Test
+    void compiledPatternMatches() {
+        CompiledEventTypePattern pattern = CompiledEventTypePattern.compile("order.**.added");
+
+        assertTrue(pattern.matches("order.added"));
+        assertTrue(pattern.matches("order.line.item.added"));
+        assertFalse(pattern.matches("order.line.removed"));
+        assertFalse(pattern.matches(null));
+        assertTrue(pattern.isWildcard());
+        assertEquals("order.**.added", pattern.pattern());
+    }
+
+    @Test
+    void compileRejectsNull() {
+        assertThrows(NullPointerException.class, () -> CompiledEventTypePattern.compile(null));
+    }
+
+    @Test
+    void dotsOnlyAndEmptyStrings() {
+        assertAgrees(".", ".");
+        assertAgrees(".", "..");
+        assertAgrees("", "");
+        assertAgrees("**", ".");
+        assertAgrees("*", "");
+        assertAgrees("order.", "order");
+        assertAgrees(".order", "order");
+        assertAgrees("**.", "a..b.");
+    }
+
+    @Test
+    void agreesWithLegacyOnRandomSegments() {
+        Random random = new Random(13);
+        for (int i = 0; i < 50_000; i++) {
+            assertAgrees(randomType(random, PATTERN_SEGMENTS, 6), randomType(random, EVENT_SEGMENTS, 6));
+        }
+    }
+
+    @Test
+    void agreesWithLegacyOnRandomCharacters() {
+        Random random = new Random(17);
+        char[] alphabet = { 'a', 'b', '.', '*' };
+        for (int i = 0; i < 50_000; i++) {
+            assertAgrees(randomChars(random, alphabet, 8), randomChars(random, alphabet, 8));
+        }
+    }
+
+    private static void assertAgrees(String pattern, String eventType) {
+        boolean expected = LegacyEventTypeMatcher.matches(pattern, eventType);
+        assertEquals(expected, EventTypeMatcher.matches(pattern, eventType),
+                "EventTypeMatcher: '" + pattern + "' vs '" + eventType + "'");
+        assertEquals(expected, CompiledEventTypePattern.compile(pattern).matches(eventType),
+                "CompiledEventTypePattern: '" + pattern + "' vs '" + eventType + "'");
+    }
+
+    static String randomType(Random random, String[] segments, int maxSegments) {
+        int count = 1 + random.nextInt(maxSegments);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append('.');
+            }
+            sb.append(segments[random.nextInt(segments.length)]);
+        }
+        return sb.toString();
+    }
+
+    static String randomChars(Random random, char[] alphabet, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return sb.toString();
+    }
+}
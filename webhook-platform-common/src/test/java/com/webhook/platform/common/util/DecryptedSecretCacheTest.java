@@ -0,0 +1,91 @@
+package com.webhook.platform.common.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecryptedSecretCacheTest {
+
+    private static final String MASTER_KEY = "test_master_key_32_characters_xx";
+    private static final String SALT = "test_salt";
+
+    @Test
+    void testSameVersionIsServedFromCache() {
+        DecryptedSecretCache cache = new DecryptedSecretCache("test", 100, Duration.ofMinutes(1));
+        UUID id = UUID.randomUUID();
+        Instant version = Instant.now();
+        AtomicInteger decryptions = new AtomicInteger();
+
+        assertEquals("s1", cache.get(id, version, () -> { decryptions.incrementAndGet(); return "s1"; }));
+        assertEquals("s1", cache.get(id, version, () -> { decryptions.incrementAndGet(); return "other"; }));
+
+        assertEquals(1, decryptions.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void testNewUpdatedAtForcesDecryption() {
+        DecryptedSecretCache cache = new DecryptedSecretCache("test", 100, Duration.ofMinutes(1));
+        UUID id = UUID.randomUUID();
+        Instant v1 = Instant.parse("2024-01-01T00:00:00Z");
+        Instant v2 = v1.plusSeconds(1);
+
+        cache.get(id, v1, () -> "old");
+        assertEquals("new", cache.get(id, v2, () -> "new"));
+        assertEquals("new", cache.get(id, v2, () -> "unexpected"));
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    void testInvalidate() {
+        DecryptedSecretCache cache = new DecryptedSecretCache("test", 100, Duration.ofMinutes(1));
+        UUID id = UUID.randomUUID();
+        Instant version = Instant.now();
+
+        cache.get(id, version, () -> "s1");
+        cache.invalidate(id);
+        assertEquals("s2", cache.get(id, version, () -> "s2"));
+
+        cache.invalidateAll();
+        assertEquals("s3", cache.get(id, version, () -> "s3"));
+        assertEquals(3, cache.missCount());
+    }
+
+    @Test
+    void testMetricsAreBound() {
+        DecryptedSecretCache cache = new DecryptedSecretCache("test", 100, Duration.ofMinutes(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        UUID id = UUID.randomUUID();
+        cache.get(id, null, () -> "s1");
+        cache.get(id, null, () -> "s1");
+
+        assertEquals(1.0, registry.get("secret_cache_requests_total")
+                .tag("cache", "test").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("secret_cache_requests_total")
+                .tag("cache", "test").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testDerivedKeyIsReused() {
+        assertSame(CryptoUtils.getDerivedKey(MASTER_KEY, SALT), CryptoUtils.getDerivedKey(MASTER_KEY, SALT));
+        assertNotSame(CryptoUtils.getDerivedKey(MASTER_KEY, SALT), CryptoUtils.getDerivedKey(MASTER_KEY, "other_salt"));
+    }
+
+    @Test
+    void testRoundTripAfterKeyCacheCleared() {
+        CryptoUtils.EncryptedData encrypted = CryptoUtils.encryptSecret("whsec_123", MASTER_KEY, SALT);
+        CryptoUtils.clearDerivedKeyCache();
+
+        assertEquals("whsec_123", CryptoUtils.decryptSecret(
+                encrypted.getCiphertext(), encrypted.getIv(), MASTER_KEY, SALT));
+    }
+}
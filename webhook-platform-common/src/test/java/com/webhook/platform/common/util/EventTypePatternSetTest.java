@@ -0,0 +1,110 @@
+package com.webhook.platform.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventTypePatternSetTest {
+
+    @Test
+    void exactAndWildcardPatterns() {
+        EventTypePatternSet set = new EventTypePatternSet();
+        for (String pattern : List.of("order.completed", "order.*", "order.**", "*", "**", "*.completed", "user.*")) {
+            set.add(pattern);
+        }
+
+        assertArrayEquals(new int[] { 0, 1, 2, 4, 5 }, set.match("order.completed"));
+        assertArrayEquals(new int[] { 2, 4 }, set.match("order.line.added"));
+        assertArrayEquals(new int[] { 2, 3, 4 }, set.match("order"));
+        assertArrayEquals(new int[] { 3, 4 }, set.match("ping"));
+        assertEquals(7, set.size());
+        assertEquals("order.**", set.pattern(2));
+    }
+
+    @Test
+    void globstarInTheMiddle() {
+        EventTypePatternSet set = new EventTypePatternSet();
+        set.add("order.**.added");
+
+        assertArrayEquals(new int[] { 0 }, set.match("order.added"));
+        assertArrayEquals(new int[] { 0 }, set.match("order.line.added"));
+        assertArrayEquals(new int[] { 0 }, set.match("order.line.item.added"));
+        assertEquals(0, set.match("order.line.removed").length);
+    }
+
+    @Test
+    void severalGlobstars_matchOnce() {
+        EventTypePatternSet set = new EventTypePatternSet();
+        set.add("**.a.**");
+        set.add("**.**");
+        List<Integer> reported = new ArrayList<>();
+
+        set.forEachMatch("a.a.a", reported::add);
+
+        assertEquals(2, reported.size());
+        assertArrayEquals(new int[] { 0, 1 }, set.match("a.a.a"));
+    }
+
+    @Test
+    void samePatternTwice_getsTwoIds() {
+        EventTypePatternSet set = new EventTypePatternSet();
+        assertEquals(0, set.add("order.*"));
+        assertEquals(1, set.add("order.*"));
+        assertEquals(2, set.add("order.*"));
+
+        assertArrayEquals(new int[] { 0, 1, 2 }, set.match("order.paid"));
+    }
+
+    @Test
+    void nullPattern_takesAnIdButNeverMatches() {
+        EventTypePatternSet set = new EventTypePatternSet();
+        set.add(null);
+        set.add("**");
+
+        assertArrayEquals(new int[] { 1 }, set.match("order.paid"));
+        assertEquals(0, set.match(null).length);
+    }
+
+    @Test
+    void manyChildren_resizeKeepsLookups() {
+        EventTypePatternSet set = new EventTypePatternSet();
+        for (int i = 0; i < 500; i++) {
+            set.add("type_" + i + ".created");
+        }
+        for (int i = 0; i < 500; i++) {
+            assertArrayEquals(new int[] { i }, set.match("type_" + i + ".created"));
+        }
+        assertEquals(0, set.match("type_500.created").length);
+    }
+
+    @Test
+    void agreesWithLegacyMatcher() {
+        String[] segments = { "order", "user", "line", "added", "", "*", "**" };
+        String[] literals = { "order", "user", "line", "added", "" };
+        Random random = new Random(42);
+
+        List<String> patterns = new ArrayList<>();
+        EventTypePatternSet set = new EventTypePatternSet();
+        for (int i = 0; i < 300; i++) {
+            String pattern = CompiledEventTypePatternTest.randomType(random, segments, 4);
+            patterns.add(pattern);
+            set.add(pattern);
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            String eventType = CompiledEventTypePatternTest.randomType(random, literals, 5);
+            List<Integer> expected = new ArrayList<>();
+            for (int p = 0; p < patterns.size(); p++) {
+                if (LegacyEventTypeMatcher.matches(patterns.get(p), eventType)) {
+                    expected.add(p);
+                }
+            }
+            assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), set.match(eventType),
+                    "event type '" + eventType + "'");
+        }
+    }
+}
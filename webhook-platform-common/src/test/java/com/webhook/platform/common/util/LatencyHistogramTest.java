@@ -0,0 +1,113 @@
+package com.webhook.platform.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    private static final double[] QUANTILES = { 0.0, 0.01, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999, 1.0 };
+
+    @Test
+    void testLogNormalLatenciesWithinOnePercent() {
+        Random random = new Random(42);
+        assertMergedQuantilesWithinBound(() -> Math.round(Math.exp(5.5 + random.nextGaussian())));
+    }
+
+    @Test
+    void testBimodalLatenciesWithinOnePercent() {
+        Random random = new Random(7);
+        assertMergedQuantilesWithinBound(() -> random.nextInt(10) == 0
+                ? 25_000 + random.nextInt(5_000)
+                : 40 + random.nextInt(200));
+    }
+
+    @Test
+    void testUniformLatenciesWithinOnePercent() {
+        Random random = new Random(1);
+        assertMergedQuantilesWithinBound(() -> random.nextInt(30_001));
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 200; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.valueAt(0.5));
+        assertEquals(190, histogram.valueAt(0.95));
+        assertEquals(200, histogram.valueAt(1.0));
+    }
+
+    @Test
+    void testEmptyHistogram() {
+        LatencyHistogram histogram = LatencyHistogram.fromBytes(new LatencyHistogram().toBytes());
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.valueAt(0.99));
+    }
+
+    @Test
+    void testOutOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(LatencyHistogram.MAX_TRACKABLE_MS * 10);
+
+        assertEquals(0, histogram.valueAt(0.0));
+        assertTrue(histogram.valueAt(1.0) >= LatencyHistogram.MAX_TRACKABLE_MS);
+    }
+
+    @Test
+    void testEncodingIsCompact() {
+        Random random = new Random(3);
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 10_000; i++) {
+            histogram.record(Math.round(Math.exp(5.5 + random.nextGaussian())));
+        }
+
+        assertTrue(histogram.toBytes().length < 2048, "encoded size " + histogram.toBytes().length);
+    }
+
+    @Test
+    void testInvalidBytesRejected() {
+        assertThrows(IllegalArgumentException.class, () -> LatencyHistogram.fromBytes(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }));
+    }
+
+    /**
+     * Spreads 100k samples over 60 "minute" histograms, round-trips each through bytes, merges
+     * them and checks every quantile against the exact nearest-rank value.
+     */
+    private static void assertMergedQuantilesWithinBound(LongSupplier latencies) {
+        int samples = 100_000;
+        long[] exact = new long[samples];
+        List<LatencyHistogram> minutes = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            minutes.add(new LatencyHistogram());
+        }
+        for (int i = 0; i < samples; i++) {
+            exact[i] = latencies.getAsLong();
+            minutes.get(i % minutes.size()).record(exact[i]);
+        }
+        Arrays.sort(exact);
+
+        LatencyHistogram merged = new LatencyHistogram();
+        for (LatencyHistogram minute : minutes) {
+            merged.merge(LatencyHistogram.fromBytes(minute.toBytes()));
+        }
+
+        assertEquals(samples, merged.count());
+        for (double q : QUANTILES) {
+            long expected = exact[Math.max(0, (int) Math.ceil(q * samples) - 1)];
+            long actual = merged.valueAt(q);
+            assertTrue(actual >= expected && actual <= Math.max(expected * 1.01, expected + 1),
+                    "q=" + q + " expected ~" + expected + " but was " + actual);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.webhook.platform.common.util;
+
+/**
+ * The original split-and-recurse {@link EventTypeMatcher#matches} algorithm, kept as the
+ * reference the allocation-free matchers are checked against.
+ */
+public final class LegacyEventTypeMatcher {
+
+    private LegacyEventTypeMatcher() {
+    }
+
+    public static boolean matches(String pattern, String eventType) {
+        if (pattern == null || eventType == null) {
+            return false;
+        }
+        if (pattern.equals(eventType)) {
+            return true;
+        }
+        if (pattern.equals("**")) {
+            return true;
+        }
+
+        String[] patternParts = pattern.split("\\.");
+        String[] eventParts = eventType.split("\\.");
+
+        return matchParts(patternParts, 0, eventParts, 0);
+    }
+
+    private static boolean matchParts(String[] pattern, int pi, String[] event, int ei) {
+        while (pi < pattern.length && ei < event.length) {
+            String seg = pattern[pi];
+            if ("**".equals(seg)) {
+                if (pi == pattern.length - 1) {
+                    return true;
+                }
+                for (int skip = ei; skip <= event.length; skip++) {
+                    if (matchParts(pattern, pi + 1, event, skip)) {
+                        return true;
+                    }
+                }
+                return false;
+            } else if ("*".equals(seg)) {
+                pi++;
+                ei++;
+            } else {
+                if (!seg.equals(event[ei])) {
+                    return false;
+                }
+                pi++;
+                ei++;
+            }
+        }
+
+        while (pi < pattern.length && "**".equals(pattern[pi])) {
+            pi++;
+        }
+
+        return pi == pattern.length && ei == event.length;
+    }
+}
@@ -90,6 +90,7 @@ export interface EndpointPerformance {
   successRate: number;
   avgLatencyMs: number;
   p95LatencyMs: number;
+  p99LatencyMs: number;
   lastDeliveryAt: string | null;
   status: 'HEALTHY' | 'DEGRADED' | 'FAILING';
 }
@@ -2,6 +2,8 @@ package com.webhook.platform.worker.config;
 
 import com.webhook.platform.common.dto.DeliveryMessage;
 import com.webhook.platform.common.dto.IncomingForwardMessage;
+import com.webhook.platform.common.kafka.DualFormatDeserializer;
+import com.webhook.platform.worker.service.PartitionOrderedDeliveryEngine;
 import com.webhook.platform.worker.service.ShutdownRejectedException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -32,9 +34,12 @@ import org.apache.kafka.common.TopicPartition;
 public class KafkaConsumerConfig {
 
     private final KafkaOperations<String, Object> deadLetterKafkaTemplate;
+    private final PartitionOrderedDeliveryEngine orderedDeliveryEngine;
 
-    public KafkaConsumerConfig(@Qualifier("deadLetterKafkaTemplate") KafkaOperations<String, Object> deadLetterKafkaTemplate) {
+    public KafkaConsumerConfig(@Qualifier("deadLetterKafkaTemplate") KafkaOperations<String, Object> deadLetterKafkaTemplate,
+                               PartitionOrderedDeliveryEngine orderedDeliveryEngine) {
         this.deadLetterKafkaTemplate = deadLetterKafkaTemplate;
+        this.orderedDeliveryEngine = orderedDeliveryEngine;
     }
 
     @Value("${spring.kafka.bootstrap-servers}")
@@ -55,6 +60,12 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.delivery-concurrency:6}")
     private int deliveryConcurrency;
 
+    @Value("${spring.kafka.consumer.delivery-batch-enabled:false}")
+    private boolean deliveryBatchEnabled;
+
+    @Value("${spring.kafka.consumer.delivery-batch-max-records:50}")
+    private int deliveryBatchMaxRecords;
+
     @Value("${spring.kafka.consumer.incoming-concurrency:3}")
     private int incomingConcurrency;
 
@@ -63,8 +74,8 @@ public class KafkaConsumerConfig {
 
     @PostConstruct
     void logEffectiveConfig() {
-        log.info("Kafka consumer effective config: bootstrapServers={}, groupId={}, incomingGroupId={}, autoOffsetReset={}, deliveryConcurrency={}, incomingConcurrency={}, maxRetries={}, retryIntervalMs={}",
-                bootstrapServers, groupId, incomingGroupId, autoOffsetReset, deliveryConcurrency, incomingConcurrency, maxRetries, retryIntervalMs);
+        log.info("Kafka consumer effective config: bootstrapServers={}, groupId={}, incomingGroupId={}, autoOffsetReset={}, deliveryConcurrency={}, deliveryBatchEnabled={}, deliveryBatchMaxRecords={}, incomingConcurrency={}, maxRetries={}, retryIntervalMs={}",
+                bootstrapServers, groupId, incomingGroupId, autoOffsetReset, deliveryConcurrency, deliveryBatchEnabled, deliveryBatchMaxRecords, incomingConcurrency, maxRetries, retryIntervalMs);
     }
 
     @Bean
@@ -72,22 +83,33 @@ public class KafkaConsumerConfig {
         return buildConsumerFactory(groupId, DeliveryMessage.class);
     }
 
+    @Bean
+    public ConsumerFactory<String, DeliveryMessage> batchConsumerFactory() {
+        return buildConsumerFactory(groupId, DeliveryMessage.class, deliveryBatchMaxRecords);
+    }
+
     @Bean
     public ConsumerFactory<String, IncomingForwardMessage> incomingForwardConsumerFactory() {
         return buildConsumerFactory(incomingGroupId, IncomingForwardMessage.class);
     }
 
     private <T> ConsumerFactory<String, T> buildConsumerFactory(String consumerGroupId, Class<T> valueType) {
+        return buildConsumerFactory(consumerGroupId, valueType, 10);
+    }
+
+    private <T> ConsumerFactory<String, T> buildConsumerFactory(String consumerGroupId, Class<T> valueType,
+                                                                int maxPollRecords) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, consumerGroupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        // Reads binary and JSON values alike, so producers can switch value-format independently
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, DualFormatDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.webhook.platform.common.dto");
         props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, valueType.getName());
-        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 10);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
         props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, 300000);
         return new DefaultKafkaConsumerFactory<>(props);
     }
@@ -98,6 +120,24 @@ public class KafkaConsumerConfig {
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
         configureFactory(factory, deliveryConcurrency);
+        // Rebuilds / releases ordering lanes as deliveries.dispatch partitions move (ordering.mode=partition)
+        factory.getContainerProperties().setConsumerRebalanceListener(orderedDeliveryEngine);
+        return factory;
+    }
+
+    /**
+     * Batch listener factory used by {@code BatchDeliveryConsumer} when
+     * {@code spring.kafka.consumer.delivery-batch-enabled=true}: one poll is
+     * claimed and hydrated with a constant number of DB round-trips.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DeliveryMessage> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, DeliveryMessage> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(batchConsumerFactory());
+        factory.setBatchListener(true);
+        configureFactory(factory, deliveryConcurrency);
+        factory.getContainerProperties().setConsumerRebalanceListener(orderedDeliveryEngine);
         return factory;
     }
 
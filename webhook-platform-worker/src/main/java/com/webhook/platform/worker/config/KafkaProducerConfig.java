@@ -1,7 +1,9 @@
 package com.webhook.platform.worker.config;
 
 import com.webhook.platform.common.dto.DeliveryMessage;
+import com.webhook.platform.common.dto.DeliveryOutcomeMessage;
 import com.webhook.platform.common.dto.IncomingForwardMessage;
+import com.webhook.platform.common.kafka.CompactMessageSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,6 +24,20 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.producer.value-format:json}")
+    private String valueFormat;
+
+    /**
+     * Props for the DeliveryMessage / IncomingForwardMessage producers, which honour
+     * {@code spring.kafka.producer.value-format}. Dead letters always stay JSON.
+     */
+    private Map<String, Object> messageProducerProps() {
+        Map<String, Object> configProps = commonProducerProps();
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, CompactMessageSerializer.class);
+        configProps.put(CompactMessageSerializer.FORMAT_CONFIG, valueFormat);
+        return configProps;
+    }
+
     private Map<String, Object> commonProducerProps() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
@@ -35,7 +51,7 @@ public class KafkaProducerConfig {
 
     @Bean
     public ProducerFactory<String, DeliveryMessage> producerFactory() {
-        return new DefaultKafkaProducerFactory<>(commonProducerProps());
+        return new DefaultKafkaProducerFactory<>(messageProducerProps());
     }
 
     @Bean
@@ -45,7 +61,7 @@ public class KafkaProducerConfig {
 
     @Bean
     public ProducerFactory<String, IncomingForwardMessage> incomingForwardProducerFactory() {
-        return new DefaultKafkaProducerFactory<>(commonProducerProps());
+        return new DefaultKafkaProducerFactory<>(messageProducerProps());
     }
 
     @Bean
@@ -53,6 +69,25 @@ public class KafkaProducerConfig {
         return new KafkaTemplate<>(incomingForwardProducerFactory());
     }
 
+    /**
+     * One outcome per attempt: batched with a short linger since nothing waits on the send.
+     */
+    @Bean
+    public ProducerFactory<String, DeliveryOutcomeMessage> outcomeProducerFactory() {
+        Map<String, Object> configProps = messageProducerProps();
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    public KafkaTemplate<String, DeliveryOutcomeMessage> outcomeKafkaTemplate() {
+        return new KafkaTemplate<>(outcomeProducerFactory());
+    }
+
+    /**
+     * Always JSON: used by the consumers' DeadLetterPublishingRecoverer and for the
+     * {@code deliveries.dlq} notifications, whose consumers must not depend on {@code value-format}.
+     */
     @Bean(name = "deadLetterKafkaTemplate")
     public KafkaOperations<String, Object> deadLetterKafkaTemplate() {
         ProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(commonProducerProps());
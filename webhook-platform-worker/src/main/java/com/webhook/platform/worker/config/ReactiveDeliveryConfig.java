@@ -0,0 +1,23 @@
+package com.webhook.platform.worker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class ReactiveDeliveryConfig {
+
+    /**
+     * Dedicated scheduler for the blocking parts of the reactive delivery path
+     * (claim, admission checks, response handling, attempt persistence).
+     * Keeps JDBC/Redis calls off the Netty event loop; its size is independent
+     * of the number of outstanding HTTP requests.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler deliveryIoScheduler(
+            @Value("${webhook.reactive.io-threads:16}") int ioThreads) {
+        return Schedulers.newBoundedElastic(ioThreads, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "delivery-io");
+    }
+}
@@ -0,0 +1,192 @@
+package com.webhook.platform.worker.consumer;
+
+import com.webhook.platform.common.constants.KafkaTopics;
+import com.webhook.platform.common.dto.DeliveryMessage;
+import com.webhook.platform.worker.service.AsyncDeliveryExecutor;
+import com.webhook.platform.worker.service.PartitionOrderedDeliveryEngine;
+import com.webhook.platform.worker.service.ReactiveDeliveryExecutor;
+import com.webhook.platform.worker.service.ShutdownRejectedException;
+import com.webhook.platform.worker.service.WebhookDeliveryService;
+import com.webhook.platform.worker.service.WebhookDeliveryService.ClaimedDelivery;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Batch counterpart of {@link DeliveryConsumer}, enabled with
+ * {@code spring.kafka.consumer.delivery-batch-enabled=true}.
+ *
+ * <p>Each poll is claimed with one {@code UPDATE ... RETURNING} and hydrated with
+ * one endpoint and one event query, instead of a claim/find chain per record.
+ * The hydrated deliveries are fanned out to {@link AsyncDeliveryExecutor}.</p>
+ *
+ * <h3>Ack semantics</h3>
+ * The consumer thread waits for the batch to finish, then commits up to the
+ * first failed record and re-seeks the rest ({@code nack(index)}), so a record
+ * is only committed once it and every record before it succeeded. Redelivered
+ * records that were already processed are skipped by the claim.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "spring.kafka.consumer.delivery-batch-enabled", havingValue = "true")
+public class BatchDeliveryConsumer {
+
+    private static final String CORRELATION_ID_KEY = "correlationId";
+    private static final Duration NACK_SLEEP = Duration.ofSeconds(1);
+
+    private final WebhookDeliveryService webhookDeliveryService;
+    private final AsyncDeliveryExecutor asyncExecutor;
+    private final ReactiveDeliveryExecutor reactiveExecutor;
+    private final PartitionOrderedDeliveryEngine orderedDeliveryEngine;
+    private final boolean reactiveMode;
+
+    public BatchDeliveryConsumer(WebhookDeliveryService webhookDeliveryService,
+                                 AsyncDeliveryExecutor asyncExecutor,
+                                 ReactiveDeliveryExecutor reactiveExecutor,
+                                 PartitionOrderedDeliveryEngine orderedDeliveryEngine,
+                                 @Value("${webhook.delivery-mode:blocking}") String deliveryMode) {
+        this.webhookDeliveryService = webhookDeliveryService;
+        this.asyncExecutor = asyncExecutor;
+        this.reactiveExecutor = reactiveExecutor;
+        this.orderedDeliveryEngine = orderedDeliveryEngine;
+        this.reactiveMode = "reactive".equalsIgnoreCase(deliveryMode);
+    }
+
+    @KafkaListener(
+            topics = KafkaTopics.DELIVERIES_DISPATCH,
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumeDispatch(List<ConsumerRecord<String, DeliveryMessage>> records,
+                                Acknowledgment acknowledgment) {
+        processBatch(records, acknowledgment);
+    }
+
+    @KafkaListener(
+            topics = {
+                    KafkaTopics.DELIVERIES_RETRY_1M,
+                    KafkaTopics.DELIVERIES_RETRY_5M,
+                    KafkaTopics.DELIVERIES_RETRY_15M,
+                    KafkaTopics.DELIVERIES_RETRY_1H,
+                    KafkaTopics.DELIVERIES_RETRY_6H,
+                    KafkaTopics.DELIVERIES_RETRY_24H
+            },
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumeRetry(List<ConsumerRecord<String, DeliveryMessage>> records,
+                             Acknowledgment acknowledgment) {
+        processBatch(records, acknowledgment);
+    }
+
+    void processBatch(List<ConsumerRecord<String, DeliveryMessage>> records, Acknowledgment acknowledgment) {
+        if (records.isEmpty()) {
+            return;
+        }
+        log.info("Received batch of {} deliveries from {}", records.size(), records.get(0).topic());
+
+        // Ordered records go to their endpoint's lane and are acked with the batch
+        Set<ConsumerRecord<String, DeliveryMessage>> laned = new HashSet<>();
+        if (orderedDeliveryEngine.isEnabled()) {
+            for (ConsumerRecord<String, DeliveryMessage> record : records) {
+                if (KafkaTopics.DELIVERIES_DISPATCH.equals(record.topic())
+                        && orderedDeliveryEngine.offer(record.value(), record.partition())) {
+                    laned.add(record);
+                }
+            }
+        }
+
+        List<UUID> deliveryIds = records.stream()
+                .filter(record -> !laned.contains(record))
+                .map(record -> record.value().getDeliveryId())
+                .distinct()
+                .toList();
+
+        Map<UUID, ClaimedDelivery> claimed;
+        try {
+            claimed = new HashMap<>(webhookDeliveryService.claimBatch(deliveryIds));
+        } catch (ShutdownRejectedException e) {
+            log.warn("Shutdown in progress, not claiming batch of {} (will be redelivered)", records.size());
+            return;
+        } catch (Exception e) {
+            log.error("Failed to claim batch of {} deliveries, re-seeking: {}", records.size(), e.getMessage(), e);
+            acknowledgment.nack(0, NACK_SLEEP);
+            return;
+        }
+
+        List<CompletableFuture<Void>> results = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, DeliveryMessage> record : records) {
+            if (laned.contains(record)) {
+                results.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            UUID deliveryId = record.value().getDeliveryId();
+            // remove() so a delivery repeated within one poll is processed once
+            ClaimedDelivery delivery = claimed.remove(deliveryId);
+            if (delivery == null) {
+                log.debug("Delivery {} already claimed or not PENDING, skipping", deliveryId);
+                results.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            MDC.put(CORRELATION_ID_KEY, extractCorrelationId(record));
+            try {
+                results.add(reactiveMode
+                        ? reactiveExecutor.submit(
+                                () -> webhookDeliveryService.processClaimedDeliveryReactive(delivery),
+                                deliveryId.toString())
+                        : asyncExecutor.submit(
+                                () -> webhookDeliveryService.processClaimedDelivery(delivery),
+                                deliveryId.toString()));
+            } finally {
+                MDC.remove(CORRELATION_ID_KEY);
+            }
+        }
+
+        int firstFailed = awaitFirstFailure(results);
+        if (firstFailed < 0) {
+            acknowledgment.acknowledge();
+        } else {
+            log.warn("Batch record {} of {} failed, committing preceding records and re-seeking the rest",
+                    firstFailed, records.size());
+            acknowledgment.nack(firstFailed, NACK_SLEEP);
+        }
+    }
+
+    private int awaitFirstFailure(List<CompletableFuture<Void>> results) {
+        int firstFailed = -1;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                results.get(i).join();
+            } catch (Exception e) {
+                if (firstFailed < 0) {
+                    firstFailed = i;
+                }
+            }
+        }
+        return firstFailed;
+    }
+
+    private String extractCorrelationId(ConsumerRecord<String, DeliveryMessage> record) {
+        Header header = record.headers().lastHeader("X-Correlation-ID");
+        if (header != null && header.value() != null && header.value().length > 0) {
+            return new String(header.value());
+        }
+        return UUID.randomUUID().toString();
+    }
+}
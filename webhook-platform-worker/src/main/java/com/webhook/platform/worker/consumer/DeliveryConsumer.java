@@ -3,9 +3,13 @@ package com.webhook.platform.worker.consumer;
 import com.webhook.platform.common.constants.KafkaTopics;
 import com.webhook.platform.common.dto.DeliveryMessage;
 import com.webhook.platform.worker.service.AsyncDeliveryExecutor;
+import com.webhook.platform.worker.service.PartitionOrderedDeliveryEngine;
+import com.webhook.platform.worker.service.ReactiveDeliveryExecutor;
 import com.webhook.platform.worker.service.WebhookDeliveryService;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
@@ -17,17 +21,27 @@ import java.util.UUID;
 
 @Component
 @Slf4j
+@ConditionalOnProperty(name = "spring.kafka.consumer.delivery-batch-enabled", havingValue = "false", matchIfMissing = true)
 public class DeliveryConsumer {
 
     private static final String CORRELATION_ID_KEY = "correlationId";
     
     private final WebhookDeliveryService webhookDeliveryService;
     private final AsyncDeliveryExecutor asyncExecutor;
+    private final ReactiveDeliveryExecutor reactiveExecutor;
+    private final PartitionOrderedDeliveryEngine orderedDeliveryEngine;
+    private final boolean reactiveMode;
 
     public DeliveryConsumer(WebhookDeliveryService webhookDeliveryService,
-                            AsyncDeliveryExecutor asyncExecutor) {
+                            AsyncDeliveryExecutor asyncExecutor,
+                            ReactiveDeliveryExecutor reactiveExecutor,
+                            PartitionOrderedDeliveryEngine orderedDeliveryEngine,
+                            @Value("${webhook.delivery-mode:blocking}") String deliveryMode) {
         this.webhookDeliveryService = webhookDeliveryService;
         this.asyncExecutor = asyncExecutor;
+        this.reactiveExecutor = reactiveExecutor;
+        this.orderedDeliveryEngine = orderedDeliveryEngine;
+        this.reactiveMode = "reactive".equalsIgnoreCase(deliveryMode);
     }
 
     @KafkaListener(
@@ -39,6 +53,7 @@ public class DeliveryConsumer {
             @Payload DeliveryMessage message,
             @Header(KafkaHeaders.RECEIVED_KEY) String key,
             @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
             @Header(name = "X-Correlation-ID", required = false) byte[] correlationIdBytes,
             Acknowledgment acknowledgment) {
         
@@ -48,10 +63,12 @@ public class DeliveryConsumer {
         log.info("Received delivery from {}: deliveryId={}, endpointId={}",
                 topic, message.getDeliveryId(), message.getEndpointId());
 
-        asyncExecutor.submit(
-                () -> webhookDeliveryService.processDelivery(message),
-                acknowledgment,
-                message.getDeliveryId().toString());
+        // Ordered endpoints stay on this partition's lane; the PENDING row is the durable copy
+        if (orderedDeliveryEngine.offer(message, partition)) {
+            acknowledgment.acknowledge();
+            return;
+        }
+        dispatch(message, acknowledgment);
     }
 
     @KafkaListener(
@@ -79,10 +96,21 @@ public class DeliveryConsumer {
         log.info("Received retry from {}: deliveryId={}, attempt={}",
                 topic, message.getDeliveryId(), message.getAttemptCount());
 
-        asyncExecutor.submit(
-                () -> webhookDeliveryService.processDelivery(message),
-                acknowledgment,
-                message.getDeliveryId().toString());
+        dispatch(message, acknowledgment);
+    }
+
+    private void dispatch(DeliveryMessage message, Acknowledgment acknowledgment) {
+        if (reactiveMode) {
+            reactiveExecutor.submit(
+                    () -> webhookDeliveryService.processDeliveryReactive(message),
+                    acknowledgment,
+                    message.getDeliveryId().toString());
+        } else {
+            asyncExecutor.submit(
+                    () -> webhookDeliveryService.processDelivery(message),
+                    acknowledgment,
+                    message.getDeliveryId().toString());
+        }
     }
 
     private String extractCorrelationId(byte[] correlationIdBytes) {
@@ -0,0 +1,31 @@
+package com.webhook.platform.worker.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Last settled sequence number of an ordered endpoint, persisted by
+ * {@code PartitionOrderedDeliveryEngine} when {@code ordering.mode=partition}.
+ */
+@Entity
+@Table(name = "delivery_ordering_cursors")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderingCursor {
+
+    @Id
+    @Column(name = "endpoint_id")
+    private UUID endpointId;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Modifying;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -51,6 +52,16 @@ public interface DeliveryRepository extends JpaRepository<Delivery, UUID> {
             "WHERE id = :id AND status = 'PENDING'", nativeQuery = true)
     int claimForProcessing(@Param("id") UUID id);
 
+    /**
+     * Batch variant of {@link #claimForProcessing}: claims every PENDING delivery
+     * in {@code ids} in one statement and returns the claimed rows.
+     * Must run inside a read-write transaction.
+     */
+    @Query(value = "UPDATE deliveries SET status = 'PROCESSING', " +
+            "last_attempt_at = now(), updated_at = now(), version = version + 1 " +
+            "WHERE id IN (:ids) AND status = 'PENDING' RETURNING *", nativeQuery = true)
+    List<Delivery> claimBatchForProcessing(@Param("ids") Collection<UUID> ids);
+
     @Modifying
     @Query(value = "UPDATE deliveries SET attempt_count = attempt_count + 1, " +
             "updated_at = now(), version = version + 1 " +
@@ -63,6 +74,21 @@ public interface DeliveryRepository extends JpaRepository<Delivery, UUID> {
             @Param("sequenceNumber") Long sequenceNumber
     );
 
+    @Query("SELECT d.status FROM Delivery d WHERE d.id = :id")
+    Delivery.DeliveryStatus findStatusById(@Param("id") UUID id);
+
+    /**
+     * Endpoints that still have ordered deliveries waiting or in flight.
+     * Used to rebuild ordering lanes when a dispatch partition is assigned.
+     */
+    @Query("SELECT DISTINCT d.endpointId FROM Delivery d WHERE d.orderingEnabled = true " +
+            "AND d.sequenceNumber IS NOT NULL AND d.status IN ('PENDING', 'PROCESSING')")
+    List<UUID> findEndpointIdsWithOpenOrderedDeliveries();
+
+    @Query("SELECT d FROM Delivery d WHERE d.endpointId IN :endpointIds AND d.orderingEnabled = true " +
+            "AND d.sequenceNumber IS NOT NULL AND d.status IN ('PENDING', 'PROCESSING') ORDER BY d.sequenceNumber ASC")
+    List<Delivery> findOpenOrderedDeliveries(@Param("endpointIds") Collection<UUID> endpointIds);
+
     @Query("SELECT COUNT(d) FROM Delivery d WHERE d.status = 'PENDING' AND d.createdAt > :since")
     long countPending(@Param("since") Instant since);
 
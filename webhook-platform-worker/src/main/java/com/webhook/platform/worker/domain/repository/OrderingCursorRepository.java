@@ -0,0 +1,26 @@
+package com.webhook.platform.worker.domain.repository;
+
+import com.webhook.platform.worker.domain.entity.OrderingCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface OrderingCursorRepository extends JpaRepository<OrderingCursor, UUID> {
+
+    /**
+     * Inserts or advances the cursor. Never moves it backwards, so a late flush
+     * from a previous partition owner cannot undo progress made by the new one.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO delivery_ordering_cursors (endpoint_id, last_sequence, updated_at) " +
+            "VALUES (:endpointId, :lastSequence, now()) " +
+            "ON CONFLICT (endpoint_id) DO UPDATE SET " +
+            "last_sequence = GREATEST(delivery_ordering_cursors.last_sequence, EXCLUDED.last_sequence), " +
+            "updated_at = now()", nativeQuery = true)
+    int advance(@Param("endpointId") UUID endpointId, @Param("lastSequence") long lastSequence);
+}
@@ -5,12 +5,15 @@ import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -34,38 +37,65 @@ import java.util.concurrent.atomic.AtomicInteger;
  * {@code Acknowledgment.acknowledge()} is called only after successful
  * processing. On failure, the message is NOT acked — Kafka will redeliver
  * it after rebalance. Processing must be idempotent (already is: claim-based).
+ *
+ * <h3>Thread mode</h3>
+ * {@code webhook.async-thread-mode=platform} (default) runs tasks on a fixed pool of
+ * {@code webhook.async-pool-size} platform threads. {@code virtual} starts one virtual
+ * thread per task, so a delivery parked in {@code .block()} or a JDBC call costs a few
+ * KB of heap instead of a platform thread. The semaphore is then the only concurrency
+ * limit, sized by {@code webhook.async-virtual-max-in-flight}. Blocking inside
+ * {@code synchronized} pins the carrier thread; {@link VirtualThreadPinningMonitor}
+ * reports any such pinning while virtual mode is on.
  */
 @Component
 @Slf4j
 public class AsyncDeliveryExecutor {
 
+    public static final String MODE_PLATFORM = "platform";
+    public static final String MODE_VIRTUAL = "virtual";
+
     private final ExecutorService executor;
     private final Semaphore semaphore;
+    private final boolean virtualThreads;
     private final int maxConcurrent;
     private final long shutdownTimeoutSeconds;
     private final AtomicInteger inFlight = new AtomicInteger(0);
     private final AtomicInteger queued = new AtomicInteger(0);
 
+    public AsyncDeliveryExecutor(MeterRegistry meterRegistry, int poolSize, long shutdownTimeoutSeconds) {
+        this(meterRegistry, poolSize, shutdownTimeoutSeconds, MODE_PLATFORM, poolSize);
+    }
+
+    @Autowired
     public AsyncDeliveryExecutor(
             MeterRegistry meterRegistry,
             @Value("${webhook.async-pool-size:50}") int poolSize,
-            @Value("${webhook.async-shutdown-timeout-seconds:60}") long shutdownTimeoutSeconds) {
-        this.maxConcurrent = poolSize;
+            @Value("${webhook.async-shutdown-timeout-seconds:60}") long shutdownTimeoutSeconds,
+            @Value("${webhook.async-thread-mode:platform}") String threadMode,
+            @Value("${webhook.async-virtual-max-in-flight:1000}") int virtualMaxInFlight) {
+        this.virtualThreads = MODE_VIRTUAL.equalsIgnoreCase(threadMode);
+        this.maxConcurrent = virtualThreads ? virtualMaxInFlight : poolSize;
         this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
-        this.semaphore = new Semaphore(poolSize);
-
-        this.executor = new ThreadPoolExecutor(
-                poolSize, poolSize,
-                60L, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(poolSize * 2),
-                r -> {
-                    Thread t = new Thread(r);
-                    t.setName("delivery-worker-" + t.getId());
-                    t.setDaemon(true);
-                    return t;
-                },
-                new ThreadPoolExecutor.CallerRunsPolicy() // backpressure: caller thread runs if queue full
-        );
+        this.semaphore = new Semaphore(maxConcurrent);
+
+        if (virtualThreads) {
+            // No pool and no queue: every permit holder gets its own virtual thread
+            this.executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("delivery-vt-", 0).factory());
+        } else {
+            this.executor = new ThreadPoolExecutor(
+                    poolSize, poolSize,
+                    60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(poolSize * 2),
+                    r -> {
+                        Thread t = new Thread(r);
+                        t.setName("delivery-worker-" + t.threadId());
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy() // backpressure: caller thread runs if queue full
+            );
+        }
 
         Gauge.builder("async_delivery_in_flight", inFlight, AtomicInteger::doubleValue)
                 .register(meterRegistry);
@@ -74,7 +104,8 @@ public class AsyncDeliveryExecutor {
         Gauge.builder("async_delivery_queued", queued, AtomicInteger::doubleValue)
                 .register(meterRegistry);
 
-        log.info("AsyncDeliveryExecutor initialized: poolSize={}, shutdownTimeout={}s", poolSize, shutdownTimeoutSeconds);
+        log.info("AsyncDeliveryExecutor initialized: mode={}, maxConcurrent={}, shutdownTimeout={}s",
+                virtualThreads ? MODE_VIRTUAL : MODE_PLATFORM, maxConcurrent, shutdownTimeoutSeconds);
     }
 
     /**
@@ -87,6 +118,18 @@ public class AsyncDeliveryExecutor {
      * @param id   identifier for logging (deliveryId or eventId)
      */
     public void submit(Runnable task, Acknowledgment ack, String id) {
+        submit(task, id).thenRun(ack::acknowledge);
+    }
+
+    /**
+     * Submit a task and let the caller decide how to acknowledge.
+     * Used by batch listeners that must ack per record on the consumer thread.
+     *
+     * @return future completed normally on success, exceptionally on failure
+     *         (or immediately exceptionally if interrupted waiting for a permit)
+     */
+    public CompletableFuture<Void> submit(Runnable task, String id) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
         Map<String, String> mdcContext = MDC.getCopyOfContextMap();
 
         try {
@@ -97,7 +140,8 @@ public class AsyncDeliveryExecutor {
             Thread.currentThread().interrupt();
             queued.decrementAndGet();
             log.warn("Interrupted waiting for async delivery permit: {}", id);
-            return; // Don't ack — message will be redelivered
+            result.completeExceptionally(e); // Don't ack — message will be redelivered
+            return result;
         }
 
         inFlight.incrementAndGet();
@@ -107,17 +151,19 @@ public class AsyncDeliveryExecutor {
             }
             try {
                 task.run();
-                ack.acknowledge();
+                result.complete(null);
             } catch (Exception e) {
                 // Don't ack — Kafka will redeliver after rebalance
                 log.error("Async delivery failed, not acking (will be redelivered): id={}, error={}",
                         id, e.getMessage(), e);
+                result.completeExceptionally(e);
             } finally {
                 inFlight.decrementAndGet();
                 semaphore.release();
                 MDC.clear();
             }
         });
+        return result;
     }
 
     /**
@@ -127,6 +173,10 @@ public class AsyncDeliveryExecutor {
         return inFlight.get();
     }
 
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
     @PreDestroy
     public void shutdown() {
         log.info("Shutting down AsyncDeliveryExecutor, waiting for {} in-flight tasks...", inFlight.get());
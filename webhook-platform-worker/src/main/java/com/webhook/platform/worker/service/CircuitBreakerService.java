@@ -1,56 +1,159 @@
 package com.webhook.platform.worker.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RAtomicLong;
-import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
+import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 
 /**
- * Redis-backed circuit breaker with shared state across all worker pods.
+ * Hybrid circuit breaker: per-pod state machine in front of fleet-wide Redis state.
  *
- * State model (3 Redis keys per endpoint):
- *   cb:{id}:open  — marker key with TTL = waitDuration. EXISTS → OPEN, absent → CLOSED.
- *                    When TTL expires the circuit auto-transitions to CLOSED and new calls
- *                    act as "probes" (equivalent to HALF_OPEN). If failures recur the
- *                    circuit re-opens immediately.
- *   cb:{id}:fails — failure counter in the current evaluation window (TTL-based expiry).
- *   cb:{id}:calls — total-call counter in the current evaluation window.
+ * <h3>Local (hot path, no Redis)</h3>
+ * Each endpoint has a CLOSED → OPEN → HALF_OPEN state machine with a time-bucketed
+ * sliding window of {@code window-ttl-seconds}. {@link #isCallPermitted} and
+ * {@link #recordSuccess}/{@link #recordFailure} only touch this local state.
+ * After {@code wait-duration-seconds} an OPEN circuit lets
+ * {@code half-open-permitted-calls} probes through; if they all succeed it closes,
+ * any probe failure re-opens it. Probes that never report back (e.g. rejected by a
+ * later admission check) are forgotten after another wait duration.
  *
- * On Redis failure the breaker is fail-open (permits all calls).
+ * <h3>Fleet-wide (Redis, off the hot path)</h3>
+ * <ul>
+ *   <li>Every {@code flush-interval-ms} the CLOSED-state call/failure deltas of all
+ *       endpoints are added to the shared {@code cb:{id}:calls}/{@code cb:{id}:fails}
+ *       counters by one Lua script per batch. The script trips {@code cb:{id}:open}
+ *       when the fleet-wide failure rate crosses the threshold and returns the open
+ *       TTL of every flushed endpoint, which also repairs missed broadcasts.</li>
+ *   <li>Open/close transitions are written to {@code cb:{id}:open} asynchronously and
+ *       broadcast on the {@value #EVENTS_TOPIC} pub/sub channel so other pods follow
+ *       within one message hop.</li>
+ * </ul>
+ * Decisions are tagged {@code source=local} when the state in effect came from this
+ * pod's own window and {@code source=remote} when it came from Redis or another pod.
+ *
+ * On Redis failure the breaker degrades to purely local behaviour.
  */
 @Service
 @Slf4j
 public class CircuitBreakerService {
 
     private static final String KEY_PREFIX = "cb:";
+    static final String EVENTS_TOPIC = "cb:events";
+    private static final int WINDOW_BUCKETS = 12;
+    private static final int FLUSH_BATCH_SIZE = 200;
+
+    /**
+     * KEYS: calls, fails, open — per endpoint.
+     * ARGV: windowTtlSeconds, minimumCalls, failureRateThreshold, waitSeconds, then
+     *       callDelta, failureDelta per endpoint.
+     * Returns openTtlMillis, tripped (0/1) per endpoint.
+     */
+    private static final String FLUSH_SCRIPT = """
+            local ttl = tonumber(ARGV[1])
+            local minCalls = tonumber(ARGV[2])
+            local threshold = tonumber(ARGV[3])
+            local wait = tonumber(ARGV[4])
+            local result = {}
+            for i = 1, #KEYS / 3 do
+              local callsKey, failsKey, openKey = KEYS[i * 3 - 2], KEYS[i * 3 - 1], KEYS[i * 3]
+              local calls = redis.call('INCRBY', callsKey, ARGV[3 + i * 2])
+              redis.call('EXPIRE', callsKey, ttl)
+              local fails = redis.call('INCRBY', failsKey, ARGV[4 + i * 2])
+              redis.call('EXPIRE', failsKey, ttl)
+              local openTtl = redis.call('PTTL', openKey)
+              local tripped = 0
+              if openTtl < 0 and calls >= minCalls and fails * 100 >= threshold * calls then
+                redis.call('SET', openKey, '1', 'EX', wait)
+                redis.call('DEL', callsKey, failsKey)
+                openTtl = wait * 1000
+                tripped = 1
+              end
+              table.insert(result, openTtl)
+              table.insert(result, tripped)
+            end
+            return result
+            """;
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private enum Source { LOCAL, REMOTE }
+
+    private enum Transition { NONE, OPENED, CLOSED }
 
     private final RedissonClient redissonClient;
+    private final LongSupplier clock;
+    private final String instanceId = UUID.randomUUID().toString();
     private final Counter stateTransitionCounter;
     private final Counter rejectedCounter;
+    private final Counter permittedLocal;
+    private final Counter permittedRemote;
+    private final Counter rejectedLocal;
+    private final Counter rejectedRemote;
+    private final Counter remoteOpenEvents;
+    private final Counter remoteCloseEvents;
+    private final Counter flushFailures;
+    private final Timer flushTimer;
     private final int failureRateThreshold;
     private final int minimumNumberOfCalls;
     private final int waitDurationSeconds;
+    private final long waitDurationMs;
     private final int windowTtlSeconds;
+    private final long bucketMs;
+    private final int halfOpenPermittedCalls;
+    private final Cache<UUID, EndpointCircuit> circuits;
+    private Integer listenerId;
 
+    @Autowired
     public CircuitBreakerService(
             RedissonClient redissonClient,
             MeterRegistry meterRegistry,
             @Value("${circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
             @Value("${circuit-breaker.minimum-calls:5}") int minimumNumberOfCalls,
             @Value("${circuit-breaker.wait-duration-seconds:30}") int waitDurationSeconds,
-            @Value("${circuit-breaker.window-ttl-seconds:120}") int windowTtlSeconds) {
+            @Value("${circuit-breaker.window-ttl-seconds:120}") int windowTtlSeconds,
+            @Value("${circuit-breaker.half-open-permitted-calls:3}") int halfOpenPermittedCalls) {
+        this(redissonClient, meterRegistry, failureRateThreshold, minimumNumberOfCalls, waitDurationSeconds,
+                windowTtlSeconds, halfOpenPermittedCalls, System::currentTimeMillis);
+    }
+
+    CircuitBreakerService(RedissonClient redissonClient, MeterRegistry meterRegistry,
+                          int failureRateThreshold, int minimumNumberOfCalls, int waitDurationSeconds,
+                          int windowTtlSeconds, int halfOpenPermittedCalls, LongSupplier clock) {
         this.redissonClient = redissonClient;
+        this.clock = clock;
         this.failureRateThreshold = failureRateThreshold;
         this.minimumNumberOfCalls = minimumNumberOfCalls;
         this.waitDurationSeconds = waitDurationSeconds;
+        this.waitDurationMs = waitDurationSeconds * 1000L;
         this.windowTtlSeconds = windowTtlSeconds;
+        this.bucketMs = Math.max(1, windowTtlSeconds * 1000L / WINDOW_BUCKETS);
+        this.halfOpenPermittedCalls = Math.max(1, halfOpenPermittedCalls);
+        this.circuits = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Duration.ofSeconds(Math.max(windowTtlSeconds, waitDurationSeconds) * 2L))
+                .build();
 
         this.stateTransitionCounter = Counter.builder("circuit_breaker_state_transitions_total")
                 .description("Circuit breaker state transitions")
@@ -58,78 +161,250 @@ public class CircuitBreakerService {
         this.rejectedCounter = Counter.builder("circuit_breaker_rejected_total")
                 .description("Calls rejected by open circuit breaker")
                 .register(meterRegistry);
+        this.permittedLocal = decisionCounter(meterRegistry, "permitted", Source.LOCAL);
+        this.permittedRemote = decisionCounter(meterRegistry, "permitted", Source.REMOTE);
+        this.rejectedLocal = decisionCounter(meterRegistry, "rejected", Source.LOCAL);
+        this.rejectedRemote = decisionCounter(meterRegistry, "rejected", Source.REMOTE);
+        this.remoteOpenEvents = Counter.builder("circuit_breaker_remote_events_total")
+                .description("Open/close broadcasts received from other pods")
+                .tag("type", "open")
+                .register(meterRegistry);
+        this.remoteCloseEvents = Counter.builder("circuit_breaker_remote_events_total")
+                .description("Open/close broadcasts received from other pods")
+                .tag("type", "closed")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("circuit_breaker_flush_failures_total")
+                .description("Batched Redis flushes that failed (deltas dropped)")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("circuit_breaker_flush_duration")
+                .description("Time to flush call/failure deltas to Redis")
+                .register(meterRegistry);
 
-        log.info("Redis circuit breaker initialized: failureRate={}%, minCalls={}, waitDuration={}s, windowTTL={}s",
-                failureRateThreshold, minimumNumberOfCalls, waitDurationSeconds, windowTtlSeconds);
+        log.info("Hybrid circuit breaker initialized: failureRate={}%, minCalls={}, waitDuration={}s, windowTTL={}s, halfOpenCalls={}",
+                failureRateThreshold, minimumNumberOfCalls, waitDurationSeconds, windowTtlSeconds,
+                this.halfOpenPermittedCalls);
     }
 
-    public boolean isCallPermitted(UUID endpointId) {
+    private static Counter decisionCounter(MeterRegistry registry, String result, Source source) {
+        return Counter.builder("circuit_breaker_decisions_total")
+                .description("Circuit breaker admission decisions by origin of the state in effect")
+                .tag("result", result)
+                .tag("source", source.name().toLowerCase())
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
         try {
-            RBucket<String> openBucket = redissonClient.getBucket(openKey(endpointId));
-            if (openBucket.isExists()) {
-                log.warn("CircuitBreaker OPEN for endpoint {}, rejecting call", endpointId);
-                rejectedCounter.increment();
-                return false;
-            }
-            return true;
+            listenerId = eventsTopic().addListener(String.class, (channel, message) -> onRemoteEvent(message));
         } catch (Exception e) {
-            log.warn("Redis unavailable for circuit breaker check, permitting call for endpoint {}: {}",
-                    endpointId, e.getMessage());
+            log.warn("Circuit breaker broadcast subscription failed, relying on flush reconciliation: {}",
+                    e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerId != null) {
+            try {
+                eventsTopic().removeListener(listenerId);
+            } catch (Exception e) {
+                log.debug("Failed to remove circuit breaker listener: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Admission check for a delivery attempt. In HALF_OPEN this consumes a probe slot,
+     * so callers that only want to know whether the endpoint is down should use
+     * {@link #isOpen(UUID)}.
+     */
+    public boolean isCallPermitted(UUID endpointId) {
+        EndpointCircuit circuit = circuits.getIfPresent(endpointId);
+        if (circuit == null) {
+            permittedLocal.increment();
             return true;
         }
+        boolean permitted = circuit.tryAcquire(clock.getAsLong());
+        boolean remote = circuit.source == Source.REMOTE;
+        if (permitted) {
+            (remote ? permittedRemote : permittedLocal).increment();
+        } else {
+            (remote ? rejectedRemote : rejectedLocal).increment();
+            rejectedCounter.increment();
+            log.debug("CircuitBreaker {} for endpoint {}, rejecting call", circuit.state, endpointId);
+        }
+        return permitted;
+    }
+
+    /**
+     * Whether the circuit is currently OPEN, without consuming a HALF_OPEN probe.
+     */
+    public boolean isOpen(UUID endpointId) {
+        EndpointCircuit circuit = circuits.getIfPresent(endpointId);
+        return circuit != null && circuit.isOpen(clock.getAsLong());
+    }
+
+    State getState(UUID endpointId) {
+        EndpointCircuit circuit = circuits.getIfPresent(endpointId);
+        return circuit == null ? State.CLOSED : circuit.state;
     }
 
     public void recordSuccess(UUID endpointId, long durationMs) {
-        try {
-            RAtomicLong calls = redissonClient.getAtomicLong(callsKey(endpointId));
-            calls.incrementAndGet();
-            calls.expire(Duration.ofSeconds(windowTtlSeconds));
-        } catch (Exception e) {
-            log.debug("Redis unavailable for circuit breaker success recording: {}", e.getMessage());
+        EndpointCircuit circuit = circuits.get(endpointId, id -> new EndpointCircuit());
+        if (circuit.onOutcome(clock.getAsLong(), false) == Transition.CLOSED) {
+            log.info("CircuitBreaker CLOSED for endpoint {} after {} successful probes",
+                    endpointId, halfOpenPermittedCalls);
+            broadcastClosed(endpointId);
         }
     }
 
     public void recordFailure(UUID endpointId, Throwable throwable) {
+        EndpointCircuit circuit = circuits.get(endpointId, id -> new EndpointCircuit());
+        if (circuit.onOutcome(clock.getAsLong(), true) == Transition.OPENED) {
+            log.warn("CircuitBreaker OPENED for endpoint {} (local window, wait: {}s, last error: {})",
+                    endpointId, waitDurationSeconds, throwable.getMessage());
+            broadcastOpen(endpointId, waitDurationMs);
+        }
+    }
+
+    public void reset(UUID endpointId) {
+        EndpointCircuit circuit = circuits.getIfPresent(endpointId);
+        if (circuit != null) {
+            circuit.applyRemoteClose();
+        }
+        broadcastClosed(endpointId);
+        log.info("Reset circuit breaker for endpoint: {}", endpointId);
+    }
+
+    /**
+     * Pushes the CLOSED-state call/failure deltas accumulated since the last flush to
+     * Redis and applies the fleet-wide verdict returned by the script.
+     */
+    @Scheduled(fixedDelayString = "${circuit-breaker.flush-interval-ms:1000}")
+    public void flush() {
+        List<PendingDelta> batch = new ArrayList<>();
+        for (Map.Entry<UUID, EndpointCircuit> entry : circuits.asMap().entrySet()) {
+            PendingDelta delta = entry.getValue().drainPending(entry.getKey());
+            if (delta != null) {
+                batch.add(delta);
+                if (batch.size() == FLUSH_BATCH_SIZE) {
+                    flushBatch(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+    }
+
+    private void flushBatch(List<PendingDelta> batch) {
+        List<Object> keys = new ArrayList<>(batch.size() * 3);
+        List<Object> args = new ArrayList<>(4 + batch.size() * 2);
+        args.add(String.valueOf(windowTtlSeconds));
+        args.add(String.valueOf(minimumNumberOfCalls));
+        args.add(String.valueOf(failureRateThreshold));
+        args.add(String.valueOf(waitDurationSeconds));
+        for (PendingDelta delta : batch) {
+            keys.add(callsKey(delta.endpointId()));
+            keys.add(failsKey(delta.endpointId()));
+            keys.add(openKey(delta.endpointId()));
+            args.add(String.valueOf(delta.calls()));
+            args.add(String.valueOf(delta.failures()));
+        }
+
+        List<Object> result;
+        Timer.Sample sample = Timer.start();
         try {
-            RAtomicLong fails = redissonClient.getAtomicLong(failsKey(endpointId));
-            long failCount = fails.incrementAndGet();
-            fails.expire(Duration.ofSeconds(windowTtlSeconds));
-
-            RAtomicLong calls = redissonClient.getAtomicLong(callsKey(endpointId));
-            long callCount = calls.incrementAndGet();
-            calls.expire(Duration.ofSeconds(windowTtlSeconds));
-
-            if (callCount >= minimumNumberOfCalls) {
-                long failureRate = (failCount * 100) / callCount;
-                if (failureRate >= failureRateThreshold) {
-                    tripCircuit(endpointId, failureRate);
+            result = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_WRITE, FLUSH_SCRIPT, RScript.ReturnType.MULTI, keys, args.toArray());
+        } catch (Exception e) {
+            flushFailures.increment();
+            log.debug("Redis unavailable for circuit breaker flush, dropped deltas for {} endpoints: {}",
+                    batch.size(), e.getMessage());
+            return;
+        } finally {
+            sample.stop(flushTimer);
+        }
+
+        long now = clock.getAsLong();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingDelta delta = batch.get(i);
+            long openTtlMs = ((Number) result.get(i * 2)).longValue();
+            boolean tripped = ((Number) result.get(i * 2 + 1)).longValue() == 1;
+            if (openTtlMs <= 0) {
+                continue;
+            }
+            if (delta.circuit().applyRemoteOpen(now + openTtlMs)) {
+                if (tripped) {
+                    log.warn("CircuitBreaker OPENED for endpoint {} (fleet-wide failure rate, wait: {}s)",
+                            delta.endpointId(), waitDurationSeconds);
+                    publish("OPEN", delta.endpointId(), openTtlMs);
+                } else {
+                    log.info("CircuitBreaker OPEN for endpoint {} picked up from Redis ({}ms left)",
+                            delta.endpointId(), openTtlMs);
                 }
             }
+        }
+    }
+
+    void onRemoteEvent(String message) {
+        // instanceId|OPEN|endpointId|openMillis  or  instanceId|CLOSED|endpointId|0
+        String[] parts = message.split("\\|");
+        if (parts.length != 4 || instanceId.equals(parts[0])) {
+            return;
+        }
+        UUID endpointId;
+        long openMs;
+        try {
+            endpointId = UUID.fromString(parts[2]);
+            openMs = Long.parseLong(parts[3]);
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed circuit breaker event: {}", message);
+            return;
+        }
+        if ("OPEN".equals(parts[1])) {
+            remoteOpenEvents.increment();
+            EndpointCircuit circuit = circuits.get(endpointId, id -> new EndpointCircuit());
+            if (circuit.applyRemoteOpen(clock.getAsLong() + openMs)) {
+                log.info("CircuitBreaker OPEN for endpoint {} (broadcast from another pod)", endpointId);
+            }
+        } else if ("CLOSED".equals(parts[1])) {
+            remoteCloseEvents.increment();
+            EndpointCircuit circuit = circuits.getIfPresent(endpointId);
+            if (circuit != null && circuit.applyRemoteClose()) {
+                log.info("CircuitBreaker CLOSED for endpoint {} (broadcast from another pod)", endpointId);
+            }
+        }
+    }
+
+    private void broadcastOpen(UUID endpointId, long openMs) {
+        try {
+            redissonClient.getBucket(openKey(endpointId), StringCodec.INSTANCE)
+                    .setAsync("1", Duration.ofMillis(openMs));
+            redissonClient.getKeys().deleteAsync(failsKey(endpointId), callsKey(endpointId));
+            publish("OPEN", endpointId, openMs);
         } catch (Exception e) {
-            log.debug("Redis unavailable for circuit breaker failure recording: {}", e.getMessage());
+            log.debug("Redis unavailable for circuit breaker open broadcast: {}", e.getMessage());
         }
     }
 
-    public void reset(UUID endpointId) {
+    private void broadcastClosed(UUID endpointId) {
         try {
-            redissonClient.getKeys().delete(
-                    openKey(endpointId),
-                    failsKey(endpointId),
-                    callsKey(endpointId));
-            log.info("Reset circuit breaker for endpoint: {}", endpointId);
+            redissonClient.getKeys().deleteAsync(openKey(endpointId), failsKey(endpointId), callsKey(endpointId));
+            publish("CLOSED", endpointId, 0);
         } catch (Exception e) {
-            log.warn("Failed to reset circuit breaker for endpoint {}: {}", endpointId, e.getMessage());
+            log.debug("Redis unavailable for circuit breaker close broadcast: {}", e.getMessage());
         }
     }
 
-    private void tripCircuit(UUID endpointId, long failureRate) {
-        RBucket<String> openBucket = redissonClient.getBucket(openKey(endpointId));
-        openBucket.set("1", Duration.ofSeconds(waitDurationSeconds));
-        // Reset counters so the next evaluation window starts fresh after circuit reopens
-        redissonClient.getKeys().delete(failsKey(endpointId), callsKey(endpointId));
-        log.warn("CircuitBreaker OPENED for endpoint {} (failure rate: {}%, wait: {}s)",
-                endpointId, failureRate, waitDurationSeconds);
-        stateTransitionCounter.increment();
+    private void publish(String type, UUID endpointId, long openMs) {
+        eventsTopic().publishAsync(instanceId + "|" + type + "|" + endpointId + "|" + openMs);
+    }
+
+    private RTopic eventsTopic() {
+        return redissonClient.getTopic(EVENTS_TOPIC, StringCodec.INSTANCE);
     }
 
     private String openKey(UUID endpointId) {
@@ -143,4 +418,189 @@ public class CircuitBreakerService {
     private String callsKey(UUID endpointId) {
         return KEY_PREFIX + endpointId + ":calls";
     }
+
+    private record PendingDelta(UUID endpointId, EndpointCircuit circuit, long calls, long failures) {}
+
+    /**
+     * Local state of one endpoint. All transitions happen under {@link #lock}; the
+     * pending deltas are atomics so the flusher never contends with deliveries.
+     */
+    private final class EndpointCircuit {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] bucketEpoch = new long[WINDOW_BUCKETS];
+        private final long[] bucketCalls = new long[WINDOW_BUCKETS];
+        private final long[] bucketFailures = new long[WINDOW_BUCKETS];
+        private final AtomicLong pendingCalls = new AtomicLong();
+        private final AtomicLong pendingFailures = new AtomicLong();
+
+        private volatile State state = State.CLOSED;
+        private volatile Source source = Source.LOCAL;
+        private long openUntil;
+        private long halfOpenSince;
+        private int probesIssued;
+        private int probeSuccesses;
+
+        boolean tryAcquire(long now) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            lock.lock();
+            try {
+                if (state == State.OPEN) {
+                    if (now < openUntil) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    halfOpenSince = now;
+                    probesIssued = 0;
+                    probeSuccesses = 0;
+                    stateTransitionCounter.increment();
+                }
+                if (state == State.HALF_OPEN) {
+                    if (now - halfOpenSince > waitDurationMs) {
+                        // Earlier probes never reported back — allow a fresh round
+                        halfOpenSince = now;
+                        probesIssued = 0;
+                        probeSuccesses = 0;
+                    }
+                    if (probesIssued >= halfOpenPermittedCalls) {
+                        return false;
+                    }
+                    probesIssued++;
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isOpen(long now) {
+            lock.lock();
+            try {
+                return state == State.OPEN && now < openUntil;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Transition onOutcome(long now, boolean failed) {
+            lock.lock();
+            try {
+                switch (state) {
+                    case CLOSED -> {
+                        pendingCalls.incrementAndGet();
+                        if (failed) {
+                            pendingFailures.incrementAndGet();
+                        }
+                        if (addToWindow(now, failed)) {
+                            open(now + waitDurationMs, Source.LOCAL);
+                            return Transition.OPENED;
+                        }
+                    }
+                    case HALF_OPEN -> {
+                        if (failed) {
+                            open(now + waitDurationMs, Source.LOCAL);
+                            return Transition.OPENED;
+                        }
+                        if (++probeSuccesses >= halfOpenPermittedCalls) {
+                            close(Source.LOCAL);
+                            return Transition.CLOSED;
+                        }
+                    }
+                    case OPEN -> {
+                        // Result of a call admitted before the circuit opened
+                    }
+                }
+                return Transition.NONE;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean applyRemoteOpen(long until) {
+            lock.lock();
+            try {
+                if (state == State.OPEN && until <= openUntil) {
+                    return false;
+                }
+                open(until, Source.REMOTE);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean applyRemoteClose() {
+            lock.lock();
+            try {
+                if (state == State.CLOSED) {
+                    return false;
+                }
+                close(Source.REMOTE);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        PendingDelta drainPending(UUID endpointId) {
+            long calls = pendingCalls.getAndSet(0);
+            long failures = pendingFailures.getAndSet(0);
+            if (calls == 0) {
+                return null;
+            }
+            return new PendingDelta(endpointId, this, calls, failures);
+        }
+
+        /**
+         * @return true if the window now exceeds the failure-rate threshold
+         */
+        private boolean addToWindow(long now, boolean failed) {
+            long epoch = now / bucketMs;
+            int slot = (int) (epoch % WINDOW_BUCKETS);
+            if (bucketEpoch[slot] != epoch) {
+                bucketEpoch[slot] = epoch;
+                bucketCalls[slot] = 0;
+                bucketFailures[slot] = 0;
+            }
+            bucketCalls[slot]++;
+            if (failed) {
+                bucketFailures[slot]++;
+            }
+
+            long calls = 0;
+            long failures = 0;
+            for (int i = 0; i < WINDOW_BUCKETS; i++) {
+                if (epoch - bucketEpoch[i] < WINDOW_BUCKETS) {
+                    calls += bucketCalls[i];
+                    failures += bucketFailures[i];
+                }
+            }
+            return calls >= minimumNumberOfCalls && failures * 100 >= (long) failureRateThreshold * calls;
+        }
+
+        private void open(long until, Source origin) {
+            state = State.OPEN;
+            source = origin;
+            openUntil = until;
+            clearWindow();
+            stateTransitionCounter.increment();
+        }
+
+        private void close(Source origin) {
+            state = State.CLOSED;
+            source = origin;
+            clearWindow();
+            stateTransitionCounter.increment();
+        }
+
+        private void clearWindow() {
+            Arrays.fill(bucketEpoch, 0);
+            Arrays.fill(bucketCalls, 0);
+            Arrays.fill(bucketFailures, 0);
+            pendingCalls.set(0);
+            pendingFailures.set(0);
+        }
+    }
 }
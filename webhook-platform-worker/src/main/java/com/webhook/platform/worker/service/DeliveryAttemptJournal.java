@@ -0,0 +1,314 @@
+package com.webhook.platform.worker.service;
+
+import com.webhook.platform.worker.domain.entity.DeliveryAttempt;
+import com.webhook.platform.worker.domain.repository.DeliveryAttemptRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write path for delivery attempt rows and SUCCESS transitions.
+ *
+ * <h3>Modes</h3>
+ * {@code webhook.attempt-journal.mode=sync} (default) saves every attempt through JPA as it
+ * happens. {@code batched} queues attempts and SUCCESS transitions in memory; one flusher
+ * thread writes them every {@code flush-interval-ms} or {@code max-batch-rows}, whichever
+ * comes first, as one transaction with a multi-row JDBC batch per statement
+ * ({@code reWriteBatchedInserts} turns the attempt batch into multi-row INSERTs).
+ *
+ * <h3>Durability</h3>
+ * Callers wait on {@link #barrier(UUID)} before returning from a delivery, so the Kafka record is
+ * only acked once that delivery's own attempt and status rows are committed. A crash loses at most the
+ * unflushed window; those records are not acked, their deliveries stay PROCESSING and are
+ * re-sent after stuck-delivery recovery (at-least-once, as before). A batch that keeps failing
+ * after {@value #WRITE_ATTEMPTS} tries fails its waiters, so their records are not acked either.
+ *
+ * <p>FAILED, DLQ and retry transitions stay synchronous: they read the fresh row
+ * (attempt count, retry policy) and are comparatively rare.</p>
+ */
+@Component
+@Slf4j
+public class DeliveryAttemptJournal {
+
+    public static final String MODE_SYNC = "sync";
+    public static final String MODE_BATCHED = "batched";
+
+    private static final int WRITE_ATTEMPTS = 3;
+
+    static final String INSERT_ATTEMPT_SQL = "INSERT INTO delivery_attempts (id, delivery_id, attempt_number, " +
+            "request_headers, request_body, http_status_code, response_headers, response_body, error_message, " +
+            "duration_ms, created_at) VALUES (?, ?, ?, ?::jsonb, ?, ?, ?::jsonb, ?, ?, ?, now())";
+
+    static final String MARK_SUCCESS_SQL = "UPDATE deliveries SET status = 'SUCCESS', succeeded_at = now(), " +
+            "updated_at = now(), version = version + 1 WHERE id = ? AND status = 'PROCESSING'";
+
+    private final DeliveryAttemptRepository deliveryAttemptRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean batched;
+    private final long flushIntervalMs;
+    private final int maxBatchRows;
+
+    private final BlockingQueue<Entry> queue;
+    private final ConcurrentMap<UUID, CompletableFuture<Void>> pendingByDelivery = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread flusher;
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchRows;
+    private final Counter flushFailures;
+
+    public DeliveryAttemptJournal(
+            DeliveryAttemptRepository deliveryAttemptRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${webhook.attempt-journal.mode:sync}") String mode,
+            @Value("${webhook.attempt-journal.flush-interval-ms:20}") long flushIntervalMs,
+            @Value("${webhook.attempt-journal.max-batch-rows:200}") int maxBatchRows,
+            @Value("${webhook.attempt-journal.max-buffered-rows:5000}") int maxBufferedRows) {
+        this.deliveryAttemptRepository = deliveryAttemptRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batched = MODE_BATCHED.equalsIgnoreCase(mode);
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxBatchRows = maxBatchRows;
+        this.queue = new LinkedBlockingQueue<>(maxBufferedRows);
+
+        this.flushTimer = Timer.builder("webhook_attempt_journal_flush_duration").register(meterRegistry);
+        this.batchRows = DistributionSummary.builder("webhook_attempt_journal_batch_rows").register(meterRegistry);
+        this.flushFailures = Counter.builder("webhook_attempt_journal_flush_failures_total").register(meterRegistry);
+        Gauge.builder("webhook_attempt_journal_buffered", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!batched) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "attempt-journal");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Attempt journal batched: flushInterval={}ms, maxBatchRows={}, maxBufferedRows={}",
+                flushIntervalMs, maxBatchRows, queue.remainingCapacity());
+    }
+
+    /**
+     * Drains whatever is buffered before the datasource goes away. Deliveries still waiting
+     * on {@link #barrier(UUID)} are released only if that final flush succeeds.
+     */
+    @PreDestroy
+    void stop() {
+        if (!batched) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Entry> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            write(rest);
+        }
+    }
+
+    public boolean isBatched() {
+        return batched;
+    }
+
+    /**
+     * Persists an attempt row: immediately in sync mode, with the next flush in batched mode.
+     * The returned future completes once this row is committed.
+     */
+    public CompletableFuture<Void> record(DeliveryAttempt attempt) {
+        if (!batched) {
+            deliveryAttemptRepository.save(attempt);
+            return CompletableFuture.completedFuture(null);
+        }
+        if (attempt.getId() == null) {
+            attempt.setId(UUID.randomUUID());
+        }
+        return append(new Entry(attempt, null), attempt.getDeliveryId());
+    }
+
+    /**
+     * Queues the PROCESSING → SUCCESS transition of a delivery. Batched mode only.
+     * The returned future completes once the transition is committed.
+     */
+    public CompletableFuture<Void> markSucceeded(UUID deliveryId) {
+        if (!batched) {
+            throw new IllegalStateException("markSucceeded requires webhook.attempt-journal.mode=batched");
+        }
+        return append(new Entry(null, deliveryId), deliveryId);
+    }
+
+    /**
+     * Future completed once every entry appended for {@code deliveryId} is committed, and
+     * failed if any of them was dropped. Entries of other deliveries are not waited on: a
+     * later batch committing says nothing about an earlier one that gave up.
+     *
+     * <p>Hands the pending entries over to the caller, so call it once, after the last
+     * {@link #record} / {@link #markSucceeded} of the delivery.</p>
+     */
+    public CompletableFuture<Void> barrier(UUID deliveryId) {
+        CompletableFuture<Void> pending = pendingByDelivery.remove(deliveryId);
+        return pending != null ? pending : CompletableFuture.completedFuture(null);
+    }
+
+    private CompletableFuture<Void> append(Entry entry, UUID deliveryId) {
+        CompletableFuture<Void> pending = pendingByDelivery.merge(deliveryId, entry.done,
+                (previous, next) -> CompletableFuture.allOf(previous, next));
+        // Committed entries need no barrier; failed ones stay until barrier() hands them over
+        pending.whenComplete((ignored, error) -> {
+            if (error == null) {
+                pendingByDelivery.remove(deliveryId, pending);
+            }
+        });
+        try {
+            // Blocks when max-buffered-rows are waiting: backpressure onto the delivery threads
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            entry.done.completeExceptionally(e);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing attempt journal entry", e);
+        }
+        return entry.done;
+    }
+
+    private void runFlusher() {
+        List<Entry> batch = new ArrayList<>(maxBatchRows);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < maxBatchRows) {
+                    long remaining = deadline - System.nanoTime();
+                    Entry next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchRows - batch.size());
+                }
+            } catch (InterruptedException e) {
+                if (running) {
+                    continue;
+                }
+                // Shutting down: stop() drains the rest
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+            if (!running) {
+                return;
+            }
+        }
+    }
+
+    void write(List<Entry> batch) {
+        List<Object[]> attempts = new ArrayList<>();
+        List<Object[]> successes = new ArrayList<>();
+        for (Entry entry : batch) {
+            if (entry.attempt != null) {
+                attempts.add(attemptRow(entry.attempt));
+            } else {
+                successes.add(new Object[] { entry.succeededDeliveryId });
+            }
+        }
+
+        Exception lastError = null;
+        for (int attempt = 1; attempt <= WRITE_ATTEMPTS; attempt++) {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(tx -> {
+                    if (!attempts.isEmpty()) {
+                        jdbcTemplate.batchUpdate(INSERT_ATTEMPT_SQL, attempts, ATTEMPT_TYPES);
+                    }
+                    if (!successes.isEmpty()) {
+                        jdbcTemplate.batchUpdate(MARK_SUCCESS_SQL, successes, new int[] { Types.OTHER });
+                    }
+                }));
+                batchRows.record(batch.size());
+                batch.forEach(entry -> entry.done.complete(null));
+                return;
+            } catch (Exception e) {
+                lastError = e;
+                flushFailures.increment();
+                log.warn("Attempt journal flush of {} rows failed (try {}/{}): {}",
+                        batch.size(), attempt, WRITE_ATTEMPTS, e.getMessage());
+                sleepQuietly(100L * attempt);
+            }
+        }
+        log.error("Attempt journal dropped a batch of {} rows after {} tries; their records will not be acked",
+                batch.size(), WRITE_ATTEMPTS, lastError);
+        for (Entry entry : batch) {
+            entry.done.completeExceptionally(lastError);
+        }
+    }
+
+    private static final int[] ATTEMPT_TYPES = {
+            Types.OTHER, Types.OTHER, Types.INTEGER, Types.VARCHAR, Types.VARCHAR,
+            Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER
+    };
+
+    private static Object[] attemptRow(DeliveryAttempt attempt) {
+        return new Object[] {
+                attempt.getId(),
+                attempt.getDeliveryId(),
+                attempt.getAttemptNumber(),
+                attempt.getRequestHeaders(),
+                attempt.getRequestBody(),
+                attempt.getHttpStatusCode(),
+                attempt.getResponseHeaders(),
+                attempt.getResponseBody(),
+                attempt.getErrorMessage(),
+                attempt.getDurationMs()
+        };
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Either an attempt row or a SUCCESS transition.
+     */
+    record Entry(DeliveryAttempt attempt, UUID succeededDeliveryId, CompletableFuture<Void> done) {
+        Entry(DeliveryAttempt attempt, UUID succeededDeliveryId) {
+            this(attempt, succeededDeliveryId, new CompletableFuture<>());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.webhook.platform.worker.service;
+
+import com.webhook.platform.common.constants.KafkaTopics;
+import com.webhook.platform.common.dto.DeliveryOutcomeMessage;
+import com.webhook.platform.worker.domain.entity.Delivery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Publishes the outcome of every HTTP attempt to {@code deliveries.outcomes}, keyed by
+ * project id so that all outcomes of a project reach the same alert engine instance in order.
+ *
+ * <p>Best-effort like the DLQ notification: the send is asynchronous and a failed send is
+ * only counted and logged, never retried or allowed to affect the delivery.</p>
+ */
+@Component
+@Slf4j
+public class DeliveryOutcomePublisher {
+
+    private final KafkaTemplate<String, DeliveryOutcomeMessage> outcomeKafkaTemplate;
+    private final boolean enabled;
+    private final Counter sendFailures;
+
+    public DeliveryOutcomePublisher(
+            KafkaTemplate<String, DeliveryOutcomeMessage> outcomeKafkaTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${webhook.delivery-outcomes.enabled:true}") boolean enabled) {
+        this.outcomeKafkaTemplate = outcomeKafkaTemplate;
+        this.enabled = enabled;
+        this.sendFailures = Counter.builder("webhook_delivery_outcome_publish_failures_total")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Call after the delivery's status was updated for the attempt.
+     */
+    public void publish(Delivery delivery, UUID projectId, int durationMs) {
+        if (!enabled) {
+            return;
+        }
+        DeliveryOutcomeMessage message = DeliveryOutcomeMessage.builder()
+                .deliveryId(delivery.getId())
+                .projectId(projectId)
+                .endpointId(delivery.getEndpointId())
+                .status(delivery.getStatus() != null ? delivery.getStatus().name() : null)
+                .latencyMs(durationMs)
+                .occurredAtMs(System.currentTimeMillis())
+                .build();
+        try {
+            outcomeKafkaTemplate.send(KafkaTopics.DELIVERIES_OUTCOMES, projectId.toString(), message)
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            onFailure(delivery, error);
+                        }
+                    });
+        } catch (Exception e) {
+            onFailure(delivery, e);
+        }
+    }
+
+    private void onFailure(Delivery delivery, Throwable error) {
+        sendFailures.increment();
+        log.debug("Failed to publish outcome of delivery {}: {}", delivery.getId(), error.getMessage());
+    }
+}
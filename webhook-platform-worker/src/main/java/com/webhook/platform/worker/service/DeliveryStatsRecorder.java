@@ -0,0 +1,264 @@
+package com.webhook.platform.worker.service;
+
+import com.webhook.platform.common.util.LatencyHistogram;
+import com.webhook.platform.worker.domain.entity.Delivery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams delivery outcomes into the {@code delivery_stats_minute} rollup (V043) that the
+ * analytics dashboard reads instead of scanning {@code deliveries} and {@code delivery_attempts}.
+ *
+ * <p>Counters are accumulated in memory per (project, endpoint, event type, minute) and
+ * written every {@code flush-interval-ms} as one transaction of
+ * {@code INSERT ... ON CONFLICT DO UPDATE} increments, sorted by key so that concurrent
+ * workers lock rows in the same order. A failed flush puts its counters back for the next
+ * run; a crash loses at most one interval of counts. Redelivered records (at-least-once)
+ * can be counted twice.</p>
+ *
+ * <p>{@code deliveries}, {@code succeeded} and {@code failed} go to the minute the delivery
+ * was created; {@code attempts} and latency to the minute of the attempt. A delivery is
+ * counted on its first attempt, so deliveries that never reach an HTTP attempt (endpoint
+ * missing, disabled or unverified) are not in the rollup.</p>
+ *
+ * <p>Attempt latencies are also recorded into one {@link LatencyHistogram} per
+ * (project, endpoint, minute). A histogram is appended to {@code delivery_latency_minute}
+ * (V044) in the same transaction as the counters, once its minute has closed, so each worker
+ * writes at most one row per endpoint and minute.</p>
+ */
+@Component
+@Slf4j
+public class DeliveryStatsRecorder {
+
+    static final String UPSERT_SQL = "INSERT INTO delivery_stats_minute (project_id, endpoint_id, event_type, " +
+            "bucket_start, deliveries, succeeded, failed, attempts, latency_sum_ms, latency_max_ms) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (project_id, bucket_start, endpoint_id, event_type) DO UPDATE SET " +
+            "deliveries = delivery_stats_minute.deliveries + EXCLUDED.deliveries, " +
+            "succeeded = delivery_stats_minute.succeeded + EXCLUDED.succeeded, " +
+            "failed = delivery_stats_minute.failed + EXCLUDED.failed, " +
+            "attempts = delivery_stats_minute.attempts + EXCLUDED.attempts, " +
+            "latency_sum_ms = delivery_stats_minute.latency_sum_ms + EXCLUDED.latency_sum_ms, " +
+            "latency_max_ms = GREATEST(delivery_stats_minute.latency_max_ms, EXCLUDED.latency_max_ms)";
+
+    static final String INSERT_LATENCY_SQL = "INSERT INTO delivery_latency_minute " +
+            "(project_id, endpoint_id, bucket_start, histogram) VALUES (?, ?, ?, ?)";
+
+    private static final int[] INSERT_LATENCY_TYPES = {
+            Types.OTHER, Types.OTHER, Types.TIMESTAMP_WITH_TIMEZONE, Types.BINARY
+    };
+
+    private static final int[] UPSERT_TYPES = {
+            Types.OTHER, Types.OTHER, Types.VARCHAR, Types.TIMESTAMP_WITH_TIMEZONE,
+            Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.INTEGER
+    };
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::projectId)
+            .thenComparing(Key::bucketStart)
+            .thenComparing(Key::endpointId)
+            .thenComparing(Key::eventType);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private final ConcurrentHashMap<Key, Counters> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LatencyKey, LatencyHistogram> pendingLatency = new ConcurrentHashMap<>();
+
+    private final DistributionSummary flushRows;
+    private final Counter flushFailures;
+
+    public DeliveryStatsRecorder(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${webhook.delivery-stats.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+
+        this.flushRows = DistributionSummary.builder("webhook_delivery_stats_flush_rows").register(meterRegistry);
+        this.flushFailures = Counter.builder("webhook_delivery_stats_flush_failures_total").register(meterRegistry);
+        Gauge.builder("webhook_delivery_stats_pending_keys", pending, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Records one HTTP attempt of {@code delivery} and, if the delivery reached SUCCESS,
+     * FAILED or DLQ with it, its outcome. Call after the delivery's status was updated.
+     *
+     * @param durationMs attempt latency, or {@code null} if no request was sent
+     */
+    public void record(Delivery delivery, UUID projectId, String eventType, Integer durationMs) {
+        if (!enabled) {
+            return;
+        }
+        Instant createdAt = delivery.getCreatedAt() != null ? delivery.getCreatedAt() : Instant.now();
+        Key deliveryKey = new Key(projectId, delivery.getEndpointId(), eventType, minuteOf(createdAt));
+
+        Delivery.DeliveryStatus status = delivery.getStatus();
+        boolean first = delivery.getAttemptCount() == null || delivery.getAttemptCount() <= 1;
+        boolean succeeded = status == Delivery.DeliveryStatus.SUCCESS;
+        boolean failed = status == Delivery.DeliveryStatus.FAILED || status == Delivery.DeliveryStatus.DLQ;
+        if (first || succeeded || failed) {
+            pending.compute(deliveryKey, (key, counters) -> {
+                Counters c = counters != null ? counters : new Counters();
+                c.deliveries += first ? 1 : 0;
+                c.succeeded += succeeded ? 1 : 0;
+                c.failed += failed ? 1 : 0;
+                return c;
+            });
+        }
+
+        if (durationMs != null) {
+            Instant attemptMinute = minuteOf(Instant.now());
+            Key attemptKey = new Key(projectId, delivery.getEndpointId(), eventType, attemptMinute);
+            pending.compute(attemptKey, (key, counters) -> {
+                Counters c = counters != null ? counters : new Counters();
+                c.attempts++;
+                c.latencySumMs += durationMs;
+                c.latencyMaxMs = Math.max(c.latencyMaxMs, durationMs);
+                return c;
+            });
+            pendingLatency.compute(new LatencyKey(projectId, delivery.getEndpointId(), attemptMinute),
+                    (key, histogram) -> {
+                        LatencyHistogram h = histogram != null ? histogram : new LatencyHistogram();
+                        h.record(durationMs);
+                        return h;
+                    });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${webhook.delivery-stats.flush-interval-ms:5000}")
+    public void flush() {
+        flush(minuteOf(Instant.now()));
+    }
+
+    /**
+     * @param latencyBefore only histograms of minutes before this are written; the current
+     *                      minute is still being recorded
+     */
+    void flush(Instant latencyBefore) {
+        List<LatencyKey> latencyKeys = new ArrayList<>();
+        List<LatencyHistogram> histograms = new ArrayList<>();
+        for (LatencyKey key : pendingLatency.keySet()) {
+            if (key.bucketStart().isBefore(latencyBefore)) {
+                LatencyHistogram histogram = pendingLatency.remove(key);
+                if (histogram != null) {
+                    latencyKeys.add(key);
+                    histograms.add(histogram);
+                }
+            }
+        }
+        if (pending.isEmpty() && latencyKeys.isEmpty()) {
+            return;
+        }
+        List<Key> keys = new ArrayList<>(pending.keySet());
+        keys.sort(KEY_ORDER);
+        List<Key> drainedKeys = new ArrayList<>(keys.size());
+        List<Counters> drained = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            // remove() is atomic with compute(): later increments start a fresh entry
+            Counters counters = pending.remove(key);
+            if (counters != null) {
+                drainedKeys.add(key);
+                drained.add(counters);
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(drained.size());
+        for (int i = 0; i < drained.size(); i++) {
+            rows.add(row(drainedKeys.get(i), drained.get(i)));
+        }
+        List<Object[]> latencyRows = new ArrayList<>(histograms.size());
+        for (int i = 0; i < histograms.size(); i++) {
+            LatencyKey key = latencyKeys.get(i);
+            latencyRows.add(new Object[] {
+                    key.projectId(), key.endpointId(), key.bucketStart().atOffset(ZoneOffset.UTC),
+                    histograms.get(i).toBytes()
+            });
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                if (!rows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, rows, UPSERT_TYPES);
+                }
+                if (!latencyRows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_LATENCY_SQL, latencyRows, INSERT_LATENCY_TYPES);
+                }
+            });
+            flushRows.record(rows.size() + latencyRows.size());
+        } catch (Exception e) {
+            flushFailures.increment();
+            log.warn("Delivery stats flush of {} rows failed, retrying on next run: {}",
+                    rows.size() + latencyRows.size(), e.getMessage());
+            for (int i = 0; i < drained.size(); i++) {
+                pending.merge(drainedKeys.get(i), drained.get(i), Counters::add);
+            }
+            for (int i = 0; i < histograms.size(); i++) {
+                pendingLatency.merge(latencyKeys.get(i), histograms.get(i), LatencyHistogram::merge);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        flush(Instant.MAX);
+    }
+
+    static Instant minuteOf(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    private static Object[] row(Key key, Counters c) {
+        return new Object[] {
+                key.projectId(), key.endpointId(), key.eventType(), key.bucketStart().atOffset(ZoneOffset.UTC),
+                c.deliveries, c.succeeded, c.failed, c.attempts, c.latencySumMs, c.latencyMaxMs
+        };
+    }
+
+    record Key(UUID projectId, UUID endpointId, String eventType, Instant bucketStart) {}
+
+    record LatencyKey(UUID projectId, UUID endpointId, Instant bucketStart) {}
+
+    /**
+     * Mutated only inside {@link ConcurrentHashMap#compute}/{@code merge}, i.e. under the bin lock.
+     */
+    static final class Counters {
+        long deliveries;
+        long succeeded;
+        long failed;
+        long attempts;
+        long latencySumMs;
+        int latencyMaxMs;
+
+        Counters add(Counters other) {
+            deliveries += other.deliveries;
+            succeeded += other.succeeded;
+            failed += other.failed;
+            attempts += other.attempts;
+            latencySumMs += other.latencySumMs;
+            latencyMaxMs = Math.max(latencyMaxMs, other.latencyMaxMs);
+            return this;
+        }
+    }
+}
@@ -8,10 +8,12 @@ import com.webhook.platform.common.enums.ForwardAttemptStatus;
 import com.webhook.platform.common.enums.IncomingAuthType;
 import com.webhook.platform.common.security.UrlValidator;
 import com.webhook.platform.common.util.CryptoUtils;
+import com.webhook.platform.common.util.DecryptedSecretCache;
 import com.webhook.platform.common.util.HeaderSanitizer;
 import com.webhook.platform.worker.domain.entity.IncomingDestination;
 import com.webhook.platform.worker.domain.entity.IncomingEvent;
 import com.webhook.platform.worker.domain.entity.IncomingForwardAttempt;
+import com.webhook.platform.worker.domain.entity.Transformation;
 import com.webhook.platform.worker.domain.repository.IncomingDestinationRepository;
 import com.webhook.platform.worker.domain.repository.IncomingEventRepository;
 import com.webhook.platform.worker.domain.repository.IncomingForwardAttemptRepository;
@@ -54,6 +56,7 @@ public class IncomingForwardService {
     private final List<String> allowedHosts;
     private final MeterRegistry meterRegistry;
     private final TransactionTemplate transactionTemplate;
+    private final DecryptedSecretCache authConfigCache;
 
     private final Counter forwardSuccessCounter;
     private final Counter forwardFailureCounter;
@@ -92,6 +95,8 @@ public class IncomingForwardService {
         this.allowedHosts = allowedHosts;
         this.meterRegistry = meterRegistry;
         this.transactionTemplate = transactionTemplate;
+        this.authConfigCache = new DecryptedSecretCache("destination_auth", 5_000, Duration.ofMinutes(10));
+        this.authConfigCache.bindTo(meterRegistry);
 
         this.forwardSuccessCounter = Counter.builder("incoming_forward_attempts_total")
                 .tag("result", "success").register(meterRegistry);
@@ -439,10 +444,11 @@ public class IncomingForwardService {
             return;
         }
         try {
-            String authConfig = CryptoUtils.decryptSecret(
-                    destination.getAuthConfigEncrypted(),
-                    destination.getAuthConfigIv(),
-                    encryptionKey, encryptionSalt);
+            String authConfig = authConfigCache.get(destination.getId(), destination.getUpdatedAt(),
+                    () -> CryptoUtils.decryptSecret(
+                            destination.getAuthConfigEncrypted(),
+                            destination.getAuthConfigIv(),
+                            encryptionKey, encryptionSalt));
 
             Map<String, String> config = objectMapper.readValue(authConfig, Map.class);
 
@@ -523,9 +529,9 @@ public class IncomingForwardService {
 
         // 1. Try reusable transformation by ID
         if (destination.getTransformationId() != null) {
-            String template = transformationCacheService.findEnabledTemplate(destination.getTransformationId());
-            if (template != null) {
-                return payloadTransformService.transform(body, template);
+            Transformation transformation = transformationCacheService.findEnabled(destination.getTransformationId());
+            if (transformation != null) {
+                return payloadTransformService.transform(body, payloadTransformService.plan(transformation));
             }
             log.warn("Transformation {} not found or disabled for destination {}, trying inline payloadTransform",
                     destination.getTransformationId(), destination.getId());
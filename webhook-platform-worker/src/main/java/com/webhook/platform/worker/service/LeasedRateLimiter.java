@@ -0,0 +1,239 @@
+package com.webhook.platform.worker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Two-level token bucket shared by {@link RedisRateLimiterService} and
+ * {@link ProjectRateLimiterService}.
+ *
+ * <p>The global bucket lives in a Redis hash ({@code tokens}, {@code ts}, {@code rate})
+ * refilled at {@code rate} tokens/s with a one-second burst. Each pod leases
+ * {@code ceil(rate * leaseFraction)} tokens at a time into a lock-free local bucket
+ * and serves acquisitions from it with a CAS; Redis is only called when the local
+ * bucket runs dry. Leased tokens expire locally after {@code leaseTtl} so a pod can
+ * never sit on a stale batch, and unused ones are handed back by
+ * {@link #returnLeases()} on shutdown.</p>
+ *
+ * <p>The rate travels with each lease, and the script only resets the global bucket
+ * when it differs from the stored one, so there is no separate config write.</p>
+ *
+ * <p>{@link Result#UNAVAILABLE} tells the caller Redis could not be reached; Redis is
+ * then skipped for {@code redisBackoff} instead of paying a timeout on every call.</p>
+ */
+@Slf4j
+class LeasedRateLimiter {
+
+    enum Result { ACQUIRED, REJECTED, UNAVAILABLE }
+
+    /**
+     * KEYS[1] bucket hash. ARGV: rate, requested tokens, key TTL millis.
+     * Returns granted tokens (0..requested), using Redis server time so all pods
+     * share one clock.
+     */
+    private static final String LEASE_SCRIPT = """
+            local rate = tonumber(ARGV[1])
+            local want = tonumber(ARGV[2])
+            local t = redis.call('TIME')
+            local now = t[1] * 1000 + math.floor(t[2] / 1000)
+            local b = redis.call('HMGET', KEYS[1], 'tokens', 'ts', 'rate')
+            local tokens = tonumber(b[1])
+            local ts = tonumber(b[2])
+            if tokens == nil or tonumber(b[3]) ~= rate then
+              tokens = rate
+              ts = now
+              redis.call('HSET', KEYS[1], 'rate', rate)
+            end
+            tokens = math.min(rate, tokens + math.max(0, now - ts) * rate / 1000)
+            local granted = math.min(want, math.floor(tokens))
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens - granted), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            return granted
+            """;
+
+    /**
+     * KEYS bucket hashes, ARGV tokens to give back per key (capped at the bucket rate).
+     */
+    private static final String RETURN_SCRIPT = """
+            for i = 1, #KEYS do
+              local b = redis.call('HMGET', KEYS[i], 'tokens', 'rate')
+              if b[1] and b[2] then
+                local tokens = math.min(tonumber(b[2]), tonumber(b[1]) + tonumber(ARGV[i]))
+                redis.call('HSET', KEYS[i], 'tokens', tostring(tokens))
+              end
+            end
+            return #KEYS
+            """;
+
+    private static final long KEY_TTL_MS = Duration.ofHours(24).toMillis();
+
+    private final RedissonClient redissonClient;
+    private final String keyPrefix;
+    private final double leaseFraction;
+    private final long leaseTtlMs;
+    private final long redisBackoffMs;
+    private final LongSupplier clock;
+    private final AtomicLong redisRetryAt = new AtomicLong();
+    private final Counter leaseRequests;
+    private final Counter localAdmissions;
+    private final Cache<UUID, LocalBucket> buckets = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofMinutes(5))
+            .build();
+
+    LeasedRateLimiter(RedissonClient redissonClient, MeterRegistry meterRegistry, String scope,
+                      String keyPrefix, double leaseFraction, long leaseTtlMs, long redisBackoffMs,
+                      LongSupplier clock) {
+        this.redissonClient = redissonClient;
+        this.keyPrefix = keyPrefix;
+        this.leaseFraction = leaseFraction;
+        this.leaseTtlMs = leaseTtlMs;
+        this.redisBackoffMs = redisBackoffMs;
+        this.clock = clock;
+        this.leaseRequests = Counter.builder("rate_limit_lease_requests_total")
+                .description("Token batches leased from the global Redis bucket")
+                .tag("scope", scope)
+                .register(meterRegistry);
+        this.localAdmissions = Counter.builder("rate_limit_local_admissions_total")
+                .description("Acquisitions served from a locally leased token batch")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    Result tryAcquire(UUID id, int ratePerSecond) {
+        long now = clock.getAsLong();
+        LocalBucket bucket = buckets.get(id, k -> new LocalBucket());
+        if (bucket.tryTake(ratePerSecond, now)) {
+            localAdmissions.increment();
+            return Result.ACQUIRED;
+        }
+        if (now < redisRetryAt.get()) {
+            return Result.UNAVAILABLE;
+        }
+        if (now < bucket.deniedUntil) {
+            return Result.REJECTED;
+        }
+
+        // Only one lease per bucket in flight; waiters re-check the refilled bucket
+        bucket.refillLock.lock();
+        try {
+            now = clock.getAsLong();
+            if (bucket.tryTake(ratePerSecond, now)) {
+                localAdmissions.increment();
+                return Result.ACQUIRED;
+            }
+            if (now < bucket.deniedUntil) {
+                return Result.REJECTED;
+            }
+            long granted;
+            try {
+                granted = lease(id, ratePerSecond, batchSize(ratePerSecond));
+            } catch (Exception e) {
+                redisRetryAt.set(now + redisBackoffMs);
+                log.warn("Redis rate limiter unavailable for {}{}, skipping Redis for {}ms: {}",
+                        keyPrefix, id, redisBackoffMs, e.getMessage());
+                return Result.UNAVAILABLE;
+            }
+            if (granted <= 0) {
+                // Global bucket empty: next token is ~1/rate away
+                bucket.deniedUntil = now + Math.max(1, 1000 / ratePerSecond);
+                return Result.REJECTED;
+            }
+            bucket.refill(ratePerSecond, granted - 1, now + leaseTtlMs);
+            return Result.ACQUIRED;
+        } finally {
+            bucket.refillLock.unlock();
+        }
+    }
+
+    /**
+     * Gives unexpired, unused leased tokens back to their global buckets in one script call.
+     */
+    void returnLeases() {
+        List<Object> keys = new ArrayList<>();
+        List<Object> counts = new ArrayList<>();
+        long now = clock.getAsLong();
+        for (Map.Entry<UUID, LocalBucket> entry : buckets.asMap().entrySet()) {
+            long unused = entry.getValue().drain(now);
+            if (unused > 0) {
+                keys.add(keyPrefix + entry.getKey());
+                counts.add(String.valueOf(unused));
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_WRITE, RETURN_SCRIPT, RScript.ReturnType.INTEGER, keys, counts.toArray());
+            log.info("Returned unused rate limit leases for {} {} buckets", keys.size(), keyPrefix);
+        } catch (Exception e) {
+            log.warn("Failed to return rate limit leases for {} buckets: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    int batchSize(int ratePerSecond) {
+        return Math.max(1, (int) Math.ceil(ratePerSecond * leaseFraction));
+    }
+
+    private long lease(UUID id, int ratePerSecond, int requested) {
+        leaseRequests.increment();
+        Long granted = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE, LEASE_SCRIPT, RScript.ReturnType.INTEGER,
+                List.of(keyPrefix + id),
+                String.valueOf(ratePerSecond), String.valueOf(requested), String.valueOf(KEY_TTL_MS));
+        return granted == null ? 0 : granted;
+    }
+
+    /**
+     * Locally leased tokens. {@link #tokens} is the only field on the hot path; the
+     * rest is written under {@link #refillLock}.
+     */
+    private static final class LocalBucket {
+        final AtomicLong tokens = new AtomicLong();
+        final ReentrantLock refillLock = new ReentrantLock();
+        volatile long expiresAt;
+        volatile int rate;
+        volatile long deniedUntil;
+
+        boolean tryTake(int ratePerSecond, long now) {
+            if (rate != ratePerSecond || now >= expiresAt) {
+                return false;
+            }
+            long current;
+            do {
+                current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        void refill(int ratePerSecond, long granted, long leaseExpiresAt) {
+            tokens.set(granted);
+            rate = ratePerSecond;
+            expiresAt = leaseExpiresAt;
+        }
+
+        long drain(long now) {
+            long unused = tokens.getAndSet(0);
+            return now < expiresAt ? unused : 0;
+        }
+    }
+}
@@ -0,0 +1,613 @@
+package com.webhook.platform.worker.service;
+
+import com.webhook.platform.common.constants.KafkaTopics;
+import com.webhook.platform.common.dto.DeliveryMessage;
+import com.webhook.platform.worker.domain.entity.Delivery;
+import com.webhook.platform.worker.domain.entity.OrderingCursor;
+import com.webhook.platform.worker.domain.repository.DeliveryRepository;
+import com.webhook.platform.worker.domain.repository.OrderingCursorRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Redis-free FIFO delivery for ordered endpoints ({@code ordering.mode=partition}).
+ *
+ * <p>{@code deliveries.dispatch} is keyed by endpoint id, so every ordered delivery of an
+ * endpoint lands on the same partition and therefore on one consumer. That consumer keeps a
+ * per-endpoint <em>lane</em> in memory: a reorder buffer keyed by sequence number and the last
+ * settled sequence (the cursor). The head of line ({@code cursor + 1}) is dispatched as soon as
+ * it is buffered; the next one is dispatched as soon as the head settles. No Redis call and no
+ * DB read sits between two consecutive deliveries, so ordered throughput is bounded by endpoint
+ * latency, not by the 5-second reschedule loop of {@link OrderingBufferService}.</p>
+ *
+ * <h3>Settling</h3>
+ * A sequence settles when its delivery ends SUCCESS, FAILED or DLQ. If it is rescheduled
+ * (retry, rate limit, circuit breaker) the lane keeps a placeholder and waits for it to come
+ * back: in this mode {@link RetrySchedulerService} republishes ordered retries to
+ * {@code deliveries.dispatch} with the same key, i.e. to the same lane.
+ *
+ * <h3>Gaps</h3>
+ * A lane blocked on a missing or rescheduled head is checked every
+ * {@code ordering.cursor-flush-interval-ms} with the same rule as the Redis mode: it skips the
+ * head once no open delivery exists for it, or once that delivery is older than
+ * {@code ordering.gap-timeout-seconds}. A skipped delivery that shows up later is dispatched
+ * straight away (late), as before.
+ *
+ * <h3>Durability and rebalance</h3>
+ * A record is acknowledged as soon as it is buffered; the PENDING row is the durable copy.
+ * Only the cursor is persisted, write-behind, to {@code delivery_ordering_cursors}. When a
+ * dispatch partition is revoked the engine waits up to {@code ordering.revoke-drain-timeout-ms}
+ * for in-flight heads, flushes the cursors and drops the lanes. When a partition is assigned,
+ * lanes are rebuilt from the cursors and the open ordered rows of the endpoints that hash to it.
+ */
+@Service
+@Slf4j
+public class PartitionOrderedDeliveryEngine implements ConsumerAwareRebalanceListener {
+
+    public static final String MODE_REDIS = "redis";
+    public static final String MODE_PARTITION = "partition";
+
+    private static final Duration LANE_IDLE_EVICTION = Duration.ofMinutes(10);
+
+    private final WebhookDeliveryService deliveryService;
+    private final AsyncDeliveryExecutor asyncExecutor;
+    private final ReactiveDeliveryExecutor reactiveExecutor;
+    private final DeliveryRepository deliveryRepository;
+    private final OrderingCursorRepository cursorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final boolean reactiveMode;
+    private final Duration gapTimeout;
+    private final long flushIntervalMs;
+    private final long revokeDrainTimeoutMs;
+
+    private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            r -> { Thread t = new Thread(r, "ordering-engine"); t.setDaemon(true); return t; });
+
+    private final Counter advancedCounter;
+    private final Counter gapTimeoutCounter;
+    private final Counter lateCounter;
+    private final Counter rebuiltCounter;
+    private final Counter flushFailureCounter;
+
+    public PartitionOrderedDeliveryEngine(
+            WebhookDeliveryService deliveryService,
+            AsyncDeliveryExecutor asyncExecutor,
+            ReactiveDeliveryExecutor reactiveExecutor,
+            DeliveryRepository deliveryRepository,
+            OrderingCursorRepository cursorRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${ordering.mode:redis}") String orderingMode,
+            @Value("${webhook.delivery-mode:blocking}") String deliveryMode,
+            @Value("${ordering.gap-timeout-seconds:60}") int gapTimeoutSeconds,
+            @Value("${ordering.cursor-flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${ordering.revoke-drain-timeout-ms:5000}") long revokeDrainTimeoutMs) {
+        this.deliveryService = deliveryService;
+        this.asyncExecutor = asyncExecutor;
+        this.reactiveExecutor = reactiveExecutor;
+        this.deliveryRepository = deliveryRepository;
+        this.cursorRepository = cursorRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = MODE_PARTITION.equalsIgnoreCase(orderingMode);
+        this.reactiveMode = "reactive".equalsIgnoreCase(deliveryMode);
+        this.gapTimeout = Duration.ofSeconds(gapTimeoutSeconds);
+        this.flushIntervalMs = flushIntervalMs;
+        this.revokeDrainTimeoutMs = revokeDrainTimeoutMs;
+
+        // Same names as OrderingBufferService so dashboards work in both modes
+        this.advancedCounter = meterRegistry.counter("webhook_ordering_sequence_advanced");
+        this.gapTimeoutCounter = meterRegistry.counter("webhook_ordering_gap_timeout_total");
+        this.lateCounter = meterRegistry.counter("webhook_ordering_late_total");
+        this.rebuiltCounter = meterRegistry.counter("webhook_ordering_lanes_rebuilt_total");
+        this.flushFailureCounter = meterRegistry.counter("webhook_ordering_cursor_flush_failures_total");
+        Gauge.builder("webhook_ordering_lanes", lanes, Map::size).register(meterRegistry);
+        Gauge.builder("webhook_ordering_lane_buffered", this, PartitionOrderedDeliveryEngine::bufferedCount)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Partition ordered delivery enabled: gapTimeout={}s, cursorFlushInterval={}ms, revokeDrainTimeout={}ms",
+                gapTimeout.toSeconds(), flushIntervalMs, revokeDrainTimeoutMs);
+        scheduler.scheduleWithFixedDelay(this::tick, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (enabled) {
+            flushCursors(lanes.values());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes an ordered record from {@code deliveries.dispatch} into its endpoint's lane.
+     * Called on the consumer thread that owns {@code partition}.
+     *
+     * @return false if the engine is off or the message is not ordered; the caller then
+     *         processes it as usual. On true the caller may acknowledge the record.
+     */
+    public boolean offer(DeliveryMessage message, int partition) {
+        if (!enabled || !Boolean.TRUE.equals(message.getOrderingEnabled()) || message.getSequenceNumber() == null) {
+            return false;
+        }
+        long seq = message.getSequenceNumber();
+        while (true) {
+            Lane lane = lanes.get(message.getEndpointId());
+            if (lane == null) {
+                rebuild(List.of(message.getEndpointId()), partition);
+                continue;
+            }
+
+            boolean late = false;
+            DeliveryMessage next = null;
+            lane.lock.lock();
+            try {
+                if (lane.retired) {
+                    continue; // evicted or revoked meanwhile, look again
+                }
+                if (seq <= lane.cursor) {
+                    late = true;
+                } else if (seq != lane.inFlightSeq) {
+                    lane.pending.put(seq, message);
+                    next = lane.nextHead();
+                }
+            } finally {
+                lane.lock.unlock();
+            }
+
+            if (late) {
+                dispatchLate(message);
+            } else if (next != null) {
+                dispatchHead(lane, next);
+            }
+            return true;
+        }
+    }
+
+    // ── Dispatch ──
+
+    private void dispatchHead(Lane lane, DeliveryMessage message) {
+        String id = message.getDeliveryId().toString();
+        AtomicReference<Delivery.DeliveryStatus> outcome = new AtomicReference<>();
+        CompletableFuture<Void> done = reactiveMode
+                ? reactiveExecutor.submit(
+                        () -> deliveryService.processOrderedDeliveryReactive(message).doOnNext(outcome::set).then(), id)
+                : asyncExecutor.submit(
+                        () -> outcome.set(deliveryService.processOrderedDelivery(message)), id);
+        // Not on the completing thread: it still holds its executor permit, and the next
+        // head may have to wait for one
+        done.whenCompleteAsync((ignored, error) -> settle(lane, message, error == null ? outcome.get() : null),
+                scheduler);
+    }
+
+    private void dispatchLate(DeliveryMessage message) {
+        lateCounter.increment();
+        log.info("Ordered delivery {} (seq={}) arrived after endpoint {} moved past it, delivering out of order",
+                message.getDeliveryId(), message.getSequenceNumber(), message.getEndpointId());
+        String id = message.getDeliveryId().toString();
+        if (reactiveMode) {
+            reactiveExecutor.submit(() -> deliveryService.processOrderedDeliveryReactive(message).then(), id);
+        } else {
+            asyncExecutor.submit(() -> deliveryService.processOrderedDelivery(message), id);
+        }
+    }
+
+    void settle(Lane lane, DeliveryMessage message, Delivery.DeliveryStatus status) {
+        long seq = message.getSequenceNumber();
+        boolean settled = status == Delivery.DeliveryStatus.SUCCESS
+                || status == Delivery.DeliveryStatus.FAILED
+                || status == Delivery.DeliveryStatus.DLQ;
+        DeliveryMessage next;
+        lane.lock.lock();
+        try {
+            lane.inFlightSeq = -1;
+            if (settled) {
+                lane.advanceTo(seq);
+                advancedCounter.increment();
+            } else if (seq > lane.cursor) {
+                // Rescheduled or claimed elsewhere: hold the line until it comes back.
+                // Overwrites a duplicate record buffered meanwhile, which predates the reschedule.
+                lane.pending.put(seq, Lane.AWAITING);
+            }
+            next = lane.retired ? null : lane.nextHead();
+        } finally {
+            lane.lock.unlock();
+        }
+
+        if (lane.retired && settled) {
+            // Partition moved while this head was in flight; the new owner reads the cursor
+            persistCursor(lane.endpointId, seq);
+        }
+        if (next != null) {
+            dispatchHead(lane, next);
+        }
+    }
+
+    // ── Periodic work: gap checks, cursor flush, idle eviction ──
+
+    private void tick() {
+        try {
+            checkGaps();
+            flushCursors(lanes.values());
+            evictIdleLanes();
+        } catch (Exception e) {
+            log.error("Ordering engine tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    void checkGaps() {
+        for (Lane lane : lanes.values()) {
+            long awaited;
+            lane.lock.lock();
+            try {
+                if (!lane.isBlocked()) {
+                    continue;
+                }
+                awaited = lane.cursor + 1;
+            } finally {
+                lane.lock.unlock();
+            }
+
+            Instant oldestOpen = deliveryRepository.findOldestPendingCreatedAt(lane.endpointId, awaited);
+            if (oldestOpen != null && Duration.between(oldestOpen, Instant.now()).compareTo(gapTimeout) <= 0) {
+                continue;
+            }
+
+            DeliveryMessage next = null;
+            lane.lock.lock();
+            try {
+                if (lane.isBlocked() && lane.cursor + 1 == awaited) {
+                    // Skip the rescheduled head, or the whole gap up to the next buffered sequence
+                    lane.advanceTo(lane.pending.containsKey(awaited) ? awaited : lane.pending.firstKey() - 1);
+                    next = lane.nextHead();
+                    gapTimeoutCounter.increment();
+                    log.warn("Gap timeout for endpoint {}, proceeding from seq={} without seq={}",
+                            lane.endpointId, lane.cursor + 1, awaited);
+                }
+            } finally {
+                lane.lock.unlock();
+            }
+            if (next != null) {
+                dispatchHead(lane, next);
+            }
+        }
+    }
+
+    void flushCursors(Collection<Lane> toFlush) {
+        Map<UUID, Long> dirty = new HashMap<>();
+        for (Lane lane : toFlush) {
+            lane.lock.lock();
+            try {
+                if (lane.cursor > lane.flushedCursor) {
+                    dirty.put(lane.endpointId, lane.cursor);
+                }
+            } finally {
+                lane.lock.unlock();
+            }
+        }
+        if (dirty.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                    dirty.forEach(cursorRepository::advance));
+        } catch (Exception e) {
+            flushFailureCounter.increment();
+            log.warn("Failed to flush {} ordering cursors, will retry: {}", dirty.size(), e.getMessage());
+            return;
+        }
+        for (Lane lane : toFlush) {
+            Long flushed = dirty.get(lane.endpointId);
+            if (flushed != null) {
+                lane.lock.lock();
+                try {
+                    lane.flushedCursor = Math.max(lane.flushedCursor, flushed);
+                } finally {
+                    lane.lock.unlock();
+                }
+            }
+        }
+    }
+
+    private void evictIdleLanes() {
+        long cutoff = System.nanoTime() - LANE_IDLE_EVICTION.toNanos();
+        lanes.values().removeIf(lane -> {
+            lane.lock.lock();
+            try {
+                boolean idle = lane.pending.isEmpty() && lane.inFlightSeq < 0
+                        && lane.cursor == lane.flushedCursor && lane.lastActivityNanos < cutoff;
+                if (idle) {
+                    lane.retired = true;
+                }
+                return idle;
+            } finally {
+                lane.lock.unlock();
+            }
+        });
+    }
+
+    private void persistCursor(UUID endpointId, long seq) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> cursorRepository.advance(endpointId, seq));
+        } catch (Exception e) {
+            flushFailureCounter.increment();
+            log.warn("Failed to persist ordering cursor {} for endpoint {}: {}", seq, endpointId, e.getMessage());
+        }
+    }
+
+    // ── Rebalance ──
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Set<Integer> revoked = dispatchPartitions(partitions);
+        if (!enabled || revoked.isEmpty()) {
+            return;
+        }
+        List<Lane> leaving = lanes.values().stream().filter(lane -> revoked.contains(lane.partition)).toList();
+        awaitInFlight(leaving);
+        retire(leaving);
+        log.info("Released {} ordering lanes for revoked dispatch partitions {}", leaving.size(), revoked);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Set<Integer> lost = dispatchPartitions(partitions);
+        if (!enabled || lost.isEmpty()) {
+            return;
+        }
+        retire(lanes.values().stream().filter(lane -> lost.contains(lane.partition)).toList());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Set<Integer> assigned = dispatchPartitions(partitions);
+        if (!enabled || assigned.isEmpty()) {
+            return;
+        }
+        try {
+            int partitionCount = consumer.partitionsFor(KafkaTopics.DELIVERIES_DISPATCH).size();
+            Map<Integer, List<UUID>> byPartition = new HashMap<>();
+            for (UUID endpointId : deliveryRepository.findEndpointIdsWithOpenOrderedDeliveries()) {
+                int partition = partitionFor(endpointId, partitionCount);
+                if (assigned.contains(partition) && !lanes.containsKey(endpointId)) {
+                    byPartition.computeIfAbsent(partition, p -> new ArrayList<>()).add(endpointId);
+                }
+            }
+            byPartition.forEach((partition, endpointIds) -> rebuild(endpointIds, partition));
+        } catch (Exception e) {
+            // Lanes are still rebuilt lazily when their next record arrives
+            log.error("Failed to rebuild ordering lanes for dispatch partitions {}: {}", assigned, e.getMessage(), e);
+        }
+    }
+
+    private void awaitInFlight(List<Lane> leaving) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(revokeDrainTimeoutMs);
+        while (leaving.stream().anyMatch(lane -> lane.inFlightSeq >= 0) && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void retire(List<Lane> leaving) {
+        for (Lane lane : leaving) {
+            lane.lock.lock();
+            try {
+                lane.retired = true;
+            } finally {
+                lane.lock.unlock();
+            }
+            lanes.remove(lane.endpointId, lane);
+        }
+        flushCursors(leaving);
+    }
+
+    /**
+     * Rebuilds lanes from the persisted cursors and the open ordered rows. Every sequence
+     * below the lowest open one is already settled, so the cursor starts at least there.
+     * Never-dispatched rows are buffered; rescheduled or in-flight ones become placeholders.
+     */
+    void rebuild(Collection<UUID> endpointIds, int partition) {
+        Map<UUID, Long> cursors = new HashMap<>();
+        for (OrderingCursor cursor : cursorRepository.findAllById(endpointIds)) {
+            cursors.put(cursor.getEndpointId(), cursor.getLastSequence());
+        }
+        Map<UUID, List<Delivery>> open = new HashMap<>();
+        for (Delivery delivery : deliveryRepository.findOpenOrderedDeliveries(endpointIds)) {
+            open.computeIfAbsent(delivery.getEndpointId(), id -> new ArrayList<>()).add(delivery);
+        }
+
+        List<Lane> toDrain = new ArrayList<>();
+        List<DeliveryMessage> late = new ArrayList<>();
+        Set<UUID> rebuilt = new HashSet<>();
+        for (UUID endpointId : endpointIds) {
+            List<Delivery> rows = open.getOrDefault(endpointId, List.of());
+            long persisted = cursors.getOrDefault(endpointId, 0L);
+            long cursor = rows.isEmpty() ? persisted : Math.max(persisted, rows.get(0).getSequenceNumber() - 1);
+
+            Lane lane = new Lane(endpointId, partition, cursor, persisted);
+            for (Delivery row : rows) {
+                boolean ready = row.getStatus() == Delivery.DeliveryStatus.PENDING && row.getNextRetryAt() == null;
+                if (row.getSequenceNumber() > cursor) {
+                    lane.pending.put(row.getSequenceNumber(), ready ? toMessage(row) : Lane.AWAITING);
+                } else if (ready) {
+                    late.add(toMessage(row));
+                }
+            }
+            if (lanes.putIfAbsent(endpointId, lane) == null) {
+                toDrain.add(lane);
+                rebuilt.add(endpointId);
+            }
+        }
+        rebuiltCounter.increment(rebuilt.size());
+        log.info("Rebuilt {} ordering lanes for dispatch partition {}", rebuilt.size(), partition);
+
+        for (DeliveryMessage message : late) {
+            if (rebuilt.contains(message.getEndpointId())) {
+                dispatchLate(message);
+            }
+        }
+        for (Lane lane : toDrain) {
+            DeliveryMessage next;
+            lane.lock.lock();
+            try {
+                next = lane.nextHead();
+            } finally {
+                lane.lock.unlock();
+            }
+            if (next != null) {
+                dispatchHead(lane, next);
+            }
+        }
+    }
+
+    private static DeliveryMessage toMessage(Delivery delivery) {
+        return DeliveryMessage.builder()
+                .deliveryId(delivery.getId())
+                .eventId(delivery.getEventId())
+                .endpointId(delivery.getEndpointId())
+                .subscriptionId(delivery.getSubscriptionId())
+                .status(delivery.getStatus().name())
+                .attemptCount(delivery.getAttemptCount())
+                .sequenceNumber(delivery.getSequenceNumber())
+                .orderingEnabled(delivery.getOrderingEnabled())
+                .build();
+    }
+
+    private static Set<Integer> dispatchPartitions(Collection<TopicPartition> partitions) {
+        Set<Integer> result = new HashSet<>();
+        for (TopicPartition tp : partitions) {
+            if (KafkaTopics.DELIVERIES_DISPATCH.equals(tp.topic())) {
+                result.add(tp.partition());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Partition the default producer partitioner picks for an endpoint-id key.
+     */
+    static int partitionFor(UUID endpointId, int partitionCount) {
+        byte[] key = endpointId.toString().getBytes(StandardCharsets.UTF_8);
+        return Utils.toPositive(Utils.murmur2(key)) % partitionCount;
+    }
+
+    private int bufferedCount() {
+        int total = 0;
+        for (Lane lane : lanes.values()) {
+            total += lane.pending.size();
+        }
+        return total;
+    }
+
+    Lane lane(UUID endpointId) {
+        return lanes.get(endpointId);
+    }
+
+    /**
+     * Ordering state of one endpoint. All fields are guarded by {@link #lock}; the lock is
+     * never held across I/O.
+     */
+    static final class Lane {
+
+        /** Placeholder for a sequence that is known to be open but is not held by this lane. */
+        static final DeliveryMessage AWAITING = DeliveryMessage.builder().build();
+
+        final UUID endpointId;
+        final int partition;
+        final ReentrantLock lock = new ReentrantLock();
+        final TreeMap<Long, DeliveryMessage> pending = new TreeMap<>();
+        long cursor;
+        long flushedCursor;
+        long inFlightSeq = -1;
+        long lastActivityNanos = System.nanoTime();
+        boolean retired;
+
+        Lane(UUID endpointId, int partition, long cursor, long flushedCursor) {
+            this.endpointId = endpointId;
+            this.partition = partition;
+            this.cursor = cursor;
+            this.flushedCursor = flushedCursor;
+        }
+
+        /**
+         * Removes and returns the head of line if it can be dispatched now.
+         */
+        DeliveryMessage nextHead() {
+            lastActivityNanos = System.nanoTime();
+            if (inFlightSeq >= 0 || retired || pending.isEmpty()) {
+                return null;
+            }
+            Map.Entry<Long, DeliveryMessage> head = pending.firstEntry();
+            if (head.getKey() != cursor + 1 || head.getValue() == AWAITING) {
+                return null;
+            }
+            pending.pollFirstEntry();
+            inFlightSeq = head.getKey();
+            return head.getValue();
+        }
+
+        boolean isBlocked() {
+            return inFlightSeq < 0 && !retired && !pending.isEmpty();
+        }
+
+        void advanceTo(long seq) {
+            if (seq > cursor) {
+                cursor = seq;
+            }
+            pending.headMap(cursor, true).clear();
+        }
+    }
+}
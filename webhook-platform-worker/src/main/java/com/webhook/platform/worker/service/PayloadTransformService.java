@@ -1,23 +1,31 @@
 package com.webhook.platform.worker.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
 import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
 import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import com.webhook.platform.worker.domain.entity.Transformation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.Iterator;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Applies payload templates through compiled {@link TransformPlan}s. Plans are cached per
+ * stored transformation version ({@code id}, {@code updatedAt}) and per inline template text,
+ * so a template is parsed and its expressions compiled once, not per delivery. Templates that
+ * fail to compile are cached too and leave payloads unchanged.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
@@ -25,14 +33,26 @@ public class PayloadTransformService {
 
     private final ObjectMapper objectMapper;
     
-    private static final Pattern JSONPATH_PATTERN = Pattern.compile("\\$\\{([^}]+)}");
-    
     private final Configuration jsonPathConfig = Configuration.builder()
             .jsonProvider(new JacksonJsonNodeJsonProvider())
             .mappingProvider(new JacksonMappingProvider())
             .options(Option.SUPPRESS_EXCEPTIONS)
             .build();
 
+    /** Stored transformations: an edit changes {@code updatedAt}, so old versions just age out */
+    private final Cache<StoredTemplate, Optional<TransformPlan>> storedPlans = Caffeine.newBuilder()
+            .maximumSize(500)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    /** Inline {@code payloadTemplate}s, by text */
+    private final Cache<String, Optional<TransformPlan>> inlinePlans = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    private record StoredTemplate(UUID transformationId, Instant updatedAt) {}
+
     /**
      * Transforms the event payload using the provided template.
      * Template supports JSONPath expressions in ${...} syntax.
@@ -52,96 +72,62 @@ public class PayloadTransformService {
      * @return Transformed payload JSON string
      */
     public String transform(String originalPayload, String template) {
-        if (template == null || template.isBlank()) {
+        return transform(originalPayload, plan(template));
+    }
+
+    /**
+     * Transforms the event payload with a compiled plan.
+     *
+     * @param plan from {@link #plan(String)} / {@link #plan(Transformation)}; {@code null} returns
+     *             the payload unchanged
+     */
+    public String transform(String originalPayload, TransformPlan plan) {
+        if (plan == null) {
             return originalPayload;
         }
-        
+
         try {
             JsonNode sourceNode = objectMapper.readTree(originalPayload);
-            JsonNode templateNode = objectMapper.readTree(template);
-            
-            JsonNode resultNode = processNode(templateNode, sourceNode);
-            return objectMapper.writeValueAsString(resultNode);
+            StringWriter out = new StringWriter(plan.estimatedSize());
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                plan.write(sourceNode, generator);
+            }
+            return out.toString();
         } catch (Exception e) {
             log.warn("Failed to transform payload, returning original: {}", e.getMessage());
             return originalPayload;
         }
     }
 
-    private JsonNode processNode(JsonNode templateNode, JsonNode sourceNode) {
-        if (templateNode.isObject()) {
-            return processObject((ObjectNode) templateNode, sourceNode);
-        } else if (templateNode.isArray()) {
-            return processArray((ArrayNode) templateNode, sourceNode);
-        } else if (templateNode.isTextual()) {
-            return processTextValue(templateNode.asText(), sourceNode);
-        } else {
-            return templateNode.deepCopy();
-        }
-    }
-
-    private ObjectNode processObject(ObjectNode templateObject, JsonNode sourceNode) {
-        ObjectNode result = objectMapper.createObjectNode();
-        
-        Iterator<Map.Entry<String, JsonNode>> fields = templateObject.fields();
-        while (fields.hasNext()) {
-            Map.Entry<String, JsonNode> field = fields.next();
-            JsonNode processedValue = processNode(field.getValue(), sourceNode);
-            result.set(field.getKey(), processedValue);
+    /**
+     * Cached plan of an inline template; {@code null} for a blank or invalid template.
+     */
+    public TransformPlan plan(String template) {
+        if (template == null || template.isBlank()) {
+            return null;
         }
-        
-        return result;
+        return inlinePlans.get(template, this::compile).orElse(null);
     }
 
-    private ArrayNode processArray(ArrayNode templateArray, JsonNode sourceNode) {
-        ArrayNode result = objectMapper.createArrayNode();
-        
-        for (JsonNode element : templateArray) {
-            result.add(processNode(element, sourceNode));
-        }
-        
-        return result;
-    }
-
-    private JsonNode processTextValue(String text, JsonNode sourceNode) {
-        Matcher matcher = JSONPATH_PATTERN.matcher(text);
-        
-        if (matcher.matches()) {
-            // Entire value is a JSONPath expression - return the actual value
-            String jsonPath = matcher.group(1);
-            return evaluateJsonPath(jsonPath, sourceNode);
-        } else if (matcher.find()) {
-            // Text contains embedded JSONPath expressions - string interpolation
-            matcher.reset();
-            StringBuffer sb = new StringBuffer();
-            while (matcher.find()) {
-                String jsonPath = matcher.group(1);
-                JsonNode value = evaluateJsonPath(jsonPath, sourceNode);
-                String replacement = value != null ? 
-                        (value.isTextual() ? value.asText() : value.toString()) : "";
-                matcher.appendReplacement(sb, Matcher.quoteReplacement(replacement));
-            }
-            matcher.appendTail(sb);
-            return objectMapper.getNodeFactory().textNode(sb.toString());
-        } else {
-            // Plain text - return as-is
-            return objectMapper.getNodeFactory().textNode(text);
+    /**
+     * Cached plan of a stored transformation's current version; {@code null} for a blank or
+     * invalid template.
+     */
+    public TransformPlan plan(Transformation transformation) {
+        String template = transformation.getTemplate();
+        if (template == null || template.isBlank()) {
+            return null;
         }
+        StoredTemplate key = new StoredTemplate(transformation.getId(), transformation.getUpdatedAt());
+        return storedPlans.get(key, k -> compile(template)).orElse(null);
     }
 
-    private JsonNode evaluateJsonPath(String jsonPath, JsonNode sourceNode) {
+    private Optional<TransformPlan> compile(String template) {
         try {
-            Object result = JsonPath.using(jsonPathConfig).parse(sourceNode).read(jsonPath);
-            if (result == null) {
-                return objectMapper.getNodeFactory().nullNode();
-            }
-            if (result instanceof JsonNode) {
-                return (JsonNode) result;
-            }
-            return objectMapper.valueToTree(result);
+            return Optional.of(TransformPlan.compile(template, objectMapper, jsonPathConfig));
         } catch (Exception e) {
-            log.debug("JSONPath evaluation failed for '{}': {}", jsonPath, e.getMessage());
-            return objectMapper.getNodeFactory().nullNode();
+            log.warn("Invalid payload template, payloads will be sent untransformed: {}", e.getMessage());
+            return Optional.empty();
         }
     }
 
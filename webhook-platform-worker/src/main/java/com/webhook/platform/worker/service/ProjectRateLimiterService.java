@@ -4,10 +4,8 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RRateLimiter;
-import org.redisson.api.RateIntervalUnit;
-import org.redisson.api.RateType;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -20,16 +18,16 @@ import java.util.concurrent.atomic.AtomicLong;
 /**
  * Per-project rate limiter to prevent noisy-neighbor issues.
  * One project cannot consume more than {@code ratePerSecond} delivery dispatches per second.
- * Uses Redis (Redisson) with local fallback when Redis is unavailable.
+ * Admissions are served from token batches leased from a global Redis bucket
+ * (see {@link LeasedRateLimiter}), with a local fallback when Redis is unavailable.
  */
 @Service
 @Slf4j
 public class ProjectRateLimiterService {
 
-    private static final String KEY_PREFIX = "rate_limiter:project:";
-    private static final Duration KEY_TTL = Duration.ofHours(24);
+    private static final String KEY_PREFIX = "rate_lease:project:";
 
-    private final RedissonClient redissonClient;
+    private final LeasedRateLimiter leasedLimiter;
     private final int defaultRatePerSecond;
     private final Counter projectRateLimitHits;
     private final Counter projectRateLimitExceeded;
@@ -43,8 +41,12 @@ public class ProjectRateLimiterService {
     public ProjectRateLimiterService(
             RedissonClient redissonClient,
             MeterRegistry meterRegistry,
-            @Value("${webhook.project-rate-limit-per-second:50}") int defaultRatePerSecond) {
-        this.redissonClient = redissonClient;
+            @Value("${webhook.project-rate-limit-per-second:50}") int defaultRatePerSecond,
+            @Value("${webhook.rate-limit.lease-fraction:0.1}") double leaseFraction,
+            @Value("${webhook.rate-limit.lease-ttl-ms:1000}") long leaseTtlMs,
+            @Value("${webhook.rate-limit.redis-backoff-ms:5000}") long redisBackoffMs) {
+        this.leasedLimiter = new LeasedRateLimiter(redissonClient, meterRegistry, "project", KEY_PREFIX,
+                leaseFraction, leaseTtlMs, redisBackoffMs, System::currentTimeMillis);
         this.defaultRatePerSecond = defaultRatePerSecond;
         this.projectRateLimitHits = Counter.builder("webhook_project_rate_limit_hits_total")
                 .description("Deliveries that passed project-level rate limiting")
@@ -67,26 +69,23 @@ public class ProjectRateLimiterService {
             return true;
         }
 
-        try {
-            String key = KEY_PREFIX + projectId;
-            RRateLimiter limiter = redissonClient.getRateLimiter(key);
-            limiter.trySetRate(RateType.OVERALL, ratePerSecond, 1, RateIntervalUnit.SECONDS);
-            limiter.expire(KEY_TTL);
-
-            boolean acquired = limiter.tryAcquire(1);
-            if (acquired) {
-                projectRateLimitHits.increment();
-            } else {
-                projectRateLimitExceeded.increment();
-                log.debug("Project rate limit exceeded for project: {} (limit: {}/sec)", projectId, ratePerSecond);
-            }
-            return acquired;
-        } catch (Exception e) {
-            log.warn("Redis project rate limiter unavailable for project {}, using local fallback: {}",
-                    projectId, e.getMessage());
+        LeasedRateLimiter.Result result = leasedLimiter.tryAcquire(projectId, ratePerSecond);
+        if (result == LeasedRateLimiter.Result.UNAVAILABLE) {
             projectRateLimitFallback.increment();
             return tryAcquireLocal(projectId, ratePerSecond);
         }
+        if (result == LeasedRateLimiter.Result.ACQUIRED) {
+            projectRateLimitHits.increment();
+            return true;
+        }
+        projectRateLimitExceeded.increment();
+        log.debug("Project rate limit exceeded for project: {} (limit: {}/sec)", projectId, ratePerSecond);
+        return false;
+    }
+
+    @PreDestroy
+    public void returnLeases() {
+        leasedLimiter.returnLeases();
     }
 
     private boolean tryAcquireLocal(UUID projectId, int ratePerSecond) {
@@ -0,0 +1,137 @@
+package com.webhook.platform.worker.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Permit-bounded executor for the non-blocking delivery mode
+ * ({@code webhook.delivery-mode=reactive}).
+ *
+ * <p>Unlike {@link AsyncDeliveryExecutor}, an outstanding delivery does not hold a
+ * thread: it is a Reactor pipeline that only occupies one of
+ * {@code webhook.reactive.max-in-flight} permits until it terminates. The number of
+ * concurrent HTTP calls is therefore bounded by the permit budget (and the
+ * connection pool), not by a thread pool.</p>
+ *
+ * <h3>Backpressure</h3>
+ * The Kafka consumer thread blocks on {@code semaphore.acquire()} when the budget
+ * is exhausted, exactly like {@link AsyncDeliveryExecutor}.
+ *
+ * <h3>Ack safety</h3>
+ * {@code Acknowledgment.acknowledge()} is called only when the pipeline completes
+ * successfully, i.e. after the outcome has been persisted. On error the message is
+ * not acked and will be redelivered.
+ */
+@Component
+@Slf4j
+@DependsOn("deliveryIoScheduler") // drain pipelines before their scheduler is disposed
+public class ReactiveDeliveryExecutor {
+
+    private final Semaphore semaphore;
+    private final long shutdownTimeoutSeconds;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final AtomicInteger queued = new AtomicInteger(0);
+
+    public ReactiveDeliveryExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${webhook.reactive.max-in-flight:2000}") int maxInFlight,
+            @Value("${webhook.async-shutdown-timeout-seconds:60}") long shutdownTimeoutSeconds) {
+        this.semaphore = new Semaphore(maxInFlight);
+        this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+
+        Gauge.builder("reactive_delivery_in_flight", inFlight, AtomicInteger::doubleValue)
+                .register(meterRegistry);
+        Gauge.builder("reactive_delivery_available_permits", semaphore, s -> (double) s.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("reactive_delivery_queued", queued, AtomicInteger::doubleValue)
+                .register(meterRegistry);
+
+        log.info("ReactiveDeliveryExecutor initialized: maxInFlight={}", maxInFlight);
+    }
+
+    /**
+     * Subscribe to a delivery pipeline and ack once it completes successfully.
+     *
+     * @param pipeline supplier of the delivery pipeline (e.g. {@code () -> service.processDeliveryReactive(msg)})
+     * @param ack      Kafka acknowledgment — called on success, skipped on failure
+     * @param id       identifier for logging (deliveryId)
+     */
+    public void submit(Supplier<Mono<Void>> pipeline, Acknowledgment ack, String id) {
+        submit(pipeline, id).thenRun(ack::acknowledge);
+    }
+
+    /**
+     * Subscribe to a delivery pipeline and let the caller decide how to acknowledge.
+     *
+     * @return future completed when the pipeline terminates
+     */
+    public CompletableFuture<Void> submit(Supplier<Mono<Void>> pipeline, String id) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            queued.incrementAndGet();
+            semaphore.acquire();
+            queued.decrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued.decrementAndGet();
+            log.warn("Interrupted waiting for reactive delivery permit: {}", id);
+            result.completeExceptionally(e); // Don't ack — message will be redelivered
+            return result;
+        }
+
+        inFlight.incrementAndGet();
+        Mono.defer(pipeline)
+                .doFinally(signal -> {
+                    inFlight.decrementAndGet();
+                    semaphore.release();
+                })
+                .subscribe(
+                        ignored -> { },
+                        e -> {
+                            log.error("Reactive delivery failed, not acking (will be redelivered): id={}, error={}",
+                                    id, e.getMessage(), e);
+                            result.completeExceptionally(e);
+                        },
+                        () -> result.complete(null));
+        return result;
+    }
+
+    /**
+     * Current number of outstanding pipelines (for testing/monitoring).
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Shutting down ReactiveDeliveryExecutor, waiting for {} in-flight pipelines...", inFlight.get());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownTimeoutSeconds);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (inFlight.get() > 0) {
+            log.warn("ReactiveDeliveryExecutor did not drain in {}s, {} pipelines still in flight",
+                    shutdownTimeoutSeconds, inFlight.get());
+        }
+        log.info("ReactiveDeliveryExecutor shutdown complete");
+    }
+}
@@ -3,48 +3,160 @@ package com.webhook.platform.worker.service;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RPermitExpirableSemaphore;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
+/**
+ * Per-endpoint concurrency limit shared by all worker pods.
+ *
+ * <p>Each endpoint has a Redis sorted set of leases: member = permit id,
+ * score = lease expiry (Redis server time). Acquiring is one script call that reaps
+ * expired leases and adds a new one if the set is below the limit, so a crashed pod's
+ * permits come back on their own once their lease runs out. Held leases are extended
+ * in bulk by {@link #renewLeases()} for deliveries that outlive the lease TTL.</p>
+ *
+ * <p>Callers get an explicit {@link Permit} handle that is not tied to a thread; it may
+ * be released from any thread, which the reactive and virtual-thread paths rely on.
+ * With release batching on, {@link #release(Permit)} never touches Redis: the slot is
+ * queued, handed straight to the next local acquirer for the same endpoint if there is
+ * one, and otherwise returned by {@link #flushReleases()} in one script call.</p>
+ *
+ * <p>In-flight counts per endpoint come from a local mirror, so the
+ * {@code webhook_concurrency_in_flight} gauges never query Redis. If Redis is
+ * unreachable, admission falls back to that mirror alone and Redis is skipped for
+ * {@code redis-backoff-ms}.</p>
+ */
 @Service
 @Slf4j
 public class RedisConcurrencyControlService {
 
-    private static final String KEY_PREFIX = "concurrency:endpoint:";
-    private static final Duration KEY_TTL = Duration.ofHours(24);
+    private static final String KEY_PREFIX = "concurrency_lease:endpoint:";
+    private static final int SCRIPT_BATCH_SIZE = 500;
+
+    /**
+     * KEYS[1] lease set. ARGV: max permits, lease TTL millis, permit id. Returns 1 if acquired.
+     */
+    private static final String ACQUIRE_SCRIPT = """
+            local t = redis.call('TIME')
+            local now = t[1] * 1000 + math.floor(t[2] / 1000)
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now)
+            if redis.call('ZCARD', KEYS[1]) >= tonumber(ARGV[1]) then
+              return 0
+            end
+            redis.call('ZADD', KEYS[1], now + tonumber(ARGV[2]), ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], 2 * tonumber(ARGV[2]))
+            return 1
+            """;
+
+    /**
+     * KEYS lease sets, ARGV permit id per key. Returns the number of leases removed.
+     */
+    private static final String RELEASE_SCRIPT = """
+            local removed = 0
+            for i = 1, #KEYS do
+              removed = removed + redis.call('ZREM', KEYS[i], ARGV[i])
+            end
+            return removed
+            """;
+
+    /**
+     * KEYS lease sets. ARGV[1] lease TTL millis, ARGV[i + 1] permit id per key.
+     * Only extends leases that still exist; returns how many were extended.
+     */
+    private static final String RENEW_SCRIPT = """
+            local t = redis.call('TIME')
+            local now = t[1] * 1000 + math.floor(t[2] / 1000)
+            local ttl = tonumber(ARGV[1])
+            local renewed = 0
+            for i = 1, #KEYS do
+              renewed = renewed + redis.call('ZADD', KEYS[i], 'XX', 'CH', now + ttl, ARGV[i + 1])
+              redis.call('PEXPIRE', KEYS[i], 2 * ttl)
+            end
+            return renewed
+            """;
 
     private final RedissonClient redissonClient;
-    private final ConcurrentHashMap<String, String> acquiredPermits = new ConcurrentHashMap<>();
-    private final Cache<UUID, AtomicInteger> localPermits = Caffeine.newBuilder()
-            .maximumSize(10_000)
-            .expireAfterAccess(Duration.ofMinutes(5))
-            .build();
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong permitSequence = new AtomicLong();
+    private final AtomicLong redisRetryAt = new AtomicLong();
+    private final Cache<UUID, EndpointPermits> endpoints;
+    private final Map<String, Permit> heldLeases = new ConcurrentHashMap<>();
+    private final Set<EndpointPermits> pendingReleases = ConcurrentHashMap.newKeySet();
     private final int maxConcurrentPerEndpoint;
+    private final long leaseTtlMs;
+    private final long renewIntervalMs;
+    private final boolean releaseBatching;
+    private final long redisBackoffMs;
     private final Counter concurrencyAcquired;
     private final Counter concurrencyRejected;
     private final Counter concurrencyReleased;
     private final Counter concurrencyFallback;
+    private final Counter concurrencyReused;
+    private final Counter leasesLost;
+    private final Counter releaseFlushFailures;
     private final AtomicInteger activePermits = new AtomicInteger(0);
 
+    @Autowired
     public RedisConcurrencyControlService(
             RedissonClient redissonClient,
             MeterRegistry meterRegistry,
-            @Value("${webhook.max-concurrent-per-endpoint:10}") int maxConcurrentPerEndpoint) {
+            @Value("${webhook.max-concurrent-per-endpoint:10}") int maxConcurrentPerEndpoint,
+            @Value("${webhook.concurrency.lease-ttl-ms:90000}") long leaseTtlMs,
+            @Value("${webhook.concurrency.renew-interval-ms:30000}") long renewIntervalMs,
+            @Value("${webhook.concurrency.release-batching:true}") boolean releaseBatching,
+            @Value("${webhook.concurrency.redis-backoff-ms:5000}") long redisBackoffMs) {
+        this(redissonClient, meterRegistry, maxConcurrentPerEndpoint, leaseTtlMs, renewIntervalMs,
+                releaseBatching, redisBackoffMs, System::currentTimeMillis);
+    }
+
+    RedisConcurrencyControlService(RedissonClient redissonClient, MeterRegistry meterRegistry,
+                                   int maxConcurrentPerEndpoint, long leaseTtlMs, long renewIntervalMs,
+                                   boolean releaseBatching, long redisBackoffMs, LongSupplier clock) {
         this.redissonClient = redissonClient;
+        this.meterRegistry = meterRegistry;
         this.maxConcurrentPerEndpoint = maxConcurrentPerEndpoint;
-        
+        this.leaseTtlMs = leaseTtlMs;
+        this.renewIntervalMs = renewIntervalMs;
+        this.releaseBatching = releaseBatching;
+        this.redisBackoffMs = redisBackoffMs;
+        this.clock = clock;
+        this.endpoints = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Duration.ofMinutes(5))
+                .evictionListener((UUID id, EndpointPermits state, RemovalCause cause) -> {
+                    if (state != null) {
+                        meterRegistry.remove(state.gauge);
+                    }
+                })
+                .build();
+
         this.concurrencyAcquired = Counter.builder("webhook_concurrency_acquired_total")
                 .description("Number of concurrency permits acquired")
                 .register(meterRegistry);
@@ -57,85 +169,277 @@ public class RedisConcurrencyControlService {
         this.concurrencyFallback = Counter.builder("webhook_concurrency_fallback_total")
                 .description("Number of concurrency checks via local fallback (Redis unavailable)")
                 .register(meterRegistry);
-        
+        this.concurrencyReused = Counter.builder("webhook_concurrency_reused_total")
+                .description("Permits handed from a pending release to a local acquirer without Redis")
+                .register(meterRegistry);
+        this.leasesLost = Counter.builder("webhook_concurrency_leases_lost_total")
+                .description("Held permits whose Redis lease had already expired at renewal")
+                .register(meterRegistry);
+        this.releaseFlushFailures = Counter.builder("webhook_concurrency_release_flush_failures_total")
+                .description("Batched permit releases that could not be sent to Redis")
+                .register(meterRegistry);
+
         Gauge.builder("webhook_concurrency_active_permits", activePermits, AtomicInteger::get)
                 .description("Number of currently held permits")
                 .register(meterRegistry);
     }
 
-    public boolean tryAcquire(UUID endpointId) {
-        String key = KEY_PREFIX + endpointId;
-        String threadKey = endpointId + ":" + Thread.currentThread().getId();
-        
+    /**
+     * Tries to acquire a concurrency permit for the endpoint. Costs at most one Redis
+     * round-trip, and none when this pod alone is already at the limit or a released
+     * permit for the endpoint is waiting to be flushed.
+     *
+     * @return permit handle to pass to {@link #release(Permit)}, or {@code null} if the
+     *         endpoint is at its concurrency limit
+     */
+    public Permit tryAcquire(UUID endpointId) {
+        long now = clock.getAsLong();
+        EndpointPermits state = endpoints.get(endpointId, this::newEndpointPermits);
+
+        Permit reused = reusePendingRelease(state, now);
+        if (reused != null) {
+            return reused;
+        }
+
+        if (state.inFlight.get() >= maxConcurrentPerEndpoint) {
+            concurrencyRejected.increment();
+            log.debug("Concurrency limit reached locally for endpoint: {} (max: {})",
+                    endpointId, maxConcurrentPerEndpoint);
+            return null;
+        }
+
+        if (now < redisRetryAt.get()) {
+            return tryAcquireLocal(state);
+        }
+
+        String permitId = instanceId + ":" + permitSequence.incrementAndGet();
+        Long acquired;
         try {
-            RPermitExpirableSemaphore semaphore = redissonClient.getPermitExpirableSemaphore(key);
-            semaphore.trySetPermits(maxConcurrentPerEndpoint);
-            
-            String permitId = semaphore.tryAcquire(100, TimeUnit.MILLISECONDS);
-            if (permitId != null) {
-                acquiredPermits.put(threadKey, permitId);
-                semaphore.expire(KEY_TTL);
-                activePermits.incrementAndGet();
-                concurrencyAcquired.increment();
-                return true;
-            }
-            
+            acquired = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_WRITE, ACQUIRE_SCRIPT, RScript.ReturnType.INTEGER,
+                    List.of(KEY_PREFIX + endpointId),
+                    String.valueOf(maxConcurrentPerEndpoint), String.valueOf(leaseTtlMs), permitId);
+        } catch (Exception e) {
+            redisRetryAt.set(now + redisBackoffMs);
+            log.warn("Redis concurrency control unavailable for endpoint {}, using local fallback for {}ms: {}",
+                    endpointId, redisBackoffMs, e.getMessage());
+            return tryAcquireLocal(state);
+        }
+
+        if (acquired == null || acquired == 0) {
             concurrencyRejected.increment();
             log.debug("Concurrency limit reached for endpoint: {} (max: {})", endpointId, maxConcurrentPerEndpoint);
-            return false;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("Interrupted while acquiring permit for endpoint: {}", endpointId);
-            return false;
-        } catch (Exception e) {
-            log.warn("Redis concurrency control unavailable for endpoint {}, using local fallback: {}",
-                    endpointId, e.getMessage());
-            concurrencyFallback.increment();
-            return tryAcquireLocal(endpointId);
+            return null;
+        }
+        return admit(state, new Permit(state, permitId, false, now + leaseTtlMs));
+    }
+
+    /**
+     * Releases a permit. Safe to call more than once and from any thread; only the
+     * first call counts. With release batching on this never touches Redis.
+     */
+    public void release(Permit permit) {
+        if (permit == null || !permit.released.compareAndSet(false, true)) {
+            return;
+        }
+        EndpointPermits state = permit.state;
+        state.inFlight.decrementAndGet();
+        activePermits.decrementAndGet();
+        concurrencyReleased.increment();
+        if (permit.local) {
+            return;
+        }
+
+        heldLeases.remove(permit.id);
+        if (releaseBatching) {
+            state.released.offerLast(permit);
+            pendingReleases.add(state);
+        } else {
+            sendReleases(List.of(permit));
+        }
+    }
+
+    /**
+     * Returns queued releases to Redis in one script call per {@value #SCRIPT_BATCH_SIZE} permits.
+     */
+    @Scheduled(fixedDelayString = "${webhook.concurrency.release-flush-interval-ms:50}")
+    public void flushReleases() {
+        if (pendingReleases.isEmpty()) {
+            return;
+        }
+        List<Permit> batch = new ArrayList<>();
+        for (EndpointPermits state : pendingReleases) {
+            // Remove before draining: a release racing with us re-adds the endpoint
+            pendingReleases.remove(state);
+            Permit permit;
+            while ((permit = state.released.pollFirst()) != null) {
+                batch.add(permit);
+            }
+        }
+        for (int from = 0; from < batch.size(); from += SCRIPT_BATCH_SIZE) {
+            sendReleases(batch.subList(from, Math.min(batch.size(), from + SCRIPT_BATCH_SIZE)));
+        }
+    }
+
+    /**
+     * Extends the Redis lease of every permit this pod holds, in one script call per
+     * {@value #SCRIPT_BATCH_SIZE} permits.
+     */
+    @Scheduled(fixedDelayString = "${webhook.concurrency.renew-interval-ms:30000}")
+    public void renewLeases() {
+        if (heldLeases.isEmpty() || clock.getAsLong() < redisRetryAt.get()) {
+            return;
+        }
+        List<Permit> held = new ArrayList<>(heldLeases.values());
+        for (int from = 0; from < held.size(); from += SCRIPT_BATCH_SIZE) {
+            List<Permit> chunk = held.subList(from, Math.min(held.size(), from + SCRIPT_BATCH_SIZE));
+            List<Object> keys = new ArrayList<>(chunk.size());
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(String.valueOf(leaseTtlMs));
+            for (Permit permit : chunk) {
+                keys.add(KEY_PREFIX + permit.endpointId);
+                args.add(permit.id);
+            }
+            long now = clock.getAsLong();
+            try {
+                Long renewed = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                        RScript.Mode.READ_WRITE, RENEW_SCRIPT, RScript.ReturnType.INTEGER, keys, args.toArray());
+                long lost = chunk.size() - (renewed == null ? 0 : renewed);
+                if (lost > 0) {
+                    leasesLost.increment(lost);
+                    log.warn("{} concurrency leases had expired in Redis before renewal", lost);
+                }
+                for (Permit permit : chunk) {
+                    permit.leaseExpiresAt = now + leaseTtlMs;
+                }
+            } catch (Exception e) {
+                log.warn("Failed to renew {} concurrency leases: {}", chunk.size(), e.getMessage());
+            }
         }
     }
 
-    private boolean tryAcquireLocal(UUID endpointId) {
-        AtomicInteger permits = localPermits.get(endpointId, k -> new AtomicInteger(0));
-        int current = permits.incrementAndGet();
+    @PreDestroy
+    public void shutdown() {
+        flushReleases();
+    }
+
+    /**
+     * Permits currently held on this pod for the endpoint, from the local mirror.
+     */
+    public int getInFlight(UUID endpointId) {
+        EndpointPermits state = endpoints.getIfPresent(endpointId);
+        return state == null ? 0 : state.inFlight.get();
+    }
+
+    private Permit reusePendingRelease(EndpointPermits state, long now) {
+        Permit pending;
+        while ((pending = state.released.pollFirst()) != null) {
+            // Only hand over leases that will be renewed before they run out;
+            // anything closer to expiry is left for Redis to reap
+            if (pending.leaseExpiresAt - now > renewIntervalMs) {
+                concurrencyReused.increment();
+                return admit(state, new Permit(state, pending.id, false, pending.leaseExpiresAt));
+            }
+        }
+        return null;
+    }
+
+    private Permit admit(EndpointPermits state, Permit permit) {
+        state.inFlight.incrementAndGet();
+        heldLeases.put(permit.id, permit);
+        activePermits.incrementAndGet();
+        concurrencyAcquired.increment();
+        return permit;
+    }
+
+    private Permit tryAcquireLocal(EndpointPermits state) {
+        concurrencyFallback.increment();
+        int current = state.inFlight.incrementAndGet();
         if (current <= maxConcurrentPerEndpoint) {
             activePermits.incrementAndGet();
             concurrencyAcquired.increment();
-            return true;
+            return new Permit(state, "local:" + permitSequence.incrementAndGet(), true, Long.MAX_VALUE);
         }
-        permits.decrementAndGet();
+        state.inFlight.decrementAndGet();
         concurrencyRejected.increment();
-        log.debug("Local concurrency limit reached for endpoint: {} (max: {})", endpointId, maxConcurrentPerEndpoint);
-        return false;
+        log.debug("Local concurrency limit reached for endpoint: {} (max: {})",
+                state.endpointId, maxConcurrentPerEndpoint);
+        return null;
     }
 
-    private void releaseLocal(UUID endpointId) {
-        AtomicInteger permits = localPermits.getIfPresent(endpointId);
-        if (permits != null) {
-            permits.decrementAndGet();
+    private void sendReleases(Collection<Permit> permits) {
+        List<Object> keys = new ArrayList<>(permits.size());
+        List<Object> ids = new ArrayList<>(permits.size());
+        for (Permit permit : permits) {
+            keys.add(KEY_PREFIX + permit.endpointId);
+            ids.add(permit.id);
+        }
+        try {
+            redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_WRITE, RELEASE_SCRIPT, RScript.ReturnType.INTEGER, keys, ids.toArray());
+        } catch (Exception e) {
+            // The leases still expire on their own after lease-ttl-ms
+            releaseFlushFailures.increment(permits.size());
+            log.warn("Failed to release {} concurrency permits: {}", permits.size(), e.getMessage());
         }
     }
 
-    public void release(UUID endpointId) {
-        String key = KEY_PREFIX + endpointId;
-        String threadKey = endpointId + ":" + Thread.currentThread().getId();
-        
-        String permitId = acquiredPermits.remove(threadKey);
-        if (permitId != null) {
-            try {
-                RPermitExpirableSemaphore semaphore = redissonClient.getPermitExpirableSemaphore(key);
-                semaphore.release(permitId);
-                activePermits.decrementAndGet();
-                concurrencyReleased.increment();
-            } catch (Exception e) {
-                log.warn("Failed to release permit for endpoint {}: {}", endpointId, e.getMessage());
-                activePermits.decrementAndGet();
-            }
-        } else {
-            releaseLocal(endpointId);
-            activePermits.decrementAndGet();
-            concurrencyReleased.increment();
+    private EndpointPermits newEndpointPermits(UUID endpointId) {
+        EndpointPermits state = new EndpointPermits(endpointId);
+        state.gauge = Gauge.builder("webhook_concurrency_in_flight", state.inFlight, AtomicInteger::get)
+                .description("Concurrency permits held on this pod per endpoint")
+                .tag("endpoint_id", endpointId.toString())
+                .register(meterRegistry);
+        return state;
+    }
+
+    /**
+     * Handle for an acquired concurrency permit. Not bound to the acquiring thread.
+     */
+    public static final class Permit {
+        private final EndpointPermits state;
+        private final UUID endpointId;
+        private final String id;
+        private final boolean local;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile long leaseExpiresAt;
+
+        private Permit(EndpointPermits state, String id, boolean local, long leaseExpiresAt) {
+            this.state = state;
+            this.endpointId = state.endpointId;
+            this.id = id;
+            this.local = local;
+            this.leaseExpiresAt = leaseExpiresAt;
+        }
+
+        public UUID getEndpointId() {
+            return endpointId;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * {@code true} if admitted by the local fallback while Redis was unavailable.
+         */
+        public boolean isLocal() {
+            return local;
         }
     }
 
+    /**
+     * Local mirror of one endpoint: permits held on this pod and released leases
+     * waiting to be flushed (or reused).
+     */
+    private static final class EndpointPermits {
+        final UUID endpointId;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final ConcurrentLinkedDeque<Permit> released = new ConcurrentLinkedDeque<>();
+        Gauge gauge;
+
+        EndpointPermits(UUID endpointId) {
+            this.endpointId = endpointId;
+        }
+    }
 }
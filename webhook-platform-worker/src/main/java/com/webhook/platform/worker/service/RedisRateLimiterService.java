@@ -2,11 +2,10 @@ package com.webhook.platform.worker.service;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RRateLimiter;
-import org.redisson.api.RateIntervalUnit;
-import org.redisson.api.RateType;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.github.benmanes.caffeine.cache.Cache;
@@ -17,14 +16,18 @@ import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Per-endpoint rate limiter. Admissions are served from token batches leased from a
+ * global Redis bucket (see {@link LeasedRateLimiter}); when Redis is unavailable each
+ * pod falls back to a local one-second window at the full endpoint rate.
+ */
 @Service
 @Slf4j
 public class RedisRateLimiterService {
 
-    private static final String KEY_PREFIX = "rate_limiter:endpoint:";
-    private static final Duration KEY_TTL = Duration.ofHours(24);
+    private static final String KEY_PREFIX = "rate_lease:endpoint:";
 
-    private final RedissonClient redissonClient;
+    private final LeasedRateLimiter leasedLimiter;
     private final Counter rateLimitHits;
     private final Counter rateLimitMisses;
     private final Counter rateLimitFallback;
@@ -34,8 +37,14 @@ public class RedisRateLimiterService {
             .expireAfterAccess(Duration.ofMinutes(5))
             .build();
 
-    public RedisRateLimiterService(RedissonClient redissonClient, MeterRegistry meterRegistry) {
-        this.redissonClient = redissonClient;
+    public RedisRateLimiterService(
+            RedissonClient redissonClient,
+            MeterRegistry meterRegistry,
+            @Value("${webhook.rate-limit.lease-fraction:0.1}") double leaseFraction,
+            @Value("${webhook.rate-limit.lease-ttl-ms:1000}") long leaseTtlMs,
+            @Value("${webhook.rate-limit.redis-backoff-ms:5000}") long redisBackoffMs) {
+        this.leasedLimiter = new LeasedRateLimiter(redissonClient, meterRegistry, "endpoint", KEY_PREFIX,
+                leaseFraction, leaseTtlMs, redisBackoffMs, System::currentTimeMillis);
         this.rateLimitHits = Counter.builder("webhook_rate_limit_hits_total")
                 .description("Number of requests that passed rate limiting")
                 .register(meterRegistry);
@@ -53,27 +62,23 @@ public class RedisRateLimiterService {
             return true;
         }
 
-        try {
-            String key = KEY_PREFIX + endpointId;
-            RRateLimiter limiter = redissonClient.getRateLimiter(key);
-
-            limiter.trySetRate(RateType.OVERALL, ratePerSecond, 1, RateIntervalUnit.SECONDS);
-            limiter.expire(KEY_TTL);
-
-            boolean acquired = limiter.tryAcquire(1);
-            if (acquired) {
-                rateLimitHits.increment();
-            } else {
-                rateLimitMisses.increment();
-                log.debug("Rate limit exceeded for endpoint: {} (limit: {}/sec)", endpointId, ratePerSecond);
-            }
-            return acquired;
-        } catch (Exception e) {
-            log.warn("Redis rate limiter unavailable for endpoint {}, using local fallback: {}",
-                    endpointId, e.getMessage());
+        LeasedRateLimiter.Result result = leasedLimiter.tryAcquire(endpointId, ratePerSecond);
+        if (result == LeasedRateLimiter.Result.UNAVAILABLE) {
             rateLimitFallback.increment();
             return tryAcquireLocal(endpointId, ratePerSecond);
         }
+        if (result == LeasedRateLimiter.Result.ACQUIRED) {
+            rateLimitHits.increment();
+            return true;
+        }
+        rateLimitMisses.increment();
+        log.debug("Rate limit exceeded for endpoint: {} (limit: {}/sec)", endpointId, ratePerSecond);
+        return false;
+    }
+
+    @PreDestroy
+    public void returnLeases() {
+        leasedLimiter.returnLeases();
     }
 
     private boolean tryAcquireLocal(UUID endpointId, int ratePerSecond) {
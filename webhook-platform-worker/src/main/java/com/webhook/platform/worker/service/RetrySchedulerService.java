@@ -43,6 +43,7 @@ public class RetrySchedulerService {
     private final long rescheduleDelaySeconds;
     private final long defaultPollIntervalMs;
     private final RetryGovernor governor;
+    private final boolean partitionOrdering;
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
             r -> { Thread t = new Thread(r, "retry-scheduler"); t.setDaemon(true); return t; });
 
@@ -58,7 +59,8 @@ public class RetrySchedulerService {
             @Value("${retry.scheduler.send-timeout-seconds:30}") long sendTimeoutSeconds,
             @Value("${retry.scheduler.reschedule-delay-seconds:60}") long rescheduleDelaySeconds,
             @Value("${retry.scheduler.high-watermark:5000}") long highWatermark,
-            @Value("${retry.scheduler.poll-interval-ms:10000}") long defaultPollIntervalMs) {
+            @Value("${retry.scheduler.poll-interval-ms:10000}") long defaultPollIntervalMs,
+            @Value("${ordering.mode:redis}") String orderingMode) {
         this.deliveryRepository = deliveryRepository;
         this.kafkaTemplate = kafkaTemplate;
         this.transactionTemplate = transactionTemplate;
@@ -68,6 +70,7 @@ public class RetrySchedulerService {
         this.sendTimeoutSeconds = sendTimeoutSeconds;
         this.rescheduleDelaySeconds = rescheduleDelaySeconds;
         this.defaultPollIntervalMs = defaultPollIntervalMs;
+        this.partitionOrdering = PartitionOrderedDeliveryEngine.MODE_PARTITION.equalsIgnoreCase(orderingMode);
         this.governor = new RetryGovernor(
                 "outgoing", batchSize, /* minBatch */ 5, /* increment */ 10,
                 highWatermark, /* maxCooldownPolls */ 6, meterRegistry);
@@ -153,8 +156,8 @@ public class RetrySchedulerService {
         List<Delivery> circuitBreakerSkipped = new ArrayList<>();
 
         for (Delivery delivery : claimed) {
-            // Skip if circuit breaker is OPEN for this endpoint
-            if (!circuitBreakerService.isCallPermitted(delivery.getEndpointId())) {
+            // Skip if circuit breaker is OPEN for this endpoint (HALF_OPEN probes happen at delivery time)
+            if (circuitBreakerService.isOpen(delivery.getEndpointId())) {
                 rescheduleDelivery(delivery, "Circuit breaker OPEN");
                 circuitBreakerSkipped.add(delivery);
                 log.info("Skipped retry for delivery {} - circuit breaker OPEN for endpoint {}",
@@ -163,7 +166,10 @@ public class RetrySchedulerService {
             }
             
             try {
-                String topic = getRetryTopic(delivery.getAttemptCount());
+                // Partition ordering: retries must go back to the endpoint's lane on deliveries.dispatch
+                boolean laned = partitionOrdering && Boolean.TRUE.equals(delivery.getOrderingEnabled())
+                        && delivery.getSequenceNumber() != null;
+                String topic = laned ? KafkaTopics.DELIVERIES_DISPATCH : getRetryTopic(delivery.getAttemptCount());
                 deliveryTopics.put(delivery.getId(), topic);
 
                 DeliveryMessage message = DeliveryMessage.builder()
@@ -173,6 +179,8 @@ public class RetrySchedulerService {
                         .subscriptionId(delivery.getSubscriptionId())
                         .status(delivery.getStatus().name())
                         .attemptCount(delivery.getAttemptCount())
+                        .sequenceNumber(laned ? delivery.getSequenceNumber() : null)
+                        .orderingEnabled(laned ? Boolean.TRUE : null)
                         .build();
 
                 CompletableFuture<SendResult<String, DeliveryMessage>> future = kafkaTemplate.send(topic,
@@ -0,0 +1,276 @@
+package com.webhook.platform.worker.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable execution plan of a payload template, built once by {@link #compile} and shared
+ * by every delivery that uses the template.
+ * <p>
+ * Compilation does everything that depends only on the template: it is parsed once, every
+ * {@code ${...}} expression is compiled to a {@link JsonPath} (plain {@code $.a.b[0]} paths to
+ * a direct walk of the source tree), interpolated strings are split into literal and
+ * expression segments, and subtrees without expressions are serialized to JSON text.
+ * Execution then streams the output to a {@link JsonGenerator}: literal subtrees are
+ * written raw, field names pre-escaped, and only expression values are looked up in the source.
+ * <p>
+ * Semantics are those of the tree-walking transform it replaces: a string that is exactly one
+ * expression takes the value it selects (JSON {@code null} when nothing matches), expressions
+ * inside a longer string are replaced by the value's text, everything else is copied.
+ */
+@Slf4j
+public final class TransformPlan {
+
+    private static final Pattern JSONPATH_PATTERN = Pattern.compile("\\$\\{([^}]+)}");
+
+    /** Definite paths of plain names and indexes, resolved without JsonPath: {@code $.a.b[0].c} */
+    private static final Pattern FIELD_PATH = Pattern.compile("\\$(?:\\.[A-Za-z_][A-Za-z0-9_]*|\\[\\d{1,9}])*");
+    private static final Pattern FIELD_PATH_STEP = Pattern.compile("\\.([A-Za-z_][A-Za-z0-9_]*)|\\[(\\d{1,9})]");
+
+    private final Step root;
+    private final int templateLength;
+
+    private TransformPlan(Step root, int templateLength) {
+        this.root = root;
+        this.templateLength = templateLength;
+    }
+
+    /**
+     * @throws JsonProcessingException if the template is not valid JSON
+     */
+    public static TransformPlan compile(String template, ObjectMapper objectMapper, Configuration jsonPathConfig)
+            throws JsonProcessingException {
+        Compiler compiler = new Compiler(objectMapper, jsonPathConfig);
+        return new TransformPlan(compiler.step(objectMapper.readTree(template)), template.length());
+    }
+
+    /**
+     * Write the transformed payload for {@code source} to {@code generator}.
+     */
+    public void write(JsonNode source, JsonGenerator generator) throws IOException {
+        root.write(source, generator);
+    }
+
+    /**
+     * Rough output size, to size the output buffer.
+     */
+    int estimatedSize() {
+        return templateLength + 64;
+    }
+
+    // ─── Steps ──────────────────────────────────────────────────────────
+
+    private interface Step {
+        void write(JsonNode source, JsonGenerator generator) throws IOException;
+    }
+
+    /** Subtree without expressions, serialized once */
+    private record Literal(String json) implements Step {
+        @Override
+        public void write(JsonNode source, JsonGenerator generator) throws IOException {
+            generator.writeRawValue(json);
+        }
+    }
+
+    /** String that is exactly one expression: the selected value, whatever its type */
+    private record Value(Expression expression) implements Step {
+        @Override
+        public void write(JsonNode source, JsonGenerator generator) throws IOException {
+            generator.writeTree(expression.evaluate(source));
+        }
+    }
+
+    /** String with embedded expressions: {@code texts[0] + value(0) + texts[1] + ... + texts[n]} */
+    private record Interpolation(String[] texts, Expression[] expressions) implements Step {
+        @Override
+        public void write(JsonNode source, JsonGenerator generator) throws IOException {
+            StringBuilder sb = new StringBuilder(64);
+            for (int i = 0; i < expressions.length; i++) {
+                sb.append(texts[i]);
+                JsonNode value = expressions[i].evaluate(source);
+                sb.append(value.isTextual() ? value.asText() : value.toString());
+            }
+            sb.append(texts[expressions.length]);
+            generator.writeString(sb.toString());
+        }
+    }
+
+    private record ObjectStep(SerializedString[] names, Step[] values) implements Step {
+        @Override
+        public void write(JsonNode source, JsonGenerator generator) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < names.length; i++) {
+                generator.writeFieldName(names[i]);
+                values[i].write(source, generator);
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private record ArrayStep(Step[] elements) implements Step {
+        @Override
+        public void write(JsonNode source, JsonGenerator generator) throws IOException {
+            generator.writeStartArray();
+            for (Step element : elements) {
+                element.write(source, generator);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /** A compiled {@code ${...}} expression; never returns Java {@code null} */
+    private interface Expression {
+        JsonNode evaluate(JsonNode source);
+    }
+
+    /** Expression that is not a valid JSONPath: selects nothing */
+    private static final Expression NOTHING = source -> NullNode.getInstance();
+
+    private record JsonPathExpression(String text, JsonPath path, ObjectMapper objectMapper, Configuration config)
+            implements Expression {
+
+        @Override
+        public JsonNode evaluate(JsonNode source) {
+            try {
+                Object result = path.read(source, config);
+                if (result == null) {
+                    return NullNode.getInstance();
+                }
+                if (result instanceof JsonNode node) {
+                    return node;
+                }
+                return objectMapper.valueToTree(result);
+            } catch (Exception e) {
+                log.debug("JSONPath evaluation failed for '{}': {}", text, e.getMessage());
+                return NullNode.getInstance();
+            }
+        }
+    }
+
+    /**
+     * {@link #FIELD_PATH} walked directly on the source tree; per step a name, or {@code null}
+     * and an array index. Selects what JsonPath would: {@code null} when a step is missing or
+     * applied to the wrong kind of node.
+     */
+    private record FieldExpression(String[] names, int[] indexes) implements Expression {
+
+        @Override
+        public JsonNode evaluate(JsonNode source) {
+            JsonNode node = source;
+            for (int i = 0; i < names.length && node != null; i++) {
+                if (names[i] != null) {
+                    node = node.isObject() ? node.get(names[i]) : null;
+                } else {
+                    node = node.isArray() ? node.get(indexes[i]) : null;
+                }
+            }
+            return node == null || node.isMissingNode() ? NullNode.getInstance() : node;
+        }
+    }
+
+    // ─── Compilation ────────────────────────────────────────────────────
+
+    private record Compiler(ObjectMapper objectMapper, Configuration config) {
+
+        Step step(JsonNode node) throws JsonProcessingException {
+            if (node.isObject()) {
+                return object(node);
+            } else if (node.isArray()) {
+                return array(node);
+            } else if (node.isTextual()) {
+                return text(node);
+            }
+            return literal(node);
+        }
+
+        private Step object(JsonNode node) throws JsonProcessingException {
+            List<SerializedString> names = new ArrayList<>(node.size());
+            List<Step> values = new ArrayList<>(node.size());
+            boolean dynamic = false;
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                Step value = step(field.getValue());
+                dynamic |= !(value instanceof Literal);
+                names.add(new SerializedString(field.getKey()));
+                values.add(value);
+            }
+            if (!dynamic) {
+                return literal(node);
+            }
+            return new ObjectStep(names.toArray(SerializedString[]::new), values.toArray(Step[]::new));
+        }
+
+        private Step array(JsonNode node) throws JsonProcessingException {
+            Step[] elements = new Step[node.size()];
+            boolean dynamic = false;
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = step(node.get(i));
+                dynamic |= !(elements[i] instanceof Literal);
+            }
+            return dynamic ? new ArrayStep(elements) : literal(node);
+        }
+
+        private Step text(JsonNode node) throws JsonProcessingException {
+            String text = node.asText();
+            Matcher matcher = JSONPATH_PATTERN.matcher(text);
+            if (matcher.matches()) {
+                return new Value(expression(matcher.group(1)));
+            }
+            List<String> texts = new ArrayList<>();
+            List<Expression> expressions = new ArrayList<>();
+            int last = 0;
+            while (matcher.find()) {
+                texts.add(text.substring(last, matcher.start()));
+                expressions.add(expression(matcher.group(1)));
+                last = matcher.end();
+            }
+            if (expressions.isEmpty()) {
+                return literal(node);
+            }
+            texts.add(text.substring(last));
+            return new Interpolation(texts.toArray(String[]::new), expressions.toArray(Expression[]::new));
+        }
+
+        private Expression expression(String text) {
+            JsonPath path;
+            try {
+                path = JsonPath.compile(text);
+            } catch (Exception e) {
+                log.debug("Invalid JSONPath '{}' in template: {}", text, e.getMessage());
+                return NOTHING;
+            }
+            if (FIELD_PATH.matcher(text).matches()) {
+                List<String> names = new ArrayList<>();
+                List<Integer> indexes = new ArrayList<>();
+                Matcher step = FIELD_PATH_STEP.matcher(text);
+                while (step.find()) {
+                    names.add(step.group(1));
+                    indexes.add(step.group(2) != null ? Integer.parseInt(step.group(2)) : -1);
+                }
+                return new FieldExpression(names.toArray(String[]::new),
+                        indexes.stream().mapToInt(Integer::intValue).toArray());
+            }
+            return new JsonPathExpression(text, path, objectMapper, config);
+        }
+
+        private Literal literal(JsonNode node) throws JsonProcessingException {
+            return new Literal(objectMapper.writeValueAsString(node));
+        }
+    }
+}
@@ -40,13 +40,12 @@ public class TransformationCacheService {
     }
 
     /**
-     * Finds an enabled transformation's template by ID.
+     * Finds an enabled transformation by ID.
      * Returns null if not found or disabled.
      */
-    public String findEnabledTemplate(UUID id) {
+    public Transformation findEnabled(UUID id) {
         return findById(id)
                 .filter(Transformation::getEnabled)
-                .map(Transformation::getTemplate)
                 .orElse(null);
     }
 
@@ -0,0 +1,118 @@
+package com.webhook.platform.worker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guard against carrier-thread pinning when {@link AsyncDeliveryExecutor} runs on
+ * virtual threads.
+ *
+ * <p>A virtual thread that blocks while holding a monitor ({@code synchronized}) or
+ * inside a native frame stays mounted on its carrier, so a handful of pinned
+ * deliveries can stall every other delivery. The delivery path has no
+ * {@code synchronized} blocks of its own and Redisson sync calls park on a
+ * {@code CompletableFuture}, but drivers and libraries can still pin. This
+ * streams the JFR {@code jdk.VirtualThreadPinned} event in-process, counts it in
+ * {@code async_delivery_virtual_thread_pinned_total} and logs the offending frames
+ * once per call site.</p>
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "webhook.async-thread-mode", havingValue = "virtual")
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_REPORTED_SITES = 100;
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private final Timer pinnedTimer;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    @Autowired
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${webhook.async-pinning-threshold-ms:20}") long thresholdMs) {
+        this(meterRegistry, Duration.ofMillis(thresholdMs));
+    }
+
+    VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("async_delivery_virtual_thread_pinned_total")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("async_delivery_virtual_thread_pinned_duration")
+                .description("Time virtual threads spent blocked while pinned")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started: threshold={}ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    public long getPinnedCount() {
+        return (long) pinnedCounter.count();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || reportedSites.size() >= MAX_REPORTED_SITES) {
+            return;
+        }
+        String site = describe(stackTrace);
+        if (reportedSites.add(site)) {
+            log.warn("Virtual thread pinned for {}ms (first occurrence at this site):\n{}",
+                    event.getDuration().toMillis(), site);
+        }
+    }
+
+    private static String describe(RecordedStackTrace stackTrace) {
+        StringBuilder sb = new StringBuilder();
+        int count = 0;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            sb.append("\tat ").append(frame.getMethod().getType().getName())
+                    .append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber()).append('\n');
+            if (++count == LOGGED_FRAMES) {
+                break;
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -3,6 +3,7 @@ package com.webhook.platform.worker.service;
 import com.webhook.platform.common.dto.DeliveryMessage;
 import com.webhook.platform.common.security.UrlValidator;
 import com.webhook.platform.common.util.CryptoUtils;
+import com.webhook.platform.common.util.DecryptedSecretCache;
 import com.webhook.platform.common.util.HeaderSanitizer;
 import com.webhook.platform.common.util.WebhookSignatureUtils;
 import com.webhook.platform.worker.domain.entity.*;
@@ -13,10 +14,12 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import com.webhook.platform.common.constants.KafkaTopics;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.kafka.core.KafkaOperations;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -26,6 +29,7 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +37,9 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.resources.ConnectionProvider;
 
@@ -43,7 +50,9 @@ public class WebhookDeliveryService {
     private final DeliveryRepository deliveryRepository;
     private final EndpointRepository endpointRepository;
     private final EventRepository eventRepository;
-    private final DeliveryAttemptRepository deliveryAttemptRepository;
+    private final DeliveryAttemptJournal attemptJournal;
+    private final DeliveryStatsRecorder statsRecorder;
+    private final DeliveryOutcomePublisher outcomePublisher;
     private final WebClient defaultWebClient;
     private final MtlsWebClientFactory mtlsWebClientFactory;
     private final String encryptionKey;
@@ -57,10 +66,14 @@ public class WebhookDeliveryService {
     private final MeterRegistry meterRegistry;
     private final OrderingBufferService orderingBufferService;
     private final KafkaTemplate<String, DeliveryMessage> kafkaTemplate;
+    private final KafkaOperations<String, Object> deadLetterKafkaTemplate;
     private final PayloadTransformService payloadTransformService;
     private final ObjectMapper objectMapper;
     private final TransactionTemplate transactionTemplate;
     private final TransformationCacheService transformationCacheService;
+    private final DecryptedSecretCache secretCache;
+    private final Scheduler deliveryIoScheduler;
+    private final boolean partitionOrdering;
 
     private final Counter deliverySuccessCounter;
     private final Counter deliveryFailureCounter;
@@ -77,7 +90,9 @@ public class WebhookDeliveryService {
             DeliveryRepository deliveryRepository,
             EndpointRepository endpointRepository,
             EventRepository eventRepository,
-            DeliveryAttemptRepository deliveryAttemptRepository,
+            DeliveryAttemptJournal attemptJournal,
+            DeliveryStatsRecorder statsRecorder,
+            DeliveryOutcomePublisher outcomePublisher,
             WebClient.Builder webClientBuilder,
             MtlsWebClientFactory mtlsWebClientFactory,
             @Value("${webhook.encryption-key:development_master_key_32_chars}") String encryptionKey,
@@ -92,14 +107,19 @@ public class WebhookDeliveryService {
             ObjectMapper objectMapper,
             OrderingBufferService orderingBufferService,
             KafkaTemplate<String, DeliveryMessage> kafkaTemplate,
+            @Qualifier("deadLetterKafkaTemplate") KafkaOperations<String, Object> deadLetterKafkaTemplate,
             PayloadTransformService payloadTransformService,
             TransactionTemplate transactionTemplate,
             TransformationCacheService transformationCacheService,
-            ConnectionProvider webhookConnectionProvider) {
+            ConnectionProvider webhookConnectionProvider,
+            Scheduler deliveryIoScheduler,
+            @Value("${ordering.mode:redis}") String orderingMode) {
         this.deliveryRepository = deliveryRepository;
         this.endpointRepository = endpointRepository;
         this.eventRepository = eventRepository;
-        this.deliveryAttemptRepository = deliveryAttemptRepository;
+        this.attemptJournal = attemptJournal;
+        this.statsRecorder = statsRecorder;
+        this.outcomePublisher = outcomePublisher;
         HttpClient ssrfSafeHttpClient = SsrfProtectionCustomizer.createHttpClient(webhookConnectionProvider, allowPrivateIps);
         this.defaultWebClient = webClientBuilder
                 .clientConnector(new ReactorClientHttpConnector(ssrfSafeHttpClient))
@@ -117,10 +137,15 @@ public class WebhookDeliveryService {
         this.meterRegistry = meterRegistry;
         this.orderingBufferService = orderingBufferService;
         this.kafkaTemplate = kafkaTemplate;
+        this.deadLetterKafkaTemplate = deadLetterKafkaTemplate;
         this.payloadTransformService = payloadTransformService;
         this.objectMapper = objectMapper;
         this.transactionTemplate = transactionTemplate;
         this.transformationCacheService = transformationCacheService;
+        this.secretCache = new DecryptedSecretCache("endpoint_secret", 10_000, Duration.ofMinutes(10));
+        this.secretCache.bindTo(meterRegistry);
+        this.deliveryIoScheduler = deliveryIoScheduler;
+        this.partitionOrdering = PartitionOrderedDeliveryEngine.MODE_PARTITION.equalsIgnoreCase(orderingMode);
 
         this.deliverySuccessCounter = Counter.builder("webhook_delivery_attempts_total")
                 .tag("result", "success").tag("status_class", "2xx")
@@ -174,25 +199,225 @@ public class WebhookDeliveryService {
             return;
         }
 
+        deliverClaimed(delivery,
+                () -> endpointRepository.findById(delivery.getEndpointId()),
+                () -> eventRepository.findById(delivery.getEventId()));
+    }
+
+    /**
+     * Variant of {@link #processDelivery} used by {@link PartitionOrderedDeliveryEngine}:
+     * returns the status the delivery was left in, so the engine can tell whether the
+     * sequence is settled (SUCCESS, FAILED, DLQ) or will come back (PENDING).
+     * If the delivery could not be claimed, its current status is returned instead.
+     */
+    public Delivery.DeliveryStatus processOrderedDelivery(DeliveryMessage message) {
+        if (shuttingDown) {
+            throw new ShutdownRejectedException(
+                    "Worker is shutting down, delivery " + message.getDeliveryId() + " must be redelivered");
+        }
+        Delivery delivery = claimOrdered(message);
+        if (delivery == null) {
+            return deliveryRepository.findStatusById(message.getDeliveryId());
+        }
+        deliverClaimed(delivery,
+                () -> endpointRepository.findById(delivery.getEndpointId()),
+                () -> eventRepository.findById(delivery.getEventId()));
+        return delivery.getStatus();
+    }
+
+    /**
+     * Non-blocking variant of {@link #processOrderedDelivery}.
+     */
+    public Mono<Delivery.DeliveryStatus> processOrderedDeliveryReactive(DeliveryMessage message) {
+        if (shuttingDown) {
+            return Mono.error(new ShutdownRejectedException(
+                    "Worker is shutting down, delivery " + message.getDeliveryId() + " must be redelivered"));
+        }
+        return Mono.defer(() -> {
+                    Delivery delivery = claimOrdered(message);
+                    if (delivery == null) {
+                        return Mono.justOrEmpty(deliveryRepository.findStatusById(message.getDeliveryId()));
+                    }
+                    return deliverClaimedReactive(delivery,
+                                    () -> endpointRepository.findById(delivery.getEndpointId()),
+                                    () -> eventRepository.findById(delivery.getEventId()))
+                            .then(Mono.fromSupplier(delivery::getStatus));
+                })
+                .subscribeOn(deliveryIoScheduler);
+    }
+
+    private Delivery claimOrdered(DeliveryMessage message) {
+        Integer claimed = transactionTemplate
+                .execute(tx -> deliveryRepository.claimForProcessing(message.getDeliveryId()));
+        if (claimed == null || claimed == 0) {
+            log.debug("Ordered delivery {} already claimed or not PENDING, skipping", message.getDeliveryId());
+            return null;
+        }
+        return transactionTemplate
+                .execute(tx -> deliveryRepository.findById(message.getDeliveryId()).orElse(null));
+    }
+
+    /**
+     * A delivery claimed by {@link #claimBatch} together with its endpoint and event
+     * (either may be null if the row no longer exists).
+     */
+    public record ClaimedDelivery(Delivery delivery, Endpoint endpoint, Event event) {}
+
+    /**
+     * Claims all PENDING deliveries among {@code deliveryIds} with a single
+     * {@code UPDATE ... RETURNING} and hydrates their endpoints and events with
+     * one {@code IN} query each. Deliveries that were not PENDING are absent
+     * from the result.
+     */
+    public Map<UUID, ClaimedDelivery> claimBatch(Collection<UUID> deliveryIds) {
+        if (shuttingDown) {
+            throw new ShutdownRejectedException(
+                    "Worker is shutting down, batch of " + deliveryIds.size() + " must be redelivered");
+        }
+        if (deliveryIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, ClaimedDelivery> result = transactionTemplate.execute(tx -> {
+            List<Delivery> deliveries = deliveryRepository.claimBatchForProcessing(deliveryIds);
+            if (deliveries.isEmpty()) {
+                return Map.<UUID, ClaimedDelivery>of();
+            }
+            Map<UUID, Endpoint> endpoints = new HashMap<>();
+            endpointRepository.findAllById(deliveries.stream().map(Delivery::getEndpointId).distinct().toList())
+                    .forEach(endpoint -> endpoints.put(endpoint.getId(), endpoint));
+            Map<UUID, Event> events = new HashMap<>();
+            eventRepository.findAllById(deliveries.stream().map(Delivery::getEventId).distinct().toList())
+                    .forEach(event -> events.put(event.getId(), event));
+
+            Map<UUID, ClaimedDelivery> claimed = new HashMap<>();
+            for (Delivery delivery : deliveries) {
+                claimed.put(delivery.getId(), new ClaimedDelivery(delivery,
+                        endpoints.get(delivery.getEndpointId()), events.get(delivery.getEventId())));
+            }
+            return claimed;
+        });
+        return result != null ? result : Map.of();
+    }
+
+    /**
+     * Processes a delivery already claimed and hydrated by {@link #claimBatch}.
+     */
+    public void processClaimedDelivery(ClaimedDelivery claimed) {
+        deliverClaimed(claimed.delivery(),
+                () -> Optional.ofNullable(claimed.endpoint()),
+                () -> Optional.ofNullable(claimed.event()));
+    }
+
+    private void deliverClaimed(Delivery delivery,
+                                Supplier<Optional<Endpoint>> endpointLookup,
+                                Supplier<Optional<Event>> eventLookup) {
+        DeliveryTarget target = resolveTarget(delivery, endpointLookup, eventLookup);
+        if (target == null) {
+            return;
+        }
+
+        inFlightCount.incrementAndGet();
+        try {
+            try {
+                attemptDelivery(delivery, target.endpoint(), target.event());
+            } catch (Exception e) {
+                handleUnexpectedError(delivery, e);
+            }
+            // Batched journal: return (and let the record be acked) only once the attempt is durable
+            attemptJournal.barrier(delivery.getId()).join();
+        } finally {
+            inFlightCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #processDelivery}: the HTTP exchange is not
+     * blocked on, and all DB/Redis work (claim, admission checks, response handling,
+     * attempt persistence) runs on {@code deliveryIoScheduler}, never on the event loop.
+     * The returned Mono completes when the delivery outcome has been persisted.
+     */
+    public Mono<Void> processDeliveryReactive(DeliveryMessage message) {
+        if (shuttingDown) {
+            log.warn("Shutdown in progress, rejecting new delivery: {}", message.getDeliveryId());
+            return Mono.error(new ShutdownRejectedException(
+                    "Worker is shutting down, delivery " + message.getDeliveryId() + " must be redelivered"));
+        }
+        return Mono.defer(() -> {
+                    Integer claimed = transactionTemplate
+                            .execute(tx -> deliveryRepository.claimForProcessing(message.getDeliveryId()));
+                    if (claimed == null || claimed == 0) {
+                        log.debug("Delivery {} already claimed or not PENDING, skipping", message.getDeliveryId());
+                        return Mono.empty();
+                    }
+                    Delivery delivery = transactionTemplate
+                            .execute(tx -> deliveryRepository.findById(message.getDeliveryId()).orElse(null));
+                    if (delivery == null) {
+                        log.error("Delivery not found after claim: {}", message.getDeliveryId());
+                        return Mono.empty();
+                    }
+                    return deliverClaimedReactive(delivery,
+                            () -> endpointRepository.findById(delivery.getEndpointId()),
+                            () -> eventRepository.findById(delivery.getEventId()));
+                })
+                .subscribeOn(deliveryIoScheduler);
+    }
+
+    /**
+     * Non-blocking variant of {@link #processClaimedDelivery}.
+     */
+    public Mono<Void> processClaimedDeliveryReactive(ClaimedDelivery claimed) {
+        return Mono.defer(() -> deliverClaimedReactive(claimed.delivery(),
+                        () -> Optional.ofNullable(claimed.endpoint()),
+                        () -> Optional.ofNullable(claimed.event())))
+                .subscribeOn(deliveryIoScheduler);
+    }
+
+    private Mono<Void> deliverClaimedReactive(Delivery delivery,
+                                              Supplier<Optional<Endpoint>> endpointLookup,
+                                              Supplier<Optional<Event>> eventLookup) {
+        DeliveryTarget target = resolveTarget(delivery, endpointLookup, eventLookup);
+        if (target == null) {
+            return Mono.empty();
+        }
+
+        inFlightCount.incrementAndGet();
+        return Mono.defer(() -> attemptDeliveryReactive(delivery, target.endpoint(), target.event()))
+                .onErrorResume(e -> {
+                    handleUnexpectedError(delivery, e);
+                    return Mono.empty();
+                })
+                .then(Mono.defer(() -> Mono.fromFuture(attemptJournal.barrier(delivery.getId()))))
+                .doFinally(signal -> inFlightCount.decrementAndGet());
+    }
+
+    private record DeliveryTarget(Endpoint endpoint, Event event) {}
+
+    /**
+     * Ordering, endpoint and event checks shared by the blocking and reactive paths.
+     * Returns null if the delivery was buffered, rescheduled or failed.
+     */
+    private DeliveryTarget resolveTarget(Delivery delivery,
+                                         Supplier<Optional<Endpoint>> endpointLookup,
+                                         Supplier<Optional<Event>> eventLookup) {
         // Check ordering constraints for ordered deliveries
-        if (Boolean.TRUE.equals(delivery.getOrderingEnabled()) && delivery.getSequenceNumber() != null) {
+        if (usesRedisOrdering(delivery)) {
             if (!canDeliverWithOrdering(delivery)) {
-                return; // Delivery buffered or rescheduled
+                return null; // Delivery buffered or rescheduled
             }
         }
 
-        Optional<Endpoint> endpointOpt = endpointRepository.findById(delivery.getEndpointId());
+        Optional<Endpoint> endpointOpt = endpointLookup.get();
         if (endpointOpt.isEmpty()) {
             log.error("Endpoint not found: {}", delivery.getEndpointId());
             markAsFailed(delivery, "Endpoint not found");
-            return;
+            return null;
         }
 
         Endpoint endpoint = endpointOpt.get();
         if (!endpoint.getEnabled()) {
             log.warn("Endpoint disabled: {}", endpoint.getId());
             markAsFailed(delivery, "Endpoint is disabled");
-            return;
+            return null;
         }
 
         // Block deliveries to unverified endpoints (SSRF protection)
@@ -201,34 +426,75 @@ public class WebhookDeliveryService {
             log.warn("Endpoint {} not verified (status: {}), blocking delivery {}",
                     endpoint.getId(), endpoint.getVerificationStatus(), delivery.getId());
             markAsFailed(delivery, "Endpoint not verified - verification required before receiving webhooks");
-            return;
+            return null;
         }
 
-        Optional<Event> eventOpt = eventRepository.findById(delivery.getEventId());
+        Optional<Event> eventOpt = eventLookup.get();
         if (eventOpt.isEmpty()) {
             log.error("Event not found: {}", delivery.getEventId());
             markAsFailed(delivery, "Event not found");
-            return;
+            return null;
         }
 
-        Event event = eventOpt.get();
+        return new DeliveryTarget(endpoint, eventOpt.get());
+    }
+
+    private void handleUnexpectedError(Delivery delivery, Throwable e) {
+        log.error("Unexpected error in delivery {}: {}", delivery.getId(), e.getMessage(), e);
+        try {
+            handleError(delivery, e, null, null, 0);
+        } catch (Exception ex) {
+            log.error("Failed to handle error for delivery {}: {}", delivery.getId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * A request that passed admission (rate limits, circuit breaker, concurrency permit,
+     * URL validation) and is ready to be sent.
+     */
+    private record PreparedAttempt(WebClient.RequestHeadersSpec<?> request,
+                                   RedisConcurrencyControlService.Permit permit,
+                                   String requestHeaders, String body, long startTime,
+                                   Timer.Sample sample, int timeoutSeconds,
+                                   UUID projectId, String eventType) {}
+
+    private record HttpOutcome(int status, String responseBody, String responseHeaders) {}
+
+    private void attemptDelivery(Delivery delivery, Endpoint endpoint, Event event) {
+        PreparedAttempt attempt = prepareAttempt(delivery, endpoint, event);
+        if (attempt == null) {
+            return;
+        }
 
-        inFlightCount.incrementAndGet();
         try {
-            attemptDelivery(delivery, endpoint, event);
+            HttpOutcome outcome = exchange(attempt).block();
+            completeAttempt(delivery, attempt, outcome);
         } catch (Exception e) {
-            log.error("Unexpected error in delivery {}: {}", delivery.getId(), e.getMessage(), e);
-            try {
-                handleError(delivery, e, null, null, 0);
-            } catch (Exception ex) {
-                log.error("Failed to handle error for delivery {}: {}", delivery.getId(), ex.getMessage());
-            }
+            failAttempt(delivery, attempt, e);
         } finally {
-            inFlightCount.decrementAndGet();
+            concurrencyControlService.release(attempt.permit());
         }
     }
 
-    private void attemptDelivery(Delivery delivery, Endpoint endpoint, Event event) {
+    private Mono<Void> attemptDeliveryReactive(Delivery delivery, Endpoint endpoint, Event event) {
+        PreparedAttempt attempt = prepareAttempt(delivery, endpoint, event);
+        if (attempt == null) {
+            return Mono.empty();
+        }
+
+        return exchange(attempt)
+                // Response handling and attempt persistence must not run on the event loop
+                .publishOn(deliveryIoScheduler)
+                .doOnNext(outcome -> completeAttempt(delivery, attempt, outcome))
+                .onErrorResume(e -> {
+                    failAttempt(delivery, attempt, e);
+                    return Mono.empty();
+                })
+                .doFinally(signal -> concurrencyControlService.release(attempt.permit()))
+                .then();
+    }
+
+    private PreparedAttempt prepareAttempt(Delivery delivery, Endpoint endpoint, Event event) {
         long startTime = System.currentTimeMillis();
 
         // Project-level rate limit — prevent noisy-neighbor
@@ -236,16 +502,16 @@ public class WebhookDeliveryService {
             long delaySec = backoffWithJitter(delivery.getAttemptCount(), 1, 30);
             log.warn("Project rate limit exceeded for project {}, rescheduling delivery {} in {}s",
                     endpoint.getProjectId(), delivery.getId(), delaySec);
-            rescheduleDelivery(delivery.getId(), Instant.now().plusSeconds(delaySec));
-            return;
+            rescheduleDelivery(delivery, Instant.now().plusSeconds(delaySec));
+            return null;
         }
 
         if (!circuitBreakerService.isCallPermitted(endpoint.getId())) {
             log.warn("CircuitBreaker OPEN for endpoint {}, rescheduling delivery {}", endpoint.getId(),
                     delivery.getId());
             saveAttempt(delivery, null, null, null, null, null, "CIRCUIT_BREAKER_OPEN", 0);
-            rescheduleDelivery(delivery.getId(), Instant.now().plusSeconds(30));
-            return;
+            rescheduleDelivery(delivery, Instant.now().plusSeconds(30));
+            return null;
         }
 
         Integer rateLimit = endpoint.getRateLimitPerSecond();
@@ -253,96 +519,115 @@ public class WebhookDeliveryService {
             long delaySec = backoffWithJitter(delivery.getAttemptCount(), 2, 60);
             log.warn("Rate limited for endpoint {}, rescheduling delivery {} in {}s",
                     endpoint.getId(), delivery.getId(), delaySec);
-            rescheduleDelivery(delivery.getId(), Instant.now().plusSeconds(delaySec));
-            return;
+            rescheduleDelivery(delivery, Instant.now().plusSeconds(delaySec));
+            return null;
         }
 
-        if (!concurrencyControlService.tryAcquire(endpoint.getId())) {
+        RedisConcurrencyControlService.Permit permit = concurrencyControlService.tryAcquire(endpoint.getId());
+        if (permit == null) {
             long delaySec = backoffWithJitter(delivery.getAttemptCount(), 2, 60);
             log.warn("Max concurrency reached for endpoint {}, rescheduling delivery {} in {}s",
                     endpoint.getId(), delivery.getId(), delaySec);
-            rescheduleDelivery(delivery.getId(), Instant.now().plusSeconds(delaySec));
-            return;
+            rescheduleDelivery(delivery, Instant.now().plusSeconds(delaySec));
+            return null;
         }
 
         try {
-            UrlValidator.validateWebhookUrl(endpoint.getUrl(), allowPrivateIps, allowedHosts);
-        } catch (UrlValidator.InvalidUrlException e) {
-            log.error("SSRF protection: invalid URL for delivery {}: {}", delivery.getId(), e.getMessage());
-            saveAttempt(delivery, null, null, null, null, null, "SSRF_PROTECTION: " + e.getMessage(),
-                    (int) (System.currentTimeMillis() - startTime));
-            markAsFailed(delivery, "SSRF_PROTECTION: " + e.getMessage());
-            concurrencyControlService.release(endpoint.getId());
-            return;
-        }
-
-        // Increment attempt count NOW — only when we actually attempt the HTTP call
-        transactionTemplate.executeWithoutResult(tx -> deliveryRepository.incrementAttemptCount(delivery.getId()));
-        delivery.setAttemptCount(delivery.getAttemptCount() + 1);
-
-        String secret = decryptSecret(endpoint);
-        String originalPayload = event.getPayload();
-        String template = resolveTransformTemplate(delivery);
-        String body = payloadTransformService.transform(originalPayload, template);
-        long timestamp = System.currentTimeMillis();
-
-        String signature = WebhookSignatureUtils.buildSignatureHeader(secret, timestamp, body);
-
-        String requestHeaders = buildRequestHeadersJson(signature, event.getId().toString(),
-                delivery.getId().toString(), String.valueOf(timestamp));
-
-        Timer.Sample sample = Timer.start(meterRegistry);
-
-        String sequenceHeader = delivery.getSequenceNumber() != null
-                ? String.valueOf(delivery.getSequenceNumber())
-                : "0";
+            try {
+                UrlValidator.validateWebhookUrl(endpoint.getUrl(), allowPrivateIps, allowedHosts);
+            } catch (UrlValidator.InvalidUrlException e) {
+                log.error("SSRF protection: invalid URL for delivery {}: {}", delivery.getId(), e.getMessage());
+                int durationMs = (int) (System.currentTimeMillis() - startTime);
+                saveAttempt(delivery, null, null, null, null, null, "SSRF_PROTECTION: " + e.getMessage(),
+                        durationMs);
+                markAsFailed(delivery, "SSRF_PROTECTION: " + e.getMessage());
+                recordOutcome(delivery, endpoint.getProjectId(), event.getEventType(), durationMs);
+                concurrencyControlService.release(permit);
+                return null;
+            }
 
-        WebClient client = Boolean.TRUE.equals(endpoint.getMtlsEnabled())
-                ? mtlsWebClientFactory.getWebClient(endpoint)
-                : defaultWebClient;
+            // Increment attempt count NOW — only when we actually attempt the HTTP call
+            transactionTemplate.executeWithoutResult(tx -> deliveryRepository.incrementAttemptCount(delivery.getId()));
+            delivery.setAttemptCount(delivery.getAttemptCount() + 1);
+
+            String secret = decryptSecret(endpoint);
+            String originalPayload = event.getPayload();
+            TransformPlan transformPlan = resolveTransformPlan(delivery);
+            String body = payloadTransformService.transform(originalPayload, transformPlan);
+            long timestamp = System.currentTimeMillis();
+
+            String signature = WebhookSignatureUtils.buildSignatureHeader(secret, timestamp, body);
+
+            String requestHeaders = buildRequestHeadersJson(signature, event.getId().toString(),
+                    delivery.getId().toString(), String.valueOf(timestamp));
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+
+            String sequenceHeader = delivery.getSequenceNumber() != null
+                    ? String.valueOf(delivery.getSequenceNumber())
+                    : "0";
+
+            WebClient client = Boolean.TRUE.equals(endpoint.getMtlsEnabled())
+                    ? mtlsWebClientFactory.getWebClient(endpoint)
+                    : defaultWebClient;
+
+            String idempotencyKey = delivery.getIdempotencyKey() != null
+                    ? delivery.getIdempotencyKey()
+                    : event.getId().toString() + "-" + delivery.getEndpointId().toString();
+
+            var requestSpec = client.post()
+                    .uri(endpoint.getUrl())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("X-Signature", signature)
+                    .header("X-Event-Id", event.getId().toString())
+                    .header("X-Delivery-Id", delivery.getId().toString())
+                    .header("X-Timestamp", String.valueOf(timestamp))
+                    .header("X-Sequence-Number", sequenceHeader)
+                    .header("Idempotency-Key", idempotencyKey);
+
+            // Add custom headers if configured
+            addCustomHeaders(requestSpec, delivery.getCustomHeaders());
+
+            return new PreparedAttempt(requestSpec.bodyValue(body), permit, requestHeaders, body,
+                    startTime, sample, clampTimeout(delivery.getTimeoutSeconds()),
+                    endpoint.getProjectId(), event.getEventType());
+        } catch (RuntimeException e) {
+            concurrencyControlService.release(permit);
+            throw e;
+        }
+    }
 
-        String idempotencyKey = delivery.getIdempotencyKey() != null
-                ? delivery.getIdempotencyKey()
-                : event.getId().toString() + "-" + delivery.getEndpointId().toString();
+    private Mono<HttpOutcome> exchange(PreparedAttempt attempt) {
+        return attempt.request()
+                .exchangeToMono(response -> {
+                    int status = response.statusCode().value();
+                    String responseHeaders = buildResponseHeadersJson(response.headers().asHttpHeaders());
+
+                    return response.bodyToMono(String.class)
+                            .defaultIfEmpty("")
+                            .map(responseBody -> new HttpOutcome(status, responseBody, responseHeaders));
+                })
+                .timeout(Duration.ofSeconds(attempt.timeoutSeconds()));
+    }
 
-        var requestSpec = client.post()
-                .uri(endpoint.getUrl())
-                .contentType(MediaType.APPLICATION_JSON)
-                .header("X-Signature", signature)
-                .header("X-Event-Id", event.getId().toString())
-                .header("X-Delivery-Id", delivery.getId().toString())
-                .header("X-Timestamp", String.valueOf(timestamp))
-                .header("X-Sequence-Number", sequenceHeader)
-                .header("Idempotency-Key", idempotencyKey);
+    private void completeAttempt(Delivery delivery, PreparedAttempt attempt, HttpOutcome outcome) {
+        attempt.sample().stop(timerForStatus(outcome.status()));
+        int durationMs = (int) (System.currentTimeMillis() - attempt.startTime());
+        handleResponse(delivery, outcome.status(), outcome.responseBody(), outcome.responseHeaders(),
+                attempt.requestHeaders(), attempt.body(), durationMs);
+        recordOutcome(delivery, attempt.projectId(), attempt.eventType(), durationMs);
+    }
 
-        // Add custom headers if configured
-        addCustomHeaders(requestSpec, delivery.getCustomHeaders());
+    private void failAttempt(Delivery delivery, PreparedAttempt attempt, Throwable error) {
+        log.error("HTTP request failed for delivery {}: {}", delivery.getId(), error.getMessage());
+        int durationMs = (int) (System.currentTimeMillis() - attempt.startTime());
+        handleError(delivery, error, attempt.requestHeaders(), attempt.body(), durationMs);
+        recordOutcome(delivery, attempt.projectId(), attempt.eventType(), durationMs);
+    }
 
-        try {
-            requestSpec.bodyValue(body)
-                    .exchangeToMono(response -> {
-                        int status = response.statusCode().value();
-                        String responseHeaders = buildResponseHeadersJson(response.headers().asHttpHeaders());
-
-                        return response.bodyToMono(String.class)
-                                .defaultIfEmpty("")
-                                .map(responseBody -> {
-                                    sample.stop(timerForStatus(status));
-                                    handleResponse(delivery, status, responseBody, responseHeaders,
-                                            requestHeaders, body,
-                                            (int) (System.currentTimeMillis() - startTime));
-                                    return status;
-                                });
-                    })
-                    .timeout(Duration.ofSeconds(clampTimeout(delivery.getTimeoutSeconds())))
-                    .block();
-        } catch (Exception e) {
-            log.error("HTTP request failed for delivery {}: {}", delivery.getId(), e.getMessage());
-            handleError(delivery, e, requestHeaders, body,
-                    (int) (System.currentTimeMillis() - startTime));
-        } finally {
-            concurrencyControlService.release(endpoint.getId());
-        }
+    private void recordOutcome(Delivery delivery, UUID projectId, String eventType, int durationMs) {
+        statsRecorder.record(delivery, projectId, eventType, durationMs);
+        outcomePublisher.publish(delivery, projectId, durationMs);
     }
 
     private void handleResponse(Delivery delivery, int statusCode, String responseBody,
@@ -405,9 +690,10 @@ public class WebhookDeliveryService {
                 log.warn("Max attempts reached for delivery {}, moving to DLQ", fresh.getId());
                 fresh.setStatus(Delivery.DeliveryStatus.DLQ);
                 fresh.setFailedAt(Instant.now());
+                delivery.setStatus(Delivery.DeliveryStatus.DLQ);
 
                 // For ordered deliveries, advance sequence and release buffered deliveries
-                if (Boolean.TRUE.equals(fresh.getOrderingEnabled()) && fresh.getSequenceNumber() != null) {
+                if (usesRedisOrdering(fresh)) {
                     orderingBufferService.removeFromBuffer(fresh.getEndpointId(), fresh.getId());
                     orderingBufferService.markDelivered(fresh.getEndpointId(), fresh.getSequenceNumber());
                     triggerBufferedDeliveries(fresh.getEndpointId());
@@ -419,6 +705,7 @@ public class WebhookDeliveryService {
             } else {
                 fresh.setStatus(Delivery.DeliveryStatus.PENDING);
                 fresh.setNextRetryAt(calculateNextRetry(fresh.getAttemptCount(), fresh.getRetryDelays()));
+                delivery.setStatus(Delivery.DeliveryStatus.PENDING);
                 log.info("Scheduled retry {} for delivery {} at {}",
                         fresh.getAttemptCount(), fresh.getId(), fresh.getNextRetryAt());
                 fresh.setUpdatedAt(Instant.now());
@@ -446,7 +733,8 @@ public class WebhookDeliveryService {
                     .orderingEnabled(delivery.getOrderingEnabled())
                     .build();
 
-            kafkaTemplate.send(KafkaTopics.DELIVERIES_DLQ, delivery.getEndpointId().toString(), dlqMessage);
+            // JSON regardless of spring.kafka.producer.value-format, see KafkaProducerConfig
+            deadLetterKafkaTemplate.send(KafkaTopics.DELIVERIES_DLQ, delivery.getEndpointId().toString(), dlqMessage);
             log.info("Published DLQ event for delivery {} to {}", delivery.getId(), KafkaTopics.DELIVERIES_DLQ);
         } catch (Exception e) {
             // Best-effort: DB is source of truth, Kafka DLQ is a notification
@@ -491,14 +779,15 @@ public class WebhookDeliveryService {
         return delay - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1);
     }
 
-    private void rescheduleDelivery(UUID deliveryId, Instant nextRetryAt) {
+    private void rescheduleDelivery(Delivery delivery, Instant nextRetryAt) {
         transactionTemplate.executeWithoutResult(tx -> {
-            Delivery fresh = deliveryRepository.findById(deliveryId).orElse(null);
+            Delivery fresh = deliveryRepository.findById(delivery.getId()).orElse(null);
             if (fresh == null) {
-                log.warn("Delivery {} disappeared during reschedule", deliveryId);
+                log.warn("Delivery {} disappeared during reschedule", delivery.getId());
                 return;
             }
             fresh.setStatus(Delivery.DeliveryStatus.PENDING);
+            delivery.setStatus(Delivery.DeliveryStatus.PENDING);
             fresh.setNextRetryAt(nextRetryAt);
             fresh.setUpdatedAt(Instant.now());
             deliveryRepository.save(fresh);
@@ -506,6 +795,13 @@ public class WebhookDeliveryService {
     }
 
     private void markAsSuccess(Delivery delivery) {
+        if (attemptJournal.isBatched() && !usesRedisOrdering(delivery)) {
+            // Nothing to read back: the guarded UPDATE goes out with the attempt row in the next flush
+            attemptJournal.markSucceeded(delivery.getId());
+            delivery.setStatus(Delivery.DeliveryStatus.SUCCESS);
+            log.info("Delivery {} succeeded after {} attempts", delivery.getId(), delivery.getAttemptCount());
+            return;
+        }
         transactionTemplate.executeWithoutResult(tx -> {
             // Re-read to get fresh version after async gap
             Delivery fresh = deliveryRepository.findById(delivery.getId()).orElse(null);
@@ -517,16 +813,27 @@ public class WebhookDeliveryService {
             fresh.setSucceededAt(Instant.now());
             fresh.setUpdatedAt(Instant.now());
             deliveryRepository.save(fresh);
+            delivery.setStatus(Delivery.DeliveryStatus.SUCCESS);
             log.info("Delivery {} succeeded after {} attempts", fresh.getId(), fresh.getAttemptCount());
 
             // For ordered deliveries, advance sequence and trigger buffered deliveries
-            if (Boolean.TRUE.equals(fresh.getOrderingEnabled()) && fresh.getSequenceNumber() != null) {
+            if (usesRedisOrdering(fresh)) {
                 orderingBufferService.markDelivered(fresh.getEndpointId(), fresh.getSequenceNumber());
                 triggerBufferedDeliveries(fresh.getEndpointId());
             }
         });
     }
 
+    /**
+     * True if the delivery is ordered and ordering is enforced here through
+     * {@link OrderingBufferService}. With {@code ordering.mode=partition} the
+     * {@link PartitionOrderedDeliveryEngine} has already released it in order.
+     */
+    private boolean usesRedisOrdering(Delivery delivery) {
+        return !partitionOrdering
+                && Boolean.TRUE.equals(delivery.getOrderingEnabled()) && delivery.getSequenceNumber() != null;
+    }
+
     /**
      * Checks if a delivery can proceed based on ordering constraints.
      * Returns true if delivery can proceed, false if it was buffered/rescheduled.
@@ -604,10 +911,11 @@ public class WebhookDeliveryService {
             fresh.setFailedAt(Instant.now());
             fresh.setUpdatedAt(Instant.now());
             deliveryRepository.save(fresh);
+            delivery.setStatus(Delivery.DeliveryStatus.FAILED);
             log.error("Delivery {} failed: {}", fresh.getId(), reason);
 
             // For ordered deliveries, advance sequence and release buffered deliveries
-            if (Boolean.TRUE.equals(fresh.getOrderingEnabled()) && fresh.getSequenceNumber() != null) {
+            if (usesRedisOrdering(fresh)) {
                 orderingBufferService.removeFromBuffer(fresh.getEndpointId(), fresh.getId());
                 orderingBufferService.markDelivered(fresh.getEndpointId(), fresh.getSequenceNumber());
                 triggerBufferedDeliveries(fresh.getEndpointId());
@@ -635,7 +943,7 @@ public class WebhookDeliveryService {
                 .errorMessage(errorMessage)
                 .durationMs(durationMs)
                 .build();
-        deliveryAttemptRepository.save(attempt);
+        attemptJournal.record(attempt);
     }
 
     private static final String TRUNCATION_MARKER = "\n...[truncated]";
@@ -672,11 +980,12 @@ public class WebhookDeliveryService {
 
     private String decryptSecret(Endpoint endpoint) {
         try {
-            return CryptoUtils.decryptSecret(
-                    endpoint.getSecretEncrypted(),
-                    endpoint.getSecretIv(),
-                    encryptionKey,
-                    encryptionSalt);
+            return secretCache.get(endpoint.getId(), endpoint.getUpdatedAt(),
+                    () -> CryptoUtils.decryptSecret(
+                            endpoint.getSecretEncrypted(),
+                            endpoint.getSecretIv(),
+                            encryptionKey,
+                            encryptionSalt));
         } catch (Exception e) {
             throw new RuntimeException("Failed to decrypt secret for endpoint " + endpoint.getId() +
                     ". Check WEBHOOK_ENCRYPTION_KEY configuration.", e);
@@ -705,16 +1014,16 @@ public class WebhookDeliveryService {
         }
     }
 
-    private String resolveTransformTemplate(Delivery delivery) {
+    private TransformPlan resolveTransformPlan(Delivery delivery) {
         if (delivery.getTransformationId() != null) {
-            String template = transformationCacheService.findEnabledTemplate(delivery.getTransformationId());
-            if (template != null) {
-                return template;
+            Transformation transformation = transformationCacheService.findEnabled(delivery.getTransformationId());
+            if (transformation != null) {
+                return payloadTransformService.plan(transformation);
             }
             log.warn("Transformation {} not found or disabled for delivery {}, falling back to inline payloadTemplate",
                     delivery.getTransformationId(), delivery.getId());
         }
-        return delivery.getPayloadTemplate();
+        return payloadTransformService.plan(delivery.getPayloadTemplate());
     }
 
     private int clampTimeout(Integer timeoutSeconds) {
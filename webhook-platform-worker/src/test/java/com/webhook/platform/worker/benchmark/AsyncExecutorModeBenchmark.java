@@ -0,0 +1,174 @@
+package com.webhook.platform.worker.benchmark;
+
+import com.webhook.platform.worker.service.AsyncDeliveryExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Platform vs virtual {@link AsyncDeliveryExecutor} with 5k concurrent slow deliveries.
+ *
+ * <p>Each task does what a blocking delivery does: a WebClient call to an endpoint
+ * that answers after {@code endpointLatencyMs}, waited on with {@code .block()}.
+ * The semaphore is sized so all deliveries are in flight at once. JMH reports the
+ * wall time of a whole wave; per-delivery p99 latency, peak live threads, peak heap
+ * and peak RSS are printed after each iteration.</p>
+ *
+ * Run {@link #main} from the test classpath (or {@code org.openjdk.jmh.Main AsyncExecutorModeBenchmark}).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g"})
+public class AsyncExecutorModeBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threadMode;
+
+    @Param({"5000"})
+    public int deliveries;
+
+    @Param({"500"})
+    public int endpointLatencyMs;
+
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+    private String url;
+
+    private AsyncDeliveryExecutor executor;
+    private long[] latenciesNanos;
+    private Thread sampler;
+    private volatile boolean sampling;
+    private final AtomicLong peakThreads = new AtomicLong();
+    private final AtomicLong peakHeapBytes = new AtomicLong();
+    private final AtomicLong peakRssKb = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void startEndpoint() {
+        Duration latency = Duration.ofMillis(endpointLatencyMs);
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> Mono.delay(latency)
+                        .then(response.status(200).sendString(Mono.just("ok")).then()))
+                .bindNow();
+        connectionProvider = ConnectionProvider.builder("benchmark")
+                .maxConnections(deliveries)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+        url = "http://127.0.0.1:" + server.port() + "/hook";
+    }
+
+    @TearDown(Level.Trial)
+    public void stopEndpoint() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(10));
+        server.disposeNow();
+    }
+
+    @Setup(Level.Iteration)
+    public void startExecutor() {
+        executor = new AsyncDeliveryExecutor(new SimpleMeterRegistry(), deliveries, 60, threadMode, deliveries);
+        latenciesNanos = new long[deliveries];
+        peakThreads.set(0);
+        peakHeapBytes.set(0);
+        peakRssKb.set(0);
+        sampling = true;
+        sampler = new Thread(this::sample, "benchmark-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopExecutor() throws InterruptedException {
+        sampling = false;
+        sampler.join();
+        executor.shutdown();
+
+        long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+        long p50 = sorted[(int) (sorted.length * 0.50)];
+        long p99 = sorted[(int) Math.min(sorted.length - 1, sorted.length * 0.99)];
+        System.out.printf("%n[%s] p50=%dms p99=%dms peakThreads=%d peakHeap=%dMB peakRss=%dMB%n",
+                threadMode,
+                TimeUnit.NANOSECONDS.toMillis(p50),
+                TimeUnit.NANOSECONDS.toMillis(p99),
+                peakThreads.get(),
+                peakHeapBytes.get() / (1024 * 1024),
+                peakRssKb.get() / 1024);
+    }
+
+    @Benchmark
+    public void deliverWave() {
+        CompletableFuture<?>[] results = new CompletableFuture<?>[deliveries];
+        for (int i = 0; i < deliveries; i++) {
+            int index = i;
+            long submittedAt = System.nanoTime();
+            results[i] = executor.submit(() -> {
+                webClient.post().uri(url).bodyValue("{}").retrieve().toBodilessEntity().block();
+                latenciesNanos[index] = System.nanoTime() - submittedAt;
+            }, "bench-" + i);
+        }
+        CompletableFuture.allOf(results).join();
+    }
+
+    private void sample() {
+        var threads = ManagementFactory.getThreadMXBean();
+        var memory = ManagementFactory.getMemoryMXBean();
+        while (sampling) {
+            peakThreads.accumulateAndGet(threads.getThreadCount(), Math::max);
+            peakHeapBytes.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+            peakRssKb.accumulateAndGet(readRssKb(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static long readRssKb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D+", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not Linux — RSS is reported as 0
+        }
+        return 0;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(AsyncExecutorModeBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,184 @@
+package com.webhook.platform.worker.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of claiming one poll's worth of deliveries against a real Postgres:
+ * the per-record chain ({@code claimForProcessing} + {@code findById} of the delivery,
+ * endpoint and event) versus the batch claim ({@code claimBatchForProcessing}
+ * with {@code RETURNING *} plus one {@code IN} lookup each for endpoints and events).
+ *
+ * <p>Runs the same SQL the repositories issue over plain JDBC so the numbers are not
+ * dominated by persistence-context overhead. Every invocation resets the rows to
+ * PENDING first. Requires Docker.</p>
+ *
+ * Run {@link #main} from the test classpath (or {@code org.openjdk.jmh.Main DeliveryClaimBenchmark}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeliveryClaimBenchmark {
+
+    private static final String CLAIM_ONE = "UPDATE deliveries SET status = 'PROCESSING', " +
+            "last_attempt_at = now(), updated_at = now(), version = version + 1 " +
+            "WHERE id = ? AND status = 'PENDING'";
+    private static final String CLAIM_BATCH = "UPDATE deliveries SET status = 'PROCESSING', " +
+            "last_attempt_at = now(), updated_at = now(), version = version + 1 " +
+            "WHERE id = ANY(?) AND status = 'PENDING' RETURNING *";
+
+    @Param({"500"})
+    public int deliveries;
+
+    @Param({"50"})
+    public int pollSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private final List<UUID> ids = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TABLE endpoints (id UUID PRIMARY KEY, url TEXT NOT NULL)");
+            st.execute("CREATE TABLE events (id UUID PRIMARY KEY, payload TEXT NOT NULL)");
+            st.execute("CREATE TABLE deliveries (id UUID PRIMARY KEY, event_id UUID NOT NULL, " +
+                    "endpoint_id UUID NOT NULL, status VARCHAR(20) NOT NULL, last_attempt_at TIMESTAMP, " +
+                    "updated_at TIMESTAMP, version BIGINT NOT NULL DEFAULT 0)");
+        }
+        UUID endpointId = UUID.randomUUID();
+        try (PreparedStatement endpoint = connection.prepareStatement("INSERT INTO endpoints VALUES (?, 'https://example.com/hook')");
+             PreparedStatement event = connection.prepareStatement("INSERT INTO events VALUES (?, '{\"id\":1}')");
+             PreparedStatement delivery = connection.prepareStatement(
+                     "INSERT INTO deliveries (id, event_id, endpoint_id, status) VALUES (?, ?, ?, 'PENDING')")) {
+            endpoint.setObject(1, endpointId);
+            endpoint.executeUpdate();
+            for (int i = 0; i < deliveries; i++) {
+                UUID eventId = UUID.randomUUID();
+                UUID id = UUID.randomUUID();
+                event.setObject(1, eventId);
+                event.addBatch();
+                delivery.setObject(1, id);
+                delivery.setObject(2, eventId);
+                delivery.setObject(3, endpointId);
+                delivery.addBatch();
+                ids.add(id);
+            }
+            event.executeBatch();
+            delivery.executeBatch();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetToPending() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.executeUpdate("UPDATE deliveries SET status = 'PENDING'");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public int perRecordClaimChain() throws SQLException {
+        int claimed = 0;
+        try (PreparedStatement claim = connection.prepareStatement(CLAIM_ONE);
+             PreparedStatement delivery = connection.prepareStatement("SELECT * FROM deliveries WHERE id = ?");
+             PreparedStatement endpoint = connection.prepareStatement("SELECT * FROM endpoints WHERE id = ?");
+             PreparedStatement event = connection.prepareStatement("SELECT * FROM events WHERE id = ?")) {
+            for (UUID id : ids) {
+                claim.setObject(1, id);
+                if (claim.executeUpdate() != 1) {
+                    continue;
+                }
+                delivery.setObject(1, id);
+                try (ResultSet rs = delivery.executeQuery()) {
+                    rs.next();
+                    endpoint.setObject(1, rs.getObject("endpoint_id"));
+                    event.setObject(1, rs.getObject("event_id"));
+                }
+                try (ResultSet rs = endpoint.executeQuery()) {
+                    rs.next();
+                }
+                try (ResultSet rs = event.executeQuery()) {
+                    rs.next();
+                }
+                claimed++;
+            }
+        }
+        return claimed;
+    }
+
+    @Benchmark
+    public int batchClaim() throws SQLException {
+        int claimed = 0;
+        try (PreparedStatement claim = connection.prepareStatement(CLAIM_BATCH);
+             PreparedStatement endpoints = connection.prepareStatement("SELECT * FROM endpoints WHERE id = ANY(?)");
+             PreparedStatement events = connection.prepareStatement("SELECT * FROM events WHERE id = ANY(?)")) {
+            for (int from = 0; from < ids.size(); from += pollSize) {
+                List<UUID> poll = ids.subList(from, Math.min(from + pollSize, ids.size()));
+                Set<UUID> endpointIds = new LinkedHashSet<>();
+                List<UUID> eventIds = new ArrayList<>();
+                claim.setArray(1, uuidArray(poll));
+                try (ResultSet rs = claim.executeQuery()) {
+                    while (rs.next()) {
+                        endpointIds.add((UUID) rs.getObject("endpoint_id"));
+                        eventIds.add((UUID) rs.getObject("event_id"));
+                        claimed++;
+                    }
+                }
+                endpoints.setArray(1, uuidArray(endpointIds));
+                drain(endpoints);
+                events.setArray(1, uuidArray(eventIds));
+                drain(events);
+            }
+        }
+        return claimed;
+    }
+
+    private Array uuidArray(Collection<UUID> values) throws SQLException {
+        return connection.createArrayOf("uuid", values.toArray());
+    }
+
+    private static void drain(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                rs.getObject(1);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(DeliveryClaimBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,211 @@
+package com.webhook.platform.worker.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import com.webhook.platform.worker.service.PayloadTransformService;
+import com.webhook.platform.worker.service.TransformPlan;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cost of transforming one delivery payload: a cached {@link TransformPlan} streamed through a
+ * {@code JsonGenerator} against the previous per-delivery path, which parsed the template,
+ * regex-scanned every string, resolved JSONPath strings and built a result tree.
+ *
+ * <p>Templates are the kinds customers write: a Slack message (mostly literal blocks with a few
+ * interpolations), a field mapping onto a CRM contact, and a large mapping with nested
+ * literal config and array selections. Run with {@code -prof gc} to compare allocation.</p>
+ *
+ * Run {@link #main} from the test classpath (or {@code org.openjdk.jmh.Main PayloadTransformBenchmark}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadTransformBenchmark {
+
+    private static final String PAYLOAD = """
+            {"id":"evt_8f2c","type":"order.completed","created_at":"2026-03-01T12:00:00Z",
+             "data":{"order_id":"ord_123","amount":1250,"currency":"EUR","status":"paid",
+              "customer":{"id":"cus_9","name":"Ada Lovelace","email":"ada@example.com","tier":"gold",
+               "address":{"city":"Berlin","country":"DE","zip":"10115"}},
+              "items":[{"sku":"SKU-1","name":"Widget","qty":2,"price":400},
+                       {"sku":"SKU-2","name":"Gadget","qty":1,"price":450}],
+              "metadata":{"channel":"web","campaign":"spring"}}}
+            """;
+
+    private static final String SLACK = """
+            {"text":"Order ${$.data.order_id} paid",
+             "blocks":[
+              {"type":"header","text":{"type":"plain_text","text":"New order","emoji":true}},
+              {"type":"section","fields":[
+                {"type":"mrkdwn","text":"*Customer:*\\n${$.data.customer.name} (${$.data.customer.email})"},
+                {"type":"mrkdwn","text":"*Amount:*\\n${$.data.amount} ${$.data.currency}"}]},
+              {"type":"divider"},
+              {"type":"context","elements":[{"type":"mrkdwn","text":"Sent by the webhook platform"}]}]}
+            """;
+
+    private static final String CRM = """
+            {"contact":{"external_id":"${$.data.customer.id}","email":"${$.data.customer.email}",
+              "full_name":"${$.data.customer.name}","segment":"${$.data.customer.tier}",
+              "city":"${$.data.customer.address.city}","country":"${$.data.customer.address.country}"},
+             "deal":{"reference":"${$.data.order_id}","value":"${$.data.amount}","currency":"${$.data.currency}",
+              "stage":"closed_won","source":"webhook"},
+             "event_id":"${$.id}","occurred_at":"${$.created_at}"}
+            """;
+
+    private static final String LARGE = """
+            {"version":2,"event":{"id":"${$.id}","type":"${$.type}","at":"${$.created_at}"},
+             "order":{"id":"${$.data.order_id}","total":"${$.data.amount}","currency":"${$.data.currency}",
+              "status":"${$.data.status}","skus":"${$.data.items[*].sku}","quantities":"${$.data.items[*].qty}",
+              "lines":"${$.data.items}","summary":"${$.data.items.length()} items for ${$.data.amount} ${$.data.currency}"},
+             "customer":"${$.data.customer}",
+             "routing":{"region":"eu-central-1","queue":"orders-high","retry":{"max":5,"backoff":[1,5,30,120,600]},
+              "tags":["orders","payments","eu"],"flags":{"pii":true,"archive":false,"sample":0.25}},
+             "tracking":{"channel":"${$.data.metadata.channel}","campaign":"${$.data.metadata.campaign}",
+              "label":"${$.data.metadata.channel}/${$.data.metadata.campaign}"}}
+            """;
+
+    @Param({"slack", "crm", "large"})
+    public String template;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PayloadTransformService service;
+    private LegacyTransform legacy;
+    private String templateText;
+    private TransformPlan plan;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new PayloadTransformService(objectMapper);
+        legacy = new LegacyTransform(objectMapper);
+        templateText = switch (template) {
+            case "slack" -> SLACK;
+            case "crm" -> CRM;
+            default -> LARGE;
+        };
+        plan = service.plan(templateText);
+        String expected = legacy.transform(PAYLOAD, templateText);
+        if (!expected.equals(service.transform(PAYLOAD, plan))) {
+            throw new IllegalStateException("Compiled plan output differs from the legacy transform");
+        }
+    }
+
+    @Benchmark
+    public String legacy() {
+        return legacy.transform(PAYLOAD, templateText);
+    }
+
+    @Benchmark
+    public String compiled() {
+        return service.transform(PAYLOAD, plan);
+    }
+
+    /** Compiled plan looked up by inline template text, as for deliveries with a payloadTemplate */
+    @Benchmark
+    public String compiledInline() {
+        return service.transform(PAYLOAD, templateText);
+    }
+
+    /**
+     * The tree-walking transform {@link PayloadTransformService} used before compiled plans.
+     */
+    static final class LegacyTransform {
+
+        private static final Pattern JSONPATH_PATTERN = Pattern.compile("\\$\\{([^}]+)}");
+
+        private final ObjectMapper objectMapper;
+        private final Configuration jsonPathConfig = Configuration.builder()
+                .jsonProvider(new JacksonJsonNodeJsonProvider())
+                .mappingProvider(new JacksonMappingProvider())
+                .options(Option.SUPPRESS_EXCEPTIONS)
+                .build();
+
+        LegacyTransform(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+        }
+
+        String transform(String originalPayload, String template) {
+            try {
+                JsonNode sourceNode = objectMapper.readTree(originalPayload);
+                return objectMapper.writeValueAsString(process(objectMapper.readTree(template), sourceNode));
+            } catch (Exception e) {
+                return originalPayload;
+            }
+        }
+
+        private JsonNode process(JsonNode templateNode, JsonNode sourceNode) {
+            if (templateNode.isObject()) {
+                ObjectNode result = objectMapper.createObjectNode();
+                Iterator<Map.Entry<String, JsonNode>> fields = templateNode.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    result.set(field.getKey(), process(field.getValue(), sourceNode));
+                }
+                return result;
+            } else if (templateNode.isArray()) {
+                var result = objectMapper.createArrayNode();
+                for (JsonNode element : templateNode) {
+                    result.add(process(element, sourceNode));
+                }
+                return result;
+            } else if (templateNode.isTextual()) {
+                return text(templateNode.asText(), sourceNode);
+            }
+            return templateNode.deepCopy();
+        }
+
+        private JsonNode text(String text, JsonNode sourceNode) {
+            Matcher matcher = JSONPATH_PATTERN.matcher(text);
+            if (matcher.matches()) {
+                return evaluate(matcher.group(1), sourceNode);
+            } else if (matcher.find()) {
+                matcher.reset();
+                StringBuffer sb = new StringBuffer();
+                while (matcher.find()) {
+                    JsonNode value = evaluate(matcher.group(1), sourceNode);
+                    String replacement = value.isTextual() ? value.asText() : value.toString();
+                    matcher.appendReplacement(sb, Matcher.quoteReplacement(replacement));
+                }
+                matcher.appendTail(sb);
+                return objectMapper.getNodeFactory().textNode(sb.toString());
+            }
+            return objectMapper.getNodeFactory().textNode(text);
+        }
+
+        private JsonNode evaluate(String jsonPath, JsonNode sourceNode) {
+            try {
+                Object result = JsonPath.using(jsonPathConfig).parse(sourceNode).read(jsonPath);
+                if (result == null) {
+                    return objectMapper.getNodeFactory().nullNode();
+                }
+                return result instanceof JsonNode node ? node : objectMapper.valueToTree(result);
+            } catch (Exception e) {
+                return objectMapper.getNodeFactory().nullNode();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PayloadTransformBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.webhook.platform.worker.benchmark;
+
+import com.webhook.platform.worker.service.RedisRateLimiterService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Hot-path cost of {@link RedisRateLimiterService#tryAcquire} with leased token batches,
+ * contended by 4 threads on one endpoint.
+ *
+ * <p>The global bucket is a stub that grants every lease after a simulated
+ * {@code redisRttMicros} round-trip, so the numbers show how rarely the hot path
+ * pays for Redis: with a 10% lease fraction only one acquisition in every
+ * {@code rate * 0.1} triggers a lease. The previous implementation paid three round-trips
+ * ({@code trySetRate}, {@code expire}, {@code tryAcquire}) on every call.</p>
+ *
+ * Run {@link #main} from the test classpath (or {@code org.openjdk.jmh.Main RateLimiterBenchmark}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    @Param({"1000000"})
+    public int ratePerSecond;
+
+    @Param({"250"})
+    public int redisRttMicros;
+
+    private RedisRateLimiterService limiter;
+    private final UUID endpointId = UUID.randomUUID();
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder acquisitions = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RedissonClient redisson = mock(RedissonClient.class);
+        RScript script = mock(RScript.class);
+        when(redisson.getScript(any(Codec.class))).thenReturn(script);
+        when(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    leases.increment();
+                    long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(redisRttMicros);
+                    while (System.nanoTime() < deadline) {
+                        Thread.onSpinWait();
+                    }
+                    return Long.parseLong((String) invocation.getArguments()[5]);
+                });
+        // Lease TTL long enough that batches are consumed, not expired
+        limiter = new RedisRateLimiterService(redisson, new SimpleMeterRegistry(), 0.1, 60_000, 5000);
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%nacquisitions=%d leases=%d (%.5f Redis calls per acquisition)%n",
+                acquisitions.sum(), leases.sum(), (double) leases.sum() / Math.max(1, acquisitions.sum()));
+    }
+
+    @Benchmark
+    public boolean leasedAcquire() {
+        acquisitions.increment();
+        return limiter.tryAcquire(endpointId, ratePerSecond);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
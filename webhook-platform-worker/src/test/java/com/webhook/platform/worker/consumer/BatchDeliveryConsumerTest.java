@@ -0,0 +1,136 @@
+package com.webhook.platform.worker.consumer;
+
+import com.webhook.platform.common.constants.KafkaTopics;
+import com.webhook.platform.common.dto.DeliveryMessage;
+import com.webhook.platform.worker.domain.entity.Delivery;
+import com.webhook.platform.worker.service.AsyncDeliveryExecutor;
+import com.webhook.platform.worker.service.PartitionOrderedDeliveryEngine;
+import com.webhook.platform.worker.service.ReactiveDeliveryExecutor;
+import com.webhook.platform.worker.service.ShutdownRejectedException;
+import com.webhook.platform.worker.service.WebhookDeliveryService;
+import com.webhook.platform.worker.service.WebhookDeliveryService.ClaimedDelivery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BatchDeliveryConsumerTest {
+
+    private WebhookDeliveryService deliveryService;
+    private AsyncDeliveryExecutor executor;
+    private BatchDeliveryConsumer consumer;
+    private Acknowledgment ack;
+
+    @BeforeEach
+    void setUp() {
+        deliveryService = mock(WebhookDeliveryService.class);
+        executor = new AsyncDeliveryExecutor(new SimpleMeterRegistry(), 4, 5);
+        consumer = new BatchDeliveryConsumer(deliveryService, executor, mock(ReactiveDeliveryExecutor.class),
+                mock(PartitionOrderedDeliveryEngine.class), "blocking");
+        ack = mock(Acknowledgment.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private ConsumerRecord<String, DeliveryMessage> record(UUID deliveryId, long offset) {
+        DeliveryMessage message = DeliveryMessage.builder()
+                .deliveryId(deliveryId).eventId(UUID.randomUUID()).endpointId(UUID.randomUUID())
+                .build();
+        return new ConsumerRecord<>(KafkaTopics.DELIVERIES_DISPATCH, 0, offset,
+                message.getEndpointId().toString(), message);
+    }
+
+    private ClaimedDelivery claimed(UUID deliveryId) {
+        return new ClaimedDelivery(Delivery.builder().id(deliveryId).build(), null, null);
+    }
+
+    @Test
+    void allRecordsSucceed_claimsOnceAndAcksBatch() {
+        UUID d1 = UUID.randomUUID();
+        UUID d2 = UUID.randomUUID();
+        when(deliveryService.claimBatch(List.of(d1, d2)))
+                .thenReturn(Map.of(d1, claimed(d1), d2, claimed(d2)));
+
+        consumer.processBatch(List.of(record(d1, 0), record(d2, 1)), ack);
+
+        verify(deliveryService, times(1)).claimBatch(any());
+        verify(deliveryService, times(2)).processClaimedDelivery(any());
+        verify(ack).acknowledge();
+        verify(ack, never()).nack(anyInt(), any(Duration.class));
+    }
+
+    @Test
+    void unclaimedRecordsAreSkippedButAcked() {
+        UUID d1 = UUID.randomUUID();
+        UUID d2 = UUID.randomUUID();
+        when(deliveryService.claimBatch(List.of(d1, d2))).thenReturn(Map.of(d2, claimed(d2)));
+
+        consumer.processBatch(List.of(record(d1, 0), record(d2, 1)), ack);
+
+        verify(deliveryService, times(1)).processClaimedDelivery(any());
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    void duplicateDeliveryInPollIsProcessedOnce() {
+        UUID d1 = UUID.randomUUID();
+        when(deliveryService.claimBatch(List.of(d1))).thenReturn(Map.of(d1, claimed(d1)));
+
+        consumer.processBatch(List.of(record(d1, 0), record(d1, 1)), ack);
+
+        verify(deliveryService, times(1)).processClaimedDelivery(any());
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    void failedRecord_nacksFromFirstFailure() {
+        UUID d1 = UUID.randomUUID();
+        UUID d2 = UUID.randomUUID();
+        UUID d3 = UUID.randomUUID();
+        when(deliveryService.claimBatch(List.of(d1, d2, d3)))
+                .thenReturn(Map.of(d1, claimed(d1), d2, claimed(d2), d3, claimed(d3)));
+        doThrow(new RuntimeException("boom")).when(deliveryService)
+                .processClaimedDelivery(argThat(c -> c.delivery().getId().equals(d2)));
+
+        consumer.processBatch(List.of(record(d1, 0), record(d2, 1), record(d3, 2)), ack);
+
+        verify(ack).nack(eq(1), any(Duration.class));
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    void claimFailure_reseeksWholeBatch() {
+        UUID d1 = UUID.randomUUID();
+        when(deliveryService.claimBatch(any())).thenThrow(new RuntimeException("db down"));
+
+        consumer.processBatch(List.of(record(d1, 0)), ack);
+
+        verify(ack).nack(eq(0), any(Duration.class));
+        verify(deliveryService, never()).processClaimedDelivery(any());
+    }
+
+    @Test
+    void shutdown_neitherAcksNorNacks() {
+        UUID d1 = UUID.randomUUID();
+        when(deliveryService.claimBatch(any())).thenThrow(new ShutdownRejectedException("stopping"));
+
+        consumer.processBatch(List.of(record(d1, 0)), ack);
+
+        verifyNoInteractions(ack);
+    }
+}
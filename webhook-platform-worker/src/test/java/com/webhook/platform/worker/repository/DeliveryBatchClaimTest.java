@@ -0,0 +1,180 @@
+package com.webhook.platform.worker.repository;
+
+import com.webhook.platform.worker.domain.entity.Delivery;
+import com.webhook.platform.worker.domain.entity.Endpoint;
+import com.webhook.platform.worker.domain.entity.Event;
+import com.webhook.platform.worker.domain.repository.DeliveryRepository;
+import com.webhook.platform.worker.domain.repository.EndpointRepository;
+import com.webhook.platform.worker.domain.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch claim against a real Postgres.
+ *
+ * Tests:
+ * 1. claimBatchForProcessing only claims PENDING rows and returns them as PROCESSING
+ * 2. A second claim of the same ids returns nothing (idempotent redelivery)
+ * 3. Claiming poll by poll moves every PENDING row to PROCESSING exactly once and
+ *    leaves other statuses untouched
+ *
+ * Throughput against the per-record claim chain is measured by
+ * {@link com.webhook.platform.worker.benchmark.DeliveryClaimBenchmark}.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration,org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration,org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration"
+})
+class DeliveryBatchClaimTest {
+
+    private static final int DELIVERIES = 200;
+    private static final int POLL_SIZE = 50;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("webhook_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private EndpointRepository endpointRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void claimBatchForProcessing_shouldClaimOnlyPendingOnce() {
+        Endpoint endpoint = persistEndpoint();
+        Delivery pending = persistDelivery(endpoint, persistEvent(endpoint), Delivery.DeliveryStatus.PENDING);
+        Delivery success = persistDelivery(endpoint, persistEvent(endpoint), Delivery.DeliveryStatus.SUCCESS);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Delivery> claimed = deliveryRepository.claimBatchForProcessing(List.of(pending.getId(), success.getId()));
+
+        assertEquals(1, claimed.size());
+        assertEquals(pending.getId(), claimed.get(0).getId());
+        assertEquals(Delivery.DeliveryStatus.PROCESSING, claimed.get(0).getStatus());
+        assertNotNull(claimed.get(0).getLastAttemptAt());
+
+        entityManager.clear();
+        assertTrue(deliveryRepository.claimBatchForProcessing(List.of(pending.getId())).isEmpty());
+    }
+
+    @Test
+    void batchClaim_shouldClaimEveryPendingRowAcrossPollsExactlyOnce() {
+        Endpoint endpoint = persistEndpoint();
+        List<UUID> pendingIds = new ArrayList<>();
+        List<UUID> allIds = new ArrayList<>();
+        for (int i = 0; i < DELIVERIES; i++) {
+            Delivery.DeliveryStatus status = i % 5 == 0 ? Delivery.DeliveryStatus.FAILED : Delivery.DeliveryStatus.PENDING;
+            UUID id = persistDelivery(endpoint, persistEvent(endpoint), status).getId();
+            allIds.add(id);
+            if (status == Delivery.DeliveryStatus.PENDING) {
+                pendingIds.add(id);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Set<UUID> claimedIds = new HashSet<>();
+        for (int from = 0; from < allIds.size(); from += POLL_SIZE) {
+            List<UUID> poll = allIds.subList(from, Math.min(from + POLL_SIZE, allIds.size()));
+            List<Delivery> deliveries = deliveryRepository.claimBatchForProcessing(poll);
+            for (Delivery delivery : deliveries) {
+                assertEquals(Delivery.DeliveryStatus.PROCESSING, delivery.getStatus());
+                assertTrue(claimedIds.add(delivery.getId()), "delivery claimed twice: " + delivery.getId());
+            }
+            assertEquals(deliveries.stream().map(Delivery::getEndpointId).distinct().count(),
+                    endpointRepository.findAllById(deliveries.stream().map(Delivery::getEndpointId).distinct().toList()).size());
+            assertEquals(deliveries.size(),
+                    eventRepository.findAllById(deliveries.stream().map(Delivery::getEventId).toList()).size());
+            entityManager.clear();
+        }
+
+        assertEquals(new HashSet<>(pendingIds), claimedIds);
+        for (UUID id : allIds) {
+            Delivery stored = deliveryRepository.findById(id).orElseThrow();
+            if (claimedIds.contains(id)) {
+                assertEquals(Delivery.DeliveryStatus.PROCESSING, stored.getStatus());
+                assertNotNull(stored.getLastAttemptAt());
+            } else {
+                assertEquals(Delivery.DeliveryStatus.FAILED, stored.getStatus());
+                assertNull(stored.getLastAttemptAt());
+            }
+        }
+        assertTrue(deliveryRepository.claimBatchForProcessing(allIds).isEmpty());
+    }
+
+    private Endpoint persistEndpoint() {
+        Endpoint endpoint = Endpoint.builder()
+                .id(UUID.randomUUID())
+                .projectId(UUID.randomUUID())
+                .url("https://example.com/hook")
+                .secretEncrypted("enc")
+                .secretIv("iv")
+                .enabled(true)
+                .build();
+        return entityManager.persist(endpoint);
+    }
+
+    private Event persistEvent(Endpoint endpoint) {
+        Event event = Event.builder()
+                .id(UUID.randomUUID())
+                .projectId(endpoint.getProjectId())
+                .eventType("order.created")
+                .payload("{\"id\":1}")
+                .createdAt(Instant.now())
+                .build();
+        return entityManager.persist(event);
+    }
+
+    private Delivery persistDelivery(Endpoint endpoint, Event event, Delivery.DeliveryStatus status) {
+        Delivery delivery = Delivery.builder()
+                .id(UUID.randomUUID())
+                .eventId(event.getId())
+                .endpointId(endpoint.getId())
+                .subscriptionId(UUID.randomUUID())
+                .status(status)
+                .attemptCount(0)
+                .maxAttempts(7)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+        return entityManager.persist(delivery);
+    }
+}
@@ -150,4 +150,54 @@ class AsyncDeliveryExecutorTest {
         assertTrue(latch.await(30, TimeUnit.SECONDS));
         assertEquals(count, completed.get());
     }
+
+    @Test
+    void virtualMode_shouldRunTasksOnVirtualThreads() throws Exception {
+        AsyncDeliveryExecutor virtualExecutor = new AsyncDeliveryExecutor(
+                new SimpleMeterRegistry(), 4, 5, AsyncDeliveryExecutor.MODE_VIRTUAL, 100);
+        try {
+            AtomicBoolean virtual = new AtomicBoolean(false);
+            virtualExecutor.submit(() -> virtual.set(Thread.currentThread().isVirtual()), "vt-1").get(5, TimeUnit.SECONDS);
+
+            assertTrue(virtualExecutor.isVirtualThreads());
+            assertTrue(virtual.get(), "task should run on a virtual thread");
+        } finally {
+            virtualExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void virtualMode_semaphoreShouldStayTheConcurrencyLimit() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AsyncDeliveryExecutor virtualExecutor = new AsyncDeliveryExecutor(
+                registry, 4, 5, AsyncDeliveryExecutor.MODE_VIRTUAL, 3);
+        try {
+            CountDownLatch blockLatch = new CountDownLatch(1);
+            CountDownLatch allStarted = new CountDownLatch(3);
+            for (int i = 0; i < 3; i++) {
+                virtualExecutor.submit(() -> {
+                    allStarted.countDown();
+                    try { blockLatch.await(10, TimeUnit.SECONDS); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+                }, "fill-" + i);
+            }
+            assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+
+            assertEquals(3.0, registry.get("async_delivery_in_flight").gauge().value());
+            assertEquals(0.0, registry.get("async_delivery_available_permits").gauge().value());
+
+            AtomicBoolean fourthStarted = new AtomicBoolean(false);
+            Thread submitter = new Thread(() -> virtualExecutor.submit(() -> fourthStarted.set(true), "fourth"));
+            submitter.start();
+            Thread.sleep(300);
+            assertFalse(fourthStarted.get(), "4th task should be blocked by semaphore");
+
+            blockLatch.countDown();
+            submitter.join(5000);
+            Thread.sleep(200);
+            assertTrue(fourthStarted.get(), "4th task should eventually run");
+            assertEquals(3.0, registry.get("async_delivery_available_permits").gauge().value());
+        } finally {
+            virtualExecutor.shutdown();
+        }
+    }
 }
@@ -0,0 +1,205 @@
+package com.webhook.platform.worker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RBucket;
+import org.redisson.api.RKeys;
+import org.redisson.api.RScript;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CircuitBreakerServiceTest {
+
+    private static final RuntimeException FAILURE = new RuntimeException("HTTP 503");
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final UUID endpointId = UUID.randomUUID();
+
+    private RedissonClient redisson;
+    private RTopic topic;
+    private RScript script;
+    private SimpleMeterRegistry registry;
+    private CircuitBreakerService breaker;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisson = mock(RedissonClient.class);
+        topic = mock(RTopic.class);
+        script = mock(RScript.class);
+        when(redisson.getTopic(anyString(), any(Codec.class))).thenReturn(topic);
+        when(redisson.<String>getBucket(anyString(), any(Codec.class))).thenReturn(mock(RBucket.class));
+        when(redisson.getKeys()).thenReturn(mock(RKeys.class));
+        when(redisson.getScript(any(Codec.class))).thenReturn(script);
+
+        registry = new SimpleMeterRegistry();
+        // 50% threshold, 4 min calls, 30s wait, 120s window, 2 probes
+        breaker = new CircuitBreakerService(redisson, registry, 50, 4, 30, 120, 2, now::get);
+    }
+
+    @Test
+    void hotPath_doesNotTouchRedis() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(breaker.isCallPermitted(endpointId));
+            breaker.recordSuccess(endpointId, 10);
+        }
+        verifyNoInteractions(redisson);
+        assertEquals(100.0, decisions("permitted", "local"));
+    }
+
+    @Test
+    void localWindow_tripsAndBroadcastsOpen() {
+        breaker.recordSuccess(endpointId, 10);
+        breaker.recordFailure(endpointId, FAILURE);
+        breaker.recordSuccess(endpointId, 10);
+        assertEquals(CircuitBreakerService.State.CLOSED, breaker.getState(endpointId));
+
+        breaker.recordFailure(endpointId, FAILURE); // 2/4 = 50%
+
+        assertEquals(CircuitBreakerService.State.OPEN, breaker.getState(endpointId));
+        assertFalse(breaker.isCallPermitted(endpointId));
+        assertTrue(breaker.isOpen(endpointId));
+        assertEquals(1.0, decisions("rejected", "local"));
+        ArgumentCaptor<Object> message = ArgumentCaptor.forClass(Object.class);
+        verify(topic).publishAsync(message.capture());
+        assertTrue(message.getValue().toString().contains("|OPEN|" + endpointId + "|30000"));
+    }
+
+    @Test
+    void halfOpen_permitsLimitedProbesAndClosesOnSuccess() {
+        trip();
+        now.addAndGet(30_001);
+
+        assertFalse(breaker.isOpen(endpointId), "isOpen must not report an expired circuit");
+        assertTrue(breaker.isCallPermitted(endpointId));
+        assertEquals(CircuitBreakerService.State.HALF_OPEN, breaker.getState(endpointId));
+        assertTrue(breaker.isCallPermitted(endpointId));
+        assertFalse(breaker.isCallPermitted(endpointId), "only 2 probes in HALF_OPEN");
+
+        breaker.recordSuccess(endpointId, 10);
+        assertEquals(CircuitBreakerService.State.HALF_OPEN, breaker.getState(endpointId));
+        breaker.recordSuccess(endpointId, 10);
+
+        assertEquals(CircuitBreakerService.State.CLOSED, breaker.getState(endpointId));
+        assertTrue(breaker.isCallPermitted(endpointId));
+        ArgumentCaptor<Object> message = ArgumentCaptor.forClass(Object.class);
+        verify(topic, times(2)).publishAsync(message.capture());
+        assertTrue(message.getValue().toString().contains("|CLOSED|" + endpointId));
+    }
+
+    @Test
+    void halfOpen_probeFailureReopens() {
+        trip();
+        now.addAndGet(30_001);
+        assertTrue(breaker.isCallPermitted(endpointId));
+
+        breaker.recordFailure(endpointId, FAILURE);
+
+        assertEquals(CircuitBreakerService.State.OPEN, breaker.getState(endpointId));
+        assertFalse(breaker.isCallPermitted(endpointId));
+    }
+
+    @Test
+    void halfOpen_lostProbesAreForgottenAfterWaitDuration() {
+        trip();
+        now.addAndGet(30_001);
+        assertTrue(breaker.isCallPermitted(endpointId));
+        assertTrue(breaker.isCallPermitted(endpointId));
+        assertFalse(breaker.isCallPermitted(endpointId));
+
+        now.addAndGet(30_001);
+
+        assertTrue(breaker.isCallPermitted(endpointId));
+    }
+
+    @Test
+    void remoteOpen_isAppliedAndTaggedRemote() {
+        breaker.onRemoteEvent("other-pod|OPEN|" + endpointId + "|30000");
+
+        assertFalse(breaker.isCallPermitted(endpointId));
+        assertEquals(1.0, decisions("rejected", "remote"));
+
+        breaker.onRemoteEvent("other-pod|CLOSED|" + endpointId + "|0");
+
+        assertTrue(breaker.isCallPermitted(endpointId));
+        assertEquals(1.0, decisions("permitted", "remote"));
+    }
+
+    @Test
+    void malformedRemoteEvent_isIgnored() {
+        breaker.onRemoteEvent("garbage");
+        breaker.onRemoteEvent("other-pod|OPEN|not-a-uuid|30000");
+
+        assertTrue(breaker.isCallPermitted(endpointId));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_sendsAllDeltasInOneScriptAndAppliesFleetTrip() {
+        UUID other = UUID.randomUUID();
+        breaker.recordSuccess(endpointId, 10);
+        breaker.recordFailure(endpointId, FAILURE);
+        breaker.recordSuccess(other, 10);
+        when(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    List<Object> keys = invocation.getArgument(3);
+                    // Trip whichever endpoint is flushed first, leave the other closed
+                    return keys.get(0).toString().contains(endpointId.toString())
+                            ? List.of(30_000L, 1L, -2L, 0L)
+                            : List.of(-2L, 0L, 30_000L, 1L);
+                });
+
+        breaker.flush();
+
+        ArgumentCaptor<List<Object>> keys = ArgumentCaptor.forClass(List.class);
+        verify(script, times(1)).eval(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.MULTI),
+                keys.capture(), any(Object[].class));
+        assertEquals(6, keys.getValue().size());
+        assertEquals(CircuitBreakerService.State.OPEN, breaker.getState(endpointId));
+        assertEquals(CircuitBreakerService.State.CLOSED, breaker.getState(other));
+        verify(topic).publishAsync(argThat(m -> m.toString().contains("|OPEN|" + endpointId)));
+
+        // Deltas were drained — nothing left to flush
+        breaker.flush();
+        verifyNoMoreInteractions(script);
+    }
+
+    @Test
+    void flush_redisFailureKeepsLocalBreakerWorking() {
+        when(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(Object[].class)))
+                .thenThrow(new RuntimeException("redis down"));
+        breaker.recordFailure(endpointId, FAILURE);
+
+        assertDoesNotThrow(() -> breaker.flush());
+
+        assertEquals(1.0, registry.get("circuit_breaker_flush_failures_total").counter().count());
+        breaker.recordFailure(endpointId, FAILURE);
+        breaker.recordFailure(endpointId, FAILURE);
+        breaker.recordFailure(endpointId, FAILURE);
+        assertFalse(breaker.isCallPermitted(endpointId));
+    }
+
+    private void trip() {
+        for (int i = 0; i < 4; i++) {
+            breaker.recordFailure(endpointId, FAILURE);
+        }
+        assertEquals(CircuitBreakerService.State.OPEN, breaker.getState(endpointId));
+    }
+
+    private double decisions(String result, String source) {
+        return registry.get("circuit_breaker_decisions_total")
+                .tag("result", result).tag("source", source)
+                .counter().count();
+    }
+}
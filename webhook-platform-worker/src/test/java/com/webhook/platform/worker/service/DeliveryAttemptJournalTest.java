@@ -0,0 +1,165 @@
+package com.webhook.platform.worker.service;
+
+import com.webhook.platform.worker.domain.entity.DeliveryAttempt;
+import com.webhook.platform.worker.domain.repository.DeliveryAttemptRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DeliveryAttemptJournalTest {
+
+    private DeliveryAttemptRepository repository;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry registry;
+    private DeliveryAttemptJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(DeliveryAttemptRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.stop();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private DeliveryAttemptJournal newJournal(String mode, long flushIntervalMs, int maxBatchRows) {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        journal = new DeliveryAttemptJournal(repository, jdbcTemplate, transactionTemplate, registry,
+                mode, flushIntervalMs, maxBatchRows, 1000);
+        journal.start();
+        return journal;
+    }
+
+    private DeliveryAttempt attempt(UUID deliveryId) {
+        return DeliveryAttempt.builder()
+                .deliveryId(deliveryId)
+                .attemptNumber(1)
+                .httpStatusCode(200)
+                .requestHeaders("{}")
+                .durationMs(12)
+                .build();
+    }
+
+    @Test
+    void syncMode_savesImmediately() {
+        newJournal(DeliveryAttemptJournal.MODE_SYNC, 20, 200);
+        DeliveryAttempt attempt = attempt(UUID.randomUUID());
+
+        assertTrue(journal.record(attempt).isDone());
+
+        verify(repository).save(attempt);
+        assertTrue(journal.barrier(attempt.getDeliveryId()).isDone());
+        assertThrows(IllegalStateException.class, () -> journal.markSucceeded(UUID.randomUUID()));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchedMode_writesAttemptsAndSuccessesInOneFlush() {
+        newJournal(DeliveryAttemptJournal.MODE_BATCHED, 200, 3);
+        UUID deliveryId = UUID.randomUUID();
+
+        UUID otherId = UUID.randomUUID();
+
+        journal.record(attempt(deliveryId));
+        journal.record(attempt(otherId));
+        journal.markSucceeded(deliveryId);
+        journal.barrier(deliveryId).join(); // max-batch-rows reached: flushed without waiting for the interval
+        journal.barrier(otherId).join();
+
+        verify(jdbcTemplate).batchUpdate(eq(DeliveryAttemptJournal.INSERT_ATTEMPT_SQL),
+                argThat((List<Object[]> rows) -> rows.size() == 2 && rows.get(0)[1].equals(deliveryId)
+                        && rows.get(0)[0] instanceof UUID),
+                any(int[].class));
+        verify(jdbcTemplate).batchUpdate(eq(DeliveryAttemptJournal.MARK_SUCCESS_SQL),
+                argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(deliveryId)),
+                any(int[].class));
+        verifyNoInteractions(repository);
+        assertEquals(3.0, registry.summary("webhook_attempt_journal_batch_rows").totalAmount());
+    }
+
+    @Test
+    void batchedMode_barrierWaitsForTheFlush() throws Exception {
+        newJournal(DeliveryAttemptJournal.MODE_BATCHED, 100, 200);
+
+        UUID deliveryId = UUID.randomUUID();
+        journal.record(attempt(deliveryId));
+        CompletableFuture<Void> barrier = journal.barrier(deliveryId);
+
+        assertFalse(barrier.isDone(), "not acked before the flush");
+        barrier.get(2, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void batchedMode_failedBatchFailsWaitersAfterRetries() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+        newJournal(DeliveryAttemptJournal.MODE_BATCHED, 5, 200);
+
+        UUID deliveryId = UUID.randomUUID();
+        journal.record(attempt(deliveryId));
+
+        assertThrows(CompletionException.class, () -> journal.barrier(deliveryId).join());
+        assertEquals(3.0, registry.counter("webhook_attempt_journal_flush_failures_total").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchedMode_laterBatchCommittingDoesNotReleaseFailedDelivery() throws Exception {
+        UUID failingId = UUID.randomUUID();
+        UUID committedId = UUID.randomUUID();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class))).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (rows.stream().anyMatch(row -> failingId.equals(row[1]))) {
+                throw new DataAccessResourceFailureException("db down");
+            }
+            return new int[rows.size()];
+        });
+        newJournal(DeliveryAttemptJournal.MODE_BATCHED, 5, 1);
+
+        CompletableFuture<Void> failingRow = journal.record(attempt(failingId));
+        CompletableFuture<Void> committedRow = journal.record(attempt(committedId));
+
+        committedRow.get(5, TimeUnit.SECONDS);
+        journal.barrier(committedId).get(5, TimeUnit.SECONDS);
+        assertThrows(CompletionException.class, failingRow::join);
+        assertThrows(CompletionException.class, () -> journal.barrier(failingId).join());
+    }
+
+    @Test
+    void batchedMode_stopDrainsWhatIsBuffered() {
+        newJournal(DeliveryAttemptJournal.MODE_BATCHED, 10_000, 200);
+        journal.record(attempt(UUID.randomUUID()));
+
+        journal.stop();
+        journal = null;
+
+        verify(jdbcTemplate).batchUpdate(eq(DeliveryAttemptJournal.INSERT_ATTEMPT_SQL), anyList(), any(int[].class));
+    }
+}
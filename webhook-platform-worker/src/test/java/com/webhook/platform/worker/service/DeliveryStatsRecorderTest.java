@@ -0,0 +1,160 @@
+package com.webhook.platform.worker.service;
+
+import com.webhook.platform.common.util.LatencyHistogram;
+import com.webhook.platform.worker.domain.entity.Delivery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DeliveryStatsRecorderTest {
+
+    private static final UUID PROJECT = UUID.randomUUID();
+    private static final UUID ENDPOINT = UUID.randomUUID();
+
+    private JdbcTemplate jdbcTemplate;
+    private DeliveryStatsRecorder recorder;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        recorder = new DeliveryStatsRecorder(jdbcTemplate, transactionTemplate, new SimpleMeterRegistry(), true);
+    }
+
+    private Delivery delivery(int attemptCount, Delivery.DeliveryStatus status, Instant createdAt) {
+        return Delivery.builder()
+                .id(UUID.randomUUID())
+                .endpointId(ENDPOINT)
+                .attemptCount(attemptCount)
+                .status(status)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object[]>> flushes(int times) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(times))
+                .batchUpdate(eq(DeliveryStatsRecorder.UPSERT_SQL), rows.capture(), any(int[].class));
+        return rows.getAllValues();
+    }
+
+    /** deliveries, succeeded, failed, attempts, latency_sum_ms, latency_max_ms */
+    private static Object[] counters(Object[] row) {
+        return Arrays.copyOfRange(row, 4, 10);
+    }
+
+    @Test
+    void firstAttemptSuccess_countsDeliveryInCreatedMinuteAndAttemptInCurrentMinute() {
+        Instant createdAt = Instant.now().minus(2, ChronoUnit.HOURS);
+        recorder.record(delivery(1, Delivery.DeliveryStatus.SUCCESS, createdAt), PROJECT, "order.created", 120);
+        recorder.record(delivery(1, Delivery.DeliveryStatus.SUCCESS, createdAt), PROJECT, "order.created", 80);
+
+        recorder.flush();
+
+        List<Object[]> rows = flushes(1).get(0);
+        assertEquals(2, rows.size());
+        // Sorted by (project, bucket): the older delivery bucket comes first
+        assertEquals(createdAt.truncatedTo(ChronoUnit.MINUTES), ((OffsetDateTime) rows.get(0)[3]).toInstant());
+        assertArrayEquals(new Object[] { 2L, 2L, 0L, 0L, 0L, 0 }, counters(rows.get(0)));
+        assertArrayEquals(new Object[] { 0L, 0L, 0L, 2L, 200L, 120 }, counters(rows.get(1)));
+    }
+
+    @Test
+    void retryStillPending_countsOnlyTheAttempt() {
+        Instant createdAt = Instant.now().minus(1, ChronoUnit.HOURS);
+        recorder.record(delivery(3, Delivery.DeliveryStatus.PENDING, createdAt), PROJECT, "order.created", 50);
+
+        recorder.flush();
+
+        List<Object[]> rows = flushes(1).get(0);
+        assertEquals(1, rows.size());
+        assertArrayEquals(new Object[] { 0L, 0L, 0L, 1L, 50L, 50 }, counters(rows.get(0)));
+    }
+
+    @Test
+    void dlqAfterRetries_countsFailedButNotAnotherDelivery() {
+        Instant createdAt = Instant.now().minus(1, ChronoUnit.HOURS);
+        recorder.record(delivery(7, Delivery.DeliveryStatus.DLQ, createdAt), PROJECT, "order.created", null);
+
+        recorder.flush();
+
+        List<Object[]> rows = flushes(1).get(0);
+        assertEquals(1, rows.size());
+        assertArrayEquals(new Object[] { 0L, 0L, 1L, 0L, 0L, 0 }, counters(rows.get(0)));
+    }
+
+    @Test
+    void failedFlush_keepsCountersForNextRun() {
+        Instant createdAt = Instant.now().minus(1, ChronoUnit.HOURS);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+                .thenThrow(new DataAccessResourceFailureException("db down"))
+                .thenReturn(new int[] { 1 });
+        recorder.record(delivery(1, Delivery.DeliveryStatus.FAILED, createdAt), PROJECT, "order.created", null);
+        recorder.flush();
+
+        recorder.record(delivery(1, Delivery.DeliveryStatus.FAILED, createdAt), PROJECT, "order.created", null);
+        recorder.flush();
+
+        List<Object[]> retried = flushes(2).get(1);
+        assertEquals(1, retried.size());
+        assertArrayEquals(new Object[] { 2L, 0L, 2L, 0L, 0L, 0 }, counters(retried.get(0)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void latencyHistogram_isWrittenOnceItsMinuteHasClosed() {
+        Instant createdAt = Instant.now().minus(1, ChronoUnit.HOURS);
+        for (int latency = 1; latency <= 100; latency++) {
+            recorder.record(delivery(1, Delivery.DeliveryStatus.SUCCESS, createdAt), PROJECT, "order.created", latency);
+        }
+
+        recorder.flush(Instant.now().minus(1, ChronoUnit.MINUTES));
+        verify(jdbcTemplate, never()).batchUpdate(eq(DeliveryStatsRecorder.INSERT_LATENCY_SQL), anyList(), any(int[].class));
+
+        recorder.flush(Instant.now().plus(1, ChronoUnit.MINUTES));
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(DeliveryStatsRecorder.INSERT_LATENCY_SQL), rows.capture(), any(int[].class));
+        assertEquals(1, rows.getValue().size());
+        Object[] row = rows.getValue().get(0);
+        assertEquals(PROJECT, row[0]);
+        assertEquals(ENDPOINT, row[1]);
+        LatencyHistogram histogram = LatencyHistogram.fromBytes((byte[]) row[3]);
+        assertEquals(100, histogram.count());
+        assertEquals(99, histogram.valueAt(0.99));
+    }
+
+    @Test
+    void emptyOrDisabled_writesNothing() {
+        recorder.flush();
+
+        DeliveryStatsRecorder disabled = new DeliveryStatsRecorder(jdbcTemplate, mock(TransactionTemplate.class),
+                new SimpleMeterRegistry(), false);
+        disabled.record(delivery(1, Delivery.DeliveryStatus.SUCCESS, Instant.now()), PROJECT, "order.created", 10);
+        disabled.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,129 @@
+package com.webhook.platform.worker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LeasedRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final UUID id = UUID.randomUUID();
+
+    private RScript script;
+    private LeasedRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        RedissonClient redisson = mock(RedissonClient.class);
+        script = mock(RScript.class);
+        when(redisson.getScript(any(Codec.class))).thenReturn(script);
+        // 10% lease fraction, 1s lease TTL, 5s Redis backoff
+        limiter = new LeasedRateLimiter(redisson, new SimpleMeterRegistry(), "endpoint", "rate_lease:endpoint:",
+                0.1, 1000, 5000, now::get);
+    }
+
+    @Test
+    void servesBatchLocallyAfterOneLease() {
+        grantRequested();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(LeasedRateLimiter.Result.ACQUIRED, limiter.tryAcquire(id, 100));
+        }
+        verify(script, times(1)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                eq(List.of("rate_lease:endpoint:" + id)), eq("100"), eq("10"), anyString());
+
+        assertEquals(LeasedRateLimiter.Result.ACQUIRED, limiter.tryAcquire(id, 100));
+        verify(script, times(2)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                anyList(), any(Object[].class));
+    }
+
+    @Test
+    void emptyGlobalBucketRejectsWithoutHammeringRedis() {
+        when(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(Object[].class)))
+                .thenReturn(0L);
+
+        assertEquals(LeasedRateLimiter.Result.REJECTED, limiter.tryAcquire(id, 100));
+        assertEquals(LeasedRateLimiter.Result.REJECTED, limiter.tryAcquire(id, 100));
+        verify(script, times(1)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                anyList(), any(Object[].class));
+
+        now.addAndGet(10); // next token due after 1000/100 ms
+        limiter.tryAcquire(id, 100);
+        verify(script, times(2)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                anyList(), any(Object[].class));
+    }
+
+    @Test
+    void redisFailureReportsUnavailableAndBacksOff() {
+        when(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(Object[].class)))
+                .thenThrow(new RuntimeException("redis down"));
+
+        assertEquals(LeasedRateLimiter.Result.UNAVAILABLE, limiter.tryAcquire(id, 100));
+        assertEquals(LeasedRateLimiter.Result.UNAVAILABLE, limiter.tryAcquire(UUID.randomUUID(), 100));
+        verify(script, times(1)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                anyList(), any(Object[].class));
+
+        now.addAndGet(5000);
+        limiter.tryAcquire(id, 100);
+        verify(script, times(2)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                anyList(), any(Object[].class));
+    }
+
+    @Test
+    void expiredLeaseAndRateChangeTriggerNewLease() {
+        grantRequested();
+
+        limiter.tryAcquire(id, 100);
+        now.addAndGet(1000);
+        limiter.tryAcquire(id, 100); // lease expired
+        limiter.tryAcquire(id, 50);  // rate changed
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(script, times(3)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                anyList(), args.capture());
+        assertEquals("50", args.getAllValues().get(2)[0]);
+        assertEquals("5", args.getAllValues().get(2)[1]);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void returnLeasesGivesBackUnusedTokensInOneCall() {
+        grantRequested();
+        UUID other = UUID.randomUUID();
+        limiter.tryAcquire(id, 100);   // 9 left
+        limiter.tryAcquire(other, 50); // 4 left
+        limiter.tryAcquire(other, 50); // 3 left
+
+        limiter.returnLeases();
+
+        ArgumentCaptor<List<Object>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Object[]> counts = ArgumentCaptor.forClass(Object[].class);
+        // two leases, then one return call
+        verify(script, times(3)).eval(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.INTEGER),
+                keys.capture(), counts.capture());
+        assertEquals(2, keys.getValue().size());
+        int idIndex = keys.getValue().indexOf("rate_lease:endpoint:" + id);
+        assertEquals("9", counts.getValue()[idIndex]);
+        assertEquals("3", counts.getValue()[1 - idIndex]);
+    }
+
+    private void grantRequested() {
+        when(script.eval(any(RScript.Mode.class), anyString(), eq(RScript.ReturnType.INTEGER), anyList(), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    Object[] args = invocation.getArguments();
+                    return args.length > 5 ? Long.parseLong((String) args[5]) : 0L;
+                });
+    }
+}
@@ -0,0 +1,269 @@
+package com.webhook.platform.worker.service;
+
+import com.webhook.platform.common.constants.KafkaTopics;
+import com.webhook.platform.common.dto.DeliveryMessage;
+import com.webhook.platform.worker.domain.entity.Delivery;
+import com.webhook.platform.worker.domain.entity.OrderingCursor;
+import com.webhook.platform.worker.domain.repository.DeliveryRepository;
+import com.webhook.platform.worker.domain.repository.OrderingCursorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PartitionOrderedDeliveryEngineTest {
+
+    private final UUID endpointId = UUID.randomUUID();
+    private final List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Long, List<Delivery.DeliveryStatus>> outcomes = new HashMap<>();
+
+    private WebhookDeliveryService deliveryService;
+    private AsyncDeliveryExecutor executor;
+    private DeliveryRepository deliveryRepository;
+    private OrderingCursorRepository cursorRepository;
+    private SimpleMeterRegistry registry;
+    private PartitionOrderedDeliveryEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        deliveryService = mock(WebhookDeliveryService.class);
+        executor = mock(AsyncDeliveryExecutor.class);
+        deliveryRepository = mock(DeliveryRepository.class);
+        cursorRepository = mock(OrderingCursorRepository.class);
+        // Deliveries run inline; the engine still settles them on its own thread
+        when(executor.submit(any(Runnable.class), anyString())).thenAnswer(invocation -> {
+            invocation.getArgument(0, Runnable.class).run();
+            return CompletableFuture.completedFuture(null);
+        });
+        when(deliveryService.processOrderedDelivery(any())).thenAnswer(invocation -> {
+            long seq = invocation.getArgument(0, DeliveryMessage.class).getSequenceNumber();
+            delivered.add(seq);
+            List<Delivery.DeliveryStatus> queue = outcomes.get(seq);
+            return queue == null || queue.isEmpty() ? Delivery.DeliveryStatus.SUCCESS : queue.remove(0);
+        });
+
+        registry = new SimpleMeterRegistry();
+        engine = newEngine("partition");
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    private PartitionOrderedDeliveryEngine newEngine(String mode) {
+        return new PartitionOrderedDeliveryEngine(deliveryService, executor, mock(ReactiveDeliveryExecutor.class),
+                deliveryRepository, cursorRepository, mockTransactionTemplate(), registry,
+                mode, "blocking", 60, 1000, 200);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TransactionTemplate mockTransactionTemplate() {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, java.util.function.Consumer.class).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        return transactionTemplate;
+    }
+
+    private DeliveryMessage message(long seq) {
+        return DeliveryMessage.builder()
+                .deliveryId(UUID.randomUUID())
+                .eventId(UUID.randomUUID())
+                .endpointId(endpointId)
+                .orderingEnabled(true)
+                .sequenceNumber(seq)
+                .build();
+    }
+
+    private Delivery row(long seq, Instant nextRetryAt) {
+        return Delivery.builder()
+                .id(UUID.randomUUID())
+                .eventId(UUID.randomUUID())
+                .endpointId(endpointId)
+                .subscriptionId(UUID.randomUUID())
+                .status(Delivery.DeliveryStatus.PENDING)
+                .attemptCount(0)
+                .orderingEnabled(true)
+                .sequenceNumber(seq)
+                .nextRetryAt(nextRetryAt)
+                .build();
+    }
+
+    private void awaitDelivered(Long... expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (delivered.size() < expected.length && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50); // nothing beyond the expected sequence may follow
+        assertEquals(List.of(expected), delivered);
+    }
+
+    private long cursor() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        PartitionOrderedDeliveryEngine.Lane lane = engine.lane(endpointId);
+        while (lane.inFlightSeq >= 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        return lane.cursor;
+    }
+
+    @Test
+    void disabled_doesNotTakeRecords() {
+        PartitionOrderedDeliveryEngine redisMode = newEngine("redis");
+        try {
+            assertFalse(redisMode.offer(message(1), 0));
+            verifyNoInteractions(executor);
+        } finally {
+            redisMode.stop();
+        }
+    }
+
+    @Test
+    void unorderedRecord_isNotTaken() {
+        assertFalse(engine.offer(DeliveryMessage.builder().deliveryId(UUID.randomUUID()).endpointId(endpointId).build(), 0));
+    }
+
+    @Test
+    void outOfOrderArrival_isDeliveredInSequence() throws Exception {
+        assertTrue(engine.offer(message(3), 0));
+        assertTrue(engine.offer(message(2), 0));
+        assertTrue(delivered.isEmpty(), "nothing may go out before seq 1");
+
+        engine.offer(message(1), 0);
+
+        awaitDelivered(1L, 2L, 3L);
+        assertEquals(3, cursor());
+        verify(deliveryRepository, never()).findOldestPendingCreatedAt(any(), anyLong());
+        assertEquals(3.0, registry.counter("webhook_ordering_sequence_advanced").count());
+    }
+
+    @Test
+    void rescheduledHead_holdsTheLineUntilItComesBack() throws Exception {
+        outcomes.put(1L, new ArrayList<>(List.of(Delivery.DeliveryStatus.PENDING)));
+        when(deliveryRepository.findOldestPendingCreatedAt(endpointId, 1L)).thenReturn(Instant.now());
+
+        engine.offer(message(1), 0);
+        engine.offer(message(2), 0);
+        awaitDelivered(1L);
+
+        engine.checkGaps(); // seq 1 is young: keep waiting
+        awaitDelivered(1L);
+
+        engine.offer(message(1), 0); // the retry, republished to deliveries.dispatch
+        awaitDelivered(1L, 1L, 2L);
+        assertEquals(2, cursor());
+    }
+
+    @Test
+    void gap_isSkippedOnceMissingSequenceHasNoOpenDelivery() throws Exception {
+        when(deliveryRepository.findOldestPendingCreatedAt(endpointId, 1L)).thenReturn(null);
+
+        engine.offer(message(2), 0);
+        engine.offer(message(3), 0);
+        assertTrue(delivered.isEmpty());
+
+        engine.checkGaps();
+
+        awaitDelivered(2L, 3L);
+        assertEquals(1.0, registry.counter("webhook_ordering_gap_timeout_total").count());
+    }
+
+    @Test
+    void gap_isSkippedOnceMissingDeliveryIsOlderThanGapTimeout() throws Exception {
+        when(deliveryRepository.findOldestPendingCreatedAt(endpointId, 1L))
+                .thenReturn(Instant.now().minusSeconds(61));
+
+        engine.offer(message(2), 0);
+        engine.checkGaps();
+
+        awaitDelivered(2L);
+    }
+
+    @Test
+    void lateSequence_isDeliveredImmediately() throws Exception {
+        when(deliveryRepository.findOldestPendingCreatedAt(endpointId, 1L)).thenReturn(null);
+        engine.offer(message(2), 0);
+        engine.checkGaps();
+        awaitDelivered(2L);
+
+        engine.offer(message(1), 0);
+
+        awaitDelivered(2L, 1L);
+        assertEquals(1.0, registry.counter("webhook_ordering_late_total").count());
+    }
+
+    @Test
+    void cursor_isWrittenBehindOnlyWhenItMoved() throws Exception {
+        engine.offer(message(1), 0);
+        awaitDelivered(1L);
+        cursor();
+
+        engine.flushCursors(List.of(engine.lane(endpointId)));
+        engine.flushCursors(List.of(engine.lane(endpointId)));
+
+        verify(cursorRepository, times(1)).advance(endpointId, 1L);
+    }
+
+    @Test
+    void assignment_rebuildsLaneFromCursorAndOpenRows() throws Exception {
+        int partitions = 6;
+        int partition = PartitionOrderedDeliveryEngine.partitionFor(endpointId, partitions);
+        Consumer<?, ?> consumer = mock(Consumer.class);
+        List<PartitionInfo> infos = new ArrayList<>();
+        for (int i = 0; i < partitions; i++) {
+            infos.add(new PartitionInfo(KafkaTopics.DELIVERIES_DISPATCH, i, null, null, null));
+        }
+        doReturn(infos).when(consumer).partitionsFor(KafkaTopics.DELIVERIES_DISPATCH);
+        when(deliveryRepository.findEndpointIdsWithOpenOrderedDeliveries()).thenReturn(List.of(endpointId));
+        when(cursorRepository.findAllById(any())).thenReturn(List.of(
+                new OrderingCursor(endpointId, 5L, Instant.now())));
+        when(deliveryRepository.findOpenOrderedDeliveries(any())).thenReturn(List.of(
+                row(4, null),                          // skipped earlier, still never sent: late
+                row(6, Instant.now().plusSeconds(60)), // waiting for its retry
+                row(7, null)));                        // buffered by the previous owner
+
+        engine.onPartitionsAssigned(consumer, List.of(
+                new TopicPartition(KafkaTopics.DELIVERIES_DISPATCH, partition),
+                new TopicPartition(KafkaTopics.DELIVERIES_RETRY_1M, partition)));
+
+        awaitDelivered(4L);
+        assertEquals(5, engine.lane(endpointId).cursor);
+        assertEquals(1.0, registry.counter("webhook_ordering_lanes_rebuilt_total").count());
+
+        engine.offer(message(6), partition);
+        awaitDelivered(4L, 6L, 7L);
+    }
+
+    @Test
+    void revoke_flushesCursorAndDropsLane() throws Exception {
+        engine.offer(message(1), 3);
+        awaitDelivered(1L);
+        cursor();
+
+        engine.onPartitionsRevokedBeforeCommit(mock(Consumer.class),
+                List.of(new TopicPartition(KafkaTopics.DELIVERIES_DISPATCH, 3)));
+
+        verify(cursorRepository).advance(endpointId, 1L);
+        assertNull(engine.lane(endpointId));
+    }
+}
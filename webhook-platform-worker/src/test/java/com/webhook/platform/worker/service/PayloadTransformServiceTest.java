@@ -0,0 +1,127 @@
+package com.webhook.platform.worker.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import com.webhook.platform.worker.domain.entity.Transformation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadTransformServiceTest {
+
+    private static final String PAYLOAD = """
+            {"id":"e1","n":5,"f":1.50,"b":true,"nul":null,
+             "data":{"c":{"name":"Ann \\"Q\\"","tags":["a","b"]},"items":[{"p":1},{"p":2.5}]}}
+            """;
+
+    private final PayloadTransformService service = new PayloadTransformService(new ObjectMapper());
+
+    @Test
+    void wholeValueExpressions_keepTheSelectedType() {
+        String template = """
+                {"id":"${$.id}","n":"${$.n}","b":"${$.b}","tags":"${$.data.c.tags}","ps":"${$.data.items[*].p}",
+                 "len":"${$.data.c.tags.length()}","missing":"${$.missing}","bad":"${$..[}"}
+                """;
+
+        assertEquals("{\"id\":\"e1\",\"n\":5,\"b\":true,\"tags\":[\"a\",\"b\"],\"ps\":[1,2.5],"
+                        + "\"len\":2,\"missing\":null,\"bad\":null}",
+                service.transform(PAYLOAD, template));
+    }
+
+    @Test
+    void embeddedExpressions_areInterpolatedAsText() {
+        String template = """
+                {"s":"id=${$.id}, n=${$.n}, m=${$.missing}, name=${$.data.c.name}","two":"${$.id}${$.n}"}
+                """;
+
+        assertEquals("{\"s\":\"id=e1, n=5, m=null, name=Ann \\\"Q\\\"\",\"two\":\"e15\"}",
+                service.transform(PAYLOAD, template));
+    }
+
+    @Test
+    void literals_areCopiedUnchanged() {
+        String template = """
+                ["${$.n}", {"k":"${$.f}","lit":{"a":[1,2.0,true,null,"t"]}}, 1e3, 12345678901234567890,
+                 "plain $ {x}", "${unclosed", {"nested":[["${$.b}"],{"q":"${$.nul}"}]}]
+                """;
+
+        assertEquals("[5,{\"k\":1.5,\"lit\":{\"a\":[1,2.0,true,null,\"t\"]}},1000.0,12345678901234567890,"
+                        + "\"plain $ {x}\",\"${unclosed\",{\"nested\":[[true],{\"q\":null}]}]",
+                service.transform(PAYLOAD, template));
+        assertEquals("42", service.transform(PAYLOAD, "42"));
+        assertEquals("{\"dup\":1}", service.transform(PAYLOAD, "{\"dup\":\"${$.id}\",\"dup\":1}"));
+    }
+
+    @Test
+    void blankOrInvalidTemplateOrPayload_returnsOriginal() {
+        assertSame(PAYLOAD, service.transform(PAYLOAD, (String) null));
+        assertSame(PAYLOAD, service.transform(PAYLOAD, "  "));
+        assertSame(PAYLOAD, service.transform(PAYLOAD, "{bad"));
+        assertNull(service.plan("{bad"));
+        assertEquals("not json", service.transform("not json", "{\"id\":\"${$.id}\"}"));
+    }
+
+    @Test
+    void plans_areCachedByTemplateTextAndTransformationVersion() {
+        String template = "{\"id\":\"${$.id}\"}";
+        TransformPlan inline = service.plan(template);
+        assertSame(inline, service.plan(new String(template)));
+
+        UUID id = UUID.randomUUID();
+        Instant updatedAt = Instant.parse("2026-01-01T00:00:00Z");
+        TransformPlan stored = service.plan(transformation(id, updatedAt, template));
+        assertSame(stored, service.plan(transformation(id, updatedAt, "{\"changed\":true}")));
+
+        TransformPlan edited = service.plan(transformation(id, updatedAt.plusSeconds(1), "{\"changed\":true}"));
+        assertNotSame(stored, edited);
+        assertEquals("{\"changed\":true}", service.transform(PAYLOAD, edited));
+        assertEquals("{\"id\":\"e1\"}", service.transform(PAYLOAD, stored));
+    }
+
+    @Test
+    void plainFieldPaths_selectWhatJsonPathSelects() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Configuration config = Configuration.builder()
+                .jsonProvider(new JacksonJsonNodeJsonProvider())
+                .mappingProvider(new JacksonMappingProvider())
+                .options(Option.SUPPRESS_EXCEPTIONS)
+                .build();
+        List<String> payloads = List.of(PAYLOAD, "[{\"a\":1},[2,3]]", "\"s\"", "null", "{\"big\":12345678901234567890,"
+                + "\"l\":9000000000,\"d\":1e2,\"e\":{},\"a\":[]}");
+        List<String> paths = List.of("$", "$.id", "$.n", "$.f", "$.nul", "$.nul.x", "$.missing", "$.id.x",
+                "$.data.c", "$.data.c.tags[1]", "$.data.c.tags[2]", "$.data.items[1].p", "$.data.items.p",
+                "$.data[0]", "$[0]", "$[0].a", "$[1][1]", "$[1].a", "$.big", "$.l", "$.d", "$.e", "$.a[0]");
+
+        for (String payload : payloads) {
+            JsonNode source = mapper.readTree(payload);
+            for (String path : paths) {
+                Object result = JsonPath.using(config).parse(source).read(path);
+                JsonNode expected = result == null ? NullNode.getInstance()
+                        : result instanceof JsonNode node ? node : mapper.valueToTree(result);
+                String template = "[\"${" + path + "}\",\"<${" + path + "}>\"]";
+                String text = expected.isTextual() ? expected.asText() : expected.toString();
+                assertEquals(mapper.writeValueAsString(List.of(expected, "<" + text + ">")),
+                        service.transform(payload, template), path + " on " + payload);
+            }
+        }
+    }
+
+    private static Transformation transformation(UUID id, Instant updatedAt, String template) {
+        return Transformation.builder()
+                .id(id)
+                .template(template)
+                .enabled(true)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
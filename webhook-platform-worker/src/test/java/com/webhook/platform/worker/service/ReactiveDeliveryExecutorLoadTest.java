@@ -0,0 +1,124 @@
+package com.webhook.platform.worker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives thousands of deliveries against a slow stub endpoint and checks that the
+ * reactive mode keeps them all outstanding at once on a handful of threads, where
+ * the blocking mode would need one thread per in-flight call.
+ */
+class ReactiveDeliveryExecutorLoadTest {
+
+    private static final int DELIVERIES = 2_000;
+    private static final Duration ENDPOINT_LATENCY = Duration.ofSeconds(2);
+
+    private final AtomicInteger serverInFlight = new AtomicInteger();
+    private final AtomicInteger serverPeak = new AtomicInteger();
+
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private Scheduler ioScheduler;
+    private ReactiveDeliveryExecutor executor;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> {
+                    serverPeak.accumulateAndGet(serverInFlight.incrementAndGet(), Math::max);
+                    return Mono.delay(ENDPOINT_LATENCY)
+                            .doFinally(signal -> serverInFlight.decrementAndGet())
+                            .then(response.status(200).sendString(Mono.just("ok")).then());
+                })
+                .bindNow();
+
+        connectionProvider = ConnectionProvider.builder("load-test")
+                .maxConnections(DELIVERIES)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+
+        ioScheduler = Schedulers.newBoundedElastic(4, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "delivery-io-test");
+        executor = new ReactiveDeliveryExecutor(new SimpleMeterRegistry(), DELIVERIES, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        ioScheduler.dispose();
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+        server.disposeNow();
+    }
+
+    @Test
+    void thousandsOfSlowDeliveriesStayInFlightConcurrently() {
+        String url = "http://127.0.0.1:" + server.port() + "/hook";
+        AtomicInteger persisted = new AtomicInteger();
+        int threadsBefore = Thread.activeCount();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> results = new ArrayList<>(DELIVERIES);
+        for (int i = 0; i < DELIVERIES; i++) {
+            results.add(executor.submit(() -> webClient.post().uri(url)
+                    .bodyValue("{}")
+                    .retrieve()
+                    .toBodilessEntity()
+                    // outcome persistence hops to the bounded I/O scheduler, as in the service
+                    .publishOn(ioScheduler)
+                    .doOnNext(entity -> persisted.incrementAndGet())
+                    .then(), "load-" + i));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(DELIVERIES, persisted.get());
+        // Far above what the default blocking pool (async-pool-size=50) could hold open
+        assertTrue(serverPeak.get() >= DELIVERIES / 4,
+                "expected hundreds of deliveries in flight at once, peak was " + serverPeak.get());
+        // Sequential execution would take DELIVERIES * ENDPOINT_LATENCY
+        assertTrue(elapsedMs < 30_000, "took " + elapsedMs + "ms");
+        assertTrue(Thread.activeCount() - threadsBefore < 100,
+                "reactive mode must not need a thread per delivery");
+        assertEquals(0, executor.getInFlightCount());
+    }
+
+    @Test
+    void failedPipelineIsNotAcked() throws Exception {
+        Acknowledgment ack = mock(Acknowledgment.class);
+        Acknowledgment okAck = mock(Acknowledgment.class);
+
+        executor.submit(() -> Mono.error(new IllegalStateException("boom")), ack, "fail-1");
+        executor.submit(Mono::empty, okAck, "ok-1");
+
+        verify(okAck, timeout(5_000)).acknowledge();
+        verify(ack, after(200).never()).acknowledge();
+        assertEquals(0, executor.getInFlightCount());
+    }
+}
@@ -0,0 +1,202 @@
+package com.webhook.platform.worker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RedisConcurrencyControlServiceTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final UUID endpointId = UUID.randomUUID();
+
+    private RScript script;
+    private SimpleMeterRegistry registry;
+    private RedisConcurrencyControlService service;
+
+    @BeforeEach
+    void setUp() {
+        RedissonClient redisson = mock(RedissonClient.class);
+        script = mock(RScript.class);
+        when(redisson.getScript(any(Codec.class))).thenReturn(script);
+        when(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(Object[].class)))
+                .thenReturn(1L);
+        registry = new SimpleMeterRegistry();
+        service = newService(redisson, true);
+    }
+
+    private RedisConcurrencyControlService newService(RedissonClient redisson, boolean releaseBatching) {
+        // 2 permits per endpoint, 90s lease, 30s renewal, 5s Redis backoff
+        return new RedisConcurrencyControlService(redisson, registry, 2, 90_000, 30_000,
+                releaseBatching, 5000, now::get);
+    }
+
+    @Test
+    void acquire_isOneScriptCall_releaseIsNone() {
+        RedisConcurrencyControlService.Permit permit = service.tryAcquire(endpointId);
+
+        assertNotNull(permit);
+        assertFalse(permit.isLocal());
+        assertEquals(1, service.getInFlight(endpointId));
+        verify(script, times(1)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                anyList(), any(Object[].class));
+
+        service.release(permit);
+
+        assertEquals(0, service.getInFlight(endpointId));
+        verifyNoMoreInteractions(script);
+    }
+
+    @Test
+    void releaseOnAnotherThread_isHonoured() throws Exception {
+        RedisConcurrencyControlService.Permit permit = service.tryAcquire(endpointId);
+
+        Thread releaser = new Thread(() -> service.release(permit));
+        releaser.start();
+        releaser.join();
+
+        assertEquals(0, service.getInFlight(endpointId));
+        assertEquals(0.0, registry.get("webhook_concurrency_in_flight")
+                .tag("endpoint_id", endpointId.toString()).gauge().value());
+    }
+
+    @Test
+    void pendingRelease_isReusedWithoutRedis() {
+        RedisConcurrencyControlService.Permit first = service.tryAcquire(endpointId);
+        service.release(first);
+        clearInvocations(script);
+
+        RedisConcurrencyControlService.Permit second = service.tryAcquire(endpointId);
+
+        assertEquals(first.getId(), second.getId());
+        verifyNoInteractions(script);
+        assertEquals(1.0, registry.get("webhook_concurrency_reused_total").counter().count());
+
+        // The reused slot is no longer pending, so nothing is flushed
+        service.flushReleases();
+        verifyNoInteractions(script);
+    }
+
+    @Test
+    void releaseTwice_countsOnce() {
+        RedisConcurrencyControlService.Permit permit = service.tryAcquire(endpointId);
+
+        service.release(permit);
+        service.release(permit);
+
+        assertEquals(0, service.getInFlight(endpointId));
+        assertEquals(1.0, registry.get("webhook_concurrency_released_total").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_sendsAllPendingReleasesInOneScript() {
+        UUID other = UUID.randomUUID();
+        RedisConcurrencyControlService.Permit a = service.tryAcquire(endpointId);
+        RedisConcurrencyControlService.Permit b = service.tryAcquire(endpointId);
+        RedisConcurrencyControlService.Permit c = service.tryAcquire(other);
+        service.release(a);
+        service.release(b);
+        service.release(c);
+        clearInvocations(script);
+
+        service.flushReleases();
+
+        ArgumentCaptor<List<Object>> keys = ArgumentCaptor.forClass(List.class);
+        verify(script, times(1)).eval(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.INTEGER),
+                keys.capture(), any(Object[].class));
+        assertEquals(3, keys.getValue().size());
+        Object[] arguments = mockingDetails(script).getInvocations().iterator().next().getArguments();
+        assertTrue(List.of(arguments).containsAll(List.of(a.getId(), b.getId(), c.getId())));
+
+        service.flushReleases();
+        verifyNoMoreInteractions(script);
+    }
+
+    @Test
+    void releaseWithoutBatching_goesStraightToRedis() {
+        RedissonClient redisson = mock(RedissonClient.class);
+        when(redisson.getScript(any(Codec.class))).thenReturn(script);
+        service = newService(redisson, false);
+        RedisConcurrencyControlService.Permit permit = service.tryAcquire(endpointId);
+        clearInvocations(script);
+
+        service.release(permit);
+
+        verify(script, times(1)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                eq(List.of("concurrency_lease:endpoint:" + endpointId)), eq(permit.getId()));
+    }
+
+    @Test
+    void localLimit_rejectsWithoutRedis() {
+        service.tryAcquire(endpointId);
+        service.tryAcquire(endpointId);
+        clearInvocations(script);
+
+        assertNull(service.tryAcquire(endpointId));
+
+        verifyNoInteractions(script);
+    }
+
+    @Test
+    void redisLimit_rejects() {
+        when(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(Object[].class)))
+                .thenReturn(0L);
+
+        assertNull(service.tryAcquire(endpointId));
+        assertEquals(0, service.getInFlight(endpointId));
+    }
+
+    @Test
+    void redisDown_fallsBackLocallyAndBacksOff() {
+        when(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(Object[].class)))
+                .thenThrow(new RuntimeException("redis down"));
+
+        RedisConcurrencyControlService.Permit first = service.tryAcquire(endpointId);
+        RedisConcurrencyControlService.Permit second = service.tryAcquire(endpointId);
+
+        assertTrue(first.isLocal());
+        assertTrue(second.isLocal());
+        assertNull(service.tryAcquire(endpointId));
+        verify(script, times(1)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                anyList(), any(Object[].class));
+
+        service.release(first);
+        service.flushReleases();
+        assertEquals(1, service.getInFlight(endpointId));
+        verify(script, times(1)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                anyList(), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void renew_extendsAllHeldLeasesInOneScriptAndCountsLost() {
+        service.tryAcquire(endpointId);
+        service.tryAcquire(endpointId);
+        service.tryAcquire(UUID.randomUUID());
+        RedisConcurrencyControlService.Permit released = service.tryAcquire(UUID.randomUUID());
+        service.release(released);
+        clearInvocations(script);
+        when(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(Object[].class)))
+                .thenReturn(2L);
+
+        service.renewLeases();
+
+        ArgumentCaptor<List<Object>> keys = ArgumentCaptor.forClass(List.class);
+        verify(script, times(1)).eval(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.INTEGER),
+                keys.capture(), any(Object[].class));
+        assertEquals(3, keys.getValue().size());
+        assertEquals(1.0, registry.get("webhook_concurrency_leases_lost_total").counter().count());
+    }
+}
@@ -1,5 +1,6 @@
 package com.webhook.platform.worker.service;
 
+import com.webhook.platform.common.constants.KafkaTopics;
 import com.webhook.platform.common.dto.DeliveryMessage;
 import com.webhook.platform.worker.domain.entity.Delivery;
 import com.webhook.platform.worker.domain.repository.DeliveryRepository;
@@ -69,7 +70,7 @@ class RetrySchedulerServiceTest {
                 lenient().when(deliveryRepository.countPending(any(Instant.class))).thenReturn(0L);
 
                 // Circuit breaker should allow all calls by default in tests
-                lenient().when(circuitBreakerService.isCallPermitted(any(UUID.class))).thenReturn(true);
+                lenient().when(circuitBreakerService.isOpen(any(UUID.class))).thenReturn(false);
 
                 retrySchedulerService = new RetrySchedulerService(
                                 deliveryRepository,
@@ -83,7 +84,8 @@ class RetrySchedulerServiceTest {
                                 sendTimeoutSeconds,
                                 rescheduleDelaySeconds,
                                 5000L,   // highWatermark
-                                10000L); // defaultPollIntervalMs
+                                10000L,  // defaultPollIntervalMs
+                                "redis");
         }
 
         @Test
@@ -348,6 +350,40 @@ class RetrySchedulerServiceTest {
                 assertTrue(allSaves.get(1).contains(delivery));
         }
 
+        @Test
+        void scheduleRetries_partitionOrdering_routesOrderedRetriesToDispatch() {
+                RetrySchedulerService partitionScheduler = new RetrySchedulerService(
+                                deliveryRepository, kafkaTemplate, transactionTemplate, circuitBreakerService,
+                                new SimpleMeterRegistry(), batchSize, 10, 30, sendTimeoutSeconds,
+                                rescheduleDelaySeconds, 5000L, 10000L, "partition");
+                Instant now = Instant.now();
+                Delivery ordered = createDelivery(UUID.randomUUID(), 2, now.minusSeconds(10));
+                ordered.setOrderingEnabled(true);
+                ordered.setSequenceNumber(7L);
+                Delivery unordered = createDelivery(UUID.randomUUID(), 2, now.minusSeconds(10));
+
+                when(deliveryRepository.findPendingRetryIds(
+                                any(Delivery.DeliveryStatus.class),
+                                any(Instant.class),
+                                anyInt(),
+                                anyInt(),
+                                anyInt())).thenReturn(List.of(ordered.getId(), unordered.getId()));
+                when(deliveryRepository.lockByIds(anyList())).thenReturn(List.of(ordered, unordered));
+                SendResult<String, DeliveryMessage> sendResult = mockSendResult();
+                when(kafkaTemplate.send(anyString(), anyString(), any(DeliveryMessage.class)))
+                                .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+                partitionScheduler.scheduleRetries(0);
+
+                ArgumentCaptor<DeliveryMessage> orderedMessage = ArgumentCaptor.forClass(DeliveryMessage.class);
+                verify(kafkaTemplate).send(eq(KafkaTopics.DELIVERIES_DISPATCH),
+                                eq(ordered.getEndpointId().toString()), orderedMessage.capture());
+                assertEquals(7L, orderedMessage.getValue().getSequenceNumber());
+                assertEquals(Boolean.TRUE, orderedMessage.getValue().getOrderingEnabled());
+                verify(kafkaTemplate).send(eq(KafkaTopics.DELIVERIES_RETRY_5M),
+                                eq(unordered.getEndpointId().toString()), any(DeliveryMessage.class));
+        }
+
         private Delivery createDelivery(UUID id, int attemptCount, Instant nextRetryAt) {
                 return Delivery.builder()
                                 .id(id)
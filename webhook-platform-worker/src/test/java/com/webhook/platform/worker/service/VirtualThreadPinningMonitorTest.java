@@ -0,0 +1,73 @@
+package com.webhook.platform.worker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private VirtualThreadPinningMonitor monitor;
+    private AsyncDeliveryExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        monitor = new VirtualThreadPinningMonitor(registry, Duration.ofMillis(10));
+        monitor.start();
+        executor = new AsyncDeliveryExecutor(registry, 4, 5, AsyncDeliveryExecutor.MODE_VIRTUAL, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        monitor.stop();
+    }
+
+    @Test
+    void blockingInsideSynchronized_isReported() throws Exception {
+        // JDK 21 pins a virtual thread that parks while holding a monitor
+        Object monitorLock = new Object();
+        executor.submit(() -> {
+            synchronized (monitorLock) {
+                sleep(50);
+            }
+        }, "pinned").get(5, TimeUnit.SECONDS);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (monitor.getPinnedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(monitor.getPinnedCount() > 0, "pinned park should be reported");
+    }
+
+    @Test
+    void blockingInsideReentrantLock_isNotReported() throws Exception {
+        ReentrantLock lock = new ReentrantLock();
+        executor.submit(() -> {
+            lock.lock();
+            try {
+                sleep(50);
+            } finally {
+                lock.unlock();
+            }
+        }, "unpinned").get(5, TimeUnit.SECONDS);
+
+        Thread.sleep(1500); // JFR streams flush roughly once per second
+        assertEquals(0, monitor.getPinnedCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}